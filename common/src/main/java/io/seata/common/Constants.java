@@ -46,6 +46,17 @@ public interface Constants {
      */
     String ROW_LOCK_KEY_SPLIT_CHAR = ";";
 
+    /**
+     * The escape prefix of the lock key pks. An RM with the table locks on prefixes a pk starting with it by one more,
+     * so no row pk is the table lock pk; all the RMs of a resource turn the table locks on together.
+     */
+    String LOCK_PK_ESCAPE = "#";
+
+    /**
+     * The pk of a table lock, the lock key "table:#*" locks all the rows of the table.
+     */
+    String TABLE_LOCK_PK = LOCK_PK_ESCAPE + "*";
+
     /**
      * the start time of transaction
      */
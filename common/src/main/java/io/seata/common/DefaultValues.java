@@ -25,6 +25,7 @@ public interface DefaultValues {
     int DEFAULT_TM_DEGRADE_CHECK_ALLOW_TIMES = 10;
     int DEFAULT_CLIENT_LOCK_RETRY_TIMES = 30;
     boolean DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = true;
+    int DEFAULT_CLIENT_TABLE_LOCK_THRESHOLD = 0;
     int DEFAULT_LOG_EXCEPTION_RATE = 100;
     int DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = 10000;
     int DEFAULT_TM_DEGRADE_CHECK_PERIOD = 2000;
@@ -34,6 +35,7 @@ public interface DefaultValues {
     long DEFAULT_TABLE_META_CHECKER_INTERVAL = 60000L;
     boolean DEFAULT_TM_DEGRADE_CHECK = false;
     boolean DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE = false;
+    boolean DEFAULT_CLIENT_BRANCH_REGISTER_BATCH_ENABLE = false;
     boolean DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE = false;
     boolean DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = false;
 
@@ -51,6 +53,9 @@ public interface DefaultValues {
     boolean DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST = true;
     boolean DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_REQUEST = false;
     boolean DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST = true;
+    int DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE = 128;
+    int DEFAULT_CLIENT_CHANNELS_PER_SERVER = 1;
+    String DEFAULT_CLIENT_CHANNEL_STRIPING = "xid";
 
 
     String DEFAULT_BOSS_THREAD_PREFIX = "NettyBoss";
@@ -178,4 +183,89 @@ public interface DefaultValues {
      * the constant DEFAULT_RPC_TC_REQUEST_TIMEOUT
      */
     long DEFAULT_RPC_TC_REQUEST_TIMEOUT = Duration.ofSeconds(5).toMillis();
+
+    /**
+     * the constant DEFAULT_ENABLE_PARALLEL_HANDLE_BRANCH
+     */
+    boolean DEFAULT_ENABLE_PARALLEL_HANDLE_BRANCH = false;
+
+    /**
+     * the constant DEFAULT_PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY
+     */
+    int DEFAULT_PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY = 16;
+
+    /**
+     * the constant DEFAULT_ENABLE_PARALLEL_HANDLE_MERGED_REQUEST
+     */
+    boolean DEFAULT_ENABLE_PARALLEL_HANDLE_MERGED_REQUEST = false;
+
+    /**
+     * the constant DEFAULT_ENABLE_ASYNC_PHASE_TWO
+     */
+    boolean DEFAULT_ENABLE_ASYNC_PHASE_TWO = false;
+
+    /**
+     * the constant DEFAULT_ACCESS_LOG_BUFFER_SIZE
+     */
+    int DEFAULT_ACCESS_LOG_BUFFER_SIZE = 8192;
+
+    /**
+     * the constant DEFAULT_ACCESS_LOG_SAMPLE_RATE
+     */
+    int DEFAULT_ACCESS_LOG_SAMPLE_RATE = 1;
+
+    /**
+     * the constant DEFAULT_SERVER_EXECUTION_MODEL
+     */
+    String DEFAULT_SERVER_EXECUTION_MODEL = "pool";
+
+    /**
+     * the constant DEFAULT_LOCK_WAIT_TIMEOUT
+     */
+    int DEFAULT_LOCK_WAIT_TIMEOUT = 0;
+
+    /**
+     * the constant DEFAULT_LOCK_CONTENTION_TOP_K
+     */
+    int DEFAULT_LOCK_CONTENTION_TOP_K = 100;
+
+    /**
+     * the constant DEFAULT_SERVER_TABLE_LOCK_ENABLED
+     */
+    boolean DEFAULT_SERVER_TABLE_LOCK_ENABLED = false;
+
+    /**
+     * the constant DEFAULT_LOCK_RELEASE_MAX_BATCH_SIZE
+     */
+    int DEFAULT_LOCK_RELEASE_MAX_BATCH_SIZE = 500;
+
+    /**
+     * the constant DEFAULT_LOCK_RELEASE_MAX_WAIT_MILLS
+     */
+    int DEFAULT_LOCK_RELEASE_MAX_WAIT_MILLS = 0;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_COUNT
+     */
+    int DEFAULT_RECOVERY_SHARD_COUNT = 1;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_QUEUE_SIZE
+     */
+    int DEFAULT_RECOVERY_SHARD_QUEUE_SIZE = 1000;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL, the backoff is disabled if not greater than 0
+     */
+    long DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL = 1000L;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_MAX_INTERVAL
+     */
+    long DEFAULT_RETRY_BACKOFF_MAX_INTERVAL = 60000L;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_JITTER_PERCENT
+     */
+    int DEFAULT_RETRY_BACKOFF_JITTER_PERCENT = 20;
 }
@@ -0,0 +1,401 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A concurrent map keyed by primitive longs, the keys are never boxed.
+ * <p>
+ * The map is split into segments, every segment is an open addressing table with linear probing, guarded by a
+ * {@link StampedLock}: the reads are optimistic and only take the read lock if a write happened meanwhile, the
+ * writes take the write lock of their segment. The removal shifts the following entries back instead of leaving
+ * tombstones, so the tables never fill up with deleted entries. Null values are not supported.
+ *
+ * @param <V> the type of the values
+ */
+public class ConcurrentLongHashMap<V> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private static final float FILL_FACTOR = 0.66f;
+
+    private final Segment<V>[] segments;
+
+    /**
+     * Instantiates a new Concurrent long hash map.
+     */
+    public ConcurrentLongHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Instantiates a new Concurrent long hash map.
+     *
+     * @param initialCapacity  the expected number of entries
+     * @param concurrencyLevel the number of segments, rounded up to a power of 2
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongHashMap(int initialCapacity, int concurrencyLevel) {
+        int segmentCount = tableSizeFor(Math.max(1, concurrencyLevel));
+        int segmentCapacity = tableSizeFor(
+            Math.max(2, (int)Math.ceil(Math.max(1, initialCapacity) / (double)segmentCount / FILL_FACTOR)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets the value of the key.
+     *
+     * @param key the key
+     * @return the value, null if absent
+     */
+    public V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, (int)hash);
+    }
+
+    /**
+     * Whether the key is present.
+     *
+     * @param key the key
+     * @return true if present
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Put the value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, null if absent
+     */
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        return segmentFor(hash).put(key, (int)hash, value, false);
+    }
+
+    /**
+     * Put the value if the key is absent.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the present value, null if absent and the value is put
+     */
+    public V putIfAbsent(long key, V value) {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        return segmentFor(hash).put(key, (int)hash, value, true);
+    }
+
+    /**
+     * Remove the key.
+     *
+     * @param key the key
+     * @return the removed value, null if absent
+     */
+    public V remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).remove(key, (int)hash, null);
+    }
+
+    /**
+     * Remove the key only if it is mapped to the value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if removed
+     */
+    public boolean remove(long key, V value) {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        return segmentFor(hash).remove(key, (int)hash, value) != null;
+    }
+
+    /**
+     * Gets the number of the entries.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Whether the map is empty.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        for (Segment<V> segment : segments) {
+            if (segment.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a snapshot of the values, consistent per segment.
+     *
+     * @return the values
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        for (Segment<V> segment : segments) {
+            segment.values(values);
+        }
+        return values;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int)(hash >>> 32) & (segments.length - 1)];
+    }
+
+    /**
+     * Spread the bits of the key, the high half picks the segment and the low half the bucket.
+     */
+    static long hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static final class Table {
+
+        private final long[] keys;
+
+        private final Object[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment<V> extends StampedLock {
+
+        private volatile Table table;
+
+        private volatile int size;
+
+        private int resizeThreshold;
+
+        private Segment(int capacity) {
+            this.table = new Table(capacity);
+            this.resizeThreshold = (int)(capacity * FILL_FACTOR);
+        }
+
+        V get(long key, int hash) {
+            long stamp = tryOptimisticRead();
+            Object value = find(table, key, hash);
+            if (!validate(stamp)) {
+                stamp = readLock();
+                try {
+                    value = find(table, key, hash);
+                } finally {
+                    unlockRead(stamp);
+                }
+            }
+            return cast(value);
+        }
+
+        /**
+         * Probe the table, which may be changed meanwhile by an optimistic read: the probes are bounded and the
+         * indexes masked, so a torn read returns a wrong answer at worst, which the validation then discards.
+         */
+        private static Object find(Table table, long key, int hash) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[index] == key) {
+                    return value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        V put(long key, int hash, V value, boolean onlyIfAbsent) {
+            long stamp = writeLock();
+            try {
+                Table current = table;
+                int mask = current.keys.length - 1;
+                int index = hash & mask;
+                while (true) {
+                    Object present = current.values[index];
+                    if (present == null) {
+                        current.keys[index] = key;
+                        current.values[index] = value;
+                        if (++size > resizeThreshold) {
+                            rehash(current.keys.length << 1);
+                        }
+                        return null;
+                    }
+                    if (current.keys[index] == key) {
+                        if (!onlyIfAbsent) {
+                            current.values[index] = value;
+                        }
+                        return cast(present);
+                    }
+                    index = (index + 1) & mask;
+                }
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        V remove(long key, int hash, V expectedValue) {
+            long stamp = writeLock();
+            try {
+                Table current = table;
+                long[] keys = current.keys;
+                Object[] values = current.values;
+                int mask = keys.length - 1;
+                int index = hash & mask;
+                while (true) {
+                    Object present = values[index];
+                    if (present == null) {
+                        return null;
+                    }
+                    if (keys[index] == key) {
+                        if (expectedValue != null && !expectedValue.equals(present)) {
+                            return null;
+                        }
+                        shiftBack(current, index);
+                        size--;
+                        return cast(present);
+                    }
+                    index = (index + 1) & mask;
+                }
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Empty the bucket and move back the following entries of the probe sequence, which would not be found
+         * any more otherwise.
+         */
+        private static void shiftBack(Table table, int emptied) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            values[emptied] = null;
+            int index = emptied;
+            while (true) {
+                index = (index + 1) & mask;
+                if (values[index] == null) {
+                    return;
+                }
+                int home = (int)hash(keys[index]) & mask;
+                boolean stays = emptied <= index ? emptied < home && home <= index : emptied < home || home <= index;
+                if (stays) {
+                    continue;
+                }
+                keys[emptied] = keys[index];
+                values[emptied] = values[index];
+                values[index] = null;
+                emptied = index;
+            }
+        }
+
+        private void rehash(int capacity) {
+            Table current = table;
+            Table resized = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < current.keys.length; i++) {
+                Object value = current.values[i];
+                if (value == null) {
+                    continue;
+                }
+                long key = current.keys[i];
+                int index = (int)hash(key) & mask;
+                while (resized.values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                resized.keys[index] = key;
+                resized.values[index] = value;
+            }
+            table = resized;
+            resizeThreshold = (int)(capacity * FILL_FACTOR);
+        }
+
+        void values(List<V> collector) {
+            long stamp = readLock();
+            try {
+                for (Object value : table.values) {
+                    if (value != null) {
+                        collector.add(cast(value));
+                    }
+                }
+            } finally {
+                unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = writeLock();
+            try {
+                table = new Table(table.keys.length);
+                size = 0;
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V cast(Object value) {
+            return (V)value;
+        }
+    }
+}
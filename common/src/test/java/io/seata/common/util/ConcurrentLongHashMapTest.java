@@ -0,0 +1,131 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.common.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Concurrent long hash map test.
+ */
+public class ConcurrentLongHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        ConcurrentLongHashMap<String> map = new ConcurrentLongHashMap<>(4, 1);
+        Assertions.assertNull(map.put(1L, "a"));
+        Assertions.assertNull(map.put(0L, "zero"));
+        Assertions.assertNull(map.put(-1L, "minus"));
+        Assertions.assertEquals("a", map.put(1L, "b"));
+        Assertions.assertEquals("b", map.putIfAbsent(1L, "c"));
+        Assertions.assertEquals("b", map.get(1L));
+        Assertions.assertEquals("zero", map.get(0L));
+        Assertions.assertEquals("minus", map.get(-1L));
+        Assertions.assertEquals(3, map.size());
+
+        Assertions.assertFalse(map.remove(1L, "a"));
+        Assertions.assertTrue(map.remove(1L, "b"));
+        Assertions.assertNull(map.remove(1L));
+        Assertions.assertFalse(map.containsKey(1L));
+        Assertions.assertEquals(2, map.size());
+
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertNull(map.get(0L));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>(8, 2);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // a small key space, so the probe sequences collide and the removals shift the entries back
+            long key = random.nextInt(2048) * 4096L;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assertions.assertEquals(expected.put(key, (long)i), map.put(key, (long)i));
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        List<Long> values = map.values();
+        Assertions.assertEquals(expected.size(), values.size());
+        Assertions.assertTrue(expected.values().containsAll(values));
+    }
+
+    @Test
+    public void testConcurrentReadWrite() throws Exception {
+        ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>();
+        // the stable keys are always present, whatever the writers do to the others
+        for (long key = 0; key < 1000; key++) {
+            map.put(key, key);
+        }
+        int threads = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads * 2);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        CountDownLatch latch = new CountDownLatch(threads * 2);
+        for (int t = 0; t < threads; t++) {
+            long base = 1_000_000L * (t + 1);
+            executorService.execute(() -> {
+                try {
+                    for (int round = 0; round < 20; round++) {
+                        for (long key = base; key < base + 5000; key++) {
+                            map.put(key, key);
+                        }
+                        for (long key = base; key < base + 5000; key++) {
+                            if (!Long.valueOf(key).equals(map.remove(key))) {
+                                failed.set(true);
+                            }
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+            executorService.execute(() -> {
+                try {
+                    Random random = new Random();
+                    for (int i = 0; i < 500_000; i++) {
+                        long key = random.nextInt(1000);
+                        if (!Long.valueOf(key).equals(map.get(key))) {
+                            failed.set(true);
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        Assertions.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        executorService.shutdown();
+        Assertions.assertFalse(failed.get());
+        Assertions.assertEquals(1000, map.size());
+    }
+}
@@ -15,6 +15,9 @@
  */
 package io.seata.core.compressor;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  * @author jsbxyyx
  */
@@ -34,4 +37,26 @@ public interface Compressor {
      */
     byte[] decompress(byte[] bytes);
 
+    /**
+     * compress the readable bytes of in, which are all consumed, into out.
+     * @param in the buffer to read from
+     * @param out the buffer to write to
+     */
+    default void compress(ByteBuf in, ByteBuf out) {
+        byte[] bytes = ByteBufUtil.getBytes(in);
+        in.skipBytes(bytes.length);
+        out.writeBytes(compress(bytes));
+    }
+
+    /**
+     * decompress the readable bytes of in, which are all consumed, into out.
+     * @param in the buffer to read from
+     * @param out the buffer to write to
+     */
+    default void decompress(ByteBuf in, ByteBuf out) {
+        byte[] bytes = ByteBufUtil.getBytes(in);
+        in.skipBytes(bytes.length);
+        out.writeBytes(decompress(bytes));
+    }
+
 }
@@ -0,0 +1,88 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.console.vo;
+
+import java.util.Map;
+
+/**
+ * LockContentionVO, the lock conflicts and hold times of a resource
+ */
+public class LockContentionVO {
+
+    private String resourceId;
+
+    private long conflicts;
+
+    private long holds;
+
+    private long maxHoldTime;
+
+    /**
+     * the number of the holds by the upper bound of their time, in milliseconds
+     */
+    private Map<String, Long> holdTimeHistogram;
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(String resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public long getHolds() {
+        return holds;
+    }
+
+    public void setHolds(long holds) {
+        this.holds = holds;
+    }
+
+    public long getMaxHoldTime() {
+        return maxHoldTime;
+    }
+
+    public void setMaxHoldTime(long maxHoldTime) {
+        this.maxHoldTime = maxHoldTime;
+    }
+
+    public Map<String, Long> getHoldTimeHistogram() {
+        return holdTimeHistogram;
+    }
+
+    public void setHoldTimeHistogram(Map<String, Long> holdTimeHistogram) {
+        this.holdTimeHistogram = holdTimeHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return "LockContentionVO{" +
+                "resourceId='" + resourceId + '\'' +
+                ", conflicts=" + conflicts +
+                ", holds=" + holds +
+                ", maxHoldTime=" + maxHoldTime +
+                ", holdTimeHistogram=" + holdTimeHistogram +
+                '}';
+    }
+}
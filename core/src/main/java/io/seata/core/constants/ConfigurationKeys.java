@@ -146,6 +146,10 @@ public interface ConfigurationKeys {
      * The constant CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT.
      */
     String CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = CLIENT_RM_LOCK_PREFIX + "retryPolicyBranchRollbackOnConflict";
+    /**
+     * The constant CLIENT_TABLE_LOCK_THRESHOLD.
+     */
+    String CLIENT_TABLE_LOCK_THRESHOLD = CLIENT_RM_LOCK_PREFIX + "tableLockThreshold";
 
     /**
      * The constant SERVICE_SESSION_RELOAD_READ_SIZE
@@ -162,6 +166,11 @@ public interface ConfigurationKeys {
      */
     String CLIENT_SAGA_BRANCH_REGISTER_ENABLE = CLIENT_RM_PREFIX + "sagaBranchRegisterEnable";
 
+    /**
+     * The constant CLIENT_BRANCH_REGISTER_BATCH_ENABLE.
+     */
+    String CLIENT_BRANCH_REGISTER_BATCH_ENABLE = CLIENT_RM_PREFIX + "branchRegisterBatchEnable";
+
     /**
      * The constant CLIENT_SAGA_JSON_PARSER.
      */
@@ -308,6 +317,16 @@ public interface ConfigurationKeys {
      */
     String LOCK_DB_TABLE = STORE_DB_PREFIX + "lockTable";
 
+    /**
+     * The constant STORE_DB_LOCK_RELEASE_MAX_BATCH_SIZE.
+     */
+    String STORE_DB_LOCK_RELEASE_MAX_BATCH_SIZE = STORE_DB_PREFIX + "lockReleaseMaxBatchSize";
+
+    /**
+     * The constant STORE_DB_LOCK_RELEASE_MAX_WAIT_MILLS.
+     */
+    String STORE_DB_LOCK_RELEASE_MAX_WAIT_MILLS = STORE_DB_PREFIX + "lockReleaseMaxWaitMills";
+
     /**
      * The constant SERVER_RPC_PORT.
      */
@@ -347,6 +366,31 @@ public interface ConfigurationKeys {
      */
     String TIMEOUT_RETRY_PERIOD = RECOVERY_PREFIX + "timeoutRetryPeriod";
 
+    /**
+     * The constant RECOVERY_SHARD_COUNT.
+     */
+    String RECOVERY_SHARD_COUNT = RECOVERY_PREFIX + "shardCount";
+
+    /**
+     * The constant RECOVERY_SHARD_QUEUE_SIZE.
+     */
+    String RECOVERY_SHARD_QUEUE_SIZE = RECOVERY_PREFIX + "shardQueueSize";
+
+    /**
+     * The constant RETRY_BACKOFF_INITIAL_INTERVAL.
+     */
+    String RETRY_BACKOFF_INITIAL_INTERVAL = RECOVERY_PREFIX + "retryBackoffInitialInterval";
+
+    /**
+     * The constant RETRY_BACKOFF_MAX_INTERVAL.
+     */
+    String RETRY_BACKOFF_MAX_INTERVAL = RECOVERY_PREFIX + "retryBackoffMaxInterval";
+
+    /**
+     * The constant RETRY_BACKOFF_JITTER_PERCENT.
+     */
+    String RETRY_BACKOFF_JITTER_PERCENT = RECOVERY_PREFIX + "retryBackoffJitterPercent";
+
     /**
      * The constant CLIENT_UNDO_PREFIX.
      */
@@ -464,6 +508,57 @@ public interface ConfigurationKeys {
      */
     String DISTRIBUTED_LOCK_EXPIRE_TIME = SERVER_PREFIX + "distributedLockExpireTime";
 
+    /**
+     * The constant ENABLE_PARALLEL_HANDLE_BRANCH.
+     */
+    String ENABLE_PARALLEL_HANDLE_BRANCH = SERVER_PREFIX + "enableParallelHandleBranch";
+
+    /**
+     * The constant PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY.
+     */
+    String PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY = SERVER_PREFIX + "parallelHandleBranchMaxConcurrency";
+
+    /**
+     * The constant ENABLE_PARALLEL_HANDLE_MERGED_REQUEST.
+     */
+    String ENABLE_PARALLEL_HANDLE_MERGED_REQUEST = SERVER_PREFIX + "enableParallelHandleMergedRequest";
+
+    /**
+     * The constant ENABLE_ASYNC_PHASE_TWO.
+     */
+    String ENABLE_ASYNC_PHASE_TWO = SERVER_PREFIX + "enableAsyncPhaseTwo";
+
+    /**
+     * The constant ACCESS_LOG_BUFFER_SIZE.
+     */
+    String ACCESS_LOG_BUFFER_SIZE = SERVER_PREFIX + "accessLogBufferSize";
+
+    /**
+     * The constant ACCESS_LOG_SAMPLE_RATE.
+     */
+    String ACCESS_LOG_SAMPLE_RATE = SERVER_PREFIX + "accessLogSampleRate";
+
+    /**
+     * The constant SERVER_EXECUTION_MODEL.
+     */
+    String SERVER_EXECUTION_MODEL = SERVER_PREFIX + "executionModel";
+
+    /**
+     * The constant LOCK_WAIT_TIMEOUT, at most 1000 ms: the branch register waits holding the lock of its global
+     * session, which the other requests of the global wait 2000 ms for.
+     */
+    String LOCK_WAIT_TIMEOUT = SERVER_PREFIX + "lockWaitTimeout";
+
+    /**
+     * The constant LOCK_CONTENTION_TOP_K.
+     */
+    String LOCK_CONTENTION_TOP_K = SERVER_PREFIX + "lockContentionTopK";
+
+    /**
+     * The constant SERVER_TABLE_LOCK_ENABLED.
+     */
+    String SERVER_TABLE_LOCK_ENABLED = SERVER_PREFIX + "tableLockEnabled";
+
     /**
      * The constant MIN_SERVER_POOL_SIZE.
      */
@@ -585,6 +680,21 @@ public interface ConfigurationKeys {
      */
     String ENABLE_RM_CLIENT_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableRmClientBatchSendRequest";
 
+    /**
+     * The constant CLIENT_BATCH_SEND_MAX_SIZE
+     */
+    String CLIENT_BATCH_SEND_MAX_SIZE = TRANSPORT_PREFIX + "clientBatchSendMaxSize";
+
+    /**
+     * The constant CLIENT_CHANNELS_PER_SERVER
+     */
+    String CLIENT_CHANNELS_PER_SERVER = TRANSPORT_PREFIX + "clientChannelsPerServer";
+
+    /**
+     * The constant CLIENT_CHANNEL_STRIPING
+     */
+    String CLIENT_CHANNEL_STRIPING = TRANSPORT_PREFIX + "clientChannelStriping";
+
     /**
      * The constant DISABLE_GLOBAL_TRANSACTION.
      */
@@ -67,6 +67,16 @@ public class RedisKeyConstants {
      */
     public static final String REDIS_KEY_GLOBAL_APPLICATION_DATA = "applicationData";
 
+    /**
+     * The constant redis key of global transaction name retryCount
+     */
+    public static final String REDIS_KEY_GLOBAL_RETRY_COUNT = "retryCount";
+
+    /**
+     * The constant redis key of global transaction name nextRetryTime
+     */
+    public static final String REDIS_KEY_GLOBAL_NEXT_RETRY_TIME = "nextRetryTime";
+
     /**
      * The constant redis key of global transaction name gmtCreate
      */
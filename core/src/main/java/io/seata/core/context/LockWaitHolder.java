@@ -0,0 +1,45 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.context;
+
+/**
+ * Whether the current thread may wait on the server for a conflicting lock. The request processor allows it while
+ * a request handler thread runs the request, never on an io thread.
+ */
+public class LockWaitHolder {
+
+    private static final ThreadLocal<Boolean> HOLDER = new ThreadLocal<>();
+
+    /**
+     * Whether the current thread may wait for a conflicting lock.
+     *
+     * @return true if allowed
+     */
+    public static boolean isLockWaitAllowed() {
+        return HOLDER.get() != null;
+    }
+
+    /**
+     * Allow the current thread to wait for a conflicting lock, until {@link #remove()}.
+     */
+    public static void allowLockWait() {
+        HOLDER.set(Boolean.TRUE);
+    }
+
+    public static void remove() {
+        HOLDER.remove();
+    }
+}
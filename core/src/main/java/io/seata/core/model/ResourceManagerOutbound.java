@@ -15,6 +15,8 @@
  */
 package io.seata.core.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.seata.core.exception.TransactionException;
 
 /**
@@ -63,4 +65,49 @@ public interface ResourceManagerOutbound {
      */
     boolean lockQuery(BranchType branchType, String resourceId, String xid, String lockKeys)
         throws TransactionException;
+
+    /**
+     * Branch register without waiting for the TC, see {@link #branchRegister}.
+     * The default implementation waits, the ones talking to the TC through the network should override it.
+     *
+     * @param branchType      the branch type
+     * @param resourceId      the resource id
+     * @param clientId        the client id
+     * @param xid             the xid
+     * @param applicationData the context
+     * @param lockKeys        the lock keys
+     * @return the future of the branch id, failed with the TransactionException
+     */
+    default CompletableFuture<Long> branchRegisterAsync(BranchType branchType, String resourceId, String clientId,
+                                                        String xid, String applicationData, String lockKeys) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        try {
+            future.complete(branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys));
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Branch report without waiting for the TC, see {@link #branchReport}.
+     *
+     * @param branchType      the branch type
+     * @param xid             the xid
+     * @param branchId        the branch id
+     * @param status          the status
+     * @param applicationData the application data
+     * @return the future completed once reported, failed with the TransactionException
+     */
+    default CompletableFuture<Void> branchReportAsync(BranchType branchType, String xid, long branchId,
+                                                      BranchStatus status, String applicationData) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            branchReport(branchType, xid, branchId, status, applicationData);
+            future.complete(null);
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package io.seata.core.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.seata.core.exception.TransactionException;
 
 /**
@@ -80,4 +82,90 @@ public interface TransactionManager {
      * out.
      */
     GlobalStatus globalReport(String xid, GlobalStatus globalStatus) throws TransactionException;
+
+    /**
+     * Begin a new global transaction without waiting for the TC, see {@link #begin(String, String, String, int)}.
+     * The default implementation waits, the ones talking to the TC through the network should override it.
+     *
+     * @param applicationId           ID of the application who begins this transaction.
+     * @param transactionServiceGroup ID of the transaction service group.
+     * @param name                    Give a name to the global transaction.
+     * @param timeout                 Timeout of the global transaction.
+     * @return the future of the XID, failed with the TransactionException
+     */
+    default CompletableFuture<String> beginAsync(String applicationId, String transactionServiceGroup, String name,
+                                                 int timeout) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            future.complete(begin(applicationId, transactionServiceGroup, name, timeout));
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Global commit without waiting for the TC, see {@link #commit(String)}.
+     *
+     * @param xid XID of the global transaction.
+     * @return the future of the status after committing, failed with the TransactionException
+     */
+    default CompletableFuture<GlobalStatus> commitAsync(String xid) {
+        CompletableFuture<GlobalStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(commit(xid));
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Global rollback without waiting for the TC, see {@link #rollback(String)}.
+     *
+     * @param xid XID of the global transaction.
+     * @return the future of the status after rollbacking, failed with the TransactionException
+     */
+    default CompletableFuture<GlobalStatus> rollbackAsync(String xid) {
+        CompletableFuture<GlobalStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(rollback(xid));
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Get current status of the give transaction without waiting for the TC, see {@link #getStatus(String)}.
+     *
+     * @param xid XID of the global transaction.
+     * @return the future of the current status, failed with the TransactionException
+     */
+    default CompletableFuture<GlobalStatus> getStatusAsync(String xid) {
+        CompletableFuture<GlobalStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(getStatus(xid));
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Global report without waiting for the TC, see {@link #globalReport(String, GlobalStatus)}.
+     *
+     * @param xid          XID of the global transaction.
+     * @param globalStatus Status of the global transaction.
+     * @return the future of the status, failed with the TransactionException
+     */
+    default CompletableFuture<GlobalStatus> globalReportAsync(String xid, GlobalStatus globalStatus) {
+        CompletableFuture<GlobalStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(globalReport(xid, globalStatus));
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
@@ -15,6 +15,7 @@
  */
 package io.seata.core.protocol;
 
+import io.netty.util.Timeout;
 import io.seata.common.exception.ShouldNeverHappenException;
 
 import java.util.concurrent.CompletableFuture;
@@ -32,6 +33,7 @@ public class MessageFuture {
     private long timeout;
     private long start = System.currentTimeMillis();
     private transient CompletableFuture<Object> origin = new CompletableFuture<>();
+    private transient volatile Timeout timeoutHandle;
 
     /**
      * Is timeout boolean.
@@ -74,6 +76,26 @@ public class MessageFuture {
         return result;
     }
 
+    /**
+     * Gets a future completed with the result, or exceptionally if the result is an exception, without waiting
+     * for it. The dependent actions run on the thread setting the result, unless their executor says otherwise.
+     *
+     * @return the completable future
+     */
+    public CompletableFuture<Object> toCompletableFuture() {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        origin.whenComplete((result, cause) -> {
+            if (cause != null) {
+                future.completeExceptionally(cause);
+            } else if (result instanceof Throwable) {
+                future.completeExceptionally((Throwable)result);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
     /**
      * Sets result message.
      *
@@ -81,6 +103,19 @@ public class MessageFuture {
      */
     public void setResultMessage(Object obj) {
         origin.complete(obj);
+        Timeout handle = timeoutHandle;
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * Sets the handle of the registered timeout, cancelled once the result is set.
+     *
+     * @param timeoutHandle the timeout handle
+     */
+    public void setTimeoutHandle(Timeout timeoutHandle) {
+        this.timeoutHandle = timeoutHandle;
     }
 
     /**
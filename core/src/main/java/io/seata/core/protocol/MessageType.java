@@ -103,6 +103,14 @@ public interface MessageType {
      * The constant TYPE_BRANCH_STATUS_REPORT_RESULT.
      */
     short TYPE_BRANCH_STATUS_REPORT_RESULT = 14;
+    /**
+     * The constant TYPE_BRANCH_REGISTER_BATCH.
+     */
+    short TYPE_BRANCH_REGISTER_BATCH = 23;
+    /**
+     * The constant TYPE_BRANCH_REGISTER_BATCH_RESULT.
+     */
+    short TYPE_BRANCH_REGISTER_BATCH_RESULT = 24;
 
     /**
      * The constant TYPE_SEATA_MERGE.
@@ -31,7 +31,10 @@ public class RpcMessage {
     private byte messageType;
     private byte codec;
     private byte compressor;
-    private Map<String, String> headMap = new HashMap<>();
+    /**
+     * Created on the first head, most messages have none.
+     */
+    private Map<String, String> headMap;
     private Object body;
 
     /**
@@ -116,9 +119,21 @@ public class RpcMessage {
      * @return the head map
      */
     public Map<String, String> getHeadMap() {
+        if (headMap == null) {
+            headMap = new HashMap<>();
+        }
         return headMap;
     }
 
+    /**
+     * Whether the message has any head, without creating the head map.
+     *
+     * @return true if the head map is not empty
+     */
+    public boolean hasHead() {
+        return headMap != null && !headMap.isEmpty();
+    }
+
     /**
      * Sets head map.
      *
@@ -137,7 +152,7 @@ public class RpcMessage {
      * @return the head
      */
     public String getHead(String headKey) {
-        return headMap.get(headKey);
+        return headMap == null ? null : headMap.get(headKey);
     }
 
     /**
@@ -147,7 +162,7 @@ public class RpcMessage {
      * @param headValue the head value
      */
     public void putHead(String headKey, String headValue) {
-        headMap.put(headKey, headValue);
+        getHeadMap().put(headKey, headValue);
     }
 
     /**
@@ -0,0 +1,115 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.protocol.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.MessageType;
+import io.seata.core.rpc.RpcContext;
+
+/**
+ * The type Branch register batch request, registers several branches of one global transaction in one round trip.
+ * The xid and the branch type of the batch apply to all its branches.
+ */
+public class BranchRegisterBatchRequest extends AbstractTransactionRequestToTC {
+
+    private String xid;
+
+    private BranchType branchType = BranchType.AT;
+
+    private List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>();
+
+    /**
+     * Gets xid.
+     *
+     * @return the xid
+     */
+    public String getXid() {
+        return xid;
+    }
+
+    /**
+     * Sets xid.
+     *
+     * @param xid the xid
+     */
+    public void setXid(String xid) {
+        this.xid = xid;
+    }
+
+    /**
+     * Gets branch type.
+     *
+     * @return the branch type
+     */
+    public BranchType getBranchType() {
+        return branchType;
+    }
+
+    /**
+     * Sets branch type.
+     *
+     * @param branchType the branch type
+     */
+    public void setBranchType(BranchType branchType) {
+        this.branchType = branchType;
+    }
+
+    /**
+     * Gets the branch register requests.
+     *
+     * @return the branch register requests
+     */
+    public List<BranchRegisterRequest> getBranchRegisterRequests() {
+        return branchRegisterRequests;
+    }
+
+    /**
+     * Sets the branch register requests.
+     *
+     * @param branchRegisterRequests the branch register requests
+     */
+    public void setBranchRegisterRequests(List<BranchRegisterRequest> branchRegisterRequests) {
+        this.branchRegisterRequests = branchRegisterRequests;
+    }
+
+    @Override
+    public short getTypeCode() {
+        return MessageType.TYPE_BRANCH_REGISTER_BATCH;
+    }
+
+    @Override
+    public AbstractTransactionResponse handle(RpcContext rpcContext) {
+        return handler.handle(this, rpcContext);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("xid=");
+        result.append(xid);
+        result.append(",");
+        result.append("branchType=");
+        result.append(branchType);
+        result.append(",");
+        result.append("branchRegisterRequests=");
+        result.append(branchRegisterRequests);
+
+        return result.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.protocol.transaction;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.core.protocol.MessageType;
+
+/**
+ * The type Branch register batch response. The result of the batch tells whether it was handled at all, the
+ * responses tell the result of every branch, in the order of the requests.
+ */
+public class BranchRegisterBatchResponse extends AbstractTransactionResponse implements Serializable {
+
+    private List<BranchRegisterResponse> branchRegisterResponses = new ArrayList<>();
+
+    /**
+     * Gets the branch register responses.
+     *
+     * @return the branch register responses
+     */
+    public List<BranchRegisterResponse> getBranchRegisterResponses() {
+        return branchRegisterResponses;
+    }
+
+    /**
+     * Sets the branch register responses.
+     *
+     * @param branchRegisterResponses the branch register responses
+     */
+    public void setBranchRegisterResponses(List<BranchRegisterResponse> branchRegisterResponses) {
+        this.branchRegisterResponses = branchRegisterResponses;
+    }
+
+    @Override
+    public short getTypeCode() {
+        return MessageType.TYPE_BRANCH_REGISTER_BATCH_RESULT;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("BranchRegisterBatchResponse: branchRegisterResponses=");
+        result.append(branchRegisterResponses);
+        result.append(",");
+        result.append("result code =");
+        result.append(getResultCode());
+        result.append(",");
+        result.append("getMsg =");
+        result.append(getMsg());
+
+        return result.toString();
+    }
+}
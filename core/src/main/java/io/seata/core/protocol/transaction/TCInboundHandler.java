@@ -60,6 +60,15 @@ public interface TCInboundHandler {
      */
     BranchRegisterResponse handle(BranchRegisterRequest branchRegister, RpcContext rpcContext);
 
+    /**
+     * Handle branch register batch response.
+     *
+     * @param branchRegisterBatch the branch register batch
+     * @param rpcContext          the rpc context
+     * @return the branch register batch response
+     */
+    BranchRegisterBatchResponse handle(BranchRegisterBatchRequest branchRegisterBatch, RpcContext rpcContext);
+
     /**
      * Handle branch report response.
      *
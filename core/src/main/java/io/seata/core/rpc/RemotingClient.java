@@ -22,6 +22,7 @@ import io.seata.core.rpc.netty.RmNettyRemotingClient;
 import io.seata.core.rpc.netty.TmNettyRemotingClient;
 import io.seata.core.rpc.processor.RemotingProcessor;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
@@ -57,6 +58,16 @@ public interface RemotingClient {
      */
     Object sendSyncRequest(Channel channel, Object msg) throws TimeoutException;
 
+    /**
+     * client send request without waiting for the result.
+     * As {@link #sendSyncRequest(Object)}, the message will be sent in batches if enabled.
+     * The future fails with a {@link TimeoutException} if no result comes in time.
+     *
+     * @param msg transaction message {@link io.seata.core.protocol}
+     * @return the future of the server result message
+     */
+    CompletableFuture<Object> sendAsyncRequest(Object msg);
+
     /**
      * client send async request.
      *
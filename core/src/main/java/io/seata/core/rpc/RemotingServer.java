@@ -19,6 +19,7 @@ import io.netty.channel.Channel;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.processor.RemotingProcessor;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
@@ -52,6 +53,17 @@ public interface RemotingServer {
      */
     Object sendSyncRequest(Channel channel, Object msg) throws TimeoutException;
 
+    /**
+     * server send request without waiting for the result.
+     * The future fails with a {@link TimeoutException} if no result comes in time.
+     *
+     * @param resourceId rm client resourceId
+     * @param clientId   rm client id
+     * @param msg        transaction message {@link io.seata.core.protocol}
+     * @return the future of the client result message
+     */
+    CompletableFuture<Object> sendAsyncRequest(String resourceId, String clientId, Object msg);
+
     /**
      * server send async request.
      *
@@ -18,11 +18,13 @@ package io.seata.core.rpc.netty;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.HashedWheelTimer;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.thread.PositiveAtomicCounter;
+import io.seata.common.util.ConcurrentLongHashMap;
 import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.MessageType;
 import io.seata.core.protocol.MessageTypeAware;
@@ -41,8 +43,7 @@ import java.lang.management.ManagementFactory;
 import java.net.SocketAddress;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -76,24 +77,25 @@ public abstract class AbstractNettyRemoting implements Disposable {
     protected final PositiveAtomicCounter idGenerator = new PositiveAtomicCounter();
 
     /**
-     * Obtain the return result through MessageFuture blocking.
+     * Obtain the return result through MessageFuture blocking, keyed by the message id.
      *
      * @see AbstractNettyRemoting#sendSync
      */
-    protected final ConcurrentHashMap<Integer, MessageFuture> futures = new ConcurrentHashMap<>();
+    protected final ConcurrentLongHashMap<MessageFuture> futures = new ConcurrentLongHashMap<>();
 
     private static final long NOT_WRITEABLE_CHECK_MILLS = 10L;
 
+    private static final long TIMEOUT_TICK_MILLS = 50L;
+    private static final int TIMEOUT_TICKS_PER_WHEEL = 512;
+
     /**
-     * The Now mills.
+     * Times out the futures, each registers its own timeout and cancels it once its result is set.
      */
-    protected volatile long nowMills = 0;
-    private static final int TIMEOUT_CHECK_INTERVAL = 3000;
+    private final HashedWheelTimer timeoutTimer = new HashedWheelTimer(
+        new NamedThreadFactory("rpcTimeoutChecker", 1, true),
+        TIMEOUT_TICK_MILLS, TimeUnit.MILLISECONDS, TIMEOUT_TICKS_PER_WHEEL);
+
     protected final Object lock = new Object();
-    /**
-     * The Is sending.
-     */
-    protected volatile boolean isSending = false;
     private String group = "DEFAULT";
 
     /**
@@ -105,25 +107,6 @@ public abstract class AbstractNettyRemoting implements Disposable {
     protected final List<RpcHook> rpcHooks = EnhancedServiceLoader.loadAll(RpcHook.class);
 
     public void init() {
-        timerExecutor.scheduleAtFixedRate(new Runnable() {
-            @Override
-            public void run() {
-                for (Map.Entry<Integer, MessageFuture> entry : futures.entrySet()) {
-                    MessageFuture future = entry.getValue();
-                    if (future.isTimeout()) {
-                        futures.remove(entry.getKey());
-                        RpcMessage rpcMessage = future.getRequestMessage();
-                        future.setResultMessage(new TimeoutException(String
-                            .format("msgId: %s ,msgType: %s ,msg: %s ,request timeout", rpcMessage.getId(), String.valueOf(rpcMessage.getMessageType()), rpcMessage.getBody().toString())));
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("timeout clear future: {}", entry.getValue().getRequestMessage().getBody());
-                        }
-                    }
-                }
-
-                nowMills = System.currentTimeMillis();
-            }
-        }, TIMEOUT_CHECK_INTERVAL, TIMEOUT_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     public AbstractNettyRemoting(ThreadPoolExecutor messageExecutor) {
@@ -134,10 +117,32 @@ public abstract class AbstractNettyRemoting implements Disposable {
         return idGenerator.incrementAndGet();
     }
 
-    public ConcurrentHashMap<Integer, MessageFuture> getFutures() {
+    public ConcurrentLongHashMap<MessageFuture> getFutures() {
         return futures;
     }
 
+    /**
+     * Put the future of a request and register its timeout.
+     *
+     * @param msgId         the message id of the request
+     * @param messageFuture the message future
+     */
+    protected void registerFuture(int msgId, MessageFuture messageFuture) {
+        futures.put(msgId, messageFuture);
+        messageFuture.setTimeoutHandle(timeoutTimer.newTimeout(timeout -> {
+            if (!futures.remove(msgId, messageFuture)) {
+                return;
+            }
+            RpcMessage rpcMessage = messageFuture.getRequestMessage();
+            messageFuture.setResultMessage(new TimeoutException(String
+                .format("msgId: %s ,msgType: %s ,msg: %s ,request timeout", rpcMessage.getId(),
+                    String.valueOf(rpcMessage.getMessageType()), rpcMessage.getBody().toString())));
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("timeout clear future: {}", rpcMessage.getBody());
+            }
+        }, messageFuture.getTimeout(), TimeUnit.MILLISECONDS));
+    }
+
     public String getGroup() {
         return group;
     }
@@ -153,6 +158,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
     @Override
     public void destroy() {
         timerExecutor.shutdown();
+        timeoutTimer.stop();
         messageExecutor.shutdown();
     }
 
@@ -175,14 +181,60 @@ public abstract class AbstractNettyRemoting implements Disposable {
             return null;
         }
 
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        MessageFuture messageFuture = sendRequest(channel, remoteAddr, rpcMessage, timeoutMillis);
+
+        try {
+            Object result = messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            return result;
+        } catch (Exception exx) {
+            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
+                rpcMessage.getBody());
+            if (exx instanceof TimeoutException) {
+                throw (TimeoutException) exx;
+            } else {
+                throw new RuntimeException(exx);
+            }
+        }
+    }
+
+    /**
+     * rpc request without waiting for the result.
+     * The future fails with a {@link TimeoutException} if no result comes in time.
+     *
+     * @param channel       netty channel
+     * @param rpcMessage    rpc message
+     * @param timeoutMillis rpc communication timeout
+     * @return the future of the response message
+     */
+    protected CompletableFuture<Object> sendAsyncWithResult(Channel channel, RpcMessage rpcMessage,
+                                                            long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new FrameworkException("timeout should more than 0ms");
+        }
+        if (channel == null) {
+            LOGGER.warn("sendAsyncWithResult nothing, caused by null channel.");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        MessageFuture messageFuture = sendRequest(channel, remoteAddr, rpcMessage, timeoutMillis);
+        return messageFuture.toCompletableFuture().whenComplete((result, cause) -> {
+            if (cause == null) {
+                doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            }
+        });
+    }
+
+    private MessageFuture sendRequest(Channel channel, String remoteAddr, RpcMessage rpcMessage, long timeoutMillis) {
         MessageFuture messageFuture = new MessageFuture();
         messageFuture.setRequestMessage(rpcMessage);
         messageFuture.setTimeout(timeoutMillis);
-        futures.put(rpcMessage.getId(), messageFuture);
+        registerFuture(rpcMessage.getId(), messageFuture);
 
         channelWritableCheck(channel, rpcMessage.getBody());
 
-        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
         doBeforeRpcHooks(remoteAddr, rpcMessage);
 
         channel.writeAndFlush(rpcMessage).addListener((ChannelFutureListener) future -> {
@@ -194,20 +246,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
                 destroyChannel(future.channel());
             }
         });
-
-        try {
-            Object result = messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
-            doAfterRpcHooks(remoteAddr, rpcMessage, result);
-            return result;
-        } catch (Exception exx) {
-            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
-                rpcMessage.getBody());
-            if (exx instanceof TimeoutException) {
-                throw (TimeoutException) exx;
-            } else {
-                throw new RuntimeException(exx);
-            }
-        }
+        return messageFuture;
     }
 
     /**
@@ -243,7 +282,8 @@ public abstract class AbstractNettyRemoting implements Disposable {
     }
 
     protected RpcMessage buildResponseMessage(RpcMessage rpcMessage, Object msg, byte messageType) {
-        RpcMessage rpcMsg = new RpcMessage();
+        // a response is not kept once written, the encoder recycles it
+        RpcMessage rpcMsg = PooledRpcMessage.newInstance();
         rpcMsg.setMessageType(messageType);
         rpcMsg.setCodec(rpcMessage.getCodec()); // same with request
         rpcMsg.setCompressor(rpcMessage.getCompressor());
@@ -252,6 +292,17 @@ public abstract class AbstractNettyRemoting implements Disposable {
         return rpcMsg;
     }
 
+    /**
+     * Select the executor processing the message.
+     *
+     * @param rpcMessage rpc message.
+     * @param executor   the executor registered with the processor, null for the io thread.
+     * @return the executor, null to process the message on the io thread.
+     */
+    protected ExecutorService selectExecutor(RpcMessage rpcMessage, ExecutorService executor) {
+        return executor;
+    }
+
     /**
      * For testing. When the thread pool is full, you can change this variable and share the stack
      */
@@ -274,9 +325,10 @@ public abstract class AbstractNettyRemoting implements Disposable {
             MessageTypeAware messageTypeAware = (MessageTypeAware) body;
             final Pair<RemotingProcessor, ExecutorService> pair = this.processorTable.get((int) messageTypeAware.getTypeCode());
             if (pair != null) {
-                if (pair.getSecond() != null) {
+                ExecutorService executor = selectExecutor(rpcMessage, pair.getSecond());
+                if (executor != null) {
                     try {
-                        pair.getSecond().execute(() -> {
+                        executor.execute(() -> {
                             try {
                                 pair.getFirst().process(ctx, rpcMessage);
                             } catch (Throwable th) {
@@ -342,7 +394,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
         return address;
     }
 
-    private void channelWritableCheck(Channel channel, Object msg) {
+    protected void channelWritableCheck(Channel channel, Object msg) {
         int tryTimes = 0;
         synchronized (lock) {
             while (!channel.isWritable()) {
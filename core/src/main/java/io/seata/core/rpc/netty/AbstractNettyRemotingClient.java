@@ -19,27 +19,32 @@ import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
-import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.NetUtil;
 import io.seata.common.util.StringUtils;
@@ -51,6 +56,7 @@ import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchReportRequest;
 import io.seata.core.protocol.transaction.GlobalBeginRequest;
@@ -78,32 +84,22 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     private static final String MSG_ID_PREFIX = "msgId:";
     private static final String FUTURES_PREFIX = "futures:";
     private static final String SINGLE_LOG_POSTFIX = ";";
-    private static final int MAX_MERGE_SEND_MILLS = 1;
-    private static final String THREAD_PREFIX_SPLIT_CHAR = "_";
-
-    private static final int MAX_MERGE_SEND_THREAD = 1;
-    private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
     private static final long SCHEDULE_DELAY_MILLS = 60 * 1000L;
     private static final long SCHEDULE_INTERVAL_MILLS = 10 * 1000L;
-    private static final String MERGE_THREAD_PREFIX = "rpcMergeMessageSend";
-    protected final Object mergeLock = new Object();
 
     /**
-     * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
+     * The merged sender of a channel, created by the first batch sent to it.
      */
-    protected final Map<Integer, MergeMessage> mergeMsgMap = new ConcurrentHashMap<>();
+    private static final AttributeKey<MergedSender> MERGED_SENDER_KEY = AttributeKey.valueOf("mergedSender");
 
     /**
-     * When batch sending is enabled, the message will be stored to basketMap
-     * Send via asynchronous thread {@link MergedSendRunnable}
-     * {@link this#isEnableClientBatchSendRequest()}
+     * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
      */
-    protected final ConcurrentHashMap<String/*serverAddress*/, BlockingQueue<RpcMessage>> basketMap = new ConcurrentHashMap<>();
+    protected final Map<Integer, MergeMessage> mergeMsgMap = new ConcurrentHashMap<>();
 
     private final NettyClientBootstrap clientBootstrap;
     private NettyClientChannelManager clientChannelManager;
-    private final NettyPoolKey.TransactionRole transactionRole;
-    private ExecutorService mergeSendExecutorService;
+    private final AtomicInteger channelStripe = new AtomicInteger();
     private TransactionMessageHandler transactionMessageHandler;
 
     @Override
@@ -114,14 +110,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
                 clientChannelManager.reconnect(getTransactionServiceGroup());
             }
         }, SCHEDULE_DELAY_MILLS, SCHEDULE_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
-        if (this.isEnableClientBatchSendRequest()) {
-            mergeSendExecutorService = new ThreadPoolExecutor(MAX_MERGE_SEND_THREAD,
-                MAX_MERGE_SEND_THREAD,
-                KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(),
-                new NamedThreadFactory(getThreadPrefix(), MAX_MERGE_SEND_THREAD));
-            mergeSendExecutorService.submit(new MergedSendRunnable());
-        }
         super.init();
         clientBootstrap.start();
     }
@@ -129,7 +117,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     public AbstractNettyRemotingClient(NettyClientConfig nettyClientConfig, EventExecutorGroup eventExecutorGroup,
                                        ThreadPoolExecutor messageExecutor, NettyPoolKey.TransactionRole transactionRole) {
         super(messageExecutor);
-        this.transactionRole = transactionRole;
         clientBootstrap = new NettyClientBootstrap(nettyClientConfig, eventExecutorGroup, transactionRole);
         clientBootstrap.setChannelHandlers(new ClientHandler());
         clientChannelManager = new NettyClientChannelManager(
@@ -143,32 +130,9 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
 
         // send batch message
-        // put message into basketMap, @see MergedSendRunnable
+        // offer message to the merged sender of the channel, @see MergedSender
         if (this.isEnableClientBatchSendRequest()) {
-
-            // send batch message is sync request, needs to create messageFuture and put it in futures.
-            MessageFuture messageFuture = new MessageFuture();
-            messageFuture.setRequestMessage(rpcMessage);
-            messageFuture.setTimeout(timeoutMillis);
-            futures.put(rpcMessage.getId(), messageFuture);
-
-            // put message into basketMap
-            BlockingQueue<RpcMessage> basket = CollectionUtils.computeIfAbsent(basketMap, serverAddress,
-                key -> new LinkedBlockingQueue<>());
-            if (!basket.offer(rpcMessage)) {
-                LOGGER.error("put message into basketMap offer failed, serverAddress:{},rpcMessage:{}",
-                        serverAddress, rpcMessage);
-                return null;
-            }
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("offer message: {}", rpcMessage.getBody());
-            }
-            if (!isSending) {
-                synchronized (mergeLock) {
-                    mergeLock.notifyAll();
-                }
-            }
-
+            MessageFuture messageFuture = offerMergedRequest(serverAddress, rpcMessage, timeoutMillis);
             try {
                 return messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
             } catch (Exception exx) {
@@ -182,12 +146,51 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
             }
 
         } else {
-            Channel channel = clientChannelManager.acquireChannel(serverAddress);
+            Channel channel = acquireChannel(serverAddress, msg);
             return super.sendSync(channel, rpcMessage, timeoutMillis);
         }
 
     }
 
+    @Override
+    public CompletableFuture<Object> sendAsyncRequest(Object msg) {
+        try {
+            String serverAddress = loadBalance(getTransactionServiceGroup(), msg);
+            long timeoutMillis = this.getRpcRequestTimeout();
+            RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+            if (this.isEnableClientBatchSendRequest()) {
+                return offerMergedRequest(serverAddress, rpcMessage, timeoutMillis).toCompletableFuture();
+            }
+            Channel channel = acquireChannel(serverAddress, msg);
+            return super.sendAsyncWithResult(channel, rpcMessage, timeoutMillis);
+        } catch (RuntimeException e) {
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * Offer the request to the merged sender of the server, the result comes through the returned future.
+     */
+    private MessageFuture offerMergedRequest(String serverAddress, RpcMessage rpcMessage, long timeoutMillis) {
+        Channel channel = acquireChannel(serverAddress, rpcMessage.getBody());
+        // wait here rather than on the event loop, which must never block
+        channelWritableCheck(channel, rpcMessage.getBody());
+
+        // send batch message is sync request, needs to create messageFuture and put it in futures.
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(rpcMessage);
+        messageFuture.setTimeout(timeoutMillis);
+        registerFuture(rpcMessage.getId(), messageFuture);
+
+        getMergedSender(channel).offer(rpcMessage);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("offer message: {}", rpcMessage.getBody());
+        }
+        return messageFuture;
+    }
+
     @Override
     public Object sendSyncRequest(Channel channel, Object msg) throws TimeoutException {
         if (channel == null) {
@@ -234,9 +237,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     @Override
     public void destroy() {
         clientBootstrap.shutdown();
-        if (mergeSendExecutorService != null) {
-            mergeSendExecutorService.shutdown();
-        }
         super.destroy();
     }
 
@@ -286,6 +286,8 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
             xid = ((GlobalBeginRequest) msg).getTransactionName();
         } else if (msg instanceof BranchRegisterRequest) {
             xid = ((BranchRegisterRequest) msg).getXid();
+        } else if (msg instanceof BranchRegisterBatchRequest) {
+            xid = ((BranchRegisterBatchRequest) msg).getXid();
         } else if (msg instanceof BranchReportRequest) {
             xid = ((BranchReportRequest) msg).getXid();
         } else {
@@ -298,8 +300,29 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         return StringUtils.isBlank(xid) ? String.valueOf(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE)) : xid;
     }
 
-    private String getThreadPrefix() {
-        return AbstractNettyRemotingClient.MERGE_THREAD_PREFIX + THREAD_PREFIX_SPLIT_CHAR + transactionRole.name();
+    /**
+     * Acquire the channel of the server for the message, picked by the hash of its xid or round robin when the
+     * client connects more than one channel to each server.
+     */
+    private Channel acquireChannel(String serverAddress, Object msg) {
+        if (NettyClientConfig.getClientChannelsPerServer() == 1) {
+            return clientChannelManager.acquireChannel(serverAddress);
+        }
+        int stripe = NettyClientConfig.isClientChannelStripingByXid() ? getXid(msg).hashCode()
+            : channelStripe.getAndIncrement();
+        return clientChannelManager.acquireChannel(serverAddress, stripe);
+    }
+
+    private MergedSender getMergedSender(Channel channel) {
+        MergedSender mergedSender = channel.attr(MERGED_SENDER_KEY).get();
+        if (mergedSender == null) {
+            MergedSender created = new MergedSender(channel);
+            mergedSender = channel.attr(MERGED_SENDER_KEY).setIfAbsent(created);
+            if (mergedSender == null) {
+                mergedSender = created;
+            }
+        }
+        return mergedSender;
     }
 
     /**
@@ -331,56 +354,105 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     protected abstract long getRpcRequestTimeout();
 
     /**
-     * The type Merged send runnable.
+     * The merged sender of a channel.
+     * <p>
+     * The requests are offered to a lock-free queue by the calling threads, and flushed by a task on the event loop
+     * of the channel, scheduled by the first request offered after the previous flush. So a request waits for no
+     * timer, and every server gets its own flushing thread. A flush takes the requests pending when it starts and
+     * splits them evenly into messages of at most {@link NettyClientConfig#getClientBatchSendMaxSize()} requests:
+     * a lone request is sent as it is, the deeper the queue the bigger the {@link MergedWarpMessage}.
      */
-    private class MergedSendRunnable implements Runnable {
+    private final class MergedSender implements Runnable {
+
+        private final Channel channel;
+
+        private final Queue<RpcMessage> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private MergedSender(Channel channel) {
+            this.channel = channel;
+        }
+
+        void offer(RpcMessage rpcMessage) {
+            queue.offer(rpcMessage);
+            pending.incrementAndGet();
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    channel.eventLoop().execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    // the event loop is shut down, nothing will flush the queue
+                    RpcMessage msg;
+                    while ((msg = queue.poll()) != null) {
+                        pending.decrementAndGet();
+                        fail(msg.getId(), e);
+                    }
+                }
+            }
+        }
 
         @Override
         public void run() {
-            while (true) {
-                synchronized (mergeLock) {
-                    try {
-                        mergeLock.wait(MAX_MERGE_SEND_MILLS);
-                    } catch (InterruptedException e) {
-                    }
+            scheduled.set(false);
+            // the requests offered from now on schedule the next flush
+            int depth = pending.get();
+            if (depth <= 0) {
+                return;
+            }
+            int maxSize = NettyClientConfig.getClientBatchSendMaxSize();
+            int batches = (depth + maxSize - 1) / maxSize;
+            int batchSize = (depth + batches - 1) / batches;
+            while (depth > 0) {
+                int size = Math.min(depth, batchSize);
+                depth -= size;
+                pending.addAndGet(-size);
+                if (size == 1) {
+                    write(queue.poll());
+                    continue;
                 }
-                isSending = true;
-                basketMap.forEach((address, basket) -> {
-                    if (basket.isEmpty()) {
-                        return;
-                    }
+                MergedWarpMessage mergeMessage = new MergedWarpMessage();
+                for (int i = 0; i < size; i++) {
+                    RpcMessage msg = queue.poll();
+                    mergeMessage.msgs.add((AbstractMessage) msg.getBody());
+                    mergeMessage.msgIds.add(msg.getId());
+                }
+                printMergeMessageLog(mergeMessage);
+                // send batch message is sync request, but there is no need to get the return value.
+                // Since the messageFuture has been created before the message is offered,
+                // the return value will be obtained in ClientOnResponseProcessor.
+                RpcMessage rpcMessage = buildRequestMessage(mergeMessage, ProtocolConstants.MSGTYPE_RESQUEST_ONEWAY);
+                mergeMsgMap.put(rpcMessage.getId(), mergeMessage);
+                write(rpcMessage);
+            }
+            channel.flush();
+        }
 
-                    MergedWarpMessage mergeMessage = new MergedWarpMessage();
-                    while (!basket.isEmpty()) {
-                        RpcMessage msg = basket.poll();
-                        mergeMessage.msgs.add((AbstractMessage) msg.getBody());
-                        mergeMessage.msgIds.add(msg.getId());
-                    }
-                    if (mergeMessage.msgIds.size() > 1) {
-                        printMergeMessageLog(mergeMessage);
-                    }
-                    Channel sendChannel = null;
-                    try {
-                        // send batch message is sync request, but there is no need to get the return value.
-                        // Since the messageFuture has been created before the message is placed in basketMap,
-                        // the return value will be obtained in ClientOnResponseProcessor.
-                        sendChannel = clientChannelManager.acquireChannel(address);
-                        AbstractNettyRemotingClient.this.sendAsyncRequest(sendChannel, mergeMessage);
-                    } catch (FrameworkException e) {
-                        if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
-                            destroyChannel(address, sendChannel);
+        private void write(RpcMessage rpcMessage) {
+            doBeforeRpcHooks(ChannelUtil.getAddressFromChannel(channel), rpcMessage);
+            channel.write(rpcMessage).addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    // fast fail
+                    MergeMessage mergeMessage = mergeMsgMap.remove(rpcMessage.getId());
+                    if (mergeMessage != null) {
+                        for (Integer msgId : ((MergedWarpMessage) mergeMessage).msgIds) {
+                            fail(msgId, future.cause());
                         }
-                        // fast fail
-                        for (Integer msgId : mergeMessage.msgIds) {
-                            MessageFuture messageFuture = futures.remove(msgId);
-                            if (messageFuture != null) {
-                                messageFuture.setResultMessage(null);
-                            }
-                        }
-                        LOGGER.error("client merge call failed: {}", e.getMessage(), e);
+                    } else {
+                        fail(rpcMessage.getId(), future.cause());
                     }
-                });
-                isSending = false;
+                    LOGGER.error("client merge call failed: {}", String.valueOf(future.cause()));
+                    destroyChannel(future.channel());
+                }
+            });
+        }
+
+        private void fail(int msgId, Throwable cause) {
+            MessageFuture messageFuture = futures.remove(msgId);
+            if (messageFuture != null) {
+                messageFuture.setResultMessage(cause);
             }
         }
 
@@ -395,9 +467,7 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
                     sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
                 }
                 sb.append("\n");
-                for (long l : futures.keySet()) {
-                    sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
+                sb.append(FUTURES_PREFIX).append(futures.size()).append(SINGLE_LOG_POSTFIX);
                 LOGGER.debug(sb.toString());
             }
         }
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -57,6 +58,14 @@ class NettyClientChannelManager {
 
     private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
 
+    /**
+     * The other channels of each server when more than one is configured, the first one stays in {@link #channels}
+     * and the slot 0 of the array is unused.
+     */
+    private final ConcurrentMap<String, AtomicReferenceArray<Channel>> stripedChannels = new ConcurrentHashMap<>();
+
+    private final int channelsPerServer;
+
     private final GenericKeyedObjectPool<NettyPoolKey, Channel> nettyClientKeyPool;
 
     private Function<String, NettyPoolKey> poolKeyFunction;
@@ -66,6 +75,7 @@ class NettyClientChannelManager {
         nettyClientKeyPool = new GenericKeyedObjectPool<>(keyPoolableFactory);
         nettyClientKeyPool.setConfig(getNettyPoolConfig(clientConfig));
         this.poolKeyFunction = poolKeyFunction;
+        this.channelsPerServer = NettyClientConfig.getClientChannelsPerServer();
     }
 
     private GenericKeyedObjectPool.Config getNettyPoolConfig(final NettyClientConfig clientConfig) {
@@ -111,6 +121,52 @@ class NettyClientChannelManager {
         }
     }
 
+    /**
+     * Acquire one of the channels connected to remote server, the stripe picks the channel. The first channel is
+     * used while the picked one is not connected, the reconnect task connects it.
+     *
+     * @param serverAddress server address
+     * @param stripe        the stripe, any int
+     * @return netty channel
+     */
+    Channel acquireChannel(String serverAddress, int stripe) {
+        int slot = Math.floorMod(stripe, channelsPerServer);
+        if (slot != 0) {
+            AtomicReferenceArray<Channel> slots = stripedChannels.get(serverAddress);
+            if (slots != null) {
+                Channel channel = slots.get(slot);
+                if (channel != null && channel.isActive()) {
+                    return channel;
+                }
+            }
+        }
+        return acquireChannel(serverAddress);
+    }
+
+    /**
+     * Get all the channels connected to remote server, the first channel comes first.
+     *
+     * @param serverAddress server address
+     * @return the channels
+     */
+    List<Channel> getChannels(String serverAddress) {
+        List<Channel> serverChannels = new ArrayList<>(channelsPerServer);
+        Channel channel = channels.get(serverAddress);
+        if (channel != null) {
+            serverChannels.add(channel);
+        }
+        AtomicReferenceArray<Channel> slots = stripedChannels.get(serverAddress);
+        if (slots != null) {
+            for (int slot = 1; slot < slots.length(); slot++) {
+                channel = slots.get(slot);
+                if (channel != null && channel.isActive()) {
+                    serverChannels.add(channel);
+                }
+            }
+        }
+        return serverChannels;
+    }
+
     /**
      * Release channel to pool if necessary.
      *
@@ -121,6 +177,13 @@ class NettyClientChannelManager {
         if (channel == null || serverAddress == null) { return; }
         try {
             synchronized (channelLocks.get(serverAddress)) {
+                if (removeStripedChannel(serverAddress, channel)) {
+                    if (LOGGER.isInfoEnabled()) {
+                        LOGGER.info("return to pool, striped channel:{}", channel);
+                    }
+                    nettyClientKeyPool.returnObject(poolKeyMap.get(serverAddress), channel);
+                    return;
+                }
                 Channel ch = channels.get(serverAddress);
                 if (ch == null) {
                     nettyClientKeyPool.returnObject(poolKeyMap.get(serverAddress), channel);
@@ -151,6 +214,8 @@ class NettyClientChannelManager {
         try {
             if (channel.equals(channels.get(serverAddress))) {
                 channels.remove(serverAddress);
+            } else {
+                removeStripedChannel(serverAddress, channel);
             }
             nettyClientKeyPool.returnObject(poolKeyMap.get(serverAddress), channel);
         } catch (Exception exx) {
@@ -191,6 +256,7 @@ class NettyClientChannelManager {
             for (String serverAddress : availList) {
                 try {
                     acquireChannel(serverAddress);
+                    connectStripedChannels(serverAddress);
                 } catch (Exception e) {
                     LOGGER.error("{} can not connect to {} cause:{}", FrameworkErrorCode.NetConnect.getErrCode(),
                         serverAddress, e.getMessage(), e);
@@ -230,13 +296,7 @@ class NettyClientChannelManager {
         }
         Channel channelFromPool;
         try {
-            NettyPoolKey currentPoolKey = poolKeyFunction.apply(serverAddress);
-            NettyPoolKey previousPoolKey = poolKeyMap.putIfAbsent(serverAddress, currentPoolKey);
-            if (previousPoolKey != null && previousPoolKey.getMessage() instanceof RegisterRMRequest) {
-                RegisterRMRequest registerRMRequest = (RegisterRMRequest) currentPoolKey.getMessage();
-                ((RegisterRMRequest) previousPoolKey.getMessage()).setResourceIds(registerRMRequest.getResourceIds());
-            }
-            channelFromPool = nettyClientKeyPool.borrowObject(poolKeyMap.get(serverAddress));
+            channelFromPool = nettyClientKeyPool.borrowObject(refreshPoolKey(serverAddress));
             channels.put(serverAddress, channelFromPool);
         } catch (Exception exx) {
             LOGGER.error("{} register RM failed.", FrameworkErrorCode.RegisterRM.getErrCode(), exx);
@@ -245,6 +305,59 @@ class NettyClientChannelManager {
         return channelFromPool;
     }
 
+    /**
+     * Connect the missing channels beyond the first one, each of them registers to the server like the first one.
+     */
+    private void connectStripedChannels(String serverAddress) {
+        if (channelsPerServer == 1) {
+            return;
+        }
+        AtomicReferenceArray<Channel> slots = CollectionUtils.computeIfAbsent(stripedChannels, serverAddress,
+            key -> new AtomicReferenceArray<>(channelsPerServer));
+        Object lockObj = CollectionUtils.computeIfAbsent(channelLocks, serverAddress, key -> new Object());
+        synchronized (lockObj) {
+            for (int slot = 1; slot < channelsPerServer; slot++) {
+                Channel channel = slots.get(slot);
+                if (channel != null && channel.isActive()) {
+                    continue;
+                }
+                if (channel != null && slots.compareAndSet(slot, channel, null)) {
+                    destroyChannel(serverAddress, channel);
+                }
+                try {
+                    slots.set(slot, nettyClientKeyPool.borrowObject(refreshPoolKey(serverAddress)));
+                } catch (Exception exx) {
+                    LOGGER.error("{} connect striped channel to {} failed.", FrameworkErrorCode.NetConnect.getErrCode(),
+                        serverAddress, exx);
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean removeStripedChannel(String serverAddress, Channel channel) {
+        AtomicReferenceArray<Channel> slots = stripedChannels.get(serverAddress);
+        if (slots == null) {
+            return false;
+        }
+        for (int slot = 1; slot < slots.length(); slot++) {
+            if (slots.compareAndSet(slot, channel, null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private NettyPoolKey refreshPoolKey(String serverAddress) {
+        NettyPoolKey currentPoolKey = poolKeyFunction.apply(serverAddress);
+        NettyPoolKey previousPoolKey = poolKeyMap.putIfAbsent(serverAddress, currentPoolKey);
+        if (previousPoolKey != null && previousPoolKey.getMessage() instanceof RegisterRMRequest) {
+            RegisterRMRequest registerRMRequest = (RegisterRMRequest) currentPoolKey.getMessage();
+            ((RegisterRMRequest) previousPoolKey.getMessage()).setResourceIds(registerRMRequest.getResourceIds());
+        }
+        return poolKeyMap.get(serverAddress);
+    }
+
     private List<String> getAvailServerList(String transactionServiceGroup) throws Exception {
         List<InetSocketAddress> availInetSocketAddressList = RegistryFactory.getInstance()
                 .lookup(transactionServiceGroup);
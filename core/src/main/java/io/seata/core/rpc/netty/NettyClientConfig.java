@@ -19,6 +19,9 @@ import io.netty.channel.Channel;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.rpc.TransportServerType;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_CHANNELS_PER_SERVER;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_CHANNEL_STRIPING;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_RM_REQUEST_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TM_REQUEST_TIMEOUT;
@@ -59,6 +62,14 @@ public class NettyClientConfig extends NettyBaseConfig {
     private static final boolean DEFAULT_POOL_TEST_RETURN = true;
     private static final boolean DEFAULT_POOL_LIFO = true;
     private static final boolean ENABLE_CLIENT_BATCH_SEND_REQUEST = CONFIG.getBoolean(ConfigurationKeys.ENABLE_CLIENT_BATCH_SEND_REQUEST, DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST);
+    private static final int CLIENT_BATCH_SEND_MAX_SIZE = Math.min(Short.MAX_VALUE,
+        Math.max(1, CONFIG.getInt(ConfigurationKeys.CLIENT_BATCH_SEND_MAX_SIZE, DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE)));
+    private static final int MAX_CLIENT_CHANNELS_PER_SERVER = 64;
+    private static final int CLIENT_CHANNELS_PER_SERVER = Math.min(MAX_CLIENT_CHANNELS_PER_SERVER,
+        Math.max(1, CONFIG.getInt(ConfigurationKeys.CLIENT_CHANNELS_PER_SERVER, DEFAULT_CLIENT_CHANNELS_PER_SERVER)));
+    private static final String CLIENT_CHANNEL_STRIPING_ROUND_ROBIN = "roundRobin";
+    private static final boolean CLIENT_CHANNEL_STRIPING_BY_XID = !CLIENT_CHANNEL_STRIPING_ROUND_ROBIN.equalsIgnoreCase(
+        CONFIG.getConfig(ConfigurationKeys.CLIENT_CHANNEL_STRIPING, DEFAULT_CLIENT_CHANNEL_STRIPING));
 
     /**
      * Gets connect timeout millis.
@@ -394,7 +405,7 @@ public class NettyClientConfig extends NettyBaseConfig {
      * @return the max pool active
      */
     public int getMaxPoolActive() {
-        return DEFAULT_MAX_POOL_ACTIVE;
+        return Math.max(DEFAULT_MAX_POOL_ACTIVE, CLIENT_CHANNELS_PER_SERVER);
     }
 
     /**
@@ -455,4 +466,32 @@ public class NettyClientConfig extends NettyBaseConfig {
     public static boolean isEnableClientBatchSendRequest() {
         return ENABLE_CLIENT_BATCH_SEND_REQUEST;
     }
+
+    /**
+     * Gets the max number of the requests merged into one message by the batch send.
+     *
+     * @return the client batch send max size
+     */
+    public static int getClientBatchSendMaxSize() {
+        return CLIENT_BATCH_SEND_MAX_SIZE;
+    }
+
+    /**
+     * Gets the number of the channels connected to each server.
+     *
+     * @return the client channels per server
+     */
+    public static int getClientChannelsPerServer() {
+        return CLIENT_CHANNELS_PER_SERVER;
+    }
+
+    /**
+     * Whether the requests are spread over the channels of a server by the hash of their xid, so the requests of a
+     * transaction keep their order; round robin otherwise.
+     *
+     * @return true if striped by xid
+     */
+    public static boolean isClientChannelStripingByXid() {
+        return CLIENT_CHANNEL_STRIPING_BY_XID;
+    }
 }
@@ -18,6 +18,7 @@ package io.seata.core.rpc.netty;
 import io.netty.channel.Channel;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.core.protocol.MessageType;
+import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.processor.server.RegRmProcessor;
 import io.seata.core.rpc.processor.server.RegTmProcessor;
@@ -27,6 +28,7 @@ import io.seata.core.rpc.processor.server.ServerOnResponseProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +54,18 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
             new LinkedBlockingQueue<>(NettyServerConfig.getMaxTaskQueueSize()),
             new NamedThreadFactory("BranchResultHandlerThread", NettyServerConfig.getMaxBranchResultPoolSize()), new ThreadPoolExecutor.CallerRunsPolicy());
 
+    /**
+     * The executors of the requests in the pinned execution model, null otherwise.
+     */
+    private PinnedExecutorGroup pinnedExecutorGroup;
+
+    private final boolean lockWaitEnabled = NettyServerConfig.isLockWaitEnabled();
+
+    /**
+     * Whether the light requests of the pinned execution model run on the io thread.
+     */
+    private boolean lightRequestsOnIoThread;
+
     @Override
     public void init() {
         // registry processor
@@ -68,6 +82,20 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
      */
     public NettyRemotingServer(ThreadPoolExecutor messageExecutor) {
         super(messageExecutor, new NettyServerConfig());
+        if (NettyServerConfig.isPinnedExecutionModel()) {
+            pinnedExecutorGroup = new PinnedExecutorGroup(Runtime.getRuntime().availableProcessors(),
+                NettyServerConfig.getMaxTaskQueueSize(), messageExecutor);
+        }
+    }
+
+    /**
+     * Sets whether the light requests of the pinned execution model run on the io thread, only for a store read
+     * from the memory: the db and redis ones would block it.
+     *
+     * @param lightRequestsOnIoThread whether the light requests run on the io thread
+     */
+    public void setLightRequestsOnIoThread(boolean lightRequestsOnIoThread) {
+        this.lightRequestsOnIoThread = lightRequestsOnIoThread;
     }
 
     /**
@@ -95,8 +123,9 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
     private void registerProcessor() {
         // 1. registry on request message processor
         ServerOnRequestProcessor onRequestProcessor =
-            new ServerOnRequestProcessor(this, getHandler());
+            new ServerOnRequestProcessor(this, getHandler(), messageExecutor);
         super.registerProcessor(MessageType.TYPE_BRANCH_REGISTER, onRequestProcessor, messageExecutor);
+        super.registerProcessor(MessageType.TYPE_BRANCH_REGISTER_BATCH, onRequestProcessor, messageExecutor);
         super.registerProcessor(MessageType.TYPE_BRANCH_STATUS_REPORT, onRequestProcessor, messageExecutor);
         super.registerProcessor(MessageType.TYPE_GLOBAL_BEGIN, onRequestProcessor, messageExecutor);
         super.registerProcessor(MessageType.TYPE_GLOBAL_COMMIT, onRequestProcessor, messageExecutor);
@@ -121,9 +150,27 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
         super.registerProcessor(MessageType.TYPE_HEARTBEAT_MSG, heartbeatMessageProcessor, null);
     }
 
+    @Override
+    protected ExecutorService selectExecutor(RpcMessage rpcMessage, ExecutorService executor) {
+        if (pinnedExecutorGroup == null || executor != messageExecutor) {
+            return executor;
+        }
+        Object body = rpcMessage.getBody();
+        if (lightRequestsOnIoThread && PinnedExecutorGroup.isLight(body, lockWaitEnabled)) {
+            return null;
+        }
+        if (PinnedExecutorGroup.isPinnable(body, lockWaitEnabled)) {
+            return pinnedExecutorGroup.select(rpcMessage);
+        }
+        return executor;
+    }
+
     @Override
     public void destroy() {
         super.destroy();
         branchResultMessageExecutor.shutdown();
+        if (pinnedExecutorGroup != null) {
+            pinnedExecutorGroup.shutdown();
+        }
     }
 }
@@ -23,8 +23,10 @@ import io.seata.core.constants.ConfigurationKeys;
 import static io.seata.common.DefaultValues.DEFAULT_BOSS_THREAD_PREFIX;
 import static io.seata.common.DefaultValues.DEFAULT_BOSS_THREAD_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_EXECUTOR_THREAD_PREFIX;
+import static io.seata.common.DefaultValues.DEFAULT_LOCK_WAIT_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_NIO_WORKER_THREAD_PREFIX;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TC_REQUEST_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_EXECUTION_MODEL;
 import static io.seata.common.DefaultValues.DEFAULT_SHUTDOWN_TIMEOUT_SEC;
 
 /**
@@ -53,6 +55,7 @@ public class NettyServerConfig extends NettyBaseConfig {
     private int serverChannelMaxIdleTimeSeconds = Integer.parseInt(System.getProperty(
             ConfigurationKeys.TRANSPORT_PREFIX + "serverChannelMaxIdleTimeSeconds", String.valueOf(30)));
     private static final String EPOLL_WORKER_THREAD_PREFIX = "NettyServerEPollWorker";
+    private static final String SERVER_EXECUTION_MODEL_PINNED = "pinned";
     private static int minServerPoolSize = Integer.parseInt(System.getProperty(
             ConfigurationKeys.MIN_SERVER_POOL_SIZE, "50"));
     private static int maxServerPoolSize = Integer.parseInt(System.getProperty(
@@ -291,6 +294,26 @@ public class NettyServerConfig extends NettyBaseConfig {
         return CONFIG.getInt(ConfigurationKeys.SHUTDOWN_WAIT, DEFAULT_SHUTDOWN_TIMEOUT_SEC);
     }
 
+    /**
+     * Whether the requests run on the executors pinned by transaction, instead of all of them on the shared pool. The
+     * light queries may run on the io thread.
+     *
+     * @return true if the execution model is pinned
+     */
+    public static boolean isPinnedExecutionModel() {
+        return SERVER_EXECUTION_MODEL_PINNED.equalsIgnoreCase(
+            CONFIG.getConfig(ConfigurationKeys.SERVER_EXECUTION_MODEL, DEFAULT_SERVER_EXECUTION_MODEL));
+    }
+
+    /**
+     * Whether a conflicting lock waits on the server, see {@link ConfigurationKeys#LOCK_WAIT_TIMEOUT}.
+     *
+     * @return true if the lock wait timeout is positive
+     */
+    public static boolean isLockWaitEnabled() {
+        return CONFIG.getLong(ConfigurationKeys.LOCK_WAIT_TIMEOUT, DEFAULT_LOCK_WAIT_TIMEOUT) > 0;
+    }
+
     public static int getMinServerPoolSize() {
         return minServerPoolSize;
     }
@@ -0,0 +1,163 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.XID;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.StringUtils;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import io.seata.core.protocol.transaction.GlobalStatusRequest;
+import io.seata.core.rpc.processor.server.ServerOnRequestProcessor;
+
+/**
+ * A group of single thread executors, the requests of the same transaction always go to the same one.
+ * <p>
+ * Every executor has its own queue, so the handler threads do not contend on a single shared one. The requests
+ * without a xid, like the global begin, are spread round robin. The xid of a merged request is the first one of
+ * its sub-messages.
+ * <p>
+ * The light requests, see {@link #isLight(Object, boolean)}, may be run by the io thread instead, and a request
+ * which may wait for a lock is kept off the executors, see {@link #isPinnable(Object, boolean)}. A request finding
+ * the queue of its executor full is run by the fallback pool.
+ */
+final class PinnedExecutorGroup {
+
+    private static final String THREAD_PREFIX = "ServerPinnedHandlerThread";
+
+    private final ThreadPoolExecutor[] executors;
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    /**
+     * Instantiates a new Pinned executor group.
+     *
+     * @param size          the number of the executors
+     * @param totalQueueSize the queue size shared out among the executors
+     * @param fallback      the executor of the requests rejected by a full queue
+     */
+    PinnedExecutorGroup(int size, int totalQueueSize, Executor fallback) {
+        int count = Math.max(1, size);
+        int queueSize = Math.max(1, totalQueueSize / count);
+        NamedThreadFactory threadFactory = new NamedThreadFactory(THREAD_PREFIX, count);
+        this.executors = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            executors[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize), threadFactory, (task, executor) -> fallback.execute(task));
+        }
+    }
+
+    /**
+     * Whether the request is light enough for the io thread: the global status query, and the global lock query
+     * unless it may wait for a conflicting lock. A merged request is light if all its sub-messages are.
+     *
+     * @param body            the request
+     * @param lockWaitEnabled whether a conflicting lock waits on the server
+     * @return true if light
+     */
+    static boolean isLight(Object body, boolean lockWaitEnabled) {
+        if (body instanceof MergedWarpMessage) {
+            for (AbstractMessage msg : ((MergedWarpMessage) body).msgs) {
+                if (!isLight(msg, lockWaitEnabled)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return body instanceof GlobalStatusRequest || (!lockWaitEnabled && body instanceof GlobalLockQueryRequest);
+    }
+
+    /**
+     * Whether the request could be pinned. When a conflicting lock waits on the server, the branch registers and the
+     * global lock queries are left to the shared pool, as well as a merged request carrying any of them, a waiting
+     * request would stall every transaction of its executor.
+     *
+     * @param body            the request
+     * @param lockWaitEnabled whether a conflicting lock waits on the server
+     * @return true if it could be pinned
+     */
+    static boolean isPinnable(Object body, boolean lockWaitEnabled) {
+        if (!lockWaitEnabled) {
+            return true;
+        }
+        if (body instanceof MergedWarpMessage) {
+            for (AbstractMessage msg : ((MergedWarpMessage) body).msgs) {
+                if (!isPinnable(msg, true)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return !(body instanceof BranchRegisterRequest || body instanceof BranchRegisterBatchRequest
+            || body instanceof GlobalLockQueryRequest);
+    }
+
+    /**
+     * Select the executor of the request.
+     *
+     * @param rpcMessage the rpc message
+     * @return the executor
+     */
+    ExecutorService select(RpcMessage rpcMessage) {
+        long transactionId = transactionIdOf(rpcMessage.getBody());
+        int index = transactionId < 0 ? roundRobin.getAndIncrement() : Long.hashCode(transactionId);
+        return executors[Math.floorMod(index, executors.length)];
+    }
+
+    private static long transactionIdOf(Object body) {
+        if (body instanceof MergedWarpMessage) {
+            for (AbstractMessage msg : ((MergedWarpMessage) body).msgs) {
+                long transactionId = transactionIdOf(msg);
+                if (transactionId >= 0) {
+                    return transactionId;
+                }
+            }
+            return -1;
+        }
+        if (!(body instanceof AbstractMessage)) {
+            return -1;
+        }
+        String xid = ServerOnRequestProcessor.getXid((AbstractMessage) body);
+        if (StringUtils.isBlank(xid)) {
+            return -1;
+        }
+        try {
+            return XID.getTransactionId(xid);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Shutdown the executors.
+     */
+    void shutdown() {
+        for (ThreadPoolExecutor executor : executors) {
+            executor.shutdown();
+        }
+    }
+}
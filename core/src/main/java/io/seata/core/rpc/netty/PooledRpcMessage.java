@@ -0,0 +1,62 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import io.netty.util.Recycler;
+import io.seata.core.protocol.RpcMessage;
+
+/**
+ * A rpc message taken from a per thread pool, only for the responses: nothing refers to a response once it is
+ * written, so the encoder gives it back right after encoding it. A response never encoded, because the channel
+ * was closed first, is simply left to the garbage collector.
+ */
+public final class PooledRpcMessage extends RpcMessage {
+
+    private static final Recycler<PooledRpcMessage> RECYCLER = new Recycler<PooledRpcMessage>() {
+        @Override
+        protected PooledRpcMessage newObject(Handle<PooledRpcMessage> handle) {
+            return new PooledRpcMessage(handle);
+        }
+    };
+
+    private final Recycler.Handle<PooledRpcMessage> handle;
+
+    private PooledRpcMessage(Recycler.Handle<PooledRpcMessage> handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Take a message from the pool.
+     *
+     * @return the message
+     */
+    public static PooledRpcMessage newInstance() {
+        return RECYCLER.get();
+    }
+
+    /**
+     * Clear the message and give it back to the pool, it must not be used any more.
+     */
+    public void recycle() {
+        setId(0);
+        setMessageType((byte)0);
+        setCodec((byte)0);
+        setCompressor((byte)0);
+        setHeadMap(null);
+        setBody(null);
+        handle.recycle(this);
+    }
+}
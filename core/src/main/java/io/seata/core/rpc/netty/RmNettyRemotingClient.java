@@ -198,13 +198,14 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
             return;
         }
         synchronized (getClientChannelManager().getChannels()) {
-            for (Map.Entry<String, Channel> entry : getClientChannelManager().getChannels().entrySet()) {
-                String serverAddress = entry.getKey();
-                Channel rmChannel = entry.getValue();
+            for (String serverAddress : getClientChannelManager().getChannels().keySet()) {
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.info("will register resourceId:{}", resourceId);
                 }
-                sendRegisterMessage(serverAddress, rmChannel, resourceId);
+                // every channel of the server registers the resource, any of them may carry its branches
+                for (Channel rmChannel : getClientChannelManager().getChannels(serverAddress)) {
+                    sendRegisterMessage(serverAddress, rmChannel, resourceId);
+                }
             }
         }
     }
@@ -304,6 +305,7 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
             new ClientOnResponseProcessor(mergeMsgMap, super.getFutures(), getTransactionMessageHandler());
         super.registerProcessor(MessageType.TYPE_SEATA_MERGE_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_BRANCH_REGISTER_RESULT, onResponseProcessor, null);
+        super.registerProcessor(MessageType.TYPE_BRANCH_REGISTER_BATCH_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_BRANCH_STATUS_REPORT_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_GLOBAL_LOCK_QUERY_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_REG_RM_RESULT, onResponseProcessor, null);
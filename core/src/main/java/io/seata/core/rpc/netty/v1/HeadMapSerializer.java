@@ -19,11 +19,16 @@ import io.netty.buffer.ByteBuf;
 import io.seata.common.Constants;
 import io.seata.common.util.StringUtils;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Common serializer of map (this generally refers to header).
+ * <p>
+ * The strings are written straight into the buffer and read straight out of it, without an intermediate byte
+ * array. The few distinct head keys are interned: a key read again is matched against the known ones in the buffer
+ * and no new string is made for it.
  *
  * @author Geng Zhang
  * @since 0.7.0
@@ -32,6 +37,14 @@ public class HeadMapSerializer {
 
     private static final HeadMapSerializer INSTANCE = new HeadMapSerializer();
 
+    /**
+     * The keys are chosen by the code, not by the data, so a handful is expected: the bound only guards against
+     * a peer sending arbitrary ones.
+     */
+    private static final int MAX_INTERNED_KEYS = 64;
+
+    private volatile InternedKey[] internedKeys = new InternedKey[0];
+
     private HeadMapSerializer() {
 
     }
@@ -72,17 +85,27 @@ public class HeadMapSerializer {
      */
     public Map<String, String> decode(ByteBuf in, int length) {
         Map<String, String> map = new HashMap<>();
+        decode(in, length, map);
+        return map;
+    }
+
+    /**
+     * decode head map into the given map
+     *
+     * @param in     ByteBuf
+     * @param length of head map bytes
+     * @param map    the map to put the heads into
+     */
+    public void decode(ByteBuf in, int length, Map<String, String> map) {
         if (in == null || in.readableBytes() == 0 || length == 0) {
-            return map;
+            return;
         }
         int tick = in.readerIndex();
         while (in.readerIndex() - tick < length) {
-            String key = readString(in);
+            String key = readKey(in);
             String value = readString(in);
             map.put(key, value);
         }
-
-        return map;
     }
 
     /**
@@ -97,11 +120,13 @@ public class HeadMapSerializer {
         } else if (str.isEmpty()) {
             out.writeShort(0);
         } else {
-            byte[] bs = str.getBytes(Constants.DEFAULT_CHARSET);
-            out.writeShort(bs.length);
-            out.writeBytes(bs);
+            int lengthIndex = out.writerIndex();
+            out.writeShort(0);
+            int length = out.writeCharSequence(str, Constants.DEFAULT_CHARSET);
+            out.setShort(lengthIndex, length);
         }
     }
+
     /**
      * Read string
      *
@@ -115,9 +140,70 @@ public class HeadMapSerializer {
         } else if (length == 0) {
             return StringUtils.EMPTY;
         } else {
-            byte[] value = new byte[length];
-            in.readBytes(value);
-            return new String(value, Constants.DEFAULT_CHARSET);
+            return in.readCharSequence(length, Constants.DEFAULT_CHARSET).toString();
+        }
+    }
+
+    /**
+     * Read a key, the interned one if its bytes are known.
+     *
+     * @param in ByteBuf
+     * @return String
+     */
+    private String readKey(ByteBuf in) {
+        int length = in.getShort(in.readerIndex());
+        if (length <= 0) {
+            return readString(in);
+        }
+        int offset = in.readerIndex() + Short.BYTES;
+        InternedKey[] keys = internedKeys;
+        for (InternedKey key : keys) {
+            if (key.matches(in, offset, length)) {
+                in.skipBytes(Short.BYTES + length);
+                return key.value;
+            }
+        }
+        String value = readString(in);
+        intern(value);
+        return value;
+    }
+
+    private synchronized void intern(String value) {
+        InternedKey[] keys = internedKeys;
+        if (keys.length >= MAX_INTERNED_KEYS) {
+            return;
+        }
+        for (InternedKey key : keys) {
+            if (key.value.equals(value)) {
+                return;
+            }
+        }
+        InternedKey[] grown = Arrays.copyOf(keys, keys.length + 1);
+        grown[keys.length] = new InternedKey(value);
+        internedKeys = grown;
+    }
+
+    private static final class InternedKey {
+
+        private final String value;
+
+        private final byte[] bytes;
+
+        private InternedKey(String value) {
+            this.value = value;
+            this.bytes = value.getBytes(Constants.DEFAULT_CHARSET);
+        }
+
+        private boolean matches(ByteBuf in, int offset, int length) {
+            if (bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != in.getByte(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
@@ -18,7 +18,6 @@ package io.seata.core.rpc.netty.v1;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.core.exception.DecodeException;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
@@ -26,12 +25,10 @@ import io.seata.core.compressor.CompressorFactory;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
-import io.seata.core.serializer.SerializerType;
+import io.seata.core.serializer.SerializerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-
 /**
  * <pre>
  * 0     1     2     3     4     5     6     7     8     9    10     11    12    13    14    15    16
@@ -126,8 +123,7 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         // direct read head with zero-copy
         int headMapLength = headLength - ProtocolConstants.V1_HEAD_LENGTH;
         if (headMapLength > 0) {
-            Map<String, String> map = HeadMapSerializer.getInstance().decode(frame, headMapLength);
-            rpcMessage.getHeadMap().putAll(map);
+            HeadMapSerializer.getInstance().decode(frame, headMapLength, rpcMessage.getHeadMap());
         }
 
         // read body
@@ -138,12 +134,20 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         } else {
             int bodyLength = fullLength - headLength;
             if (bodyLength > 0) {
-                byte[] bs = new byte[bodyLength];
-                frame.readBytes(bs);
                 Compressor compressor = CompressorFactory.getCompressor(compressorType);
-                bs = compressor.decompress(bs);
-                Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
-                rpcMessage.setBody(serializer.deserialize(bs));
+                Serializer serializer = SerializerFactory.getSerializer(codecType);
+                if (compressor instanceof CompressorFactory.NoneCompressor) {
+                    // direct read body with zero-copy
+                    rpcMessage.setBody(serializer.deserialize(frame.readSlice(bodyLength)));
+                } else {
+                    ByteBuf bodyBuf = frame.alloc().buffer(bodyLength);
+                    try {
+                        compressor.decompress(frame.readSlice(bodyLength), bodyBuf);
+                        rpcMessage.setBody(serializer.deserialize(bodyBuf));
+                    } finally {
+                        bodyBuf.release();
+                    }
+                }
             }
         }
 
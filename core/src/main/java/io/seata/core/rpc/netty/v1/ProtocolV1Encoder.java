@@ -18,18 +18,16 @@ package io.seata.core.rpc.netty.v1;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
-import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
-import io.seata.core.serializer.SerializerType;
+import io.seata.core.rpc.netty.PooledRpcMessage;
+import io.seata.core.serializer.SerializerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-
 /**
  * <pre>
  * 0     1     2     3     4     5     6     7     8     9    10     11    12    13    14    15    16
@@ -81,26 +79,31 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                 out.writeInt(rpcMessage.getId());
 
                 // direct write head with zero-copy
-                Map<String, String> headMap = rpcMessage.getHeadMap();
-                if (headMap != null && !headMap.isEmpty()) {
-                    int headMapBytesLength = HeadMapSerializer.getInstance().encode(headMap, out);
+                if (rpcMessage.hasHead()) {
+                    int headMapBytesLength = HeadMapSerializer.getInstance().encode(rpcMessage.getHeadMap(), out);
                     headLength += headMapBytesLength;
                     fullLength += headMapBytesLength;
                 }
 
-                byte[] bodyBytes = null;
                 if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
                         && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
                     // heartbeat has no body
-                    Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
-                    bodyBytes = serializer.serialize(rpcMessage.getBody());
+                    Serializer serializer = SerializerFactory.getSerializer(rpcMessage.getCodec());
                     Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
-                    bodyBytes = compressor.compress(bodyBytes);
-                    fullLength += bodyBytes.length;
-                }
-
-                if (bodyBytes != null) {
-                    out.writeBytes(bodyBytes);
+                    int bodyStart = out.writerIndex();
+                    if (compressor instanceof CompressorFactory.NoneCompressor) {
+                        // direct write body with zero-copy
+                        serializer.serialize(rpcMessage.getBody(), out);
+                    } else {
+                        ByteBuf bodyBuf = ctx.alloc().buffer();
+                        try {
+                            serializer.serialize(rpcMessage.getBody(), bodyBuf);
+                            compressor.compress(bodyBuf, out);
+                        } finally {
+                            bodyBuf.release();
+                        }
+                    }
+                    fullLength += out.writerIndex() - bodyStart;
                 }
 
                 // fix fullLength and headLength
@@ -115,6 +118,10 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
             }
         } catch (Throwable e) {
             LOGGER.error("Encode request error!", e);
+        } finally {
+            if (msg instanceof PooledRpcMessage) {
+                ((PooledRpcMessage) msg).recycle();
+            }
         }
     }
 }
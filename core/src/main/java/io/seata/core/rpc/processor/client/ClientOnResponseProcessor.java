@@ -16,6 +16,7 @@
 package io.seata.core.rpc.processor.client;
 
 import io.netty.channel.ChannelHandlerContext;
+import io.seata.common.util.ConcurrentLongHashMap;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.MergeMessage;
 import io.seata.core.protocol.MergeResultMessage;
@@ -37,8 +38,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * process TC response message.
@@ -73,7 +72,7 @@ public class ClientOnResponseProcessor implements RemotingProcessor {
     /**
      * The Futures from io.seata.core.rpc.netty.AbstractNettyRemoting#futures
      */
-    private ConcurrentMap<Integer, MessageFuture> futures;
+    private ConcurrentLongHashMap<MessageFuture> futures;
 
     /**
      * To handle the received RPC message on upper level.
@@ -81,7 +80,7 @@ public class ClientOnResponseProcessor implements RemotingProcessor {
     private TransactionMessageHandler transactionMessageHandler;
 
     public ClientOnResponseProcessor(Map<Integer, MergeMessage> mergeMsgMap,
-                                     ConcurrentHashMap<Integer, MessageFuture> futures,
+                                     ConcurrentLongHashMap<MessageFuture> futures,
                                      TransactionMessageHandler transactionMessageHandler) {
         this.mergeMsgMap = mergeMsgMap;
         this.futures = futures;
@@ -15,20 +15,30 @@
  */
 package io.seata.core.rpc.processor.server;
 
+import java.net.SocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
 import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.NetUtil;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import static io.seata.common.DefaultValues.DEFAULT_ACCESS_LOG_BUFFER_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_ACCESS_LOG_SAMPLE_RATE;
 
 /**
  * handle ServerOnRequestProcessor and ServerOnResponseProcessor log print.
+ * <p>
+ * The processors only fill a preallocated record of a bounded ring: the message type, the xid, the client and the
+ * cost, nothing is rendered on their threads. One record in {@code server.accessLogSampleRate} is kept, a full ring
+ * drops the record rather than blocking or growing, and nothing is captured at all when the info level is disabled.
+ * A single thread renders the records and reports the number dropped.
  *
  * @author zhangchenghui.dev@gmail.com
  * @since 1.3.0
@@ -37,52 +47,193 @@ public class BatchLogHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BatchLogHandler.class);
 
-    private static final BlockingQueue<String> LOG_QUEUE = new LinkedBlockingQueue<>();
-
-    public static final BatchLogHandler INSTANCE = new BatchLogHandler();
-
-    private static final int MAX_LOG_SEND_THREAD = 1;
-    private static final int MAX_LOG_TAKE_SIZE = 1024;
-    private static final long KEEP_ALIVE_TIME = 0L;
     private static final String THREAD_PREFIX = "batchLoggerPrint";
     private static final long BUSY_SLEEP_MILLS = 5L;
+    private static final int MAX_BUFFER_SIZE = 1 << 20;
+
+    public static final BatchLogHandler INSTANCE = new BatchLogHandler(
+        ConfigurationFactory.getInstance().getInt(ConfigurationKeys.ACCESS_LOG_BUFFER_SIZE,
+            DEFAULT_ACCESS_LOG_BUFFER_SIZE),
+        ConfigurationFactory.getInstance().getInt(ConfigurationKeys.ACCESS_LOG_SAMPLE_RATE,
+            DEFAULT_ACCESS_LOG_SAMPLE_RATE)).start();
+
+    private final Record[] ring;
+
+    private final int mask;
+
+    private final int sampleRate;
+
+    /**
+     * The next position to write, claimed by the producers.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The next position to read, only moved by the printing thread.
+     */
+    private long head;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Instantiates a new Batch log handler.
+     *
+     * @param bufferSize the number of the records, rounded up to a power of 2
+     * @param sampleRate one record in sampleRate is kept
+     */
+    BatchLogHandler(int bufferSize, int sampleRate) {
+        int capacity = 1;
+        while (capacity < Math.min(Math.max(2, bufferSize), MAX_BUFFER_SIZE)) {
+            capacity <<= 1;
+        }
+        this.ring = new Record[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Record(i);
+        }
+        this.mask = capacity - 1;
+        this.sampleRate = Math.max(1, sampleRate);
+    }
 
-    static {
-        ExecutorService mergeSendExecutorService = new ThreadPoolExecutor(MAX_LOG_SEND_THREAD, MAX_LOG_SEND_THREAD,
-            KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
-            new NamedThreadFactory(THREAD_PREFIX, MAX_LOG_SEND_THREAD, true));
-        mergeSendExecutorService.submit(new BatchLogRunnable());
+    private BatchLogHandler start() {
+        Thread printer = new NamedThreadFactory(THREAD_PREFIX, 1, true).newThread(this::printLoop);
+        printer.start();
+        return this;
     }
 
-    public BlockingQueue<String> getLogQueue() {
-        return LOG_QUEUE;
+    /**
+     * Record a message handled by the server.
+     *
+     * @param message       the message
+     * @param xid           the xid of the message, null if none
+     * @param remoteAddress the address of the client
+     * @param vgroup        the transaction service group of the client
+     * @param startNanos    the {@link System#nanoTime()} the handling started at
+     */
+    public void record(Object message, String xid, SocketAddress remoteAddress, String vgroup, long startNanos) {
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        offer(message == null ? null : message.getClass(), xid, remoteAddress, vgroup,
+            System.nanoTime() - startNanos);
     }
 
     /**
-     * The type Batch log runnable.
+     * Fill the next free record, the ring is a bounded multi-producer queue whose records carry the position they
+     * are free or published for.
+     *
+     * @return false if the ring is full and the record dropped
      */
-    static class BatchLogRunnable implements Runnable {
-
-        @Override
-        public void run() {
-            List<String> logList = new ArrayList<>();
-            while (true) {
-                try {
-                    logList.add(LOG_QUEUE.take());
-                    LOG_QUEUE.drainTo(logList, MAX_LOG_TAKE_SIZE);
-                    if (LOGGER.isInfoEnabled()) {
-                        for (String str : logList) {
-                            LOGGER.info(str);
-                        }
-                    }
-                    logList.clear();
-                    TimeUnit.MILLISECONDS.sleep(BUSY_SLEEP_MILLS);
-                } catch (InterruptedException exx) {
-                    LOGGER.error("batch log busy sleep error:{}", exx.getMessage(), exx);
+    boolean offer(Class<?> messageType, String xid, SocketAddress remoteAddress, String vgroup, long costNanos) {
+        long position = tail.get();
+        Record record;
+        while (true) {
+            record = ring[(int)position & mask];
+            long diff = record.sequence - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
                 }
+                position = tail.get();
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        record.timestamp = System.currentTimeMillis();
+        record.messageType = messageType;
+        record.xid = xid;
+        record.remoteAddress = remoteAddress;
+        record.vgroup = vgroup;
+        record.costNanos = costNanos;
+        // publish the record to the printing thread
+        record.sequence = position + 1;
+        return true;
+    }
+
+    /**
+     * Hand the published records to the consumer in order and free them, only called by a single thread.
+     *
+     * @param consumer the consumer, which must not keep the record
+     * @return the number of the records consumed
+     */
+    int drain(Consumer<Record> consumer) {
+        int count = 0;
+        while (true) {
+            Record record = ring[(int)head & mask];
+            if (record.sequence != head + 1) {
+                return count;
+            }
+            try {
+                consumer.accept(record);
+            } finally {
+                record.clear();
+                record.sequence = head + ring.length;
+                head++;
+                count++;
+            }
+        }
+    }
 
+    private void printLoop() {
+        while (true) {
+            try {
+                drain(this::print);
+                long droppedCount = dropped.sumThenReset();
+                if (droppedCount > 0) {
+                    LOGGER.warn("the access log buffer is full, {} records dropped", droppedCount);
+                }
+                TimeUnit.MILLISECONDS.sleep(BUSY_SLEEP_MILLS);
+            } catch (InterruptedException exx) {
+                LOGGER.error("batch log busy sleep error:{}", exx.getMessage(), exx);
+            } catch (Throwable th) {
+                LOGGER.error("batch log print error:{}", th.getMessage(), th);
             }
         }
     }
 
+    private void print(Record record) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("{},xid:{},clientIp:{},vgroup:{},cost:{}us,at:{}",
+                record.messageType == null ? null : record.messageType.getSimpleName(), record.xid,
+                record.remoteAddress == null ? null : NetUtil.toIpAddress(record.remoteAddress), record.vgroup,
+                TimeUnit.NANOSECONDS.toMicros(record.costNanos), record.timestamp);
+        }
+    }
+
+    /**
+     * A record of the ring, reused once printed.
+     */
+    static final class Record {
+
+        private volatile long sequence;
+
+        long timestamp;
+
+        Class<?> messageType;
+
+        String xid;
+
+        SocketAddress remoteAddress;
+
+        String vgroup;
+
+        long costNanos;
+
+        private Record(long sequence) {
+            this.sequence = sequence;
+        }
+
+        private void clear() {
+            messageType = null;
+            xid = null;
+            remoteAddress = null;
+            vgroup = null;
+        }
+    }
+
 }
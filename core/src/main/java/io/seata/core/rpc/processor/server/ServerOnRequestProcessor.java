@@ -15,13 +15,26 @@
  */
 package io.seata.core.rpc.processor.server;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.netty.channel.ChannelHandlerContext;
 import io.seata.common.util.NetUtil;
+import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.context.LockWaitHolder;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.MergeResultMessage;
 import io.seata.core.protocol.MergedWarpMessage;
 import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchReportRequest;
 import io.seata.core.protocol.transaction.GlobalBeginRequest;
@@ -38,6 +51,8 @@ import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_PARALLEL_HANDLE_MERGED_REQUEST;
+
 /**
  * process RM/TM client request message.
  * <p>
@@ -45,8 +60,9 @@ import org.slf4j.LoggerFactory;
  * RM:
  * 1) {@link MergedWarpMessage}
  * 2) {@link BranchRegisterRequest}
- * 3) {@link BranchReportRequest}
- * 4) {@link GlobalLockQueryRequest}
+ * 3) {@link BranchRegisterBatchRequest}
+ * 4) {@link BranchReportRequest}
+ * 5) {@link GlobalLockQueryRequest}
  * TM:
  * 1) {@link MergedWarpMessage}
  * 2) {@link GlobalBeginRequest}
@@ -54,6 +70,10 @@ import org.slf4j.LoggerFactory;
  * 4) {@link GlobalReportRequest}
  * 5) {@link GlobalRollbackRequest}
  * 6) {@link GlobalStatusRequest}
+ * <p>
+ * The sub-messages of a {@link MergedWarpMessage} are handled one by one, unless the parallel handling is enabled:
+ * they are then grouped by xid, the groups are handled concurrently on the executor and the messages of a group in
+ * order, and the {@link MergeResultMessage} is sent when the last group is done.
  *
  * @author zhangchenghui.dev@gmail.com
  * @since 1.3.0
@@ -62,19 +82,50 @@ public class ServerOnRequestProcessor implements RemotingProcessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerOnRequestProcessor.class);
 
+    private static final boolean ENABLE_PARALLEL_HANDLE_MERGED_REQUEST = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.ENABLE_PARALLEL_HANDLE_MERGED_REQUEST, DEFAULT_ENABLE_PARALLEL_HANDLE_MERGED_REQUEST);
+
     private RemotingServer remotingServer;
 
     private TransactionMessageHandler transactionMessageHandler;
 
+    private ExecutorService mergedRequestExecutor;
+
     public ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler) {
         this.remotingServer = remotingServer;
         this.transactionMessageHandler = transactionMessageHandler;
     }
 
+    /**
+     * Instantiates a new Server on request processor.
+     *
+     * @param remotingServer            the remoting server
+     * @param transactionMessageHandler the transaction message handler
+     * @param mergedRequestExecutor     the executor of the merged sub-messages, if the parallel handling is enabled
+     */
+    public ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler,
+                                    ExecutorService mergedRequestExecutor) {
+        this(remotingServer, transactionMessageHandler);
+        if (ENABLE_PARALLEL_HANDLE_MERGED_REQUEST) {
+            this.mergedRequestExecutor = mergedRequestExecutor;
+        }
+    }
+
     @Override
     public void process(ChannelHandlerContext ctx, RpcMessage rpcMessage) throws Exception {
         if (ChannelManager.isRegistered(ctx.channel())) {
-            onRequestMessage(ctx, rpcMessage);
+            // a request run by the io thread, the pool being saturated, never waits for a lock
+            boolean lockWaitAllowed = !ctx.channel().eventLoop().inEventLoop();
+            if (lockWaitAllowed) {
+                LockWaitHolder.allowLockWait();
+            }
+            try {
+                onRequestMessage(ctx, rpcMessage);
+            } finally {
+                if (lockWaitAllowed) {
+                    LockWaitHolder.remove();
+                }
+            }
         } else {
             try {
                 if (LOGGER.isInfoEnabled()) {
@@ -97,23 +148,19 @@ public class ServerOnRequestProcessor implements RemotingProcessor {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("server received:{},clientIp:{},vgroup:{}", message,
                 NetUtil.toIpAddress(ctx.channel().remoteAddress()), rpcContext.getTransactionServiceGroup());
-        } else {
-            try {
-                BatchLogHandler.INSTANCE.getLogQueue()
-                    .put(message + ",clientIp:" + NetUtil.toIpAddress(ctx.channel().remoteAddress()) + ",vgroup:"
-                        + rpcContext.getTransactionServiceGroup());
-            } catch (InterruptedException e) {
-                LOGGER.error("put message to logQueue error: {}", e.getMessage(), e);
-            }
         }
         if (!(message instanceof AbstractMessage)) {
             return;
         }
         if (message instanceof MergedWarpMessage) {
+            if (mergedRequestExecutor != null && ((MergedWarpMessage) message).msgs.size() > 1) {
+                onMergedRequestMessage(ctx, rpcMessage, (MergedWarpMessage) message, rpcContext);
+                return;
+            }
             AbstractResultMessage[] results = new AbstractResultMessage[((MergedWarpMessage) message).msgs.size()];
             for (int i = 0; i < results.length; i++) {
                 final AbstractMessage subMessage = ((MergedWarpMessage) message).msgs.get(i);
-                results[i] = transactionMessageHandler.onRequest(subMessage, rpcContext);
+                results[i] = handleRequest(ctx, subMessage, rpcContext);
             }
             MergeResultMessage resultMessage = new MergeResultMessage();
             resultMessage.setMsgs(results);
@@ -121,9 +168,92 @@ public class ServerOnRequestProcessor implements RemotingProcessor {
         } else {
             // the single send request message
             final AbstractMessage msg = (AbstractMessage) message;
-            AbstractResultMessage result = transactionMessageHandler.onRequest(msg, rpcContext);
+            AbstractResultMessage result = handleRequest(ctx, msg, rpcContext);
             remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), result);
         }
     }
 
+    private void onMergedRequestMessage(ChannelHandlerContext ctx, RpcMessage rpcMessage,
+                                        MergedWarpMessage mergedWarpMessage, RpcContext rpcContext) {
+        List<AbstractMessage> msgs = mergedWarpMessage.msgs;
+        // the messages of the same xid keep their order, those without one are independent
+        Map<String, List<Integer>> xidGroups = new LinkedHashMap<>();
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < msgs.size(); i++) {
+            String xid = getXid(msgs.get(i));
+            List<Integer> group = StringUtils.isBlank(xid) ? null : xidGroups.get(xid);
+            if (group == null) {
+                group = new ArrayList<>(1);
+                groups.add(group);
+                if (StringUtils.isNotBlank(xid)) {
+                    xidGroups.put(xid, group);
+                }
+            }
+            group.add(i);
+        }
+
+        AbstractResultMessage[] results = new AbstractResultMessage[msgs.size()];
+        // the last group done sends the results, the decrement publishes them to it
+        AtomicInteger remaining = new AtomicInteger(groups.size());
+        AtomicInteger failed = new AtomicInteger();
+        for (int g = 0; g < groups.size(); g++) {
+            List<Integer> group = groups.get(g);
+            Runnable task = () -> {
+                try {
+                    for (int i : group) {
+                        results[i] = handleRequest(ctx, msgs.get(i), rpcContext);
+                    }
+                } catch (Throwable th) {
+                    failed.incrementAndGet();
+                    LOGGER.error("handle merged request error: {}", th.getMessage(), th);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    if (failed.get() > 0) {
+                        // as the serial handling, no result for the client, which times out
+                        return;
+                    }
+                    MergeResultMessage resultMessage = new MergeResultMessage();
+                    resultMessage.setMsgs(results);
+                    remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+                }
+            };
+            if (g == groups.size() - 1) {
+                // the current thread takes the last group instead of waiting
+                task.run();
+            } else {
+                mergedRequestExecutor.execute(task);
+            }
+        }
+    }
+
+    private AbstractResultMessage handleRequest(ChannelHandlerContext ctx, AbstractMessage msg,
+                                                RpcContext rpcContext) {
+        long start = System.nanoTime();
+        AbstractResultMessage result = transactionMessageHandler.onRequest(msg, rpcContext);
+        if (!LOGGER.isDebugEnabled()) {
+            BatchLogHandler.INSTANCE.record(msg, getXid(msg), ctx.channel().remoteAddress(),
+                rpcContext.getTransactionServiceGroup(), start);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the xid of the request message.
+     *
+     * @param msg the message
+     * @return the xid, null if the message has none
+     */
+    public static String getXid(AbstractMessage msg) {
+        if (msg instanceof AbstractGlobalEndRequest) {
+            return ((AbstractGlobalEndRequest) msg).getXid();
+        } else if (msg instanceof BranchRegisterRequest) {
+            return ((BranchRegisterRequest) msg).getXid();
+        } else if (msg instanceof BranchRegisterBatchRequest) {
+            return ((BranchRegisterBatchRequest) msg).getXid();
+        } else if (msg instanceof BranchReportRequest) {
+            return ((BranchReportRequest) msg).getXid();
+        }
+        return null;
+    }
+
 }
@@ -16,10 +16,12 @@
 package io.seata.core.rpc.processor.server;
 
 import io.netty.channel.ChannelHandlerContext;
+import io.seata.common.util.ConcurrentLongHashMap;
 import io.seata.common.util.NetUtil;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractBranchEndResponse;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
 import io.seata.core.protocol.transaction.BranchRollbackResponse;
 import io.seata.core.rpc.RpcContext;
@@ -29,9 +31,6 @@ import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-
 /**
  * handle RM/TM response message.
  * <p>
@@ -55,10 +54,10 @@ public class ServerOnResponseProcessor implements RemotingProcessor {
     /**
      * The Futures from io.seata.core.rpc.netty.AbstractNettyRemoting#futures
      */
-    private ConcurrentMap<Integer, MessageFuture> futures;
+    private ConcurrentLongHashMap<MessageFuture> futures;
 
     public ServerOnResponseProcessor(TransactionMessageHandler transactionMessageHandler,
-                                     ConcurrentHashMap<Integer, MessageFuture> futures) {
+                                     ConcurrentLongHashMap<MessageFuture> futures) {
         this.transactionMessageHandler = transactionMessageHandler;
         this.futures = futures;
     }
@@ -89,22 +88,20 @@ public class ServerOnResponseProcessor implements RemotingProcessor {
     }
 
     private void onResponseMessage(ChannelHandlerContext ctx, RpcMessage rpcMessage) {
+        Object message = rpcMessage.getBody();
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(ctx.channel());
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("server received:{},clientIp:{},vgroup:{}", rpcMessage.getBody(),
-                NetUtil.toIpAddress(ctx.channel().remoteAddress()),
-                ChannelManager.getContextFromIdentified(ctx.channel()).getTransactionServiceGroup());
-        } else {
-            try {
-                BatchLogHandler.INSTANCE.getLogQueue()
-                    .put(rpcMessage.getBody() + ",clientIp:" + NetUtil.toIpAddress(ctx.channel().remoteAddress()) + ",vgroup:"
-                        + ChannelManager.getContextFromIdentified(ctx.channel()).getTransactionServiceGroup());
-            } catch (InterruptedException e) {
-                LOGGER.error("put message to logQueue error: {}", e.getMessage(), e);
-            }
+            LOGGER.debug("server received:{},clientIp:{},vgroup:{}", message,
+                NetUtil.toIpAddress(ctx.channel().remoteAddress()), rpcContext.getTransactionServiceGroup());
+        }
+        long start = System.nanoTime();
+        if (message instanceof AbstractResultMessage) {
+            transactionMessageHandler.onResponse((AbstractResultMessage) message, rpcContext);
         }
-        if (rpcMessage.getBody() instanceof AbstractResultMessage) {
-            RpcContext rpcContext = ChannelManager.getContextFromIdentified(ctx.channel());
-            transactionMessageHandler.onResponse((AbstractResultMessage) rpcMessage.getBody(), rpcContext);
+        if (!LOGGER.isDebugEnabled()) {
+            BatchLogHandler.INSTANCE.record(message,
+                message instanceof AbstractBranchEndResponse ? ((AbstractBranchEndResponse) message).getXid() : null,
+                ctx.channel().remoteAddress(), rpcContext.getTransactionServiceGroup(), start);
         }
     }
 }
@@ -15,6 +15,9 @@
  */
 package io.seata.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  * The interface Codec.
  *
@@ -39,4 +42,29 @@ public interface Serializer {
      * @return the t
      */
     <T> T deserialize(byte[] bytes);
+
+    /**
+     * Encode object into the buffer, the serializers able to write a ByteBuf directly override it to save the
+     * intermediate byte[].
+     *
+     * @param <T> the type parameter
+     * @param t   the t
+     * @param out the buffer to write to
+     */
+    default <T> void serialize(T t, ByteBuf out) {
+        out.writeBytes(serialize(t));
+    }
+
+    /**
+     * Decode t from the readable bytes of the buffer, which are all consumed.
+     *
+     * @param <T> the type parameter
+     * @param in  the buffer to read from
+     * @return the t
+     */
+    default <T> T deserialize(ByteBuf in) {
+        byte[] bytes = ByteBufUtil.getBytes(in);
+        in.skipBytes(bytes.length);
+        return deserialize(bytes);
+    }
 }
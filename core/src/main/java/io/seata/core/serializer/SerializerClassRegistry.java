@@ -39,6 +39,8 @@ import io.seata.core.protocol.RegisterTMRequest;
 import io.seata.core.protocol.RegisterTMResponse;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -100,6 +102,8 @@ public class SerializerClassRegistry {
         registerClass(BranchCommitResponse.class);
         registerClass(BranchRegisterRequest.class);
         registerClass(BranchRegisterResponse.class);
+        registerClass(BranchRegisterBatchRequest.class);
+        registerClass(BranchRegisterBatchResponse.class);
         registerClass(BranchReportRequest.class);
         registerClass(BranchReportResponse.class);
         registerClass(BranchRollbackRequest.class);
@@ -0,0 +1,46 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.common.util.CollectionUtils;
+
+/**
+ * the type serializer factory, the serializers are loaded once per type instead of once per message.
+ */
+public class SerializerFactory {
+
+    /**
+     * The constant SERIALIZER_MAP.
+     */
+    protected static final Map<SerializerType, Serializer> SERIALIZER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * Get serializer by code.
+     *
+     * @param code the code
+     * @return the serializer
+     */
+    public static Serializer getSerializer(byte code) {
+        SerializerType type = SerializerType.getByCode(code);
+        return CollectionUtils.computeIfAbsent(SERIALIZER_MAP, type,
+            key -> EnhancedServiceLoader.load(Serializer.class, type.name()));
+    }
+
+}
@@ -44,6 +44,10 @@ public class GlobalTransactionDO {
 
     private String applicationData;
 
+    private Integer retryCount;
+
+    private Long nextRetryTime;
+
     private Date gmtCreate;
 
     private Date gmtModified;
@@ -210,6 +214,42 @@ public class GlobalTransactionDO {
         this.applicationData = applicationData;
     }
 
+    /**
+     * Gets retry count.
+     *
+     * @return the retry count
+     */
+    public Integer getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Sets retry count.
+     *
+     * @param retryCount the retry count
+     */
+    public void setRetryCount(Integer retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Gets next retry time.
+     *
+     * @return the next retry time
+     */
+    public Long getNextRetryTime() {
+        return nextRetryTime;
+    }
+
+    /**
+     * Sets next retry time.
+     *
+     * @param nextRetryTime the next retry time
+     */
+    public void setNextRetryTime(Long nextRetryTime) {
+        this.nextRetryTime = nextRetryTime;
+    }
+
     /**
      * Gets gmt create.
      *
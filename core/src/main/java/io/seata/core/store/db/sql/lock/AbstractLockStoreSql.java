@@ -90,6 +90,11 @@ public class AbstractLockStoreSql implements LockStoreSql {
     private static final String BATCH_DELETE_LOCK_BY_BRANCHS_SQL = "delete from " + LOCK_TABLE_PLACE_HOLD
         + " where " + ServerTableColumnsName.LOCK_TABLE_XID + " = ? and " + ServerTableColumnsName.LOCK_TABLE_BRANCH_ID + " in (" + IN_PARAMS_PLACE_HOLD + ") ";
 
+    /**
+     * The constant BATCH_DELETE_LOCK_BY_BRANCH_IDS_SQL.
+     */
+    private static final String BATCH_DELETE_LOCK_BY_BRANCH_IDS_SQL = "delete from " + LOCK_TABLE_PLACE_HOLD
+        + " where " + ServerTableColumnsName.LOCK_TABLE_BRANCH_ID + " in (" + IN_PARAMS_PLACE_HOLD + ") ";
 
     /**
      * The constant QUERY_LOCK_SQL.
@@ -104,6 +109,13 @@ public class AbstractLockStoreSql implements LockStoreSql {
         + " where " + ServerTableColumnsName.LOCK_TABLE_ROW_KEY + " in (" + IN_PARAMS_PLACE_HOLD + ")"
         + " order by status desc ";
 
+    /**
+     * The constant CHECK_TABLE_LOCK_SQL.
+     */
+    private static final String CHECK_TABLE_LOCK_SQL = "select " + ALL_COLUMNS + " from " + LOCK_TABLE_PLACE_HOLD
+        + " where " + ServerTableColumnsName.LOCK_TABLE_RESOURCE_ID + " = ? and "
+        + ServerTableColumnsName.LOCK_TABLE_TABLE_NAME + " = ? and " + ServerTableColumnsName.LOCK_TABLE_XID + " <> ? ";
+
     /**
      * The constant QUERY_ALL_LOCK.
      */
@@ -143,6 +155,12 @@ public class AbstractLockStoreSql implements LockStoreSql {
             paramPlaceHold);
     }
 
+    @Override
+    public String getBatchDeleteLockSqlByBranchIds(String lockTable, String paramPlaceHold) {
+        return BATCH_DELETE_LOCK_BY_BRANCH_IDS_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable)
+            .replace(IN_PARAMS_PLACE_HOLD, paramPlaceHold);
+    }
+
     @Override
     public String getQueryLockSql(String lockTable) {
         return QUERY_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
@@ -153,6 +171,11 @@ public class AbstractLockStoreSql implements LockStoreSql {
         return CHECK_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable).replace(IN_PARAMS_PLACE_HOLD, paramPlaceHold);
     }
 
+    @Override
+    public String getCheckTableLockableSql(String lockTable) {
+        return CHECK_TABLE_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
+    }
+
     @Override
     public String getBatchUpdateStatusLockByGlobalSql(String lockTable) {
         return BATCH_UPDATE_STATUS_LOCK_BY_GLOBAL_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
@@ -74,6 +74,15 @@ public interface LockStoreSql {
      */
     String getBatchDeleteLockSqlByBranchs(String lockTable, String paramPlaceHold);
 
+    /**
+     * Get the sql deleting the locks of the branches, whatever their global transactions.
+     *
+     * @param lockTable      the lock table
+     * @param paramPlaceHold the param place hold
+     * @return the string
+     */
+    String getBatchDeleteLockSqlByBranchIds(String lockTable, String paramPlaceHold);
+
     /**
      * Get query lock sql string.
      *
@@ -91,6 +100,14 @@ public interface LockStoreSql {
      */
     String getCheckLockableSql(String lockTable, String paramPlaceHold);
 
+    /**
+     * Get the sql querying the locks of the other global transactions on a table.
+     *
+     * @param lockTable the lock table
+     * @return the string
+     */
+    String getCheckTableLockableSql(String lockTable);
+
     /**
      * get batch update status lock by global sql
      *
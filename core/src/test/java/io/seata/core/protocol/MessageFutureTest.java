@@ -16,11 +16,15 @@
 package io.seata.core.protocol;
 
 import com.alibaba.fastjson.JSON;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -186,6 +190,51 @@ public class MessageFutureTest {
         }
     }
 
+    /**
+     * Test to completable future.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testToCompletableFuture() throws Exception {
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(buildRepcMessage());
+        messageFuture.setTimeout(TIME_OUT_FIELD);
+        CompletableFuture<Object> future = messageFuture.toCompletableFuture();
+        assertThat(future.isDone()).isFalse();
+        messageFuture.setResultMessage(BODY_FIELD);
+        assertThat(future.get()).isEqualTo(BODY_FIELD);
+
+        MessageFuture timeoutFuture = new MessageFuture();
+        timeoutFuture.setRequestMessage(buildRepcMessage());
+        timeoutFuture.setTimeout(TIME_OUT_FIELD);
+        CompletableFuture<Object> failed = timeoutFuture.toCompletableFuture();
+        TimeoutException timeoutException = new TimeoutException("test_timeout");
+        timeoutFuture.setResultMessage(timeoutException);
+        assertThat(failed.isCompletedExceptionally()).isTrue();
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, failed::get);
+        assertThat(e.getCause()).isSameAs(timeoutException);
+    }
+
+    /**
+     * Test the registered timeout is cancelled by the result.
+     */
+    @Test
+    public void testSetResultCancelsTimeout() {
+        HashedWheelTimer timer = new HashedWheelTimer();
+        try {
+            MessageFuture messageFuture = new MessageFuture();
+            messageFuture.setRequestMessage(buildRepcMessage());
+            messageFuture.setTimeout(TIME_OUT_FIELD);
+            Timeout timeout = timer.newTimeout(t -> { }, 1, TimeUnit.HOURS);
+            messageFuture.setTimeoutHandle(timeout);
+            messageFuture.setResultMessage(BODY_FIELD);
+            assertThat(timeout.isCancelled()).isTrue();
+        } finally {
+            timer.stop();
+        }
+    }
+
     private RpcMessage buildRepcMessage() {
         RpcMessage rpcMessage = new RpcMessage();
         rpcMessage.setId(ID_FIELD);
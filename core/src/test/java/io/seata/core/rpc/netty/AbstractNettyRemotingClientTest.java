@@ -0,0 +1,87 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.common.util.ReflectionUtil;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalStatusRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * The type Abstract netty remoting client test.
+ */
+public class AbstractNettyRemotingClientTest {
+
+    @Test
+    public void testMergedSend() throws Exception {
+        TmNettyRemotingClient remotingClient = TmNettyRemotingClient.getInstance("app 1", "group A");
+        EmbeddedChannel channel = new EmbeddedChannel();
+        NettyClientChannelManager channelManager = Mockito.mock(NettyClientChannelManager.class);
+        Mockito.when(channelManager.acquireChannel(Mockito.anyString())).thenReturn(channel);
+        Mockito.when(channelManager.acquireChannel(Mockito.anyString(), Mockito.anyInt())).thenReturn(channel);
+        Object originChannelManager = ReflectionUtil.getFieldValue(remotingClient, "clientChannelManager");
+        ReflectionUtil.setFieldValue(remotingClient, "clientChannelManager", channelManager);
+        List<Integer> requestIds = new ArrayList<>();
+        try {
+            Method offerMergedRequest = AbstractNettyRemotingClient.class.getDeclaredMethod("offerMergedRequest",
+                String.class, RpcMessage.class, long.class);
+            offerMergedRequest.setAccessible(true);
+            int maxSize = NettyClientConfig.getClientBatchSendMaxSize();
+            int total = maxSize * 2 + 1;
+            for (int i = 0; i < total; i++) {
+                RpcMessage rpcMessage = remotingClient.buildRequestMessage(new GlobalStatusRequest(),
+                    ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+                requestIds.add(rpcMessage.getId());
+                offerMergedRequest.invoke(remotingClient, "127.0.0.1:8091", rpcMessage, 30000L);
+            }
+            // nothing is sent until the event loop flushes the queue
+            Assertions.assertNull(channel.readOutbound());
+            channel.runPendingTasks();
+
+            // the requests pending at the flush are split evenly into messages of at most the max size
+            List<Integer> sentIds = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            RpcMessage sent;
+            while ((sent = channel.readOutbound()) != null) {
+                Assertions.assertTrue(sent.getBody() instanceof MergedWarpMessage);
+                MergedWarpMessage mergedWarpMessage = (MergedWarpMessage) sent.getBody();
+                Assertions.assertEquals(mergedWarpMessage.msgIds.size(), mergedWarpMessage.msgs.size());
+                sizes.add(mergedWarpMessage.msgIds.size());
+                sentIds.addAll(mergedWarpMessage.msgIds);
+            }
+            Assertions.assertEquals(3, sizes.size());
+            for (int size : sizes) {
+                Assertions.assertTrue(size <= maxSize);
+                Assertions.assertTrue(size >= total / 3);
+            }
+            Assertions.assertEquals(requestIds, sentIds);
+        } finally {
+            ReflectionUtil.setFieldValue(remotingClient, "clientChannelManager", originChannelManager);
+            requestIds.forEach(remotingClient.futures::remove);
+            remotingClient.mergeMsgMap.clear();
+            channel.finishAndReleaseAll();
+        }
+    }
+}
@@ -99,6 +99,17 @@ class NettyClientChannelManagerTest {
         Assertions.assertEquals(actual, channel);
     }
     
+    @Test
+    void assertAcquireStripedChannelFallsBackToFirstChannel() {
+        channelManager.getChannels().putIfAbsent("localhost", channel);
+        when(channel.isActive()).thenReturn(true);
+        Assertions.assertEquals(channel, channelManager.acquireChannel("localhost", 7));
+        Assertions.assertEquals(channel, channelManager.acquireChannel("localhost", -3));
+        Assertions.assertEquals(1, channelManager.getChannels("localhost").size());
+        assertTrue(channelManager.getChannels("127.0.0.1:8091").isEmpty());
+        verify(poolableFactory, times(0)).makeObject(nettyPoolKey);
+    }
+    
     @Test
     void assertAcquireChannelFromPoolContainsInactiveCache() {
         channelManager.getChannels().putIfAbsent("localhost", channel);
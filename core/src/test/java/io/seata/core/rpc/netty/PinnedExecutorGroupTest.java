@@ -0,0 +1,135 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import io.seata.core.protocol.transaction.GlobalStatusRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Pinned executor group test.
+ */
+public class PinnedExecutorGroupTest {
+
+    @Test
+    public void testSameTransactionSameExecutor() {
+        PinnedExecutorGroup group = new PinnedExecutorGroup(4, 64, Runnable::run);
+        try {
+            BranchRegisterRequest register = new BranchRegisterRequest();
+            register.setXid("127.0.0.1:8091:1001");
+            GlobalCommitRequest commit = new GlobalCommitRequest();
+            commit.setXid("127.0.0.1:8091:1001");
+            ExecutorService executor = group.select(rpcMessage(register));
+            Assertions.assertSame(executor, group.select(rpcMessage(commit)));
+
+            // a merged request goes with the xid of its first sub-message having one
+            MergedWarpMessage merged = new MergedWarpMessage();
+            merged.msgs.add(new GlobalBeginRequest());
+            merged.msgs.add(commit);
+            Assertions.assertSame(executor, group.select(rpcMessage(merged)));
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    public void testWithoutXidRoundRobin() {
+        PinnedExecutorGroup group = new PinnedExecutorGroup(2, 64, Runnable::run);
+        try {
+            RpcMessage begin = rpcMessage(new GlobalBeginRequest());
+            Assertions.assertNotSame(group.select(begin), group.select(begin));
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    public void testPinnable() {
+        BranchRegisterRequest register = new BranchRegisterRequest();
+        Assertions.assertTrue(PinnedExecutorGroup.isPinnable(new GlobalCommitRequest(), false));
+        Assertions.assertTrue(PinnedExecutorGroup.isPinnable(register, false));
+        // a request which may wait for a lock stays on the shared pool
+        Assertions.assertTrue(PinnedExecutorGroup.isPinnable(new GlobalCommitRequest(), true));
+        Assertions.assertTrue(PinnedExecutorGroup.isPinnable(new BranchReportRequest(), true));
+        Assertions.assertFalse(PinnedExecutorGroup.isPinnable(register, true));
+        Assertions.assertFalse(PinnedExecutorGroup.isPinnable(new GlobalLockQueryRequest(), true));
+        MergedWarpMessage merged = new MergedWarpMessage();
+        merged.msgs.add(new GlobalBeginRequest());
+        Assertions.assertTrue(PinnedExecutorGroup.isPinnable(merged, true));
+        merged.msgs.add(register);
+        Assertions.assertFalse(PinnedExecutorGroup.isPinnable(merged, true));
+    }
+
+    @Test
+    public void testLight() {
+        Assertions.assertTrue(PinnedExecutorGroup.isLight(new GlobalStatusRequest(), true));
+        Assertions.assertTrue(PinnedExecutorGroup.isLight(new GlobalLockQueryRequest(), false));
+        // a lock query which may wait never runs on the io thread
+        Assertions.assertFalse(PinnedExecutorGroup.isLight(new GlobalLockQueryRequest(), true));
+        Assertions.assertFalse(PinnedExecutorGroup.isLight(new GlobalCommitRequest(), false));
+        MergedWarpMessage merged = new MergedWarpMessage();
+        merged.msgs.add(new GlobalStatusRequest());
+        Assertions.assertTrue(PinnedExecutorGroup.isLight(merged, false));
+        merged.msgs.add(new BranchRegisterRequest());
+        Assertions.assertFalse(PinnedExecutorGroup.isLight(merged, false));
+    }
+
+    @Test
+    public void testFullQueueFallsBack() throws Exception {
+        ExecutorService fallback = Executors.newSingleThreadExecutor();
+        PinnedExecutorGroup group = new PinnedExecutorGroup(1, 1, fallback);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ExecutorService executor = group.select(rpcMessage(new GlobalBeginRequest()));
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            });
+            // the first task holds the thread, the second one fills the queue
+            executor.execute(() -> { });
+            CompletableFuture<Thread> overflow = new CompletableFuture<>();
+            executor.execute(() -> overflow.complete(Thread.currentThread()));
+            Thread runner = overflow.get(5, TimeUnit.SECONDS);
+            Assertions.assertNotSame(Thread.currentThread(), runner);
+            Assertions.assertFalse(runner.getName().startsWith("ServerPinnedHandlerThread"));
+        } finally {
+            release.countDown();
+            group.shutdown();
+            fallback.shutdown();
+        }
+    }
+
+    private static RpcMessage rpcMessage(Object body) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setBody(body);
+        return rpcMessage;
+    }
+}
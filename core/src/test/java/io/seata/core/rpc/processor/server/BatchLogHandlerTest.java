@@ -0,0 +1,89 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Batch log handler test.
+ */
+public class BatchLogHandlerTest {
+
+    @Test
+    public void testFullRingDropsTheRecord() {
+        BatchLogHandler handler = new BatchLogHandler(4, 1);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(handler.offer(GlobalCommitRequest.class, "xid-" + i, null, "vgroup", i));
+        }
+        Assertions.assertFalse(handler.offer(GlobalCommitRequest.class, "xid-4", null, "vgroup", 4));
+
+        List<String> xids = new ArrayList<>();
+        Assertions.assertEquals(4, handler.drain(record -> xids.add(record.xid)));
+        Assertions.assertEquals(4, xids.size());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("xid-" + i, xids.get(i));
+        }
+        Assertions.assertEquals(0, handler.drain(record -> Assertions.fail("drained twice")));
+
+        // the drained records are free again
+        Assertions.assertTrue(handler.offer(GlobalCommitRequest.class, "xid-5", null, "vgroup", 5));
+        Assertions.assertEquals(1, handler.drain(record -> Assertions.assertEquals("xid-5", record.xid)));
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        BatchLogHandler handler = new BatchLogHandler(1024, 1);
+        int threads = 4;
+        int perThread = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        AtomicInteger offered = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executorService.execute(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        if (handler.offer(GlobalCommitRequest.class, "xid", null, "vgroup", i)) {
+                            offered.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        AtomicInteger drained = new AtomicInteger();
+        while (latch.getCount() > 0) {
+            handler.drain(record -> {
+                Assertions.assertEquals("xid", record.xid);
+                drained.incrementAndGet();
+            });
+        }
+        Assertions.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        handler.drain(record -> drained.incrementAndGet());
+        executorService.shutdown();
+        Assertions.assertEquals(offered.get(), drained.get());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.server;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.common.util.ReflectionUtil;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
+import io.seata.core.rpc.RemotingServer;
+import io.seata.core.rpc.RpcContext;
+import io.seata.core.rpc.TransactionMessageHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * The type Server on request processor test.
+ */
+public class ServerOnRequestProcessorTest {
+
+    private static final int XID_NUM = 3;
+
+    private static final int REQUESTS_PER_XID = 4;
+
+    @Test
+    public void testParallelHandleMergedRequest() throws Exception {
+        Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        Map<String, List<String>> handled = new ConcurrentHashMap<>();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        TransactionMessageHandler messageHandler = new TransactionMessageHandler() {
+            @Override
+            public AbstractResultMessage onRequest(AbstractMessage request, RpcContext context) {
+                GlobalCommitRequest commitRequest = (GlobalCommitRequest) request;
+                String xid = commitRequest.getXid();
+                if (inFlight.computeIfAbsent(xid, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                try {
+                    // leave the time for another request of the same xid to overlap, if it could
+                    Thread.sleep(5);
+                } catch (InterruptedException ignore) {
+                }
+                handled.computeIfAbsent(xid, k -> new ArrayList<>()).add(commitRequest.getExtraData());
+                inFlight.get(xid).decrementAndGet();
+                GlobalCommitResponse response = new GlobalCommitResponse();
+                response.setMsg(commitRequest.getExtraData());
+                return response;
+            }
+
+            @Override
+            public void onResponse(AbstractResultMessage response, RpcContext context) {
+            }
+        };
+        RemotingServer remotingServer = Mockito.mock(RemotingServer.class);
+        ExecutorService executor = Executors.newFixedThreadPool(XID_NUM);
+        try {
+            ServerOnRequestProcessor processor = new ServerOnRequestProcessor(remotingServer, messageHandler);
+            ReflectionUtil.setFieldValue(processor, "mergedRequestExecutor", executor);
+
+            // the requests of the xids interleaved
+            MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < REQUESTS_PER_XID; i++) {
+                for (int x = 0; x < XID_NUM; x++) {
+                    GlobalCommitRequest request = new GlobalCommitRequest();
+                    request.setXid("xid-" + x);
+                    request.setExtraData("xid-" + x + "#" + i);
+                    mergedWarpMessage.msgs.add(request);
+                    expected.add(request.getExtraData());
+                }
+            }
+            RpcMessage rpcMessage = new RpcMessage();
+            rpcMessage.setBody(mergedWarpMessage);
+            EmbeddedChannel channel = new EmbeddedChannel();
+            ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+            Mockito.when(ctx.channel()).thenReturn(channel);
+            RpcContext rpcContext = new RpcContext();
+            rpcContext.setTransactionServiceGroup("default_tx_group");
+
+            Method onMergedRequestMessage = ServerOnRequestProcessor.class.getDeclaredMethod("onMergedRequestMessage",
+                ChannelHandlerContext.class, RpcMessage.class, MergedWarpMessage.class, RpcContext.class);
+            onMergedRequestMessage.setAccessible(true);
+            onMergedRequestMessage.invoke(processor, ctx, rpcMessage, mergedWarpMessage, rpcContext);
+
+            ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+            Mockito.verify(remotingServer, Mockito.timeout(10000)).sendAsyncResponse(Mockito.eq(rpcMessage),
+                Mockito.eq(channel), response.capture());
+
+            // the results are sent in the order of the requests
+            AbstractResultMessage[] results = ((MergeResultMessage) response.getValue()).getMsgs();
+            Assertions.assertEquals(expected.size(), results.length);
+            for (int i = 0; i < results.length; i++) {
+                Assertions.assertEquals(expected.get(i), results[i].getMsg());
+            }
+            // the requests of the same xid are handled one after another, in their order
+            Assertions.assertFalse(overlapped.get());
+            for (int x = 0; x < XID_NUM; x++) {
+                List<String> xidHandled = handled.get("xid-" + x);
+                Assertions.assertEquals(REQUESTS_PER_XID, xidHandled.size());
+                for (int i = 0; i < REQUESTS_PER_XID; i++) {
+                    Assertions.assertEquals("xid-" + x + "#" + i, xidHandled.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -73,6 +73,10 @@ public class LockStoreSqlFactoryTest {
         sql = MYSQL_LOCK_STORE.getBatchDeleteLockSqlByBranchs(GLOBAL_TABLE, "1");
         Assertions.assertNotNull(sql);
 
+        // Get batch delete lock sql string.
+        sql = MYSQL_LOCK_STORE.getBatchDeleteLockSqlByBranchIds(GLOBAL_TABLE, "1");
+        Assertions.assertNotNull(sql);
+
         // Get query lock sql string.
         sql = MYSQL_LOCK_STORE.getQueryLockSql(GLOBAL_TABLE);
         Assertions.assertNotNull(sql);
@@ -84,6 +88,8 @@ public class LockStoreSqlFactoryTest {
         Assertions.assertNotNull(sql);
         sql = MYSQL_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
+        sql = MYSQL_LOCK_STORE.getCheckTableLockableSql(GLOBAL_TABLE);
+        Assertions.assertNotNull(sql);
 
     }
 
@@ -120,6 +126,10 @@ public class LockStoreSqlFactoryTest {
         sql = ORACLE_LOCK_STORE.getBatchDeleteLockSqlByBranchs(GLOBAL_TABLE, "1");
         Assertions.assertNotNull(sql);
 
+        // Get batch delete lock sql string.
+        sql = ORACLE_LOCK_STORE.getBatchDeleteLockSqlByBranchIds(GLOBAL_TABLE, "1");
+        Assertions.assertNotNull(sql);
+
         // Get query lock sql string.
         sql = ORACLE_LOCK_STORE.getQueryLockSql(GLOBAL_TABLE);
         Assertions.assertNotNull(sql);
@@ -131,6 +141,8 @@ public class LockStoreSqlFactoryTest {
         Assertions.assertNotNull(sql);
         sql = ORACLE_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
+        sql = ORACLE_LOCK_STORE.getCheckTableLockableSql(GLOBAL_TABLE);
+        Assertions.assertNotNull(sql);
     }
 
     @Test
@@ -166,6 +178,10 @@ public class LockStoreSqlFactoryTest {
         sql = POSTGRESQL_LOCK_STORE.getBatchDeleteLockSqlByBranchs(GLOBAL_TABLE, "1");
         Assertions.assertNotNull(sql);
 
+        // Get batch delete lock sql string.
+        sql = POSTGRESQL_LOCK_STORE.getBatchDeleteLockSqlByBranchIds(GLOBAL_TABLE, "1");
+        Assertions.assertNotNull(sql);
+
         // Get query lock sql string.
         sql = POSTGRESQL_LOCK_STORE.getQueryLockSql(GLOBAL_TABLE);
         Assertions.assertNotNull(sql);
@@ -177,6 +193,8 @@ public class LockStoreSqlFactoryTest {
         Assertions.assertNotNull(sql);
         sql = POSTGRESQL_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
+        sql = POSTGRESQL_LOCK_STORE.getCheckTableLockableSql(GLOBAL_TABLE);
+        Assertions.assertNotNull(sql);
     }
 
     @Test
@@ -212,6 +230,10 @@ public class LockStoreSqlFactoryTest {
         sql = H2_LOCK_STORE.getBatchDeleteLockSqlByBranchs(GLOBAL_TABLE, "1");
         Assertions.assertNotNull(sql);
 
+        // Get batch delete lock sql string.
+        sql = H2_LOCK_STORE.getBatchDeleteLockSqlByBranchIds(GLOBAL_TABLE, "1");
+        Assertions.assertNotNull(sql);
+
         // Get query lock sql string.
         sql = H2_LOCK_STORE.getQueryLockSql(GLOBAL_TABLE);
         Assertions.assertNotNull(sql);
@@ -223,6 +245,8 @@ public class LockStoreSqlFactoryTest {
         Assertions.assertNotNull(sql);
         sql = H2_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
+        sql = H2_LOCK_STORE.getCheckTableLockableSql(GLOBAL_TABLE);
+        Assertions.assertNotNull(sql);
     }
 
     @Test
@@ -258,6 +282,10 @@ public class LockStoreSqlFactoryTest {
         sql = OCEANBASE_LOCK_STORE.getBatchDeleteLockSqlByBranchs(GLOBAL_TABLE, "1");
         Assertions.assertNotNull(sql);
 
+        // Get batch delete lock sql string.
+        sql = OCEANBASE_LOCK_STORE.getBatchDeleteLockSqlByBranchIds(GLOBAL_TABLE, "1");
+        Assertions.assertNotNull(sql);
+
         // Get query lock sql string.
         sql = OCEANBASE_LOCK_STORE.getQueryLockSql(GLOBAL_TABLE);
         Assertions.assertNotNull(sql);
@@ -269,5 +297,7 @@ public class LockStoreSqlFactoryTest {
         Assertions.assertNotNull(sql);
         sql = OCEANBASE_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
+        sql = OCEANBASE_LOCK_STORE.getCheckTableLockableSql(GLOBAL_TABLE);
+        Assertions.assertNotNull(sql);
     }
 }
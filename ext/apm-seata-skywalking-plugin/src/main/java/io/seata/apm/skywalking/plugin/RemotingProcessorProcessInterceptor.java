@@ -43,7 +43,7 @@ public class RemotingProcessorProcessInterceptor implements InstanceMethodsAroun
         CarrierItem next = contextCarrier.items();
         while (next.hasNext()) {
             next = next.next();
-            next.setHeadValue(rpcMessage.getHeadMap().get(next.getHeadKey()));
+            next.setHeadValue(rpcMessage.getHead(next.getHeadKey()));
         }
         AbstractSpan activeSpan = ContextManager.createEntrySpan(operationName, contextCarrier);
         SpanLayer.asRPCFramework(activeSpan);
@@ -23,12 +23,18 @@ package io.seata.metrics;
 public interface IdConstants {
     String SEATA_TRANSACTION = "seata.transaction";
 
+    String SEATA_STORE = "seata.store";
+
+    String SEATA_LOCK = "seata.lock";
+
     String APP_ID_KEY = "applicationId";
     
     String GROUP_KEY = "group";
 
     String NAME_KEY = "name";
 
+    String RESOURCE_ID_KEY = "resourceId";
+
     String ROLE_KEY = "role";
 
     String METER_KEY = "meter";
@@ -66,4 +72,12 @@ public interface IdConstants {
     String STATUS_VALUE_COMMITTED = "committed";
 
     String STATUS_VALUE_ROLLBACKED = "rollbacked";
+
+    String STATUS_VALUE_TIMEOUT_EXPIRED = "timeoutExpired";
+
+    String NAME_VALUE_FILE_FSYNC = "fileFsync";
+
+    String NAME_VALUE_LOCK_CONFLICT = "lockConflict";
+
+    String NAME_VALUE_LOCK_HOLD = "lockHold";
 }
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
+import io.seata.common.Constants;
 import io.seata.common.DefaultValues;
 import io.seata.common.exception.ShouldNeverHappenException;
 import io.seata.common.util.CollectionUtils;
@@ -64,6 +65,13 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
     private static final boolean ONLY_CARE_UPDATE_COLUMNS = ConfigurationFactory.getInstance().getBoolean(
             ConfigurationKeys.TRANSACTION_UNDO_ONLY_CARE_UPDATE_COLUMNS, DefaultValues.DEFAULT_ONLY_CARE_UPDATE_COLUMNS);
 
+    /**
+     * The rows above it lock the whole table, 0 never. The lock key pks are escaped only if it is on, so the lock keys
+     * of the RMs without table locks stay those of the older versions.
+     */
+    private static final int TABLE_LOCK_THRESHOLD = ConfigurationFactory.getInstance().getInt(
+            ConfigurationKeys.CLIENT_TABLE_LOCK_THRESHOLD, DefaultValues.DEFAULT_CLIENT_TABLE_LOCK_THRESHOLD);
+
     /**
      * The Statement proxy.
      */
@@ -331,10 +339,11 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
     }
 
     /**
-     * build lockKey
+     * build lockKey, the rows above the table lock threshold lock the whole table instead. with the table locks on, the
+     * pks starting with {@link Constants#LOCK_PK_ESCAPE} are escaped by one more, they never take the table lock pk
      *
      * @param rowsIncludingPK the records
-     * @return the string as local key. the local key example(multi pk): "t_user:1_a,2_b"
+     * @return the string as local key. the local key example(multi pk): "t_user:1_a,2_b", table lock: "t_user:#*"
      */
     protected String buildLockKey(TableRecords rowsIncludingPK) {
         if (rowsIncludingPK.size() == 0) {
@@ -344,16 +353,22 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
         StringBuilder sb = new StringBuilder();
         sb.append(rowsIncludingPK.getTableMeta().getTableName());
         sb.append(":");
+        if (TABLE_LOCK_THRESHOLD > 0 && rowsIncludingPK.size() > TABLE_LOCK_THRESHOLD) {
+            return sb.append(Constants.TABLE_LOCK_PK).toString();
+        }
         int filedSequence = 0;
         List<Map<String, Field>> pksRows = rowsIncludingPK.pkRows();
         List<String> primaryKeysOnlyName = getTableMeta().getPrimaryKeyOnlyName();
         for (Map<String, Field> rowMap : pksRows) {
             int pkSplitIndex = 0;
             for (String pkName : primaryKeysOnlyName) {
+                Object pkValue = rowMap.get(pkName).getValue();
                 if (pkSplitIndex > 0) {
                     sb.append("_");
+                } else if (TABLE_LOCK_THRESHOLD > 0 && String.valueOf(pkValue).startsWith(Constants.LOCK_PK_ESCAPE)) {
+                    sb.append(Constants.LOCK_PK_ESCAPE);
                 }
-                sb.append(rowMap.get(pkName).getValue());
+                sb.append(pkValue);
                 pkSplitIndex++;
             }
             filedSequence++;
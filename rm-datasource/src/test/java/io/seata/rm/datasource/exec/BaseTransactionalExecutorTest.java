@@ -15,6 +15,7 @@
  */
 package io.seata.rm.datasource.exec;
 
+import io.seata.common.util.ReflectionUtil;
 import io.seata.core.model.GlobalLockConfig;
 import io.seata.rm.GlobalLockExecutor;
 import io.seata.rm.GlobalLockTemplate;
@@ -114,6 +115,39 @@ public class BaseTransactionalExecutorTest {
         assertThat(executor.buildLockKey(tableRecords)).isEqualTo(buildLockKeyExpect);
     }
 
+    @Test
+    public void testBuildLockKeyEscapesPk() throws Exception {
+        String tableName = "test_name";
+        String pkColumnName = "id";
+        List<Map<String, Field>> pkRows = new ArrayList<>();
+        for (String pk : new String[] {"*", "#*", "a#"}) {
+            Field field = mock(Field.class);
+            when(field.getValue()).thenReturn(pk);
+            pkRows.add(Collections.singletonMap(pkColumnName, field));
+        }
+        TableMeta tableMeta = mock(TableMeta.class);
+        when(tableMeta.getTableName()).thenReturn(tableName);
+        when(tableMeta.getPrimaryKeyOnlyName()).thenReturn(Collections.singletonList(pkColumnName));
+        TableRecords tableRecords = mock(TableRecords.class);
+        when(tableRecords.getTableMeta()).thenReturn(tableMeta);
+        when(tableRecords.size()).thenReturn(pkRows.size());
+        when(tableRecords.pkRows()).thenReturn(pkRows);
+        BaseTransactionalExecutor executor = mock(BaseTransactionalExecutor.class);
+        when(executor.buildLockKey(tableRecords)).thenCallRealMethod();
+        when(executor.getTableMeta()).thenReturn(tableMeta);
+        // the lock keys stay those of the older versions without the table locks
+        assertThat(executor.buildLockKey(tableRecords)).isEqualTo("test_name:*,#*,a#");
+        Object threshold = ReflectionUtil.getFieldValue(BaseTransactionalExecutor.class,
+            BaseTransactionalExecutor.class.getDeclaredField("TABLE_LOCK_THRESHOLD"));
+        ReflectionUtil.modifyStaticFinalField(BaseTransactionalExecutor.class, "TABLE_LOCK_THRESHOLD", 100);
+        try {
+            // no pk takes the table lock pk "#*"
+            assertThat(executor.buildLockKey(tableRecords)).isEqualTo("test_name:*,##*,a#");
+        } finally {
+            ReflectionUtil.modifyStaticFinalField(BaseTransactionalExecutor.class, "TABLE_LOCK_THRESHOLD", threshold);
+        }
+    }
+
     @Test
     public void testBuildLockKeyWithMultiPk() {
         //build expect data
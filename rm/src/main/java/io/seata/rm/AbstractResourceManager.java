@@ -16,6 +16,8 @@
 package io.seata.rm;
 
 import io.seata.common.exception.NotSupportYetException;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.RmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
@@ -32,8 +34,12 @@ import io.seata.core.rpc.netty.RmNettyRemotingClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BRANCH_REGISTER_BATCH_ENABLE;
+
 /**
  * abstract ResourceManager
  *
@@ -43,6 +49,11 @@ public abstract class AbstractResourceManager implements ResourceManager {
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractResourceManager.class);
 
+    private static final boolean BRANCH_REGISTER_BATCH_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.CLIENT_BRANCH_REGISTER_BATCH_ENABLE, DEFAULT_CLIENT_BRANCH_REGISTER_BATCH_ENABLE);
+
+    private final BranchRegisterBatcher branchRegisterBatcher = new BranchRegisterBatcher();
+
     /**
      * registry branch record
      *
@@ -56,14 +67,12 @@ public abstract class AbstractResourceManager implements ResourceManager {
      */
     @Override
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid, String applicationData, String lockKeys) throws TransactionException {
+        BranchRegisterRequest request = buildBranchRegisterRequest(branchType, resourceId, xid, applicationData,
+            lockKeys);
+        if (BRANCH_REGISTER_BATCH_ENABLE) {
+            return branchRegisterBatcher.branchRegister(request);
+        }
         try {
-            BranchRegisterRequest request = new BranchRegisterRequest();
-            request.setXid(xid);
-            request.setLockKey(lockKeys);
-            request.setResourceId(resourceId);
-            request.setBranchType(branchType);
-            request.setApplicationData(applicationData);
-
             BranchRegisterResponse response = (BranchRegisterResponse) RmNettyRemotingClient.getInstance().sendSyncRequest(request);
             if (response.getResultCode() == ResultCode.Failed) {
                 throw new RmTransactionException(response.getTransactionExceptionCode(), String.format("Response[ %s ]", response.getMsg()));
@@ -89,11 +98,7 @@ public abstract class AbstractResourceManager implements ResourceManager {
     @Override
     public void branchReport(BranchType branchType, String xid, long branchId, BranchStatus status, String applicationData) throws TransactionException {
         try {
-            BranchReportRequest request = new BranchReportRequest();
-            request.setXid(xid);
-            request.setBranchId(branchId);
-            request.setStatus(status);
-            request.setApplicationData(applicationData);
+            BranchReportRequest request = buildBranchReportRequest(xid, branchId, status, applicationData);
 
             BranchReportResponse response = (BranchReportResponse) RmNettyRemotingClient.getInstance().sendSyncRequest(request);
             if (response.getResultCode() == ResultCode.Failed) {
@@ -106,6 +111,118 @@ public abstract class AbstractResourceManager implements ResourceManager {
         }
     }
 
+    /**
+     * registry branch record without waiting for the TC, the batched registration waits for its batch though.
+     *
+     * @param branchType      the branch type
+     * @param resourceId      the resource id
+     * @param clientId        the client id
+     * @param xid             the xid
+     * @param applicationData the application data
+     * @param lockKeys        the lock keys
+     * @return the future of the branchId
+     */
+    @Override
+    public CompletableFuture<Long> branchRegisterAsync(BranchType branchType, String resourceId, String clientId,
+                                                       String xid, String applicationData, String lockKeys) {
+        if (BRANCH_REGISTER_BATCH_ENABLE) {
+            return ResourceManager.super.branchRegisterAsync(branchType, resourceId, clientId, xid, applicationData,
+                lockKeys);
+        }
+        BranchRegisterRequest request = buildBranchRegisterRequest(branchType, resourceId, xid, applicationData,
+            lockKeys);
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        RmNettyRemotingClient.getInstance().sendAsyncRequest(request).whenComplete((result, cause) -> {
+            try {
+                if (cause != null) {
+                    future.completeExceptionally(
+                        toRmTransactionException(cause, TransactionExceptionCode.BranchRegisterFailed));
+                    return;
+                }
+                BranchRegisterResponse response = (BranchRegisterResponse) result;
+                if (response.getResultCode() == ResultCode.Failed) {
+                    future.completeExceptionally(new RmTransactionException(response.getTransactionExceptionCode(),
+                        String.format("Response[ %s ]", response.getMsg())));
+                    return;
+                }
+                future.complete(response.getBranchId());
+            } catch (RuntimeException rex) {
+                future.completeExceptionally(
+                    toRmTransactionException(rex, TransactionExceptionCode.BranchRegisterFailed));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * report branch status without waiting for the TC
+     *
+     * @param branchType      the branch type
+     * @param xid             the xid
+     * @param branchId        the branch id
+     * @param status          the status
+     * @param applicationData the application data
+     * @return the future completed once reported
+     */
+    @Override
+    public CompletableFuture<Void> branchReportAsync(BranchType branchType, String xid, long branchId,
+                                                     BranchStatus status, String applicationData) {
+        BranchReportRequest request = buildBranchReportRequest(xid, branchId, status, applicationData);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        RmNettyRemotingClient.getInstance().sendAsyncRequest(request).whenComplete((result, cause) -> {
+            try {
+                if (cause != null) {
+                    future.completeExceptionally(
+                        toRmTransactionException(cause, TransactionExceptionCode.BranchReportFailed));
+                    return;
+                }
+                BranchReportResponse response = (BranchReportResponse) result;
+                if (response.getResultCode() == ResultCode.Failed) {
+                    future.completeExceptionally(new RmTransactionException(response.getTransactionExceptionCode(),
+                        String.format("Response[ %s ]", response.getMsg())));
+                    return;
+                }
+                future.complete(null);
+            } catch (RuntimeException rex) {
+                future.completeExceptionally(
+                    toRmTransactionException(rex, TransactionExceptionCode.BranchReportFailed));
+            }
+        });
+        return future;
+    }
+
+    private BranchRegisterRequest buildBranchRegisterRequest(BranchType branchType, String resourceId, String xid,
+                                                             String applicationData, String lockKeys) {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid(xid);
+        request.setLockKey(lockKeys);
+        request.setResourceId(resourceId);
+        request.setBranchType(branchType);
+        request.setApplicationData(applicationData);
+        return request;
+    }
+
+    private BranchReportRequest buildBranchReportRequest(String xid, long branchId, BranchStatus status,
+                                                         String applicationData) {
+        BranchReportRequest request = new BranchReportRequest();
+        request.setXid(xid);
+        request.setBranchId(branchId);
+        request.setStatus(status);
+        request.setApplicationData(applicationData);
+        return request;
+    }
+
+    /**
+     * The same exceptions as the synchronous calls: a timeout is an IO failure, anything else a runtime one.
+     */
+    private static RmTransactionException toRmTransactionException(Throwable cause, TransactionExceptionCode code) {
+        Throwable actual = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        if (actual instanceof TimeoutException) {
+            return new RmTransactionException(TransactionExceptionCode.IO, "RPC Timeout", actual);
+        }
+        return new RmTransactionException(code, "Runtime", actual);
+    }
+
     @Override
     public boolean lockQuery(BranchType branchType, String resourceId, String xid, String lockKeys) throws TransactionException {
         return false;
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+import io.seata.core.exception.RmTransactionException;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.rpc.netty.RmNettyRemotingClient;
+
+/**
+ * Coalesce the branch registrations of one global transaction issued concurrently, e.g. by the local transactions
+ * of one business method committing several data sources at once.
+ * <p>
+ * A registration is sent at once if no registration of the same xid and branch type is in flight. The ones arriving
+ * meanwhile wait for it, and are then sent together in one {@link BranchRegisterBatchRequest}, so a registration is
+ * never delayed on purpose to wait for others.
+ */
+final class BranchRegisterBatcher {
+
+    private final ConcurrentMap<String, RegisterGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Register the branch, alone or in a batch.
+     *
+     * @param request the branch register request
+     * @return the branch id
+     * @throws TransactionException the transaction exception
+     */
+    Long branchRegister(BranchRegisterRequest request) throws TransactionException {
+        String key = request.getXid() + "#" + request.getBranchType().name();
+        RegisterGroup group = groups.computeIfAbsent(key, k -> new RegisterGroup());
+        PendingRegister pending = new PendingRegister(request);
+        List<PendingRegister> batch = null;
+        boolean interrupted = false;
+        synchronized (group) {
+            group.pendings.add(pending);
+            // not interruptible, a pending registration taken by another thread is completed by that thread
+            while (group.sending && !pending.done) {
+                try {
+                    group.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (!pending.done) {
+                group.sending = true;
+                batch = new ArrayList<>(group.pendings);
+                group.pendings.clear();
+            }
+        }
+        if (batch != null) {
+            try {
+                send(batch);
+            } finally {
+                synchronized (group) {
+                    group.sending = false;
+                    for (PendingRegister sent : batch) {
+                        sent.done = true;
+                    }
+                    if (group.pendings.isEmpty()) {
+                        groups.remove(key, group);
+                    }
+                    group.notifyAll();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return pending.getBranchId();
+    }
+
+    private void send(List<PendingRegister> batch) {
+        try {
+            if (batch.size() == 1) {
+                PendingRegister pending = batch.get(0);
+                pending.response = (BranchRegisterResponse)RmNettyRemotingClient.getInstance().sendSyncRequest(
+                    pending.request);
+                return;
+            }
+            BranchRegisterBatchRequest batchRequest = new BranchRegisterBatchRequest();
+            batchRequest.setXid(batch.get(0).request.getXid());
+            batchRequest.setBranchType(batch.get(0).request.getBranchType());
+            List<BranchRegisterRequest> requests = new ArrayList<>(batch.size());
+            for (PendingRegister pending : batch) {
+                requests.add(pending.request);
+            }
+            batchRequest.setBranchRegisterRequests(requests);
+            BranchRegisterBatchResponse batchResponse = (BranchRegisterBatchResponse)RmNettyRemotingClient
+                .getInstance().sendSyncRequest(batchRequest);
+            if (batchResponse.getResultCode() == ResultCode.Failed) {
+                failAll(batch, batchResponse.getTransactionExceptionCode(),
+                    String.format("Response[ %s ]", batchResponse.getMsg()), null);
+                return;
+            }
+            List<BranchRegisterResponse> responses = batchResponse.getBranchRegisterResponses();
+            if (responses == null || responses.size() != batch.size()) {
+                failAll(batch, TransactionExceptionCode.BranchRegisterFailed,
+                    "Response of the batch does not match the request", null);
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).response = responses.get(i);
+            }
+        } catch (TimeoutException toe) {
+            failAll(batch, TransactionExceptionCode.IO, "RPC Timeout", toe);
+        } catch (RuntimeException rex) {
+            failAll(batch, TransactionExceptionCode.BranchRegisterFailed, "Runtime", rex);
+        }
+    }
+
+    private static void failAll(List<PendingRegister> batch, TransactionExceptionCode code, String message,
+                                Throwable cause) {
+        for (PendingRegister pending : batch) {
+            pending.exception = new RmTransactionException(code, message, cause);
+        }
+    }
+
+    private static final class RegisterGroup {
+
+        private final List<PendingRegister> pendings = new ArrayList<>();
+
+        private boolean sending;
+    }
+
+    private static final class PendingRegister {
+
+        private final BranchRegisterRequest request;
+
+        private BranchRegisterResponse response;
+
+        private RmTransactionException exception;
+
+        private boolean done;
+
+        private PendingRegister(BranchRegisterRequest request) {
+            this.request = request;
+        }
+
+        private Long getBranchId() throws TransactionException {
+            if (exception != null) {
+                throw exception;
+            }
+            if (response == null) {
+                throw new RmTransactionException(TransactionExceptionCode.BranchRegisterFailed, "No response");
+            }
+            if (response.getResultCode() == ResultCode.Failed) {
+                throw new RmTransactionException(response.getTransactionExceptionCode(),
+                    String.format("Response[ %s ]", response.getMsg()));
+            }
+            return response.getBranchId();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Component;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_TIMES;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_TABLE_LOCK_THRESHOLD;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.LOCK_PREFIX;
 
 /**
@@ -32,6 +33,7 @@ public class LockProperties {
     private int retryInterval = DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
     private int retryTimes = DEFAULT_CLIENT_LOCK_RETRY_TIMES;
     private boolean retryPolicyBranchRollbackOnConflict = DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
+    private int tableLockThreshold = DEFAULT_CLIENT_TABLE_LOCK_THRESHOLD;
 
     public int getRetryInterval() {
         return retryInterval;
@@ -59,4 +61,13 @@ public class LockProperties {
         this.retryPolicyBranchRollbackOnConflict = retryPolicyBranchRollbackOnConflict;
         return this;
     }
+
+    public int getTableLockThreshold() {
+        return tableLockThreshold;
+    }
+
+    public LockProperties setTableLockThreshold(int tableLockThreshold) {
+        this.tableLockThreshold = tableLockThreshold;
+        return this;
+    }
 }
@@ -19,6 +19,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BRANCH_REGISTER_BATCH_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
@@ -42,6 +43,7 @@ public class RmProperties {
     private long tableMetaCheckerInterval = DEFAULT_TABLE_META_CHECKER_INTERVAL;
     private boolean reportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
     private boolean sagaBranchRegisterEnable = DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
+    private boolean branchRegisterBatchEnable = DEFAULT_CLIENT_BRANCH_REGISTER_BATCH_ENABLE;
     private String sagaJsonParser = DEFAULT_SAGA_JSON_PARSER;
     private boolean sagaRetryPersistModeUpdate = DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
     private boolean sagaCompensatePersistModeUpdate = DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
@@ -91,6 +93,15 @@ public class RmProperties {
         this.sagaBranchRegisterEnable = sagaBranchRegisterEnable;
     }
 
+    public boolean isBranchRegisterBatchEnable() {
+        return branchRegisterBatchEnable;
+    }
+
+    public RmProperties setBranchRegisterBatchEnable(boolean branchRegisterBatchEnable) {
+        this.branchRegisterBatchEnable = branchRegisterBatchEnable;
+        return this;
+    }
+
     public String getSagaJsonParser() {
         return sagaJsonParser;
     }
@@ -18,6 +18,9 @@ package io.seata.spring.boot.autoconfigure.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_CHANNELS_PER_SERVER;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_CHANNEL_STRIPING;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_REQUEST;
@@ -69,6 +72,21 @@ public class TransportProperties {
      */
     private boolean enableRmClientBatchSendRequest = DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST;
 
+    /**
+     * the max number of the requests merged into one message by the client batch send
+     */
+    private int clientBatchSendMaxSize = DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE;
+
+    /**
+     * the number of the channels connected to each server
+     */
+    private int clientChannelsPerServer = DEFAULT_CLIENT_CHANNELS_PER_SERVER;
+
+    /**
+     * how the requests are spread over the channels of a server, xid or roundRobin
+     */
+    private String clientChannelStriping = DEFAULT_CLIENT_CHANNEL_STRIPING;
+
     /**
      * rpcRmRequestTimeout
      */
@@ -157,6 +175,33 @@ public class TransportProperties {
         return this;
     }
 
+    public int getClientBatchSendMaxSize() {
+        return clientBatchSendMaxSize;
+    }
+
+    public TransportProperties setClientBatchSendMaxSize(int clientBatchSendMaxSize) {
+        this.clientBatchSendMaxSize = clientBatchSendMaxSize;
+        return this;
+    }
+
+    public int getClientChannelsPerServer() {
+        return clientChannelsPerServer;
+    }
+
+    public TransportProperties setClientChannelsPerServer(int clientChannelsPerServer) {
+        this.clientChannelsPerServer = clientChannelsPerServer;
+        return this;
+    }
+
+    public String getClientChannelStriping() {
+        return clientChannelStriping;
+    }
+
+    public TransportProperties setClientChannelStriping(String clientChannelStriping) {
+        this.clientChannelStriping = clientChannelStriping;
+        return this;
+    }
+
     public long getRpcRmRequestTimeout() {
         return rpcRmRequestTimeout;
     }
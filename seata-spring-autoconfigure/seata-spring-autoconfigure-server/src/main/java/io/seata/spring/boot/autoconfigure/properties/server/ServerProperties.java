@@ -35,6 +35,19 @@ public class ServerProperties {
     private Boolean enableCheckAuth = true;
     private Integer retryDeadThreshold = 130000;
     private Integer servicePort;
+    private Boolean enableParallelHandleBranch = false;
+    private Integer parallelHandleBranchMaxConcurrency = 16;
+    private Boolean enableParallelHandleMergedRequest = false;
+    private Boolean enableAsyncPhaseTwo = false;
+    private Integer accessLogBufferSize = 8192;
+    private Integer accessLogSampleRate = 1;
+    private String executionModel = "pool";
+
+    private int lockWaitTimeout = 0;
+
+    private int lockContentionTopK = 100;
+
+    private boolean tableLockEnabled = false;
 
     public Duration getMaxCommitRetryTimeout() {
         return maxCommitRetryTimeout;
@@ -89,4 +102,94 @@ public class ServerProperties {
         this.servicePort = servicePort;
         return this;
     }
+
+    public Boolean getEnableParallelHandleBranch() {
+        return enableParallelHandleBranch;
+    }
+
+    public ServerProperties setEnableParallelHandleBranch(Boolean enableParallelHandleBranch) {
+        this.enableParallelHandleBranch = enableParallelHandleBranch;
+        return this;
+    }
+
+    public Integer getParallelHandleBranchMaxConcurrency() {
+        return parallelHandleBranchMaxConcurrency;
+    }
+
+    public ServerProperties setParallelHandleBranchMaxConcurrency(Integer parallelHandleBranchMaxConcurrency) {
+        this.parallelHandleBranchMaxConcurrency = parallelHandleBranchMaxConcurrency;
+        return this;
+    }
+
+    public Boolean getEnableParallelHandleMergedRequest() {
+        return enableParallelHandleMergedRequest;
+    }
+
+    public ServerProperties setEnableParallelHandleMergedRequest(Boolean enableParallelHandleMergedRequest) {
+        this.enableParallelHandleMergedRequest = enableParallelHandleMergedRequest;
+        return this;
+    }
+
+    public Boolean getEnableAsyncPhaseTwo() {
+        return enableAsyncPhaseTwo;
+    }
+
+    public ServerProperties setEnableAsyncPhaseTwo(Boolean enableAsyncPhaseTwo) {
+        this.enableAsyncPhaseTwo = enableAsyncPhaseTwo;
+        return this;
+    }
+
+    public Integer getAccessLogBufferSize() {
+        return accessLogBufferSize;
+    }
+
+    public ServerProperties setAccessLogBufferSize(Integer accessLogBufferSize) {
+        this.accessLogBufferSize = accessLogBufferSize;
+        return this;
+    }
+
+    public Integer getAccessLogSampleRate() {
+        return accessLogSampleRate;
+    }
+
+    public ServerProperties setAccessLogSampleRate(Integer accessLogSampleRate) {
+        this.accessLogSampleRate = accessLogSampleRate;
+        return this;
+    }
+
+    public String getExecutionModel() {
+        return executionModel;
+    }
+
+    public ServerProperties setExecutionModel(String executionModel) {
+        this.executionModel = executionModel;
+        return this;
+    }
+
+    public int getLockWaitTimeout() {
+        return lockWaitTimeout;
+    }
+
+    public ServerProperties setLockWaitTimeout(int lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+        return this;
+    }
+
+    public int getLockContentionTopK() {
+        return lockContentionTopK;
+    }
+
+    public ServerProperties setLockContentionTopK(int lockContentionTopK) {
+        this.lockContentionTopK = lockContentionTopK;
+        return this;
+    }
+
+    public boolean isTableLockEnabled() {
+        return tableLockEnabled;
+    }
+
+    public ServerProperties setTableLockEnabled(boolean tableLockEnabled) {
+        this.tableLockEnabled = tableLockEnabled;
+        return this;
+    }
 }
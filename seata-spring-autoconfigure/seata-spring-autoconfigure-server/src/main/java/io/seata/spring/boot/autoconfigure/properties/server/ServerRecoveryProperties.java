@@ -30,6 +30,11 @@ public class ServerRecoveryProperties {
     private Integer asynCommittingRetryPeriod = 1000;
     private Integer rollbackingRetryPeriod = 1000;
     private Integer timeoutRetryPeriod = 1000;
+    private Integer shardCount = 1;
+    private Integer shardQueueSize = 1000;
+    private Integer retryBackoffInitialInterval = 1000;
+    private Integer retryBackoffMaxInterval = 60000;
+    private Integer retryBackoffJitterPercent = 20;
 
     public Integer getCommittingRetryPeriod() {
         return committingRetryPeriod;
@@ -66,4 +71,49 @@ public class ServerRecoveryProperties {
         this.timeoutRetryPeriod = timeoutRetryPeriod;
         return this;
     }
+
+    public Integer getShardCount() {
+        return shardCount;
+    }
+
+    public ServerRecoveryProperties setShardCount(Integer shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public Integer getShardQueueSize() {
+        return shardQueueSize;
+    }
+
+    public ServerRecoveryProperties setShardQueueSize(Integer shardQueueSize) {
+        this.shardQueueSize = shardQueueSize;
+        return this;
+    }
+
+    public Integer getRetryBackoffInitialInterval() {
+        return retryBackoffInitialInterval;
+    }
+
+    public ServerRecoveryProperties setRetryBackoffInitialInterval(Integer retryBackoffInitialInterval) {
+        this.retryBackoffInitialInterval = retryBackoffInitialInterval;
+        return this;
+    }
+
+    public Integer getRetryBackoffMaxInterval() {
+        return retryBackoffMaxInterval;
+    }
+
+    public ServerRecoveryProperties setRetryBackoffMaxInterval(Integer retryBackoffMaxInterval) {
+        this.retryBackoffMaxInterval = retryBackoffMaxInterval;
+        return this;
+    }
+
+    public Integer getRetryBackoffJitterPercent() {
+        return retryBackoffJitterPercent;
+    }
+
+    public ServerRecoveryProperties setRetryBackoffJitterPercent(Integer retryBackoffJitterPercent) {
+        this.retryBackoffJitterPercent = retryBackoffJitterPercent;
+        return this;
+    }
 }
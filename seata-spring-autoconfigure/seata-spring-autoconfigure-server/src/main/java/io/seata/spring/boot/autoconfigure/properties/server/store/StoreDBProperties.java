@@ -40,6 +40,8 @@ public class StoreDBProperties {
     private String distributedLockTable = "distributed_lock";
     private Integer queryLimit = 100;
     private Integer maxWait = 5000;
+    private Integer lockReleaseMaxBatchSize = 500;
+    private Integer lockReleaseMaxWaitMills = 0;
 
     public String getDatasource() {
         return datasource;
@@ -165,4 +167,22 @@ public class StoreDBProperties {
         this.maxWait = maxWait;
         return this;
     }
+
+    public Integer getLockReleaseMaxBatchSize() {
+        return lockReleaseMaxBatchSize;
+    }
+
+    public StoreDBProperties setLockReleaseMaxBatchSize(Integer lockReleaseMaxBatchSize) {
+        this.lockReleaseMaxBatchSize = lockReleaseMaxBatchSize;
+        return this;
+    }
+
+    public Integer getLockReleaseMaxWaitMills() {
+        return lockReleaseMaxWaitMills;
+    }
+
+    public StoreDBProperties setLockReleaseMaxWaitMills(Integer lockReleaseMaxWaitMills) {
+        this.lockReleaseMaxWaitMills = lockReleaseMaxWaitMills;
+        return this;
+    }
 }
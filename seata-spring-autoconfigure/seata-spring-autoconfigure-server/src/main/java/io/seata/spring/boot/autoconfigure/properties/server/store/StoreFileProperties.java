@@ -32,6 +32,9 @@ public class StoreFileProperties {
     private Integer fileWriteBufferCacheSize = 16384;
     private Integer sessionReloadReadSize = 100;
     private String flushDiskMode = "async";
+    private Integer segmentSize = 33554432;
+    private Integer groupCommitMaxBatchSize = 512;
+    private Integer groupCommitMaxWaitMills = 0;
 
     public String getDir() {
         return dir;
@@ -86,4 +89,31 @@ public class StoreFileProperties {
         this.flushDiskMode = flushDiskMode;
         return this;
     }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public StoreFileProperties setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxBatchSize() {
+        return groupCommitMaxBatchSize;
+    }
+
+    public StoreFileProperties setGroupCommitMaxBatchSize(Integer groupCommitMaxBatchSize) {
+        this.groupCommitMaxBatchSize = groupCommitMaxBatchSize;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxWaitMills() {
+        return groupCommitMaxWaitMills;
+    }
+
+    public StoreFileProperties setGroupCommitMaxWaitMills(Integer groupCommitMaxWaitMills) {
+        this.groupCommitMaxWaitMills = groupCommitMaxWaitMills;
+        return this;
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.protobuf.convertor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.serializer.protobuf.generated.AbstractMessageProto;
+import io.seata.serializer.protobuf.generated.AbstractTransactionRequestProto;
+import io.seata.serializer.protobuf.generated.BranchRegisterBatchRequestProto;
+import io.seata.serializer.protobuf.generated.BranchRegisterRequestProto;
+import io.seata.serializer.protobuf.generated.BranchTypeProto;
+import io.seata.serializer.protobuf.generated.MessageTypeProto;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+
+/**
+ * The xid and the branch type are carried by the batch, the branches only carry their resource id, lock key and
+ * application data.
+ */
+public class BranchRegisterBatchRequestConvertor
+    implements PbConvertor<BranchRegisterBatchRequest, BranchRegisterBatchRequestProto> {
+    @Override
+    public BranchRegisterBatchRequestProto convert2Proto(BranchRegisterBatchRequest branchRegisterBatchRequest) {
+        final short typeCode = branchRegisterBatchRequest.getTypeCode();
+
+        final AbstractMessageProto abstractMessage = AbstractMessageProto.newBuilder().setMessageType(
+            MessageTypeProto.forNumber(typeCode)).build();
+
+        final AbstractTransactionRequestProto abstractTransactionRequestProto = AbstractTransactionRequestProto
+            .newBuilder().setAbstractMessage(abstractMessage).build();
+
+        BranchRegisterBatchRequestProto.Builder builder = BranchRegisterBatchRequestProto.newBuilder()
+            .setAbstractTransactionRequest(abstractTransactionRequestProto)
+            .setBranchType(BranchTypeProto.valueOf(branchRegisterBatchRequest.getBranchType().name()))
+            .setXid(branchRegisterBatchRequest.getXid());
+        for (BranchRegisterRequest branchRegisterRequest : branchRegisterBatchRequest.getBranchRegisterRequests()) {
+            final String applicationData = branchRegisterRequest.getApplicationData();
+            final String resourceId = branchRegisterRequest.getResourceId();
+            final String lockKey = branchRegisterRequest.getLockKey();
+            builder.addBranchRegisterRequests(BranchRegisterRequestProto.newBuilder().setApplicationData(
+                applicationData == null ? "" : applicationData).setLockKey(lockKey == null ? "" : lockKey)
+                .setResourceId(resourceId == null ? "" : resourceId).build());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public BranchRegisterBatchRequest convert2Model(BranchRegisterBatchRequestProto branchRegisterBatchRequestProto) {
+        BranchRegisterBatchRequest branchRegisterBatchRequest = new BranchRegisterBatchRequest();
+        branchRegisterBatchRequest.setXid(branchRegisterBatchRequestProto.getXid());
+        branchRegisterBatchRequest.setBranchType(
+            BranchType.valueOf(branchRegisterBatchRequestProto.getBranchType().name()));
+        List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>(
+            branchRegisterBatchRequestProto.getBranchRegisterRequestsCount());
+        for (BranchRegisterRequestProto branchRegisterRequestProto : branchRegisterBatchRequestProto
+            .getBranchRegisterRequestsList()) {
+            BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+            branchRegisterRequest.setXid(branchRegisterBatchRequest.getXid());
+            branchRegisterRequest.setBranchType(branchRegisterBatchRequest.getBranchType());
+            branchRegisterRequest.setApplicationData(branchRegisterRequestProto.getApplicationData());
+            branchRegisterRequest.setLockKey(branchRegisterRequestProto.getLockKey());
+            branchRegisterRequest.setResourceId(branchRegisterRequestProto.getResourceId());
+            branchRegisterRequests.add(branchRegisterRequest);
+        }
+        branchRegisterBatchRequest.setBranchRegisterRequests(branchRegisterRequests);
+        return branchRegisterBatchRequest;
+    }
+}
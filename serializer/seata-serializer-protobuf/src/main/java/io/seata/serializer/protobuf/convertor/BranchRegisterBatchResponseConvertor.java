@@ -0,0 +1,90 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.protobuf.convertor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.protocol.ResultCode;
+import io.seata.serializer.protobuf.generated.AbstractMessageProto;
+import io.seata.serializer.protobuf.generated.AbstractResultMessageProto;
+import io.seata.serializer.protobuf.generated.AbstractTransactionResponseProto;
+import io.seata.serializer.protobuf.generated.BranchRegisterBatchResponseProto;
+import io.seata.serializer.protobuf.generated.BranchRegisterResponseProto;
+import io.seata.serializer.protobuf.generated.MessageTypeProto;
+import io.seata.serializer.protobuf.generated.ResultCodeProto;
+import io.seata.serializer.protobuf.generated.TransactionExceptionCodeProto;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+
+/**
+ * The responses of the branches are converted by the {@link BranchRegisterResponseConvertor}.
+ */
+public class BranchRegisterBatchResponseConvertor
+    implements PbConvertor<BranchRegisterBatchResponse, BranchRegisterBatchResponseProto> {
+
+    private final BranchRegisterResponseConvertor branchRegisterResponseConvertor =
+        new BranchRegisterResponseConvertor();
+
+    @Override
+    public BranchRegisterBatchResponseProto convert2Proto(BranchRegisterBatchResponse branchRegisterBatchResponse) {
+        final short typeCode = branchRegisterBatchResponse.getTypeCode();
+
+        final AbstractMessageProto abstractMessage = AbstractMessageProto.newBuilder().setMessageType(
+            MessageTypeProto.forNumber(typeCode)).build();
+
+        final String msg = branchRegisterBatchResponse.getMsg();
+        final AbstractResultMessageProto abstractResultMessageProto = AbstractResultMessageProto.newBuilder().setMsg(
+            msg == null ? "" : msg).setResultCode(
+            ResultCodeProto.valueOf(branchRegisterBatchResponse.getResultCode().name())).setAbstractMessage(
+            abstractMessage).build();
+
+        AbstractTransactionResponseProto abstractTransactionResponseProto = AbstractTransactionResponseProto
+            .newBuilder().setAbstractResultMessage(abstractResultMessageProto).setTransactionExceptionCode(
+                TransactionExceptionCodeProto.valueOf(
+                    branchRegisterBatchResponse.getTransactionExceptionCode().name())).build();
+
+        BranchRegisterBatchResponseProto.Builder builder = BranchRegisterBatchResponseProto.newBuilder()
+            .setAbstractTransactionResponse(abstractTransactionResponseProto);
+        for (BranchRegisterResponse branchRegisterResponse : branchRegisterBatchResponse
+            .getBranchRegisterResponses()) {
+            builder.addBranchRegisterResponses(branchRegisterResponseConvertor.convert2Proto(branchRegisterResponse));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public BranchRegisterBatchResponse convert2Model(
+        BranchRegisterBatchResponseProto branchRegisterBatchResponseProto) {
+        BranchRegisterBatchResponse branchRegisterBatchResponse = new BranchRegisterBatchResponse();
+        final AbstractResultMessageProto abstractResultMessage = branchRegisterBatchResponseProto
+            .getAbstractTransactionResponse().getAbstractResultMessage();
+        branchRegisterBatchResponse.setMsg(abstractResultMessage.getMsg());
+        branchRegisterBatchResponse.setResultCode(ResultCode.valueOf(abstractResultMessage.getResultCode().name()));
+        branchRegisterBatchResponse.setTransactionExceptionCode(TransactionExceptionCode.valueOf(
+            branchRegisterBatchResponseProto.getAbstractTransactionResponse().getTransactionExceptionCode().name()));
+
+        List<BranchRegisterResponse> branchRegisterResponses = new ArrayList<>(
+            branchRegisterBatchResponseProto.getBranchRegisterResponsesCount());
+        for (BranchRegisterResponseProto branchRegisterResponseProto : branchRegisterBatchResponseProto
+            .getBranchRegisterResponsesList()) {
+            branchRegisterResponses.add(branchRegisterResponseConvertor.convert2Model(branchRegisterResponseProto));
+        }
+        branchRegisterBatchResponse.setBranchRegisterResponses(branchRegisterResponses);
+        return branchRegisterBatchResponse;
+    }
+}
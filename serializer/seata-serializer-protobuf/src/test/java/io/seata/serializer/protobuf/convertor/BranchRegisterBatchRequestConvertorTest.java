@@ -0,0 +1,64 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.protobuf.convertor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.serializer.protobuf.generated.BranchRegisterBatchRequestProto;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BranchRegisterBatchRequestConvertorTest {
+
+    @Test
+    public void convert2Proto() {
+
+        BranchRegisterBatchRequest branchRegisterBatchRequest = new BranchRegisterBatchRequest();
+        branchRegisterBatchRequest.setXid("xid");
+        branchRegisterBatchRequest.setBranchType(BranchType.AT);
+        List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+            branchRegisterRequest.setResourceId("resourceId" + i);
+            branchRegisterRequest.setLockKey("lockKey" + i);
+            branchRegisterRequest.setApplicationData("data" + i);
+            branchRegisterRequests.add(branchRegisterRequest);
+        }
+        branchRegisterBatchRequest.setBranchRegisterRequests(branchRegisterRequests);
+
+        BranchRegisterBatchRequestConvertor convertor = new BranchRegisterBatchRequestConvertor();
+        BranchRegisterBatchRequestProto proto = convertor.convert2Proto(branchRegisterBatchRequest);
+        BranchRegisterBatchRequest real = convertor.convert2Model(proto);
+
+        assertThat(real.getTypeCode()).isEqualTo(branchRegisterBatchRequest.getTypeCode());
+        assertThat(real.getXid()).isEqualTo(branchRegisterBatchRequest.getXid());
+        assertThat(real.getBranchType()).isEqualTo(branchRegisterBatchRequest.getBranchType());
+        assertThat(real.getBranchRegisterRequests()).hasSize(2);
+        for (int i = 0; i < 2; i++) {
+            BranchRegisterRequest expected = branchRegisterRequests.get(i);
+            BranchRegisterRequest actual = real.getBranchRegisterRequests().get(i);
+            assertThat(actual.getXid()).isEqualTo(branchRegisterBatchRequest.getXid());
+            assertThat(actual.getResourceId()).isEqualTo(expected.getResourceId());
+            assertThat(actual.getLockKey()).isEqualTo(expected.getLockKey());
+            assertThat(actual.getApplicationData()).isEqualTo(expected.getApplicationData());
+        }
+    }
+}
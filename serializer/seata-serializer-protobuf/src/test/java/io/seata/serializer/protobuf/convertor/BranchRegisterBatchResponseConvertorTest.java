@@ -0,0 +1,61 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.protobuf.convertor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.serializer.protobuf.generated.BranchRegisterBatchResponseProto;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BranchRegisterBatchResponseConvertorTest {
+
+    @Test
+    public void convert2Proto() {
+
+        BranchRegisterBatchResponse branchRegisterBatchResponse = new BranchRegisterBatchResponse();
+        branchRegisterBatchResponse.setResultCode(ResultCode.Success);
+        List<BranchRegisterResponse> branchRegisterResponses = new ArrayList<>();
+        BranchRegisterResponse branchRegisterResponse = new BranchRegisterResponse();
+        branchRegisterResponse.setResultCode(ResultCode.Success);
+        branchRegisterResponse.setBranchId(123);
+        branchRegisterResponses.add(branchRegisterResponse);
+        BranchRegisterResponse branchRegisterResponse2 = new BranchRegisterResponse();
+        branchRegisterResponse2.setResultCode(ResultCode.Failed);
+        branchRegisterResponse2.setTransactionExceptionCode(TransactionExceptionCode.LockKeyConflict);
+        branchRegisterResponse2.setMsg("msg");
+        branchRegisterResponses.add(branchRegisterResponse2);
+        branchRegisterBatchResponse.setBranchRegisterResponses(branchRegisterResponses);
+
+        BranchRegisterBatchResponseConvertor convertor = new BranchRegisterBatchResponseConvertor();
+        BranchRegisterBatchResponseProto proto = convertor.convert2Proto(branchRegisterBatchResponse);
+        BranchRegisterBatchResponse real = convertor.convert2Model(proto);
+
+        assertThat(real.getResultCode()).isEqualTo(branchRegisterBatchResponse.getResultCode());
+        assertThat(real.getBranchRegisterResponses()).hasSize(2);
+        assertThat(real.getBranchRegisterResponses().get(0).getBranchId()).isEqualTo(123);
+        assertThat(real.getBranchRegisterResponses().get(1).getResultCode()).isEqualTo(ResultCode.Failed);
+        assertThat(real.getBranchRegisterResponses().get(1).getTransactionExceptionCode())
+            .isEqualTo(TransactionExceptionCode.LockKeyConflict);
+        assertThat(real.getBranchRegisterResponses().get(1).getMsg()).isEqualTo("msg");
+    }
+}
@@ -26,6 +26,8 @@ import io.seata.serializer.seata.protocol.RegisterTMRequestCodec;
 import io.seata.serializer.seata.protocol.RegisterTMResponseCodec;
 import io.seata.serializer.seata.protocol.transaction.BranchCommitRequestCodec;
 import io.seata.serializer.seata.protocol.transaction.BranchCommitResponseCodec;
+import io.seata.serializer.seata.protocol.transaction.BranchRegisterBatchRequestCodec;
+import io.seata.serializer.seata.protocol.transaction.BranchRegisterBatchResponseCodec;
 import io.seata.serializer.seata.protocol.transaction.BranchRegisterRequestCodec;
 import io.seata.serializer.seata.protocol.transaction.BranchRegisterResponseCodec;
 import io.seata.serializer.seata.protocol.transaction.BranchReportRequestCodec;
@@ -55,6 +57,8 @@ import io.seata.core.protocol.RegisterTMRequest;
 import io.seata.core.protocol.RegisterTMResponse;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -175,6 +179,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryRequestCodec();
             case MessageType.TYPE_BRANCH_REGISTER:
                 return new BranchRegisterRequestCodec();
+            case MessageType.TYPE_BRANCH_REGISTER_BATCH:
+                return new BranchRegisterBatchRequestCodec();
             case MessageType.TYPE_BRANCH_STATUS_REPORT:
                 return new BranchReportRequestCodec();
             case MessageType.TYPE_GLOBAL_REPORT:
@@ -204,6 +210,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryResponseCodec();
             case MessageType.TYPE_BRANCH_REGISTER_RESULT:
                 return new BranchRegisterResponseCodec();
+            case MessageType.TYPE_BRANCH_REGISTER_BATCH_RESULT:
+                return new BranchRegisterBatchResponseCodec();
             case MessageType.TYPE_BRANCH_STATUS_REPORT_RESULT:
                 return new BranchReportResponseCodec();
             case MessageType.TYPE_BRANCH_COMMIT_RESULT:
@@ -301,6 +309,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryRequest();
             case MessageType.TYPE_BRANCH_REGISTER:
                 return new BranchRegisterRequest();
+            case MessageType.TYPE_BRANCH_REGISTER_BATCH:
+                return new BranchRegisterBatchRequest();
             case MessageType.TYPE_BRANCH_STATUS_REPORT:
                 return new BranchReportRequest();
             case MessageType.TYPE_GLOBAL_REPORT:
@@ -330,6 +340,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryResponse();
             case MessageType.TYPE_BRANCH_REGISTER_RESULT:
                 return new BranchRegisterResponse();
+            case MessageType.TYPE_BRANCH_REGISTER_BATCH_RESULT:
+                return new BranchRegisterBatchResponse();
             case MessageType.TYPE_BRANCH_STATUS_REPORT_RESULT:
                 return new BranchReportResponse();
             case MessageType.TYPE_BRANCH_COMMIT_RESULT:
@@ -33,6 +33,17 @@ public class SeataSerializer implements Serializer {
 
     @Override
     public <T> byte[] serialize(T t) {
+        //get empty ByteBuffer
+        ByteBuf out = Unpooled.buffer(1024);
+        //typecode + body
+        serialize(t, out);
+        byte[] content = new byte[out.readableBytes()];
+        out.readBytes(content);
+        return content;
+    }
+
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
         if (t == null || !(t instanceof AbstractMessage)) {
             throw new IllegalArgumentException("AbstractMessage isn't available.");
         }
@@ -41,22 +52,9 @@ public class SeataSerializer implements Serializer {
         short typecode = abstractMessage.getTypeCode();
         //msg codec
         MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
-        //get empty ByteBuffer
-        ByteBuf out = Unpooled.buffer(1024);
+        out.writeShort(typecode);
         //msg encode
         messageCodec.encode(t, out);
-        byte[] body = new byte[out.readableBytes()];
-        out.readBytes(body);
-
-        //typecode + body
-        ByteBuffer byteBuffer = ByteBuffer.allocate(2 + body.length);
-        byteBuffer.putShort(typecode);
-        byteBuffer.put(body);
-
-        byteBuffer.flip();
-        byte[] content = new byte[byteBuffer.limit()];
-        byteBuffer.get(content);
-        return content;
     }
 
     @Override
@@ -67,13 +65,32 @@ public class SeataSerializer implements Serializer {
         if (bytes.length < 2) {
             throw new IllegalArgumentException("The byte[] isn't available for decode.");
         }
-        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
         //typecode
-        short typecode = byteBuffer.getShort();
+        short typecode = in.getShort();
         //msg body
-        byte[] body = new byte[byteBuffer.remaining()];
-        byteBuffer.get(body);
-        ByteBuffer in = ByteBuffer.wrap(body);
+        return decode(typecode, in);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in) {
+        if (in == null || !in.isReadable()) {
+            throw new IllegalArgumentException("Nothing to decode.");
+        }
+        if (in.readableBytes() < 2) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        //typecode
+        short typecode = in.readShort();
+        //msg body, read through a view of the buffer instead of a copy
+        ByteBuffer body = in.nioBuffer();
+        int start = body.position();
+        T message = decode(typecode, body);
+        in.skipBytes(body.position() - start);
+        return message;
+    }
+
+    private <T> T decode(short typecode, ByteBuffer in) {
         //new Messgae
         AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
         //get messageCodec
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+
+/**
+ * The type Branch register batch request codec. The xid and the branch type are written once for the batch, the
+ * branches only carry their resource id, lock key and application data.
+ */
+public class BranchRegisterBatchRequestCodec extends AbstractTransactionRequestToTCCodec {
+
+    @Override
+    public Class<?> getMessageClassType() {
+        return BranchRegisterBatchRequest.class;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        BranchRegisterBatchRequest branchRegisterBatchRequest = (BranchRegisterBatchRequest)t;
+
+        String xid = branchRegisterBatchRequest.getXid();
+        BranchType branchType = branchRegisterBatchRequest.getBranchType();
+        List<BranchRegisterRequest> branchRegisterRequests = branchRegisterBatchRequest.getBranchRegisterRequests();
+
+        // 1. xid
+        if (xid != null) {
+            byte[] bs = xid.getBytes(UTF8);
+            out.writeShort((short)bs.length);
+            if (bs.length > 0) {
+                out.writeBytes(bs);
+            }
+        } else {
+            out.writeShort((short)0);
+        }
+        // 2. Branch Type
+        out.writeByte(branchType.ordinal());
+
+        // 3. Branches
+        out.writeShort((short)branchRegisterRequests.size());
+        for (BranchRegisterRequest branchRegisterRequest : branchRegisterRequests) {
+            String resourceId = branchRegisterRequest.getResourceId();
+            if (resourceId != null) {
+                byte[] bs = resourceId.getBytes(UTF8);
+                out.writeShort((short)bs.length);
+                if (bs.length > 0) {
+                    out.writeBytes(bs);
+                }
+            } else {
+                out.writeShort((short)0);
+            }
+            writeInt32String(branchRegisterRequest.getLockKey(), out);
+            writeInt32String(branchRegisterRequest.getApplicationData(), out);
+        }
+    }
+
+    private void writeInt32String(String value, ByteBuf out) {
+        if (value != null) {
+            byte[] bs = value.getBytes(UTF8);
+            out.writeInt(bs.length);
+            if (bs.length > 0) {
+                out.writeBytes(bs);
+            }
+        } else {
+            out.writeInt(0);
+        }
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuffer in) {
+        BranchRegisterBatchRequest branchRegisterBatchRequest = (BranchRegisterBatchRequest)t;
+
+        short xidLen = in.getShort();
+        if (xidLen > 0) {
+            byte[] bs = new byte[xidLen];
+            in.get(bs);
+            branchRegisterBatchRequest.setXid(new String(bs, UTF8));
+        }
+        branchRegisterBatchRequest.setBranchType(BranchType.get(in.get()));
+
+        int size = in.getShort();
+        List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+            branchRegisterRequest.setXid(branchRegisterBatchRequest.getXid());
+            branchRegisterRequest.setBranchType(branchRegisterBatchRequest.getBranchType());
+            short len = in.getShort();
+            if (len > 0) {
+                byte[] bs = new byte[len];
+                in.get(bs);
+                branchRegisterRequest.setResourceId(new String(bs, UTF8));
+            }
+            branchRegisterRequest.setLockKey(readInt32String(in));
+            branchRegisterRequest.setApplicationData(readInt32String(in));
+            branchRegisterRequests.add(branchRegisterRequest);
+        }
+        branchRegisterBatchRequest.setBranchRegisterRequests(branchRegisterRequests);
+    }
+
+    private String readInt32String(ByteBuffer in) {
+        int len = in.getInt();
+        if (len > 0) {
+            byte[] bs = new byte[len];
+            in.get(bs);
+            return new String(bs, UTF8);
+        }
+        return null;
+    }
+
+}
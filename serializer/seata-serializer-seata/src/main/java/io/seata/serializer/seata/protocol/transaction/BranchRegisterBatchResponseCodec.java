@@ -0,0 +1,66 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+
+/**
+ * The type Branch register batch response codec.
+ */
+public class BranchRegisterBatchResponseCodec extends AbstractTransactionResponseCodec implements Serializable {
+
+    private final BranchRegisterResponseCodec branchRegisterResponseCodec = new BranchRegisterResponseCodec();
+
+    @Override
+    public Class<?> getMessageClassType() {
+        return BranchRegisterBatchResponse.class;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        super.encode(t, out);
+
+        BranchRegisterBatchResponse branchRegisterBatchResponse = (BranchRegisterBatchResponse)t;
+        List<BranchRegisterResponse> branchRegisterResponses = branchRegisterBatchResponse.getBranchRegisterResponses();
+        out.writeShort((short)branchRegisterResponses.size());
+        for (BranchRegisterResponse branchRegisterResponse : branchRegisterResponses) {
+            branchRegisterResponseCodec.encode(branchRegisterResponse, out);
+        }
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuffer in) {
+        super.decode(t, in);
+
+        BranchRegisterBatchResponse branchRegisterBatchResponse = (BranchRegisterBatchResponse)t;
+        int size = in.getShort();
+        List<BranchRegisterResponse> branchRegisterResponses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BranchRegisterResponse branchRegisterResponse = new BranchRegisterResponse();
+            branchRegisterResponseCodec.decode(branchRegisterResponse, in);
+            branchRegisterResponses.add(branchRegisterResponse);
+        }
+        branchRegisterBatchResponse.setBranchRegisterResponses(branchRegisterResponses);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.serializer.seata.SeataSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Branch commit request codec test through a ByteBuf.
+ */
+public class BranchCommitRequestByteBufSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * Test codec.
+     */
+    @Test
+    public void test_codec() {
+        BranchCommitRequest branchCommitRequest = new BranchCommitRequest();
+        branchCommitRequest.setApplicationData("abc");
+        branchCommitRequest.setBranchId(123);
+        branchCommitRequest.setBranchType(BranchType.AT);
+        branchCommitRequest.setResourceId("t");
+        branchCommitRequest.setXid("a3");
+
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            // a prefix the serializer must leave alone
+            buf.writeInt(42);
+            seataSerializer.serialize(branchCommitRequest, buf);
+            byte[] bytes = seataSerializer.serialize(branchCommitRequest);
+            assertThat(buf.readableBytes()).isEqualTo(4 + bytes.length);
+
+            assertThat(buf.readInt()).isEqualTo(42);
+            BranchCommitRequest branchCommitRequest2 = seataSerializer.deserialize(buf);
+            assertThat(buf.isReadable()).isFalse();
+
+            assertThat(branchCommitRequest2.getApplicationData()).isEqualTo(branchCommitRequest.getApplicationData());
+            assertThat(branchCommitRequest2.getBranchType()).isEqualTo(branchCommitRequest.getBranchType());
+            assertThat(branchCommitRequest2.getBranchId()).isEqualTo(branchCommitRequest.getBranchId());
+            assertThat(branchCommitRequest2.getResourceId()).isEqualTo(branchCommitRequest.getResourceId());
+            assertThat(branchCommitRequest2.getXid()).isEqualTo(branchCommitRequest.getXid());
+        } finally {
+            buf.release();
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.serializer.seata.SeataSerializer;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Branch register batch request codec test.
+ */
+public class BranchRegisterBatchRequestSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * Test codec.
+     */
+    @Test
+    public void test_codec() {
+        BranchRegisterBatchRequest branchRegisterBatchRequest = new BranchRegisterBatchRequest();
+        branchRegisterBatchRequest.setXid("abc134");
+        branchRegisterBatchRequest.setBranchType(BranchType.AT);
+        List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>();
+        BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+        branchRegisterRequest.setResourceId("124");
+        branchRegisterRequest.setLockKey("a:1,b:2");
+        branchRegisterRequest.setApplicationData("abc");
+        branchRegisterRequests.add(branchRegisterRequest);
+        BranchRegisterRequest branchRegisterRequest2 = new BranchRegisterRequest();
+        branchRegisterRequest2.setResourceId("125");
+        branchRegisterRequests.add(branchRegisterRequest2);
+        branchRegisterBatchRequest.setBranchRegisterRequests(branchRegisterRequests);
+
+        byte[] bytes = seataSerializer.serialize(branchRegisterBatchRequest);
+
+        BranchRegisterBatchRequest branchRegisterBatchRequest2 = seataSerializer.deserialize(bytes);
+
+        assertThat(branchRegisterBatchRequest2.getXid()).isEqualTo(branchRegisterBatchRequest.getXid());
+        assertThat(branchRegisterBatchRequest2.getBranchType()).isEqualTo(branchRegisterBatchRequest.getBranchType());
+        assertThat(branchRegisterBatchRequest2.getBranchRegisterRequests()).hasSize(2);
+        BranchRegisterRequest decoded = branchRegisterBatchRequest2.getBranchRegisterRequests().get(0);
+        assertThat(decoded.getXid()).isEqualTo(branchRegisterBatchRequest.getXid());
+        assertThat(decoded.getBranchType()).isEqualTo(branchRegisterBatchRequest.getBranchType());
+        assertThat(decoded.getResourceId()).isEqualTo(branchRegisterRequest.getResourceId());
+        assertThat(decoded.getLockKey()).isEqualTo(branchRegisterRequest.getLockKey());
+        assertThat(decoded.getApplicationData()).isEqualTo(branchRegisterRequest.getApplicationData());
+        BranchRegisterRequest decoded2 = branchRegisterBatchRequest2.getBranchRegisterRequests().get(1);
+        assertThat(decoded2.getResourceId()).isEqualTo(branchRegisterRequest2.getResourceId());
+        assertThat(decoded2.getLockKey()).isNull();
+        assertThat(decoded2.getApplicationData()).isNull();
+    }
+
+}
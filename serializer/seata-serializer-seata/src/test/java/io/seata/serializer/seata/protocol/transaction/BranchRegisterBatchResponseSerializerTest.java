@@ -0,0 +1,74 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.serializer.seata.SeataSerializer;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Branch register batch response codec test.
+ */
+public class BranchRegisterBatchResponseSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * Test codec.
+     */
+    @Test
+    public void test_codec() {
+        BranchRegisterBatchResponse branchRegisterBatchResponse = new BranchRegisterBatchResponse();
+        branchRegisterBatchResponse.setResultCode(ResultCode.Success);
+        List<BranchRegisterResponse> branchRegisterResponses = new ArrayList<>();
+        BranchRegisterResponse branchRegisterResponse = new BranchRegisterResponse();
+        branchRegisterResponse.setResultCode(ResultCode.Success);
+        branchRegisterResponse.setBranchId(1346);
+        branchRegisterResponses.add(branchRegisterResponse);
+        BranchRegisterResponse branchRegisterResponse2 = new BranchRegisterResponse();
+        branchRegisterResponse2.setResultCode(ResultCode.Failed);
+        branchRegisterResponse2.setTransactionExceptionCode(TransactionExceptionCode.LockKeyConflict);
+        branchRegisterResponse2.setMsg("lock conflict");
+        branchRegisterResponses.add(branchRegisterResponse2);
+        branchRegisterBatchResponse.setBranchRegisterResponses(branchRegisterResponses);
+
+        byte[] bytes = seataSerializer.serialize(branchRegisterBatchResponse);
+
+        BranchRegisterBatchResponse branchRegisterBatchResponse2 = seataSerializer.deserialize(bytes);
+
+        assertThat(branchRegisterBatchResponse2.getResultCode()).isEqualTo(branchRegisterBatchResponse.getResultCode());
+        assertThat(branchRegisterBatchResponse2.getBranchRegisterResponses()).hasSize(2);
+        BranchRegisterResponse decoded = branchRegisterBatchResponse2.getBranchRegisterResponses().get(0);
+        assertThat(decoded.getResultCode()).isEqualTo(ResultCode.Success);
+        assertThat(decoded.getBranchId()).isEqualTo(branchRegisterResponse.getBranchId());
+        BranchRegisterResponse decoded2 = branchRegisterBatchResponse2.getBranchRegisterResponses().get(1);
+        assertThat(decoded2.getResultCode()).isEqualTo(ResultCode.Failed);
+        assertThat(decoded2.getTransactionExceptionCode()).isEqualTo(TransactionExceptionCode.LockKeyConflict);
+        assertThat(decoded2.getMsg()).isEqualTo(branchRegisterResponse2.getMsg());
+    }
+
+}
@@ -22,6 +22,8 @@ import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
 import io.seata.core.protocol.transaction.AbstractGlobalEndResponse;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -202,6 +204,37 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
     protected abstract void doBranchRegister(BranchRegisterRequest request, BranchRegisterResponse response,
                                              RpcContext rpcContext) throws TransactionException;
 
+    @Override
+    public BranchRegisterBatchResponse handle(BranchRegisterBatchRequest request, final RpcContext rpcContext) {
+        BranchRegisterBatchResponse response = new BranchRegisterBatchResponse();
+        exceptionHandleTemplate(new AbstractCallback<BranchRegisterBatchRequest, BranchRegisterBatchResponse>() {
+            @Override
+            public void execute(BranchRegisterBatchRequest request, BranchRegisterBatchResponse response)
+                throws TransactionException {
+                try {
+                    doBranchRegisterBatch(request, response, rpcContext);
+                } catch (StoreException e) {
+                    throw new TransactionException(TransactionExceptionCode.FailedStore, String
+                        .format("branch register batch request failed. xid=%s, msg=%s", request.getXid(),
+                            e.getMessage()), e);
+                }
+            }
+        }, request, response);
+        return response;
+    }
+
+    /**
+     * Do branch register batch.
+     *
+     * @param request    the request
+     * @param response   the response
+     * @param rpcContext the rpc context
+     * @throws TransactionException the transaction exception
+     */
+    protected abstract void doBranchRegisterBatch(BranchRegisterBatchRequest request,
+                                                  BranchRegisterBatchResponse response, RpcContext rpcContext)
+        throws TransactionException;
+
     @Override
     public BranchReportResponse handle(BranchReportRequest request, final RpcContext rpcContext) {
         BranchReportResponse response = new BranchReportResponse();
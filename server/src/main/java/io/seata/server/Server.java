@@ -25,10 +25,13 @@ import io.seata.common.util.NetUtil;
 import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.rpc.Disposable;
 import io.seata.core.rpc.netty.NettyRemotingServer;
 import io.seata.core.rpc.netty.NettyServerConfig;
+import io.seata.core.store.StoreMode;
 import io.seata.server.coordinator.DefaultCoordinator;
 import io.seata.server.env.ContainerHelper;
+import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerManagerFactory;
 import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.SessionHolder;
@@ -44,6 +47,7 @@ import static io.seata.spring.boot.autoconfigure.StarterConstants.REGISTRY_PREFE
  * @author slievrly
  */
 public class Server {
+
     /**
      * The entry point of application.
      *
@@ -72,6 +76,9 @@ public class Server {
                 new NamedThreadFactory("ServerHandlerThread", NettyServerConfig.getMaxServerPoolSize()), new ThreadPoolExecutor.CallerRunsPolicy());
 
         NettyRemotingServer nettyRemotingServer = new NettyRemotingServer(workingThreads);
+        nettyRemotingServer.setLightRequestsOnIoThread(
+            StoreMode.FILE.getName().equalsIgnoreCase(parameterParser.getSessionStoreMode())
+                && StoreMode.FILE.getName().equalsIgnoreCase(parameterParser.getLockStoreMode()));
         UUIDGenerator.init(parameterParser.getServerNode());
         //log store mode : file, db, redis
         SessionHolder.init(parameterParser.getSessionStoreMode());
@@ -83,6 +90,11 @@ public class Server {
         // let ServerRunner do destroy instead ShutdownHook, see https://github.com/seata/seata/issues/4028
         ServerRunner.addDisposable(coordinator);
         ServerRunner.addDisposable(nettyRemotingServer);
+        // stopped after the coordinator, which releases the locks of the transactions ending meanwhile
+        LockManager lockManager = LockerManagerFactory.getLockManager();
+        if (lockManager instanceof Disposable) {
+            ServerRunner.addDisposable((Disposable)lockManager);
+        }
 
         //127.0.0.1 and 0.0.0.0 are not valid here.
         if (NetUtil.isValidIp(parameterParser.getHost(), false)) {
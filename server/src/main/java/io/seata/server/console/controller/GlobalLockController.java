@@ -17,14 +17,20 @@ package io.seata.server.console.controller;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.core.console.param.GlobalLockParam;
+import io.seata.core.console.result.SingleResult;
 import io.seata.core.console.vo.GlobalLockVO;
 import io.seata.core.console.result.PageResult;
+import io.seata.core.console.vo.HotRowVO;
+import io.seata.core.console.vo.LockContentionVO;
 import io.seata.server.console.service.GlobalLockService;
+import io.seata.server.lock.LockContentionProfiler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 
 /**
@@ -48,4 +54,23 @@ public class GlobalLockController {
         throw new NotSupportYetException();
     }
 
+    /**
+     * Query the most contended rows
+     * @param topK the number of the rows
+     * @return the rows, the most contended first
+     */
+    @GetMapping("hotRows")
+    public SingleResult<List<HotRowVO>> hotRows(@RequestParam(defaultValue = "10") int topK) {
+        return SingleResult.success(LockContentionProfiler.get().hotRows(topK));
+    }
+
+    /**
+     * Query the lock conflicts and hold times of every resource
+     * @return the list of LockContentionVO
+     */
+    @GetMapping("contention")
+    public SingleResult<List<LockContentionVO>> contention() {
+        return SingleResult.success(LockContentionProfiler.get().contentions());
+    }
+
 }
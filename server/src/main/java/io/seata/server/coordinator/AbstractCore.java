@@ -16,6 +16,10 @@
 package io.seata.server.coordinator;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 import io.seata.core.context.RootContext;
@@ -26,8 +30,11 @@ import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.ResultCode;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchRollbackRequest;
 import io.seata.core.protocol.transaction.BranchRollbackResponse;
 import io.seata.core.rpc.RemotingServer;
@@ -97,6 +104,62 @@ public abstract class AbstractCore implements Core {
         });
     }
 
+    @Override
+    public List<BranchRegisterResponse> branchRegisterBatch(BranchType branchType, String clientId, String xid,
+                                                            List<BranchRegisterRequest> branchRegisterRequests)
+        throws TransactionException {
+        GlobalSession globalSession = assertGlobalSessionNotNull(xid, false);
+        return SessionHolder.lockAndExecute(globalSession, () -> {
+            globalSessionStatusCheck(globalSession);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            List<BranchRegisterResponse> responses = new ArrayList<>(branchRegisterRequests.size());
+            List<BranchSession> lockedBranchSessions = new ArrayList<>(branchRegisterRequests.size());
+            try {
+                for (BranchRegisterRequest request : branchRegisterRequests) {
+                    BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, branchType,
+                        request.getResourceId(), request.getApplicationData(), request.getLockKey(), clientId);
+                    BranchRegisterResponse response = new BranchRegisterResponse();
+                    try {
+                        branchSessionLock(globalSession, branchSession);
+                        lockedBranchSessions.add(branchSession);
+                        response.setResultCode(ResultCode.Success);
+                        response.setBranchId(branchSession.getBranchId());
+                    } catch (TransactionException e) {
+                        response.setResultCode(ResultCode.Failed);
+                        response.setTransactionExceptionCode(e.getCode());
+                        response.setMsg("TransactionException[" + e.getMessage() + "]");
+                    }
+                    responses.add(response);
+                }
+            } catch (RuntimeException ex) {
+                for (BranchSession branchSession : lockedBranchSessions) {
+                    branchSessionUnlock(branchSession);
+                }
+                throw ex;
+            }
+            if (lockedBranchSessions.isEmpty()) {
+                return responses;
+            }
+            try {
+                globalSession.addBranches(lockedBranchSessions);
+            } catch (RuntimeException ex) {
+                for (BranchSession branchSession : lockedBranchSessions) {
+                    branchSessionUnlock(branchSession);
+                }
+                throw new BranchTransactionException(FailedToAddBranch, String
+                        .format("Failed to store branches xid = %s", globalSession.getXid()), ex);
+            }
+            if (LOGGER.isInfoEnabled()) {
+                for (BranchSession branchSession : lockedBranchSessions) {
+                    LOGGER.info("Register branch in batch successfully, xid = {}, branchId = {}, resourceId = {}"
+                            + " ,lockKeys = {}", globalSession.getXid(), branchSession.getBranchId(),
+                        branchSession.getResourceId(), branchSession.getLockKey());
+                }
+            }
+            return responses;
+        });
+    }
+
     protected void globalSessionStatusCheck(GlobalSession globalSession) throws GlobalTransactionException {
         if (!globalSession.isActive()) {
             throw new GlobalTransactionException(GlobalTransactionNotActive, String.format(
@@ -156,13 +219,7 @@ public abstract class AbstractCore implements Core {
     @Override
     public BranchStatus branchCommit(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchCommitRequest request = new BranchCommitRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
-            return branchCommitSend(request, globalSession, branchSession);
+            return branchCommitSend(buildBranchCommitRequest(branchSession), globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
             throw new BranchTransactionException(FailedToSendBranchCommitRequest,
                     String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
@@ -170,6 +227,36 @@ public abstract class AbstractCore implements Core {
         }
     }
 
+    /**
+     * Send the branch commit request without waiting for the response, the future completes when it arrives.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                             BranchSession branchSession) {
+        return branchCommitSendAsync(buildBranchCommitRequest(branchSession), globalSession, branchSession)
+            .handle((branchStatus, cause) -> {
+                if (cause != null) {
+                    throw toSendFailure(cause, FailedToSendBranchCommitRequest,
+                        String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
+                            branchSession.getBranchId()));
+                }
+                return branchStatus;
+            });
+    }
+
+    private BranchCommitRequest buildBranchCommitRequest(BranchSession branchSession) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
     protected BranchStatus branchCommitSend(BranchCommitRequest request, GlobalSession globalSession,
                                             BranchSession branchSession) throws IOException, TimeoutException {
         BranchCommitResponse response = (BranchCommitResponse) remotingServer.sendSyncRequest(
@@ -177,16 +264,25 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Send the branch commit request without waiting for the response.
+     *
+     * @param request       the request
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    GlobalSession globalSession,
+                                                                    BranchSession branchSession) {
+        return remotingServer.sendAsyncRequest(branchSession.getResourceId(), branchSession.getClientId(), request)
+            .thenApply(response -> ((BranchCommitResponse) response).getBranchStatus());
+    }
+
     @Override
     public BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchRollbackRequest request = new BranchRollbackRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
-            return branchRollbackSend(request, globalSession, branchSession);
+            return branchRollbackSend(buildBranchRollbackRequest(branchSession), globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
             throw new BranchTransactionException(FailedToSendBranchRollbackRequest,
                     String.format("Send branch rollback failed, xid = %s branchId = %s",
@@ -194,6 +290,36 @@ public abstract class AbstractCore implements Core {
         }
     }
 
+    /**
+     * Send the branch rollback request without waiting for the response, the future completes when it arrives.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    public CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                               BranchSession branchSession) {
+        return branchRollbackSendAsync(buildBranchRollbackRequest(branchSession), globalSession, branchSession)
+            .handle((branchStatus, cause) -> {
+                if (cause != null) {
+                    throw toSendFailure(cause, FailedToSendBranchRollbackRequest,
+                        String.format("Send branch rollback failed, xid = %s branchId = %s", branchSession.getXid(),
+                            branchSession.getBranchId()));
+                }
+                return branchStatus;
+            });
+    }
+
+    private BranchRollbackRequest buildBranchRollbackRequest(BranchSession branchSession) {
+        BranchRollbackRequest request = new BranchRollbackRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
     protected BranchStatus branchRollbackSend(BranchRollbackRequest request, GlobalSession globalSession,
                                               BranchSession branchSession) throws IOException, TimeoutException {
         BranchRollbackResponse response = (BranchRollbackResponse) remotingServer.sendSyncRequest(
@@ -201,6 +327,33 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Send the branch rollback request without waiting for the response.
+     *
+     * @param request       the request
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      GlobalSession globalSession,
+                                                                      BranchSession branchSession) {
+        return remotingServer.sendAsyncRequest(branchSession.getResourceId(), branchSession.getClientId(), request)
+            .thenApply(response -> ((BranchRollbackResponse) response).getBranchStatus());
+    }
+
+    /**
+     * Wrap the failure of an async send like the sync send does: a timeout or an io failure becomes a
+     * {@link BranchTransactionException}, the rest is kept.
+     */
+    private static CompletionException toSendFailure(Throwable cause, TransactionExceptionCode code, String message) {
+        Throwable actual = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        if (actual instanceof IOException || actual instanceof TimeoutException) {
+            actual = new BranchTransactionException(code, message, actual);
+        }
+        return new CompletionException(actual);
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
             throws TransactionException {
@@ -15,8 +15,13 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.List;
+
 import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.server.session.GlobalSession;
 
 /**
@@ -26,6 +31,21 @@ import io.seata.server.session.GlobalSession;
  */
 public interface Core extends TransactionCoordinatorInbound, TransactionCoordinatorOutbound {
 
+    /**
+     * Register the branches of one global transaction in a batch: the global session is locked once and the
+     * registered branches are stored together. A branch failing to acquire its row locks fails alone.
+     *
+     * @param branchType             the branch type of all the branches
+     * @param clientId               the client id
+     * @param xid                    the xid
+     * @param branchRegisterRequests the branch register requests
+     * @return the responses of the branches, in the order of the requests
+     * @throws TransactionException the transaction exception, if the batch as a whole fails
+     */
+    List<BranchRegisterResponse> branchRegisterBatch(BranchType branchType, String clientId, String xid,
+                                                     List<BranchRegisterRequest> branchRegisterRequests)
+        throws TransactionException;
+
     /**
      * Do global commit.
      *
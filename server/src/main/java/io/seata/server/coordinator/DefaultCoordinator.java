@@ -17,13 +17,23 @@ package io.seata.server.coordinator;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 import io.netty.channel.Channel;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.ConcurrentLongHashMap;
 import io.seata.common.util.DurationUtil;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
@@ -36,6 +46,8 @@ import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.transaction.AbstractTransactionRequestToTC;
 import io.seata.core.protocol.transaction.AbstractTransactionResponse;
+import io.seata.core.protocol.transaction.BranchRegisterBatchRequest;
+import io.seata.core.protocol.transaction.BranchRegisterBatchResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -59,11 +71,14 @@ import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.netty.ChannelManager;
 import io.seata.core.rpc.netty.NettyRemotingServer;
+import io.seata.metrics.registry.Registry;
 import io.seata.server.AbstractTCInboundHandler;
 import io.seata.server.event.EventBusManager;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.GlobalSession;
-import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.SessionTimeoutWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -73,6 +88,12 @@ import static io.seata.common.Constants.RETRY_COMMITTING;
 import static io.seata.common.Constants.RETRY_ROLLBACKING;
 import static io.seata.common.Constants.TX_TIMEOUT_CHECK;
 import static io.seata.common.Constants.UNDOLOG_DELETE;
+import static io.seata.common.DefaultValues.DEFAULT_DISTRIBUTED_LOCK_EXPIRE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_JITTER_PERCENT;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_MAX_INTERVAL;
 
 /**
  * The type Default coordinator.
@@ -128,6 +149,15 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private static final boolean ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE = ConfigurationFactory.getInstance().getBoolean(
             ConfigurationKeys.ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE, false);
 
+    private static final long RETRY_BACKOFF_INITIAL_INTERVAL = CONFIG.getLong(
+            ConfigurationKeys.RETRY_BACKOFF_INITIAL_INTERVAL, DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL);
+
+    private static final long RETRY_BACKOFF_MAX_INTERVAL = CONFIG.getLong(
+            ConfigurationKeys.RETRY_BACKOFF_MAX_INTERVAL, DEFAULT_RETRY_BACKOFF_MAX_INTERVAL);
+
+    private static final int RETRY_BACKOFF_JITTER_PERCENT = CONFIG.getInt(
+            ConfigurationKeys.RETRY_BACKOFF_JITTER_PERCENT, DEFAULT_RETRY_BACKOFF_JITTER_PERCENT);
+
     private final ScheduledThreadPoolExecutor retryRollbacking = new ScheduledThreadPoolExecutor(1,
             new NamedThreadFactory("RetryRollbacking", 1));
 
@@ -143,6 +173,43 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private final ScheduledThreadPoolExecutor undoLogDelete = new ScheduledThreadPoolExecutor(1,
             new NamedThreadFactory("UndoLogDelete", 1));
 
+    /**
+     * The shard count of the recovery tasks, the sessions of one round are handled by the shards concurrently.
+     */
+    private static final int RECOVERY_SHARD_COUNT = CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_COUNT,
+            DEFAULT_RECOVERY_SHARD_COUNT);
+
+    /**
+     * The max sessions handled by one shard in one round.
+     */
+    /**
+     * How long a recovery round waits for its phase two in flight, the round lock of the db and redis store expires
+     * after it, so no other TC starts the same phase two meanwhile.
+     */
+    private static final long PHASE_TWO_ROUND_MAX_WAIT_MILLS = CONFIG.getLong(
+        ConfigurationKeys.DISTRIBUTED_LOCK_EXPIRE_TIME, DEFAULT_DISTRIBUTED_LOCK_EXPIRE);
+
+    private static final int RECOVERY_SHARD_QUEUE_SIZE = CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_QUEUE_SIZE,
+            DEFAULT_RECOVERY_SHARD_QUEUE_SIZE);
+
+    private final ShardedSessionExecutor retryRollbackingShards = new ShardedSessionExecutor(
+            "RetryRollbackingShard", RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE);
+
+    private final ShardedSessionExecutor retryCommittingShards = new ShardedSessionExecutor(
+            "RetryCommittingShard", RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE);
+
+    private final ShardedSessionExecutor asyncCommittingShards = new ShardedSessionExecutor(
+            "AsyncCommittingShard", RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE);
+
+    private final ShardedSessionExecutor timeoutCheckShards = new ShardedSessionExecutor(
+            "TxTimeoutCheckShard", RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE);
+
+    /**
+     * The global sessions whose phase two of a recovery round is still in flight, keyed by transactionId, the next
+     * rounds skip them.
+     */
+    private final ConcurrentLongHashMap<GlobalSession> phaseTwoInFlight = new ConcurrentLongHashMap<>();
+
     private RemotingServer remotingServer;
 
     private final DefaultCore core;
@@ -220,6 +287,14 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                         request.getXid(), request.getApplicationData(), request.getLockKey()));
     }
 
+    @Override
+    protected void doBranchRegisterBatch(BranchRegisterBatchRequest request, BranchRegisterBatchResponse response,
+                                         RpcContext rpcContext) throws TransactionException {
+        MDC.put(RootContext.MDC_KEY_XID, request.getXid());
+        response.setBranchRegisterResponses(core.branchRegisterBatch(request.getBranchType(),
+            rpcContext.getClientId(), request.getXid(), request.getBranchRegisterRequests()));
+    }
+
     @Override
     protected void doBranchReport(BranchReportRequest request, BranchReportResponse response, RpcContext rpcContext)
             throws TransactionException {
@@ -241,60 +316,96 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Timeout check.
      */
     protected void timeoutCheck() {
-        Collection<GlobalSession> allSessions = SessionHolder.getRootSessionManager().allSessions();
+        SessionTimeoutWheel timeoutWheel = SessionHolder.getTimeoutWheel();
+        Collection<GlobalSession> allSessions = timeoutWheel != null
+            ? timeoutWheel.expire(System.currentTimeMillis())
+            : SessionHolder.getRootSessionManager().allSessions();
+        if (timeoutWheel != null) {
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getSummary(MeterIdConstants.SUMMARY_TIMEOUT_EXPIRED).increase(allSessions.size());
+            }
+        }
         if (CollectionUtils.isEmpty(allSessions)) {
             return;
         }
         if (!allSessions.isEmpty() && LOGGER.isDebugEnabled()) {
             LOGGER.debug("Global transaction timeout check begin, size: {}", allSessions.size());
         }
-        SessionHelper.forEach(allSessions, globalSession -> {
+        List<GlobalSession> deferred = timeoutCheckShards.forEach(allSessions, globalSession -> {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug(
                         globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
                                 + globalSession.getTimeout());
             }
-            SessionHolder.lockAndExecute(globalSession, () -> {
-                if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
-                    return false;
+            boolean checked = false;
+            try {
+                checked = timeoutCheck(globalSession);
+            } finally {
+                if (!checked && timeoutWheel != null) {
+                    // the session has been taken out of the wheel, check it again in the next round
+                    timeoutWheel.add(globalSession);
                 }
+            }
+        });
+        if (timeoutWheel != null) {
+            // taken out of the wheel as well, but not checked in this round
+            deferred.forEach(timeoutWheel::add);
+        }
+        if (!allSessions.isEmpty() && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout check end. ");
+        }
+
+    }
+
+    /**
+     * Roll back the global session if it is timeout.
+     *
+     * @param globalSession the global session
+     * @return false if the session is still begun and not timeout yet
+     * @throws TransactionException the transaction exception
+     */
+    private boolean timeoutCheck(GlobalSession globalSession) throws TransactionException {
+        return SessionHolder.lockAndExecute(globalSession, () -> {
+            if (globalSession.getStatus() != GlobalStatus.Begin) {
+                return true;
+            }
+            if (!globalSession.isTimeout()) {
+                return false;
+            }
 
-                LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
+            LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                globalSession.close();
-                globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            globalSession.close();
+            globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
-                SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
+            SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
 
-                // transaction timeout and start rollbacking event
-                eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
-                        GlobalTransactionEvent.ROLE_TC,
-                        globalSession.getTransactionName(),
-                        globalSession.getApplicationId(),
-                        globalSession.getTransactionServiceGroup(),
-                        globalSession.getBeginTime(), null, globalSession.getStatus()));
+            // transaction timeout and start rollbacking event
+            eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
+                    GlobalTransactionEvent.ROLE_TC,
+                    globalSession.getTransactionName(),
+                    globalSession.getApplicationId(),
+                    globalSession.getTransactionServiceGroup(),
+                    globalSession.getBeginTime(), null, globalSession.getStatus()));
 
-                return true;
-            });
+            return true;
         });
-        if (!allSessions.isEmpty() && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check end. ");
-        }
-
     }
 
     /**
      * Handle retry rollbacking.
      */
     protected void handleRetryRollbacking() {
-        Collection<GlobalSession> rollbackingSessions = SessionHolder.getRetryRollbackingSessionManager().allSessions();
+        long now = System.currentTimeMillis();
+        Collection<GlobalSession> rollbackingSessions = SessionHolder.getRetryRollbackingSessionManager().allRetryDueSessions(now);
         if (CollectionUtils.isEmpty(rollbackingSessions)) {
             return;
         }
-        long now = System.currentTimeMillis();
-        SessionHelper.forEach(rollbackingSessions, rollbackingSession -> {
+        Queue<CompletableFuture<Boolean>> phaseTwos = new ConcurrentLinkedQueue<>();
+        retryRollbackingShards.forEach(rollbackingSessions, rollbackingSession -> {
             try {
                 // prevent repeated rollback
                 if (rollbackingSession.getStatus().equals(GlobalStatus.Rollbacking) && !rollbackingSession.isDeadSession()) {
@@ -312,23 +423,27 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                     return;
                 }
                 rollbackingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                core.doGlobalRollback(rollbackingSession, true);
+                recoverPhaseTwo(rollbackingSession, session -> core.doGlobalRollbackAsync(session, true),
+                    "retry rollbacking", true, phaseTwos);
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to retry rollbacking [{}] {} {}", rollbackingSession.getXid(), ex.getCode(), ex.getMessage());
+                scheduleNextRetry(rollbackingSession);
             }
         });
+        awaitPhaseTwos(phaseTwos, "retry rollbacking");
     }
 
     /**
      * Handle retry committing.
      */
     protected void handleRetryCommitting() {
-        Collection<GlobalSession> committingSessions = SessionHolder.getRetryCommittingSessionManager().allSessions();
+        long now = System.currentTimeMillis();
+        Collection<GlobalSession> committingSessions = SessionHolder.getRetryCommittingSessionManager().allRetryDueSessions(now);
         if (CollectionUtils.isEmpty(committingSessions)) {
             return;
         }
-        long now = System.currentTimeMillis();
-        SessionHelper.forEach(committingSessions, committingSession -> {
+        Queue<CompletableFuture<Boolean>> phaseTwos = new ConcurrentLinkedQueue<>();
+        retryCommittingShards.forEach(committingSessions, committingSession -> {
             try {
                 // prevent repeated commit
                 if (committingSession.getStatus().equals(GlobalStatus.Committing) && !committingSession.isDeadSession()) {
@@ -343,11 +458,55 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                     return;
                 }
                 committingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                core.doGlobalCommit(committingSession, true);
+                recoverPhaseTwo(committingSession, session -> core.doGlobalCommitAsync(session, true),
+                    "retry committing", true, phaseTwos);
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to retry committing [{}] {} {}", committingSession.getXid(), ex.getCode(), ex.getMessage());
+                scheduleNextRetry(committingSession);
             }
         });
+        awaitPhaseTwos(phaseTwos, "retry committing");
+    }
+
+    /**
+     * Back off the next retry of the global session which failed to be retried.
+     *
+     * @param globalSession the global session
+     */
+    private void scheduleNextRetry(GlobalSession globalSession) {
+        if (RETRY_BACKOFF_INITIAL_INTERVAL <= 0) {
+            return;
+        }
+        long interval = nextRetryInterval(globalSession.getRetryCount(), RETRY_BACKOFF_INITIAL_INTERVAL,
+            RETRY_BACKOFF_MAX_INTERVAL, RETRY_BACKOFF_JITTER_PERCENT);
+        try {
+            globalSession.scheduleNextRetry(System.currentTimeMillis() + interval);
+        } catch (Exception ex) {
+            LOGGER.warn("Failed to schedule the next retry of [{}] {}", globalSession.getXid(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Gets the interval before the next retry, it doubles with every failed retry until the max interval,
+     * and is shifted randomly by the jitter to spread the retries of the sessions failed together.
+     *
+     * @param retryCount      the count of the failed retries
+     * @param initialInterval the interval after the first failed retry
+     * @param maxInterval     the max interval
+     * @param jitterPercent   the jitter in percent of the interval
+     * @return the interval in milliseconds
+     */
+    static long nextRetryInterval(int retryCount, long initialInterval, long maxInterval, int jitterPercent) {
+        long interval = initialInterval;
+        for (int i = 0; i < retryCount && interval < maxInterval; i++) {
+            interval <<= 1;
+        }
+        interval = Math.min(interval, Math.max(maxInterval, initialInterval));
+        if (jitterPercent > 0) {
+            long jitter = interval * Math.min(jitterPercent, 100) / 100;
+            interval += ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        }
+        return interval;
     }
 
     private boolean isRetryTimeout(long now, long timeout, long beginTime) {
@@ -363,21 +522,97 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
-        SessionHelper.forEach(asyncCommittingSessions, asyncCommittingSession -> {
-            try {
-                // Instruction reordering in DefaultCore#asyncCommit may cause this situation
-                if (GlobalStatus.AsyncCommitting != asyncCommittingSession.getStatus()) {
-                    //The function of this 'return' is 'continue'.
-                    return;
+        Queue<CompletableFuture<Boolean>> phaseTwos = new ConcurrentLinkedQueue<>();
+        asyncCommittingShards.forEach(asyncCommittingSessions, asyncCommittingSession -> {
+            // Instruction reordering in DefaultCore#asyncCommit may cause this situation
+            if (GlobalStatus.AsyncCommitting != asyncCommittingSession.getStatus()) {
+                //The function of this 'return' is 'continue'.
+                return;
+            }
+            asyncCommittingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            recoverPhaseTwo(asyncCommittingSession, session -> core.doGlobalCommitAsync(session, true),
+                "async committing", false, phaseTwos);
+        });
+        awaitPhaseTwos(phaseTwos, "async committing");
+    }
+
+    /**
+     * Run the phase two of the global session for a recovery round, unless the one of a previous round is still
+     * in flight. With server.enableAsyncPhaseTwo the shard thread moves on as soon as the branch requests are sent,
+     * the results are applied when the responses arrive.
+     *
+     * @param globalSession the global session
+     * @param phaseTwo      the phase two of the global session
+     * @param action        the action, for the log
+     * @param backoff       whether a failed phase two backs off the next retry
+     * @param phaseTwos     the phase twos of the round, the round waits for them
+     */
+    private void recoverPhaseTwo(GlobalSession globalSession,
+                                 Function<GlobalSession, CompletableFuture<Boolean>> phaseTwo, String action,
+                                 boolean backoff, Queue<CompletableFuture<Boolean>> phaseTwos) {
+        long transactionId = globalSession.getTransactionId();
+        if (phaseTwoInFlight.putIfAbsent(transactionId, globalSession) != null) {
+            return;
+        }
+        CompletableFuture<Boolean> result;
+        try {
+            result = phaseTwo.apply(globalSession);
+        } catch (RuntimeException ex) {
+            phaseTwoInFlight.remove(transactionId);
+            throw ex;
+        }
+        phaseTwos.add(result);
+        result.whenComplete((done, cause) -> {
+            phaseTwoInFlight.remove(transactionId);
+            if (cause == null) {
+                if (backoff && !done) {
+                    scheduleNextRetry(globalSession);
                 }
-                asyncCommittingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                core.doGlobalCommit(asyncCommittingSession, true);
-            } catch (TransactionException ex) {
-                LOGGER.error("Failed to async committing [{}] {} {}", asyncCommittingSession.getXid(), ex.getCode(), ex.getMessage(), ex);
+                return;
+            }
+            Throwable ex = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+            if (ex instanceof TransactionException) {
+                TransactionException tex = (TransactionException) ex;
+                if (backoff) {
+                    LOGGER.info("Failed to {} [{}] {} {}", action, globalSession.getXid(), tex.getCode(), tex.getMessage());
+                } else {
+                    LOGGER.error("Failed to {} [{}] {} {}", action, globalSession.getXid(), tex.getCode(), tex.getMessage(), tex);
+                }
+            } else {
+                LOGGER.error("Failed to {} [{}] {}", action, globalSession.getXid(), ex.getMessage(), ex);
+            }
+            if (backoff) {
+                scheduleNextRetry(globalSession);
             }
         });
     }
 
+    /**
+     * Wait for the phase twos of a recovery round, so the round lock of the db and redis store is held until they end
+     * and another TC does not send them again. Past the expiry of the round lock the round gives up waiting, the
+     * phase twos still in flight are only skipped by the next rounds of this TC.
+     *
+     * @param phaseTwos the phase twos of the round
+     * @param action    the action, for the log
+     */
+    private static void awaitPhaseTwos(Queue<CompletableFuture<Boolean>> phaseTwos, String action) {
+        if (phaseTwos.isEmpty()) {
+            return;
+        }
+        try {
+            // the failures are handled by every phase two itself
+            CompletableFuture.allOf(phaseTwos.toArray(new CompletableFuture[0]))
+                .get(PHASE_TWO_ROUND_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // handled by the phase two
+        } catch (TimeoutException e) {
+            LOGGER.warn("The {} round stops waiting for its phase two after {} ms, {} global sessions are in flight",
+                action, PHASE_TWO_ROUND_MAX_WAIT_MILLS, phaseTwos.stream().filter(f -> !f.isDone()).count());
+        }
+    }
+
     /**
      * Undo log delete.
      */
@@ -457,11 +692,24 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             timeoutCheck.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
         } catch (InterruptedException ignore) {
 
+        }
+        retryRollbackingShards.shutdown();
+        retryCommittingShards.shutdown();
+        asyncCommittingShards.shutdown();
+        timeoutCheckShards.shutdown();
+        try {
+            retryRollbackingShards.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            retryCommittingShards.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            asyncCommittingShards.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            timeoutCheckShards.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ignore) {
+
         }
         // 2. second close netty flow
         if (remotingServer instanceof NettyRemotingServer) {
             ((NettyRemotingServer) remotingServer).destroy();
         }
+        core.destroy();
         // 3. last destroy SessionHolder
         SessionHolder.destroy();
     }
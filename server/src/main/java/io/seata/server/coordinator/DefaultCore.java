@@ -15,13 +15,20 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.util.CollectionUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
@@ -30,6 +37,8 @@ import io.seata.core.logger.StackTraceLogger;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.server.event.EventBusManager;
 import io.seata.server.session.BranchSession;
@@ -40,6 +49,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_ASYNC_PHASE_TWO;
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_PARALLEL_HANDLE_BRANCH;
+import static io.seata.common.DefaultValues.DEFAULT_PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY;
 import static io.seata.server.session.BranchSessionHandler.CONTINUE;
 
 /**
@@ -55,6 +67,17 @@ public class DefaultCore implements Core {
 
     private static Map<BranchType, AbstractCore> coreMap = new ConcurrentHashMap<>();
 
+    private static final boolean PARALLEL_HANDLE_BRANCH = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.ENABLE_PARALLEL_HANDLE_BRANCH, DEFAULT_ENABLE_PARALLEL_HANDLE_BRANCH);
+
+    private static final int PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY = ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY, DEFAULT_PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY);
+
+    private static final boolean ASYNC_PHASE_TWO = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.ENABLE_ASYNC_PHASE_TWO, DEFAULT_ENABLE_ASYNC_PHASE_TWO);
+
+    private static volatile ParallelBranchDispatcher branchDispatcher;
+
     /**
      * get the Default core.
      *
@@ -68,6 +91,25 @@ public class DefaultCore implements Core {
                 coreMap.put(core.getHandleBranchType(), core);
             }
         }
+        if ((PARALLEL_HANDLE_BRANCH || ASYNC_PHASE_TWO) && branchDispatcher == null) {
+            synchronized (DefaultCore.class) {
+                if (branchDispatcher == null) {
+                    branchDispatcher = new ParallelBranchDispatcher(PARALLEL_HANDLE_BRANCH_MAX_CONCURRENCY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Shutdown the branch dispatcher, the branches already handed over are still sent.
+     */
+    public void destroy() {
+        synchronized (DefaultCore.class) {
+            if (branchDispatcher != null) {
+                branchDispatcher.shutdown();
+                branchDispatcher = null;
+            }
+        }
     }
 
     /**
@@ -101,6 +143,13 @@ public class DefaultCore implements Core {
             applicationData, lockKeys);
     }
 
+    @Override
+    public List<BranchRegisterResponse> branchRegisterBatch(BranchType branchType, String clientId, String xid,
+                                                            List<BranchRegisterRequest> branchRegisterRequests)
+        throws TransactionException {
+        return getCore(branchType).branchRegisterBatch(branchType, clientId, xid, branchRegisterRequests);
+    }
+
     @Override
     public void branchReport(BranchType branchType, String xid, long branchId, BranchStatus status,
                              String applicationData) throws TransactionException {
@@ -130,6 +179,9 @@ public class DefaultCore implements Core {
             timeout);
         MDC.put(RootContext.MDC_KEY_XID, session.getXid());
         session.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+        if (SessionHolder.getTimeoutWheel() != null) {
+            session.addSessionLifecycleListener(SessionHolder.getTimeoutWheel());
+        }
 
         session.begin();
 
@@ -180,6 +232,33 @@ public class DefaultCore implements Core {
 
     @Override
     public boolean doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
+        return doGlobalCommit(globalSession, retrying, null);
+    }
+
+    /**
+     * Commit the global session without holding the caller thread while the branch commit requests are in flight.
+     * The requests are sent at once, and the results are applied to the global session by the completion pool of
+     * the dispatcher once the last response is in, in the same order as {@link #doGlobalCommit(GlobalSession, boolean)}
+     * does.
+     *
+     * @param globalSession the global session
+     * @param retrying      the retrying
+     * @return the future of whether the global session is committed
+     */
+    public CompletableFuture<Boolean> doGlobalCommitAsync(GlobalSession globalSession, boolean retrying) {
+        Map<Long, CompletableFuture<BranchStatus>> dispatched = ASYNC_PHASE_TWO && !globalSession.isSaga()
+            ? dispatchBranchCommit(globalSession, globalSession.getSortedBranches(), retrying) : null;
+        return allCompleted(dispatched).thenApply(v -> {
+            try {
+                return doGlobalCommit(globalSession, retrying, dispatched);
+            } catch (TransactionException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private boolean doGlobalCommit(GlobalSession globalSession, boolean retrying,
+                                   Map<Long, CompletableFuture<BranchStatus>> dispatched) throws TransactionException {
         boolean success = true;
         // start committing event
         eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
@@ -189,7 +268,12 @@ public class DefaultCore implements Core {
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying);
         } else {
-            Boolean result = SessionHelper.forEach(globalSession.getSortedBranches(), branchSession -> {
+            List<BranchSession> sortedBranches = globalSession.getSortedBranches();
+            if (dispatched == null) {
+                dispatched = dispatchBranchCommit(globalSession, sortedBranches, retrying);
+            }
+            Map<Long, CompletableFuture<BranchStatus>> pending = dispatched;
+            Boolean result = SessionHelper.forEach(sortedBranches, branchSession -> {
                 // if not retrying, skip the canBeCommittedAsync branches
                 if (!retrying && branchSession.canBeCommittedAsync()) {
                     return CONTINUE;
@@ -201,7 +285,8 @@ public class DefaultCore implements Core {
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+                    BranchStatus branchStatus = ParallelBranchDispatcher.await(pending, globalSession, branchSession,
+                        (global, branch) -> getCore(branch.getBranchType()).branchCommit(global, branch));
 
                     switch (branchStatus) {
                         case PhaseTwo_Committed:
@@ -293,6 +378,31 @@ public class DefaultCore implements Core {
 
     @Override
     public boolean doGlobalRollback(GlobalSession globalSession, boolean retrying) throws TransactionException {
+        return doGlobalRollback(globalSession, retrying, null);
+    }
+
+    /**
+     * Roll back the global session without holding the caller thread while the branch rollback requests are in
+     * flight, as {@link #doGlobalCommitAsync(GlobalSession, boolean)} does.
+     *
+     * @param globalSession the global session
+     * @param retrying      the retrying
+     * @return the future of whether the global session is rollbacked
+     */
+    public CompletableFuture<Boolean> doGlobalRollbackAsync(GlobalSession globalSession, boolean retrying) {
+        Map<Long, CompletableFuture<BranchStatus>> dispatched = ASYNC_PHASE_TWO && !globalSession.isSaga()
+            ? dispatchBranchRollback(globalSession, globalSession.getReverseSortedBranches()) : null;
+        return allCompleted(dispatched).thenApply(v -> {
+            try {
+                return doGlobalRollback(globalSession, retrying, dispatched);
+            } catch (TransactionException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private boolean doGlobalRollback(GlobalSession globalSession, boolean retrying,
+                                     Map<Long, CompletableFuture<BranchStatus>> dispatched) throws TransactionException {
         boolean success = true;
         // start rollback event
         eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
@@ -304,14 +414,20 @@ public class DefaultCore implements Core {
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying);
         } else {
-            Boolean result = SessionHelper.forEach(globalSession.getReverseSortedBranches(), branchSession -> {
+            List<BranchSession> reverseSortedBranches = globalSession.getReverseSortedBranches();
+            if (dispatched == null) {
+                dispatched = dispatchBranchRollback(globalSession, reverseSortedBranches);
+            }
+            Map<Long, CompletableFuture<BranchStatus>> pending = dispatched;
+            Boolean result = SessionHelper.forEach(reverseSortedBranches, branchSession -> {
                 BranchStatus currentBranchStatus = branchSession.getStatus();
                 if (currentBranchStatus == BranchStatus.PhaseOne_Failed) {
                     globalSession.removeBranch(branchSession);
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = branchRollback(globalSession, branchSession);
+                    BranchStatus branchStatus = ParallelBranchDispatcher.await(pending, globalSession, branchSession,
+                        this::branchRollback);
                     switch (branchStatus) {
                         case PhaseTwo_Rollbacked:
                             globalSession.removeBranch(branchSession);
@@ -371,6 +487,100 @@ public class DefaultCore implements Core {
         return success;
     }
 
+    /**
+     * Completes when all the dispatched requests are answered, failed or skipped, on the completion pool of the
+     * dispatcher rather than on the RPC or timer thread completing the last response.
+     */
+    private static CompletableFuture<Void> allCompleted(Map<Long, CompletableFuture<BranchStatus>> dispatched) {
+        if (dispatched == null || dispatched.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ParallelBranchDispatcher dispatcher = branchDispatcher;
+        if (dispatcher == null) {
+            // destroyed meanwhile, the results are applied by the thread completing the last response
+            return CompletableFuture.allOf(dispatched.values().toArray(new CompletableFuture[0]))
+                .handle((v, cause) -> null);
+        }
+        return dispatcher.allCompleted(dispatched);
+    }
+
+    /**
+     * Send the branch commit requests concurrently, every branch is independent of the others.
+     *
+     * @param globalSession  the global session
+     * @param sortedBranches the sorted branches
+     * @param retrying       the retrying
+     * @return the pending branch status, or null if the branches should be committed one by one
+     */
+    private Map<Long, CompletableFuture<BranchStatus>> dispatchBranchCommit(GlobalSession globalSession,
+                                                                            List<BranchSession> sortedBranches,
+                                                                            boolean retrying) {
+        ParallelBranchDispatcher dispatcher = branchDispatcher;
+        if (dispatcher == null || sortedBranches.size() < minLanes()) {
+            return null;
+        }
+        List<List<BranchSession>> lanes = new ArrayList<>(sortedBranches.size());
+        for (BranchSession branchSession : sortedBranches) {
+            if ((!retrying && branchSession.canBeCommittedAsync())
+                || branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
+                continue;
+            }
+            lanes.add(Collections.singletonList(branchSession));
+        }
+        if (lanes.size() < minLanes()) {
+            return null;
+        }
+        if (ASYNC_PHASE_TWO) {
+            return dispatcher.dispatchAsync(globalSession, lanes,
+                (global, branch) -> getCore(branch.getBranchType()).branchCommitAsync(global, branch),
+                branchStatus -> true);
+        }
+        return dispatcher.dispatch(globalSession, lanes,
+            (global, branch) -> getCore(branch.getBranchType()).branchCommit(global, branch),
+            branchStatus -> true);
+    }
+
+    /**
+     * Send the branch rollback requests concurrently. The branches of the same resource are still rolled back
+     * in the reverse order of registration, and the next one is not sent until the previous one is rollbacked.
+     *
+     * @param globalSession         the global session
+     * @param reverseSortedBranches the reverse sorted branches
+     * @return the pending branch status, or null if the branches should be rolled back one by one
+     */
+    private Map<Long, CompletableFuture<BranchStatus>> dispatchBranchRollback(GlobalSession globalSession,
+                                                                              List<BranchSession> reverseSortedBranches) {
+        ParallelBranchDispatcher dispatcher = branchDispatcher;
+        if (dispatcher == null || reverseSortedBranches.size() < minLanes()) {
+            return null;
+        }
+        Map<String, List<BranchSession>> lanes = new LinkedHashMap<>();
+        for (BranchSession branchSession : reverseSortedBranches) {
+            if (branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
+                continue;
+            }
+            lanes.computeIfAbsent(branchSession.getResourceId(), k -> new ArrayList<>()).add(branchSession);
+        }
+        if (lanes.size() < minLanes()) {
+            return null;
+        }
+        if (ASYNC_PHASE_TWO) {
+            return dispatcher.dispatchAsync(globalSession, lanes.values(),
+                (global, branch) -> getCore(branch.getBranchType()).branchRollbackAsync(global, branch),
+                branchStatus -> branchStatus == BranchStatus.PhaseTwo_Rollbacked);
+        }
+        return dispatcher.dispatch(globalSession, lanes.values(), this::branchRollback,
+            branchStatus -> branchStatus == BranchStatus.PhaseTwo_Rollbacked);
+    }
+
+    /**
+     * A single lane is only worth a pool thread when the others run concurrently, while an async request is
+     * worth sending even alone, it holds no thread.
+     */
+    private static int minLanes() {
+        return ASYNC_PHASE_TWO ? 1 : 2;
+    }
+
     @Override
     public GlobalStatus getStatus(String xid) throws TransactionException {
         GlobalSession globalSession = SessionHolder.findGlobalSession(xid, false);
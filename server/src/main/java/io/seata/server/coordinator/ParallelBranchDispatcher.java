@@ -0,0 +1,277 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.core.context.RootContext;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.slf4j.MDC;
+
+/**
+ * Fan out the phase two requests of one global session to the RMs concurrently.
+ * <p>
+ * Branches are grouped into lanes by the caller: the lanes are sent concurrently, while the branches inside
+ * one lane are sent one by one in the given order, and the rest of a lane is skipped as soon as one of its
+ * branches does not reach the expected status.
+ * <p>
+ * An {@link AsyncBranchCall} does not hold any thread while its request is in flight, the next branch of the lane
+ * is sent by the completion pool once the previous one is answered, never by the RPC or timer thread completing
+ * the response. A blocking {@link BranchCall} is run by the dispatch pool, which bounds the number of branch
+ * requests in flight, once it is saturated the caller thread sends by itself.
+ * <p>
+ * Only the RPC is done concurrently, the caller still applies the results to the global session one by one
+ * through {@link #await(Map, GlobalSession, BranchSession, BranchCall)}, after {@link #allCompleted(Map)}
+ * when it should not wait.
+ */
+public class ParallelBranchDispatcher {
+
+    private final ThreadPoolExecutor branchExecutor;
+
+    private final ThreadPoolExecutor completionExecutor;
+
+    /**
+     * Instantiates a new Parallel branch dispatcher.
+     *
+     * @param maxConcurrency the max blocking branch requests in flight of this TC
+     */
+    public ParallelBranchDispatcher(int maxConcurrency) {
+        int poolSize = Math.max(1, maxConcurrency);
+        this.branchExecutor = new ThreadPoolExecutor(poolSize, poolSize, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(poolSize), new NamedThreadFactory("ParallelBranchHandler", poolSize),
+            // run by the caller even once shut down, a dropped branch would never complete its future
+            (task, executor) -> task.run());
+        // unbounded, a completion is short and must never fall back to the thread completing the response
+        this.completionExecutor = new ThreadPoolExecutor(poolSize, poolSize, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("ParallelBranchCompletion", poolSize),
+            (task, executor) -> task.run());
+    }
+
+    /**
+     * Send the branches of every lane, the call blocks a thread of the dispatch pool.
+     *
+     * @param globalSession the global session
+     * @param lanes         the lanes, each of them is sent in order
+     * @param call          the branch commit or rollback call
+     * @param laneContinue  whether the next branch of the lane could be sent after the given status
+     * @return the pending status of every branch, keyed by branchId
+     */
+    public Map<Long, CompletableFuture<BranchStatus>> dispatch(GlobalSession globalSession,
+                                                               Collection<List<BranchSession>> lanes,
+                                                               BranchCall call,
+                                                               Predicate<BranchStatus> laneContinue) {
+        return dispatchAsync(globalSession, lanes, (global, branch) -> {
+            CompletableFuture<BranchStatus> future = new CompletableFuture<>();
+            branchExecutor.execute(() -> withBranchMdc(global, branch, () -> {
+                try {
+                    future.complete(call.call(global, branch));
+                } catch (Throwable th) {
+                    future.completeExceptionally(th);
+                }
+                return null;
+            }));
+            return future;
+        }, laneContinue);
+    }
+
+    /**
+     * Send the branches of every lane without waiting for the responses.
+     *
+     * @param globalSession the global session
+     * @param lanes         the lanes, each of them is sent in order
+     * @param call          the async branch commit or rollback call
+     * @param laneContinue  whether the next branch of the lane could be sent after the given status
+     * @return the pending status of every branch, keyed by branchId
+     */
+    public Map<Long, CompletableFuture<BranchStatus>> dispatchAsync(GlobalSession globalSession,
+                                                                    Collection<List<BranchSession>> lanes,
+                                                                    AsyncBranchCall call,
+                                                                    Predicate<BranchStatus> laneContinue) {
+        Map<Long, CompletableFuture<BranchStatus>> results = new HashMap<>();
+        for (List<BranchSession> lane : lanes) {
+            for (BranchSession branchSession : lane) {
+                results.put(branchSession.getBranchId(), new CompletableFuture<>());
+            }
+        }
+        for (List<BranchSession> lane : lanes) {
+            sendLane(globalSession, lane, 0, call, laneContinue, results);
+        }
+        return results;
+    }
+
+    private void sendLane(GlobalSession globalSession, List<BranchSession> lane, int index, AsyncBranchCall call,
+                          Predicate<BranchStatus> laneContinue, Map<Long, CompletableFuture<BranchStatus>> results) {
+        if (index >= lane.size()) {
+            return;
+        }
+        BranchSession branchSession = lane.get(index);
+        CompletableFuture<BranchStatus> future = results.get(branchSession.getBranchId());
+        CompletableFuture<BranchStatus> sent = withBranchMdc(globalSession, branchSession, () -> {
+            try {
+                return call.call(globalSession, branchSession);
+            } catch (Throwable th) {
+                CompletableFuture<BranchStatus> failed = new CompletableFuture<>();
+                failed.completeExceptionally(th);
+                return failed;
+            }
+        });
+        sent.whenCompleteAsync((branchStatus, cause) -> {
+            if (cause != null) {
+                future.completeExceptionally(cause instanceof CompletionException && cause.getCause() != null
+                    ? cause.getCause() : cause);
+            } else {
+                future.complete(branchStatus);
+                if (laneContinue.test(branchStatus)) {
+                    sendLane(globalSession, lane, index + 1, call, laneContinue, results);
+                    return;
+                }
+            }
+            // not sent, the caller will decide whether to send them by itself
+            for (int i = index + 1; i < lane.size(); i++) {
+                results.get(lane.get(i).getBranchId()).complete(null);
+            }
+        }, completionExecutor);
+    }
+
+    /**
+     * Completes on the completion pool when all the dispatched requests are answered, failed or skipped, so the
+     * stages depending on it do not run on the thread completing the last response.
+     *
+     * @param results the pending results returned by dispatch
+     * @return the future
+     */
+    public CompletableFuture<Void> allCompleted(Map<Long, CompletableFuture<BranchStatus>> results) {
+        // the failures are rethrown by await when the results are applied
+        return CompletableFuture.allOf(results.values().toArray(new CompletableFuture[0]))
+            .handleAsync((v, cause) -> null, completionExecutor);
+    }
+
+    /**
+     * Run the action with the xid and the branchId in the MDC, the MDC of the thread is restored afterwards, as
+     * the action may be run by the caller thread or by the completion pool.
+     */
+    private static <T> T withBranchMdc(GlobalSession globalSession, BranchSession branchSession, Supplier<T> action) {
+        String callerXid = MDC.get(RootContext.MDC_KEY_XID);
+        String callerBranchId = MDC.get(RootContext.MDC_KEY_BRANCH_ID);
+        try {
+            MDC.put(RootContext.MDC_KEY_XID, globalSession.getXid());
+            MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+            return action.get();
+        } finally {
+            restoreMdc(RootContext.MDC_KEY_XID, callerXid);
+            restoreMdc(RootContext.MDC_KEY_BRANCH_ID, callerBranchId);
+        }
+    }
+
+    private static void restoreMdc(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        } else {
+            MDC.remove(key);
+        }
+    }
+
+    /**
+     * Wait for the status of the branch, the branch is sent by the caller thread if it is not dispatched.
+     *
+     * @param results       the pending results returned by dispatch
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @param call          the branch commit or rollback call
+     * @return the branch status
+     * @throws TransactionException the transaction exception
+     */
+    public static BranchStatus await(Map<Long, CompletableFuture<BranchStatus>> results, GlobalSession globalSession,
+                                     BranchSession branchSession, BranchCall call) throws TransactionException {
+        CompletableFuture<BranchStatus> future = results == null ? null : results.get(branchSession.getBranchId());
+        if (future == null) {
+            return call.call(globalSession, branchSession);
+        }
+        BranchStatus branchStatus;
+        try {
+            branchStatus = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                throw (TransactionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TransactionException(cause);
+        }
+        return branchStatus != null ? branchStatus : call.call(globalSession, branchSession);
+    }
+
+    /**
+     * Shutdown.
+     */
+    public void shutdown() {
+        branchExecutor.shutdown();
+        completionExecutor.shutdown();
+    }
+
+    /**
+     * The branch commit or rollback call.
+     */
+    @FunctionalInterface
+    public interface BranchCall {
+
+        /**
+         * Send the branch phase two request.
+         *
+         * @param globalSession the global session
+         * @param branchSession the branch session
+         * @return the branch status
+         * @throws TransactionException the transaction exception
+         */
+        BranchStatus call(GlobalSession globalSession, BranchSession branchSession) throws TransactionException;
+    }
+
+    /**
+     * The branch commit or rollback call, which does not wait for the response.
+     */
+    @FunctionalInterface
+    public interface AsyncBranchCall {
+
+        /**
+         * Send the branch phase two request.
+         *
+         * @param globalSession the global session
+         * @param branchSession the branch session
+         * @return the future of the branch status
+         */
+        CompletableFuture<BranchStatus> call(GlobalSession globalSession, BranchSession branchSession);
+    }
+}
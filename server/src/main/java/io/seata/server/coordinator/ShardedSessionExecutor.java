@@ -0,0 +1,162 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
+import io.seata.server.session.SessionHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handle the global sessions of one recovery round on several shards, the shard of a session is chosen by
+ * the hash of its transactionId, so the same session is always handled by the same thread.
+ * <p>
+ * Every shard handles at most {@code shardQueueSize} sessions in one round, the others are returned to the
+ * caller, which must make sure they come up again in a later round. The round does not return until all the shards have finished, so the caller could still hold the
+ * distributed lock of the round the whole time.
+ */
+public class ShardedSessionExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedSessionExecutor.class);
+
+    private final String name;
+
+    private final int shardQueueSize;
+
+    private final ThreadPoolExecutor[] shardExecutors;
+
+    /**
+     * Instantiates a new Sharded session executor.
+     *
+     * @param name           the name
+     * @param shardCount     the shard count, the sessions are handled by the caller thread if less than 2
+     * @param shardQueueSize the max sessions handled by one shard in one round
+     */
+    public ShardedSessionExecutor(String name, int shardCount, int shardQueueSize) {
+        this.name = name;
+        this.shardQueueSize = Math.max(1, shardQueueSize);
+        if (shardCount > 1) {
+            this.shardExecutors = new ThreadPoolExecutor[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                shardExecutors[i] = new ThreadPoolExecutor(1, 1, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), new NamedThreadFactory(name, shardCount));
+            }
+        } else {
+            this.shardExecutors = null;
+        }
+    }
+
+    /**
+     * Handle the global sessions of one round.
+     *
+     * @param sessions the global sessions
+     * @param handler  the handler
+     * @return the sessions deferred to the next round as their shard is full, never null
+     */
+    public List<GlobalSession> forEach(Collection<GlobalSession> sessions, GlobalSessionHandler handler) {
+        if (shardExecutors == null) {
+            SessionHelper.forEach(sessions, handler);
+            return Collections.emptyList();
+        }
+        List<List<GlobalSession>> shards = new ArrayList<>(shardExecutors.length);
+        for (int i = 0; i < shardExecutors.length; i++) {
+            shards.add(new ArrayList<>());
+        }
+        List<GlobalSession> deferred = new ArrayList<>();
+        for (GlobalSession globalSession : sessions) {
+            List<GlobalSession> shard = shards.get(shardIndex(globalSession.getTransactionId(), shards.size()));
+            if (shard.size() >= shardQueueSize) {
+                deferred.add(globalSession);
+                continue;
+            }
+            shard.add(globalSession);
+        }
+        CountDownLatch latch = new CountDownLatch(shardExecutors.length);
+        for (int i = 0; i < shardExecutors.length; i++) {
+            List<GlobalSession> shard = shards.get(i);
+            if (shard.isEmpty()) {
+                latch.countDown();
+                continue;
+            }
+            shardExecutors[i].execute(() -> {
+                try {
+                    SessionHelper.forEach(shard, handler);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for the shards of {}", name);
+        }
+        if (!deferred.isEmpty() && LOGGER.isInfoEnabled()) {
+            LOGGER.info("{} shards are full, {} global sessions are deferred to the next round", name,
+                deferred.size());
+        }
+        return deferred;
+    }
+
+    /**
+     * Gets the shard index of the transaction.
+     *
+     * @param transactionId the transaction id
+     * @param shardCount    the shard count
+     * @return the shard index
+     */
+    static int shardIndex(long transactionId, int shardCount) {
+        return Math.floorMod(Long.hashCode(transactionId), shardCount);
+    }
+
+    /**
+     * Shutdown the shards.
+     */
+    public void shutdown() {
+        if (shardExecutors != null) {
+            for (ThreadPoolExecutor shardExecutor : shardExecutors) {
+                shardExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Await the shards to terminate.
+     *
+     * @param timeout the timeout
+     * @param unit    the unit
+     * @throws InterruptedException the interrupted exception
+     */
+    public void awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (shardExecutors != null) {
+            for (ThreadPoolExecutor shardExecutor : shardExecutors) {
+                shardExecutor.awaitTermination(timeout, unit);
+            }
+        }
+    }
+}
@@ -17,15 +17,26 @@ package io.seata.server.lock;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import io.seata.common.Constants;
+import io.seata.common.DefaultValues;
 import io.seata.common.XID;
+import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.context.LockWaitHolder;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
 import io.seata.core.lock.RowLock;
 import io.seata.core.model.LockStatus;
+import io.seata.core.rpc.netty.NettyServerConfig;
 import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +52,26 @@ public abstract class AbstractLockManager implements LockManager {
      */
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractLockManager.class);
 
+    /**
+     * The longest a waiter sleeps without being woken, the rows released by another server are not signalled.
+     */
+    private static final long LOCK_WAIT_POLL_INTERVAL = 100L;
+
+    private static final String ROW_KEY_SPLIT = "^^^";
+
+    private final LockWaitQueues lockWaitQueues = new LockWaitQueues();
+
+    /**
+     * The permits of the acquires waiting at the same time, a quarter of the handler threads at most, so the others
+     * keep serving the requests which would release the rows.
+     */
+    private volatile Semaphore lockWaiters = new Semaphore(Math.max(1, NettyServerConfig.getMaxServerPoolSize() / 4));
+
+    private volatile long lockWaitTimeout = initLockWaitTimeout();
+
+    private volatile boolean tableLockEnabled = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.SERVER_TABLE_LOCK_ENABLED, DefaultValues.DEFAULT_SERVER_TABLE_LOCK_ENABLED);
+
     @Override
     public boolean acquireLock(BranchSession branchSession) throws TransactionException {
         return acquireLock(branchSession, true);
@@ -62,7 +93,16 @@ public abstract class AbstractLockManager implements LockManager {
             // no lock
             return true;
         }
-        return getLocker(branchSession).acquireLock(locks, autoCommit);
+        checkTableLock(locks);
+        Locker locker = getLocker(branchSession);
+        boolean acquired = locker.acquireLock(locks, autoCommit);
+        if (!acquired && lockWaitTimeout > 0) {
+            acquired = waitLock(branchSession, locks, () -> locker.acquireLock(locks, autoCommit));
+        }
+        if (acquired && branchSession.getLockedTime() == 0 && LockContentionProfiler.get().isEnabled()) {
+            branchSession.setLockedTime(System.currentTimeMillis());
+        }
+        return acquired;
     }
 
     @Override
@@ -72,7 +112,12 @@ public abstract class AbstractLockManager implements LockManager {
         }
         List<RowLock> locks = collectRowLocks(branchSession);
         try {
-            return getLocker(branchSession).releaseLock(locks);
+            boolean released = getLocker(branchSession).releaseLock(locks);
+            if (released) {
+                recordLockHold(branchSession);
+                wakeLockWaiters(branchSession, locks);
+            }
+            return released;
         } catch (Exception t) {
             LOGGER.error("unLock error, branchSession:{}", branchSession, t);
             return false;
@@ -86,14 +131,194 @@ public abstract class AbstractLockManager implements LockManager {
             return true;
         }
         List<RowLock> locks = collectRowLocks(lockKey, resourceId, xid);
+        checkTableLock(locks);
         try {
-            return getLocker().isLockable(locks);
+            Locker locker = getLocker();
+            if (locker.isLockable(locks)) {
+                return true;
+            }
+            if (lockWaitTimeout <= 0) {
+                return false;
+            }
+            return waitLock(null, locks, () -> locker.isLockable(locks));
         } catch (Exception t) {
             LOGGER.error("isLockable error, xid:{} resourceId:{}, lockKey:{}", xid, resourceId, lockKey, t);
             return false;
         }
     }
 
+    /**
+     * Wait in the queues of the rows until the retry succeeds or the lock wait timeout elapses. A retry failing fast
+     * throws, the waiting never outlives the timeout, so two acquires waiting for each other just give up.
+     * <p>
+     * Only a thread the request processor allowed to wait does, never an io thread running the request because the
+     * pool is saturated, and the conflict is answered at once when too many acquires are waiting already.
+     *
+     * @param owner the owner of the acquire, null for a query
+     * @param locks the row locks
+     * @param retry the retry of the acquire
+     * @return true if the retry succeeded
+     * @throws TransactionException the transaction exception
+     */
+    private boolean waitLock(Object owner, List<RowLock> locks, LockRetry retry) throws TransactionException {
+        if (!LockWaitHolder.isLockWaitAllowed()) {
+            return false;
+        }
+        Semaphore waiters = lockWaiters;
+        if (!waiters.tryAcquire()) {
+            return false;
+        }
+        try {
+            return awaitLock(owner, locks, retry);
+        } finally {
+            waiters.release();
+        }
+    }
+
+    private boolean awaitLock(Object owner, List<RowLock> locks, LockRetry retry) throws TransactionException {
+        long deadline = System.currentTimeMillis() + lockWaitTimeout;
+        LockWaitQueues.Waiter waiter = lockWaitQueues.enqueue(owner, rowKeys(locks));
+        boolean acquired = false;
+        LockContentionProfiler profiler = LockContentionProfiler.get();
+        profiler.beginRetry();
+        try {
+            String freedRow = null;
+            while (true) {
+                // retried once queued as well, the row may be freed before the waiter is in the queue
+                if (retry.retry()) {
+                    acquired = true;
+                    return true;
+                }
+                if (freedRow != null) {
+                    lockWaitQueues.passOn(waiter, freedRow);
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                freedRow = waiter.await(Math.min(remaining, LOCK_WAIT_POLL_INTERVAL));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            profiler.endRetry();
+            lockWaitQueues.dequeue(waiter, acquired);
+        }
+    }
+
+    /**
+     * Called once the locks of the branch are released: record how long they were held, and wake the acquires
+     * waiting for the rows.
+     *
+     * @param branchSession the branch session
+     */
+    protected void onLockReleased(BranchSession branchSession) {
+        recordLockHold(branchSession);
+        if (lockWaitQueues.hasWaiters()) {
+            wakeLockWaiters(branchSession, collectRowLocks(branchSession));
+        }
+    }
+
+    private static void recordLockHold(BranchSession branchSession) {
+        long lockedTime = branchSession.getLockedTime();
+        if (lockedTime > 0) {
+            // released more than once at times, counted once
+            branchSession.setLockedTime(0);
+            LockContentionProfiler.get().recordHold(branchSession.getResourceId(),
+                System.currentTimeMillis() - lockedTime);
+        }
+    }
+
+    private void wakeLockWaiters(BranchSession branchSession, List<RowLock> locks) {
+        if (!lockWaitQueues.hasWaiters()) {
+            return;
+        }
+        for (String rowKey : rowKeys(locks)) {
+            lockWaitQueues.wake(rowKey, branchSession);
+        }
+    }
+
+    /**
+     * The keys of the rows waited for or released. With the table locks on, the table lock of every table is one
+     * of them too: a table lock released frees the rows of its table, and a row released may free the table.
+     */
+    private Set<String> rowKeys(List<RowLock> locks) {
+        Set<String> rowKeys = new LinkedHashSet<>(locks.size());
+        for (RowLock lock : locks) {
+            String tableKey = lock.getResourceId() + ROW_KEY_SPLIT + lock.getTableName() + ROW_KEY_SPLIT;
+            rowKeys.add(tableKey + lock.getPk());
+            if (tableLockEnabled) {
+                rowKeys.add(tableKey + Constants.TABLE_LOCK_PK);
+            }
+        }
+        return rowKeys;
+    }
+
+    /**
+     * The branch register waits holding the lock of its global session, the other requests of the global give up
+     * after {@link GlobalSession#GLOBAL_SESSION_LOCK_TIME_OUT_MILLS}, so the wait is kept to half of it.
+     */
+    private static long initLockWaitTimeout() {
+        long lockWaitTimeout = ConfigurationFactory.getInstance().getLong(ConfigurationKeys.LOCK_WAIT_TIMEOUT,
+            DefaultValues.DEFAULT_LOCK_WAIT_TIMEOUT);
+        long maxLockWaitTimeout = GlobalSession.GLOBAL_SESSION_LOCK_TIME_OUT_MILLS / 2;
+        if (lockWaitTimeout > maxLockWaitTimeout) {
+            LOGGER.warn("{} {} is larger than {}, use {} instead", ConfigurationKeys.LOCK_WAIT_TIMEOUT,
+                lockWaitTimeout, maxLockWaitTimeout, maxLockWaitTimeout);
+            return maxLockWaitTimeout;
+        }
+        return lockWaitTimeout;
+    }
+
+    /**
+     * Reject the table locks unless they are enabled, every acquire pays for checking them against the rows.
+     */
+    private void checkTableLock(List<RowLock> locks) {
+        if (tableLockEnabled) {
+            return;
+        }
+        for (RowLock lock : locks) {
+            if (Constants.TABLE_LOCK_PK.equals(lock.getPk())) {
+                throw new NotSupportYetException("the table lock of " + lock.getTableName()
+                    + " is not enabled, set " + ConfigurationKeys.SERVER_TABLE_LOCK_ENABLED
+                    + " on the server or set " + ConfigurationKeys.CLIENT_TABLE_LOCK_THRESHOLD + " to 0 on the client");
+            }
+        }
+    }
+
+    /**
+     * Sets whether the table locks are accepted.
+     *
+     * @param tableLockEnabled whether the table locks are accepted
+     */
+    protected void setTableLockEnabled(boolean tableLockEnabled) {
+        this.tableLockEnabled = tableLockEnabled;
+    }
+
+    /**
+     * Sets the lock wait timeout.
+     *
+     * @param lockWaitTimeout the lock wait timeout in milliseconds, 0 to answer a conflict at once
+     */
+    protected void setLockWaitTimeout(long lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+    }
+
+    /**
+     * Sets the max acquires waiting at the same time.
+     *
+     * @param maxLockWaiters the max lock waiters
+     */
+    protected void setMaxLockWaiters(int maxLockWaiters) {
+        this.lockWaiters = new Semaphore(Math.max(1, maxLockWaiters));
+    }
+
+    @FunctionalInterface
+    private interface LockRetry {
+
+        boolean retry() throws TransactionException;
+    }
 
     @Override
     public void cleanAllLocks() throws TransactionException {
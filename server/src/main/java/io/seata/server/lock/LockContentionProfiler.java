@@ -0,0 +1,265 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.seata.common.DefaultValues;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.console.vo.HotRowVO;
+import io.seata.core.console.vo.LockContentionVO;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.metrics.Id;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
+
+import static io.seata.metrics.IdConstants.RESOURCE_ID_KEY;
+
+/**
+ * The lock contention profiler, it finds the hot rows serializing the transactions.
+ * <p>
+ * The conflicting rows of the lock acquires go into a space saving sketch of the most contended rows, the
+ * conflicts and the lock hold times are counted per resource. They are reported to the metrics registry if
+ * enabled, and to the console.
+ */
+public final class LockContentionProfiler {
+
+    /**
+     * The upper bounds of the hold time buckets, in milliseconds.
+     */
+    static final long[] HOLD_TIME_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000};
+
+    private static final LockContentionProfiler INSTANCE = new LockContentionProfiler(ConfigurationFactory
+        .getInstance().getInt(ConfigurationKeys.LOCK_CONTENTION_TOP_K, DefaultValues.DEFAULT_LOCK_CONTENTION_TOP_K));
+
+    private final SpaceSavingSketch<HotRow> hotRows;
+
+    private final ConcurrentMap<String, ResourceContention> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Set while a waiting acquire retries, its conflicts were recorded by the first attempt already.
+     */
+    private final ThreadLocal<Boolean> retrying = new ThreadLocal<>();
+
+    LockContentionProfiler(int topK) {
+        this.hotRows = topK > 0 ? new SpaceSavingSketch<>(topK) : null;
+    }
+
+    /**
+     * Gets the profiler.
+     *
+     * @return the profiler
+     */
+    public static LockContentionProfiler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether the profiling is on.
+     *
+     * @return true if on
+     */
+    public boolean isEnabled() {
+        return hotRows != null;
+    }
+
+    /**
+     * Record a lock acquire conflicting on the row.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @param pk         the pk
+     */
+    public void recordConflict(String resourceId, String tableName, String pk) {
+        if (hotRows == null || retrying.get() != null) {
+            return;
+        }
+        hotRows.offer(new HotRow(resourceId, tableName, pk));
+        ResourceContention resource = resource(resourceId);
+        resource.conflicts.increment();
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getCounter(resource.conflictId).increase(1);
+        }
+    }
+
+    /**
+     * Stop recording the conflicts of the current thread, while it retries an acquire.
+     */
+    void beginRetry() {
+        retrying.set(Boolean.TRUE);
+    }
+
+    /**
+     * Record the conflicts of the current thread again.
+     */
+    void endRetry() {
+        retrying.remove();
+    }
+
+    /**
+     * Record the time the locks of a branch were held.
+     *
+     * @param resourceId the resource id
+     * @param holdMillis the hold time in milliseconds
+     */
+    public void recordHold(String resourceId, long holdMillis) {
+        if (hotRows == null) {
+            return;
+        }
+        ResourceContention resource = resource(resourceId);
+        resource.holdTimes[bucketOf(holdMillis)].increment();
+        resource.maxHoldTime.accumulate(holdMillis);
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getTimer(resource.holdId).record(holdMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gets the most contended rows, the most contended first.
+     *
+     * @param topK the number of the rows
+     * @return the rows
+     */
+    public List<HotRowVO> hotRows(int topK) {
+        List<HotRowVO> rows = new ArrayList<>();
+        if (hotRows == null) {
+            return rows;
+        }
+        for (SpaceSavingSketch.Entry<HotRow> entry : hotRows.top(topK)) {
+            HotRowVO row = new HotRowVO();
+            row.setResourceId(entry.getKey().resourceId);
+            row.setTableName(entry.getKey().tableName);
+            row.setPk(entry.getKey().pk);
+            row.setConflicts(entry.getCount());
+            row.setError(entry.getError());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the conflicts and hold times of every resource.
+     *
+     * @return the contentions
+     */
+    public List<LockContentionVO> contentions() {
+        List<LockContentionVO> contentions = new ArrayList<>(resources.size());
+        resources.forEach((resourceId, resource) -> {
+            LockContentionVO contention = new LockContentionVO();
+            contention.setResourceId(resourceId);
+            contention.setConflicts(resource.conflicts.sum());
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            long holds = 0;
+            for (int i = 0; i < resource.holdTimes.length; i++) {
+                long count = resource.holdTimes[i].sum();
+                holds += count;
+                histogram.put(i < HOLD_TIME_BOUNDS.length ? String.valueOf(HOLD_TIME_BOUNDS[i]) : "+Inf", count);
+            }
+            contention.setHolds(holds);
+            contention.setMaxHoldTime(resource.maxHoldTime.get());
+            contention.setHoldTimeHistogram(histogram);
+            contentions.add(contention);
+        });
+        contentions.sort((c1, c2) -> Long.compare(c2.getConflicts(), c1.getConflicts()));
+        return contentions;
+    }
+
+    private ResourceContention resource(String resourceId) {
+        ResourceContention resource = resources.get(resourceId);
+        return resource != null ? resource : resources.computeIfAbsent(resourceId, ResourceContention::new);
+    }
+
+    private static Id meterId(Id template, String resourceId) {
+        return new Id(template.getName()).withTag(template.getTags()).withTag(RESOURCE_ID_KEY, resourceId);
+    }
+
+    static int bucketOf(long holdMillis) {
+        int i = 0;
+        while (i < HOLD_TIME_BOUNDS.length && holdMillis > HOLD_TIME_BOUNDS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class ResourceContention {
+
+        private final LongAdder conflicts = new LongAdder();
+
+        private final LongAdder[] holdTimes = new LongAdder[HOLD_TIME_BOUNDS.length + 1];
+
+        private final LongAccumulator maxHoldTime = new LongAccumulator(Math::max, 0L);
+
+        /**
+         * The meter ids of the resource, the registry keeps a meter per id.
+         */
+        private final Id conflictId;
+
+        private final Id holdId;
+
+        private ResourceContention(String resourceId) {
+            this.conflictId = meterId(MeterIdConstants.COUNTER_LOCK_CONFLICT, resourceId);
+            this.holdId = meterId(MeterIdConstants.TIMER_LOCK_HOLD, resourceId);
+            for (int i = 0; i < holdTimes.length; i++) {
+                holdTimes[i] = new LongAdder();
+            }
+        }
+    }
+
+    private static final class HotRow {
+
+        private final String resourceId;
+
+        private final String tableName;
+
+        private final String pk;
+
+        private HotRow(String resourceId, String tableName, String pk) {
+            this.resourceId = resourceId;
+            this.tableName = tableName;
+            this.pk = pk;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HotRow)) {
+                return false;
+            }
+            HotRow hotRow = (HotRow)o;
+            return Objects.equals(resourceId, hotRow.resourceId) && Objects.equals(tableName, hotRow.tableName)
+                && Objects.equals(pk, hotRow.pk);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourceId, tableName, pk);
+        }
+    }
+}
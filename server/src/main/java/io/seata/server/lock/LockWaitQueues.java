@@ -0,0 +1,197 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The FIFO queues of the acquires waiting for a row lock, one queue per row key.
+ * <p>
+ * A release wakes the first waiter of every row it frees. The woken waiter retries its acquire, if it fails again
+ * the row is passed on to the next waiter, so a freed row is never lost while the queue is not empty. The waiters
+ * poll besides, which covers the rows released by another server sharing the store.
+ */
+final class LockWaitQueues {
+
+    private final ConcurrentMap<String, Deque<Waiter>> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    /**
+     * Whether any acquire is waiting, the releases skip the wake-ups otherwise.
+     *
+     * @return true if any
+     */
+    boolean hasWaiters() {
+        return waiterCount.get() > 0;
+    }
+
+    /**
+     * Append a waiter to the queues of the rows.
+     *
+     * @param owner   the owner of the acquire, its own releases do not wake it
+     * @param rowKeys the row keys
+     * @return the waiter
+     */
+    Waiter enqueue(Object owner, Collection<String> rowKeys) {
+        Waiter waiter = new Waiter(owner, rowKeys);
+        waiterCount.incrementAndGet();
+        for (String rowKey : rowKeys) {
+            queues.compute(rowKey, (k, queue) -> {
+                if (queue == null) {
+                    queue = new ArrayDeque<>();
+                }
+                queue.addLast(waiter);
+                return queue;
+            });
+        }
+        return waiter;
+    }
+
+    /**
+     * Remove the waiter from the queues.
+     *
+     * @param waiter   the waiter
+     * @param acquired whether it got the locks, otherwise the rows it was woken for and did not use are passed on
+     */
+    void dequeue(Waiter waiter, boolean acquired) {
+        for (String rowKey : waiter.rowKeys) {
+            queues.computeIfPresent(rowKey, (k, queue) -> {
+                queue.remove(waiter);
+                return queue.isEmpty() ? null : queue;
+            });
+        }
+        waiterCount.decrementAndGet();
+        if (!acquired) {
+            for (String rowKey : waiter.drainWakes()) {
+                wake(rowKey, null);
+            }
+        }
+    }
+
+    /**
+     * Wake the first waiter of the freed row.
+     *
+     * @param rowKey     the row key
+     * @param releasedBy the owner releasing the row
+     */
+    void wake(String rowKey, Object releasedBy) {
+        Waiter[] woken = new Waiter[1];
+        queues.computeIfPresent(rowKey, (k, queue) -> {
+            for (Waiter waiter : queue) {
+                if (releasedBy == null || waiter.owner != releasedBy) {
+                    woken[0] = waiter;
+                    break;
+                }
+            }
+            return queue;
+        });
+        if (woken[0] != null) {
+            woken[0].wake(rowKey);
+        }
+    }
+
+    /**
+     * Pass the freed row on to the waiter after this one, which failed to acquire with it.
+     *
+     * @param waiter the waiter
+     * @param rowKey the row key
+     */
+    void passOn(Waiter waiter, String rowKey) {
+        Waiter[] woken = new Waiter[1];
+        queues.computeIfPresent(rowKey, (k, queue) -> {
+            Iterator<Waiter> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() == waiter) {
+                    if (iterator.hasNext()) {
+                        woken[0] = iterator.next();
+                    }
+                    break;
+                }
+            }
+            return queue;
+        });
+        if (woken[0] != null) {
+            woken[0].wake(rowKey);
+        }
+    }
+
+    /**
+     * Gets the number of the waiters of the row.
+     *
+     * @param rowKey the row key
+     * @return the number of the waiters
+     */
+    int queueLength(String rowKey) {
+        Deque<Waiter> queue = queues.get(rowKey);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * An acquire waiting for some rows.
+     */
+    static final class Waiter {
+
+        private final Object owner;
+
+        private final Collection<String> rowKeys;
+
+        private final Deque<String> wakes = new ArrayDeque<>();
+
+        private Waiter(Object owner, Collection<String> rowKeys) {
+            this.owner = owner;
+            this.rowKeys = rowKeys;
+        }
+
+        synchronized void wake(String rowKey) {
+            wakes.addLast(rowKey);
+            notifyAll();
+        }
+
+        /**
+         * Wait for a freed row.
+         *
+         * @param timeoutMillis the timeout in milliseconds
+         * @return the freed row key, null if the timeout elapsed
+         * @throws InterruptedException the interrupted exception
+         */
+        synchronized String await(long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (wakes.isEmpty()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return null;
+                }
+                wait(remaining);
+            }
+            return wakes.pollFirst();
+        }
+
+        private synchronized List<String> drainWakes() {
+            List<String> drained = new ArrayList<>(wakes);
+            wakes.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A space saving sketch of the most frequent keys of a stream, it keeps a bounded number of counters.
+ * <p>
+ * A key without a counter takes over the counter of the least frequent key once all are used, its count starts
+ * above the evicted one, which is recorded as the error of the count. Every key more frequent than
+ * {@code total / capacity} is guaranteed to hold a counter. The counters are kept in buckets of equal count
+ * ordered by count (the stream summary), so an offer costs a constant time.
+ *
+ * @param <K> the type of the keys
+ */
+final class SpaceSavingSketch<K> {
+
+    private final int capacity;
+
+    private final Map<K, Counter<K>> counters;
+
+    private Bucket<K> minBucket;
+
+    private Bucket<K> maxBucket;
+
+    /**
+     * Instantiates a new Space saving sketch.
+     *
+     * @param capacity the number of the counters
+     */
+    SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Count an occurrence of the key.
+     *
+     * @param key the key
+     */
+    synchronized void offer(K key) {
+        Counter<K> counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter<>(key);
+                Bucket<K> first = minBucket;
+                if (first == null || first.count != 1) {
+                    first = new Bucket<>(1);
+                    linkBucket(first, null, minBucket);
+                }
+                first.attach(counter);
+                counters.put(key, counter);
+                return;
+            }
+            // take over a counter of the least frequent keys
+            counter = minBucket.head;
+            counters.remove(counter.key);
+            counter.key = key;
+            counter.error = minBucket.count;
+            counters.put(key, counter);
+        }
+        increment(counter);
+    }
+
+    private void increment(Counter<K> counter) {
+        Bucket<K> bucket = counter.bucket;
+        long count = bucket.count + 1;
+        Bucket<K> next = bucket.next;
+        if (next == null || next.count != count) {
+            next = new Bucket<>(count);
+            linkBucket(next, bucket, bucket.next);
+        }
+        bucket.detach(counter);
+        next.attach(counter);
+        if (bucket.head == null) {
+            unlinkBucket(bucket);
+        }
+    }
+
+    private void linkBucket(Bucket<K> bucket, Bucket<K> prev, Bucket<K> next) {
+        bucket.prev = prev;
+        bucket.next = next;
+        if (prev == null) {
+            minBucket = bucket;
+        } else {
+            prev.next = bucket;
+        }
+        if (next == null) {
+            maxBucket = bucket;
+        } else {
+            next.prev = bucket;
+        }
+    }
+
+    private void unlinkBucket(Bucket<K> bucket) {
+        if (bucket.prev == null) {
+            minBucket = bucket.next;
+        } else {
+            bucket.prev.next = bucket.next;
+        }
+        if (bucket.next == null) {
+            maxBucket = bucket.prev;
+        } else {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+
+    /**
+     * Gets the most frequent keys, the most frequent first.
+     *
+     * @param n the number of the keys
+     * @return the entries
+     */
+    synchronized List<Entry<K>> top(int n) {
+        List<Entry<K>> top = new ArrayList<>(Math.min(n, counters.size()));
+        for (Bucket<K> bucket = maxBucket; bucket != null && top.size() < n; bucket = bucket.prev) {
+            for (Counter<K> counter = bucket.head; counter != null && top.size() < n; counter = counter.next) {
+                top.add(new Entry<>(counter.key, bucket.count, counter.error));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Gets the number of the counters in use.
+     *
+     * @return the size
+     */
+    synchronized int size() {
+        return counters.size();
+    }
+
+    /**
+     * A key and its estimated count, the true count is between {@code count - error} and {@code count}.
+     *
+     * @param <K> the type of the key
+     */
+    static final class Entry<K> {
+
+        private final K key;
+
+        private final long count;
+
+        private final long error;
+
+        private Entry(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        K getKey() {
+            return key;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getError() {
+            return error;
+        }
+    }
+
+    private static final class Counter<K> {
+
+        private K key;
+
+        private long error;
+
+        private Bucket<K> bucket;
+
+        private Counter<K> prev;
+
+        private Counter<K> next;
+
+        private Counter(K key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Bucket<K> {
+
+        private final long count;
+
+        private Counter<K> head;
+
+        private Bucket<K> prev;
+
+        private Bucket<K> next;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void attach(Counter<K> counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = head;
+            if (head != null) {
+                head.prev = counter;
+            }
+            head = counter;
+        }
+
+        private void detach(Counter<K> counter) {
+            if (counter.prev == null) {
+                head = counter.next;
+            } else {
+                counter.prev.next = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+            counter.bucket = null;
+        }
+    }
+}
@@ -58,4 +58,24 @@ public interface MeterIdConstants {
         .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
         .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
         .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ROLLBACKED);
+
+    Id SUMMARY_TIMEOUT_EXPIRED = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_TIMEOUT_EXPIRED);
+
+    Id SUMMARY_FILE_FSYNC = new Id(IdConstants.SEATA_STORE)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY)
+        .withTag(IdConstants.NAME_KEY, IdConstants.NAME_VALUE_FILE_FSYNC);
+
+    Id COUNTER_LOCK_CONFLICT = new Id(IdConstants.SEATA_LOCK)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.NAME_KEY, IdConstants.NAME_VALUE_LOCK_CONFLICT);
+
+    Id TIMER_LOCK_HOLD = new Id(IdConstants.SEATA_LOCK)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.NAME_KEY, IdConstants.NAME_VALUE_LOCK_HOLD);
 }
@@ -15,6 +15,8 @@
  */
 package io.seata.server.session;
 
+import java.util.List;
+
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.GlobalTransactionException;
 import io.seata.core.exception.TransactionException;
@@ -137,6 +139,12 @@ public abstract class AbstractSessionManager implements SessionManager, SessionL
         addBranchSession(globalSession, branchSession);
     }
 
+    @Override
+    public void onAddBranches(GlobalSession globalSession, List<BranchSession> branchSessions)
+        throws TransactionException {
+        addBranchSessions(globalSession, branchSessions);
+    }
+
     @Override
     public void onRemoveBranch(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         removeBranchSession(globalSession, branchSession);
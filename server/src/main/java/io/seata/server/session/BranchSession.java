@@ -17,9 +17,7 @@ package io.seata.server.session;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.nio.charset.StandardCharsets;
 import io.seata.common.util.CompressUtil;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
@@ -71,8 +69,15 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private LockStatus lockStatus = Locked;
 
-    private ConcurrentMap<FileLocker.BucketLockMap, Set<String>> lockHolder
-        = new ConcurrentHashMap<>();
+    private byte[] resourceIdBytes;
+
+    private byte[] clientIdBytes;
+
+    private byte[] xidBytes;
+
+    private final FileLocker.LockHolder lockHolder = new FileLocker.LockHolder();
+
+    private volatile long lockedTime;
 
     /**
      * Gets application data.
@@ -126,6 +131,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      */
     public void setClientId(String clientId) {
         this.clientId = clientId;
+        this.clientIdBytes = null;
     }
 
     /**
@@ -144,6 +150,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      */
     public void setResourceId(String resourceId) {
         this.resourceId = resourceId;
+        this.resourceIdBytes = null;
     }
 
     /**
@@ -252,6 +259,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      */
     public void setXid(String xid) {
         this.xid = xid;
+        this.xidBytes = null;
     }
 
     @Override
@@ -273,10 +281,28 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      *
      * @return the lock holder
      */
-    public ConcurrentMap<FileLocker.BucketLockMap, Set<String>> getLockHolder() {
+    public FileLocker.LockHolder getLockHolder() {
         return lockHolder;
     }
 
+    /**
+     * Gets the time the locks were acquired on this server, 0 if unknown.
+     *
+     * @return the locked time
+     */
+    public long getLockedTime() {
+        return lockedTime;
+    }
+
+    /**
+     * Sets locked time.
+     *
+     * @param lockedTime the locked time
+     */
+    public void setLockedTime(long lockedTime) {
+        this.lockedTime = lockedTime;
+    }
+
     @Override
     public boolean lock() throws TransactionException {
         return this.lock(true);
@@ -307,16 +333,27 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     @Override
     public byte[] encode() {
+        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
+        //recycle
+        byteBuffer.clear();
+        encode(byteBuffer);
+        byteBuffer.flip();
+        byte[] result = new byte[byteBuffer.limit()];
+        byteBuffer.get(result);
+        return result;
+    }
 
-        byte[] resourceIdBytes = resourceId != null ? resourceId.getBytes() : null;
+    @Override
+    public void encode(ByteBuffer byteBuffer) {
+        byte[] resourceIdBytes = getResourceIdBytes();
 
-        byte[] lockKeyBytes = lockKey != null ? lockKey.getBytes() : null;
+        byte[] lockKeyBytes = lockKey != null ? lockKey.getBytes(StandardCharsets.UTF_8) : null;
 
-        byte[] clientIdBytes = clientId != null ? clientId.getBytes() : null;
+        byte[] clientIdBytes = getClientIdBytes();
 
-        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes() : null;
+        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes(StandardCharsets.UTF_8) : null;
 
-        byte[] xidBytes = xid != null ? xid.getBytes() : null;
+        byte[] xidBytes = getXidBytes();
 
         byte branchTypeByte = branchType != null ? (byte) branchType.ordinal() : -1;
 
@@ -344,10 +381,6 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
             }
         }
 
-        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
-        //recycle
-        byteBuffer.clear();
-
         byteBuffer.putLong(transactionId);
         byteBuffer.putLong(branchId);
 
@@ -390,10 +423,6 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
         byteBuffer.put((byte)status.getCode());
         byteBuffer.put((byte)lockStatus.getCode());
-        byteBuffer.flip();
-        byte[] result = new byte[byteBuffer.limit()];
-        byteBuffer.get(result);
-        return result;
     }
 
     private int calBranchSessionSize(byte[] resourceIdBytes, byte[] lockKeyBytes, byte[] clientIdBytes,
@@ -416,6 +445,28 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         return size;
     }
 
+    // the fields below rarely change once set, so their bytes are cached for the encoding of every state change
+    private byte[] getResourceIdBytes() {
+        if (resourceIdBytes == null && resourceId != null) {
+            resourceIdBytes = resourceId.getBytes(StandardCharsets.UTF_8);
+        }
+        return resourceIdBytes;
+    }
+
+    private byte[] getClientIdBytes() {
+        if (clientIdBytes == null && clientId != null) {
+            clientIdBytes = clientId.getBytes(StandardCharsets.UTF_8);
+        }
+        return clientIdBytes;
+    }
+
+    private byte[] getXidBytes() {
+        if (xidBytes == null && xid != null) {
+            xidBytes = xid.getBytes(StandardCharsets.UTF_8);
+        }
+        return xidBytes;
+    }
+
     @Override
     public void decode(byte[] a) {
         ByteBuffer byteBuffer = ByteBuffer.wrap(a);
@@ -425,7 +476,8 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         if (resourceLen > 0) {
             byte[] byResource = new byte[resourceLen];
             byteBuffer.get(byResource);
-            this.resourceId = new String(byResource);
+            this.resourceId = new String(byResource, StandardCharsets.UTF_8);
+            this.resourceIdBytes = byResource;
         }
         int lockKeyLen = byteBuffer.getInt();
         if (lockKeyLen > 0) {
@@ -433,12 +485,12 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
             byteBuffer.get(byLockKey);
             if (CompressUtil.isCompressData(byLockKey)) {
                 try {
-                    this.lockKey = new String(CompressUtil.uncompress(byLockKey));
+                    this.lockKey = new String(CompressUtil.uncompress(byLockKey), StandardCharsets.UTF_8);
                 } catch (IOException e) {
                     throw new RuntimeException("decompress lockKey error", e);
                 }
             } else {
-                this.lockKey = new String(byLockKey);
+                this.lockKey = new String(byLockKey, StandardCharsets.UTF_8);
             }
 
         }
@@ -446,19 +498,21 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         if (clientIdLen > 0) {
             byte[] byClientId = new byte[clientIdLen];
             byteBuffer.get(byClientId);
-            this.clientId = new String(byClientId);
+            this.clientId = new String(byClientId, StandardCharsets.UTF_8);
+            this.clientIdBytes = byClientId;
         }
         int applicationDataLen = byteBuffer.getInt();
         if (applicationDataLen > 0) {
             byte[] byApplicationData = new byte[applicationDataLen];
             byteBuffer.get(byApplicationData);
-            this.applicationData = new String(byApplicationData);
+            this.applicationData = new String(byApplicationData, StandardCharsets.UTF_8);
         }
         int xidLen = byteBuffer.getInt();
         if (xidLen > 0) {
             byte[] xidBytes = new byte[xidLen];
             byteBuffer.get(xidBytes);
-            this.xid = new String(xidBytes);
+            this.xid = new String(xidBytes, StandardCharsets.UTF_8);
+            this.xidBytes = xidBytes;
         }
         int branchTypeId = byteBuffer.get();
         if (branchTypeId >= 0) {
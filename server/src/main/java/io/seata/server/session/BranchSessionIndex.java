@@ -0,0 +1,150 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import io.seata.common.util.ConcurrentLongHashMap;
+
+/**
+ * The branch sessions of a global session, indexed by branchId and kept in the registration order.
+ * <p>
+ * Adding and removing a branch is O(1): the order is kept by a linked set of the branch sessions, which keep
+ * the identity equality, so a branch is unlinked by itself and not by another one with the same branchId.
+ * {@link #sorted()} and {@link #reverseSorted()} return immutable snapshots which are built on the first read
+ * after a change, so they are safe to iterate while branches are being added or removed.
+ */
+final class BranchSessionIndex {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final ConcurrentLongHashMap<BranchSession> index = new ConcurrentLongHashMap<>(INITIAL_CAPACITY, 1);
+
+    private final Set<BranchSession> branches = new LinkedHashSet<>(INITIAL_CAPACITY);
+
+    /**
+     * The number of the branches added with a branchId already present, only then the index is repaired by a scan.
+     */
+    private int duplicates;
+
+    private volatile int size;
+
+    private volatile List<BranchSession> snapshot = Collections.emptyList();
+
+    /**
+     * Add the branch session to the end.
+     *
+     * @param branchSession the branch session
+     * @return true
+     */
+    synchronized boolean add(BranchSession branchSession) {
+        if (!branches.add(branchSession)) {
+            return true;
+        }
+        if (index.put(branchSession.getBranchId(), branchSession) != null) {
+            duplicates++;
+        }
+        size = branches.size();
+        snapshot = null;
+        return true;
+    }
+
+    /**
+     * Remove the branch session.
+     *
+     * @param branchSession the branch session
+     * @return true if removed
+     */
+    synchronized boolean remove(BranchSession branchSession) {
+        if (!branches.remove(branchSession)) {
+            return false;
+        }
+        long branchId = branchSession.getBranchId();
+        BranchSession sameBranchId = null;
+        if (duplicates > 0) {
+            for (BranchSession branch : branches) {
+                if (branch.getBranchId() == branchId) {
+                    sameBranchId = branch;
+                }
+            }
+        }
+        if (sameBranchId != null) {
+            duplicates--;
+            index.put(branchId, sameBranchId);
+        } else {
+            index.remove(branchId, branchSession);
+        }
+        size = branches.size();
+        snapshot = null;
+        return true;
+    }
+
+    /**
+     * Gets the branch session.
+     *
+     * @param branchId the branch id
+     * @return the branch session, null if absent
+     */
+    BranchSession get(long branchId) {
+        return index.get(branchId);
+    }
+
+    /**
+     * Gets the branch sessions in the registration order.
+     *
+     * @return the immutable branch sessions
+     */
+    List<BranchSession> sorted() {
+        List<BranchSession> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = Collections.unmodifiableList(new ArrayList<>(branches));
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Gets the branch sessions in the reverse registration order.
+     *
+     * @return the immutable branch sessions
+     */
+    List<BranchSession> reverseSorted() {
+        return Lists.reverse(sorted());
+    }
+
+    /**
+     * Gets the number of the branch sessions.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return sorted().toString();
+    }
+}
@@ -16,9 +16,9 @@
 package io.seata.server.session;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -58,6 +58,11 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     private static final int MAX_GLOBAL_SESSION_SIZE = StoreConfig.getMaxGlobalSessionSize();
 
+    /**
+     * How long a request waits for the lock of the global session before it gives up.
+     */
+    public static final int GLOBAL_SESSION_LOCK_TIME_OUT_MILLS = 2 * 1000;
+
     private static ThreadLocal<ByteBuffer> byteBufferThreadLocal = ThreadLocal.withInitial(() -> ByteBuffer.allocate(
         MAX_GLOBAL_SESSION_SIZE));
 
@@ -86,9 +91,21 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     private String applicationData;
 
+    private byte[] applicationIdBytes;
+
+    private byte[] transactionServiceGroupBytes;
+
+    private byte[] transactionNameBytes;
+
+    private byte[] xidBytes;
+
+    private volatile int retryCount;
+
+    private volatile long nextRetryTime;
+
     private volatile boolean active = true;
 
-    private final ArrayList<BranchSession> branchSessions = new ArrayList<>();
+    private final BranchSessionIndex branchSessions = new BranchSessionIndex();
 
     private GlobalSessionLock globalSessionLock = new GlobalSessionLock();
 
@@ -121,7 +138,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      * @return the boolean
      */
     public boolean canBeCommittedAsync() {
-        for (BranchSession branchSession : branchSessions) {
+        for (BranchSession branchSession : branchSessions.sorted()) {
             if (!branchSession.canBeCommittedAsync()) {
                 return false;
             }
@@ -135,7 +152,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      * @return the boolean
      */
     public boolean hasATBranch() {
-        for (BranchSession branchSession : branchSessions) {
+        for (BranchSession branchSession : branchSessions.sorted()) {
             if (branchSession.getBranchType() == BranchType.AT) {
                 return true;
             }
@@ -149,8 +166,9 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      * @return is saga
      */
     public boolean isSaga() {
-        if (branchSessions.size() > 0) {
-            return BranchType.SAGA == branchSessions.get(0).getBranchType();
+        List<BranchSession> branches = branchSessions.sorted();
+        if (branches.size() > 0) {
+            return BranchType.SAGA == branches.get(0).getBranchType();
         } else {
             return StringUtils.isNotBlank(transactionName)
                 && transactionName.startsWith(Constants.SAGA_TRANS_NAME_PREFIX);
@@ -174,6 +192,28 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         return (System.currentTimeMillis() - beginTime) > RETRY_DEAD_THRESHOLD;
     }
 
+    /**
+     * Whether the retry of the global session is due.
+     *
+     * @param now the current time millis
+     * @return if true retry commit or roll back now
+     */
+    public boolean isRetryDue(long now) {
+        return nextRetryTime <= now;
+    }
+
+    /**
+     * Record a failed retry, the global session is not retried again until the next retry time.
+     *
+     * @param nextRetryTime the next retry time millis
+     * @throws TransactionException the transaction exception
+     */
+    public void scheduleNextRetry(long nextRetryTime) throws TransactionException {
+        this.retryCount++;
+        this.nextRetryTime = nextRetryTime;
+        SessionHolder.getRootSessionManager().updateGlobalSessionStatus(this, status);
+    }
+
     @Override
     public void begin() throws TransactionException {
         this.status = GlobalStatus.Begin;
@@ -273,6 +313,17 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         add(branchSession);
     }
 
+    @Override
+    public void addBranches(List<BranchSession> branchSessions) throws TransactionException {
+        for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
+            lifecycleListener.onAddBranches(this, branchSessions);
+        }
+        for (BranchSession branchSession : branchSessions) {
+            branchSession.setStatus(BranchStatus.Registered);
+            add(branchSession);
+        }
+    }
+
     @Override
     public void removeBranch(BranchSession branchSession) throws TransactionException {
         // do not unlock if global status in (Committing, CommitRetrying, AsyncCommitting),
@@ -295,15 +346,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      * @return the branch
      */
     public BranchSession getBranch(long branchId) {
-        synchronized (branchSessions) {
-            for (BranchSession branchSession : branchSessions) {
-                if (branchSession.getBranchId() == branchId) {
-                    return branchSession;
-                }
-            }
-
-            return null;
-        }
+        return branchSessions.get(branchId);
     }
 
     /**
@@ -311,8 +354,8 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      *
      * @return the sorted branches
      */
-    public ArrayList<BranchSession> getSortedBranches() {
-        return new ArrayList<>(branchSessions);
+    public List<BranchSession> getSortedBranches() {
+        return branchSessions.sorted();
     }
 
     /**
@@ -320,10 +363,8 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      *
      * @return the reverse sorted branches
      */
-    public ArrayList<BranchSession> getReverseSortedBranches() {
-        ArrayList<BranchSession> reversed = new ArrayList<>(branchSessions);
-        Collections.reverse(reversed);
-        return reversed;
+    public List<BranchSession> getReverseSortedBranches() {
+        return branchSessions.reverseSorted();
     }
 
     /**
@@ -402,6 +443,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      */
     public void setXid(String xid) {
         this.xid = xid;
+        this.xidBytes = null;
     }
 
     /**
@@ -476,6 +518,42 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         this.applicationData = applicationData;
     }
 
+    /**
+     * Gets retry count.
+     *
+     * @return the retry count
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Sets retry count.
+     *
+     * @param retryCount the retry count
+     */
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Gets next retry time.
+     *
+     * @return the next retry time
+     */
+    public long getNextRetryTime() {
+        return nextRetryTime;
+    }
+
+    /**
+     * Sets next retry time.
+     *
+     * @param nextRetryTime the next retry time
+     */
+    public void setNextRetryTime(long nextRetryTime) {
+        this.nextRetryTime = nextRetryTime;
+    }
+
     /**
      * Create global session global session.
      *
@@ -502,26 +580,33 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     @Override
     public byte[] encode() {
-        byte[] byApplicationIdBytes = applicationId != null ? applicationId.getBytes() : null;
-
-        byte[] byServiceGroupBytes = transactionServiceGroup != null ? transactionServiceGroup.getBytes() : null;
-
-        byte[] byTxNameBytes = transactionName != null ? transactionName.getBytes() : null;
-
-        byte[] xidBytes = xid != null ? xid.getBytes() : null;
-
-        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes() : null;
+        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes(StandardCharsets.UTF_8) : null;
+        int size = calGlobalSessionSize(applicationDataBytes);
+        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
+        //recycle
+        byteBuffer.clear();
+        encode(byteBuffer, applicationDataBytes, size);
+        byteBuffer.flip();
+        byte[] result = new byte[byteBuffer.limit()];
+        byteBuffer.get(result);
+        return result;
+    }
 
-        int size = calGlobalSessionSize(byApplicationIdBytes, byServiceGroupBytes, byTxNameBytes, xidBytes,
-            applicationDataBytes);
+    @Override
+    public void encode(ByteBuffer byteBuffer) {
+        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes(StandardCharsets.UTF_8) : null;
+        encode(byteBuffer, applicationDataBytes, calGlobalSessionSize(applicationDataBytes));
+    }
 
+    private void encode(ByteBuffer byteBuffer, byte[] applicationDataBytes, int size) {
         if (size > MAX_GLOBAL_SESSION_SIZE) {
             throw new RuntimeException("global session size exceeded, size : " + size + " maxBranchSessionSize : " +
                 MAX_GLOBAL_SESSION_SIZE);
         }
-        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
-        //recycle
-        byteBuffer.clear();
+        byte[] byApplicationIdBytes = getApplicationIdBytes();
+        byte[] byServiceGroupBytes = getTransactionServiceGroupBytes();
+        byte[] byTxNameBytes = getTransactionNameBytes();
+        byte[] xidBytes = getXidBytes();
 
         byteBuffer.putLong(transactionId);
         byteBuffer.putInt(timeout);
@@ -558,14 +643,15 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
         byteBuffer.putLong(beginTime);
         byteBuffer.put((byte)status.getCode());
-        byteBuffer.flip();
-        byte[] result = new byte[byteBuffer.limit()];
-        byteBuffer.get(result);
-        return result;
+        byteBuffer.putInt(retryCount);
+        byteBuffer.putLong(nextRetryTime);
     }
 
-    private int calGlobalSessionSize(byte[] byApplicationIdBytes, byte[] byServiceGroupBytes, byte[] byTxNameBytes,
-        byte[] xidBytes, byte[] applicationDataBytes) {
+    private int calGlobalSessionSize(byte[] applicationDataBytes) {
+        byte[] byApplicationIdBytes = getApplicationIdBytes();
+        byte[] byServiceGroupBytes = getTransactionServiceGroupBytes();
+        byte[] byTxNameBytes = getTransactionNameBytes();
+        byte[] xidBytes = getXidBytes();
         final int size = 8 // transactionId
             + 4 // timeout
             + 2 // byApplicationIdBytes.length
@@ -575,6 +661,8 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
             + 4 // applicationDataBytes.length
             + 8 // beginTime
             + 1 // statusCode
+            + 4 // retryCount
+            + 8 // nextRetryTime
             + (byApplicationIdBytes == null ? 0 : byApplicationIdBytes.length)
             + (byServiceGroupBytes == null ? 0 : byServiceGroupBytes.length)
             + (byTxNameBytes == null ? 0 : byTxNameBytes.length)
@@ -583,6 +671,35 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         return size;
     }
 
+    // the fields below rarely change once set, so their bytes are cached for the encoding of every state change
+    private byte[] getApplicationIdBytes() {
+        if (applicationIdBytes == null && applicationId != null) {
+            applicationIdBytes = applicationId.getBytes(StandardCharsets.UTF_8);
+        }
+        return applicationIdBytes;
+    }
+
+    private byte[] getTransactionServiceGroupBytes() {
+        if (transactionServiceGroupBytes == null && transactionServiceGroup != null) {
+            transactionServiceGroupBytes = transactionServiceGroup.getBytes(StandardCharsets.UTF_8);
+        }
+        return transactionServiceGroupBytes;
+    }
+
+    private byte[] getTransactionNameBytes() {
+        if (transactionNameBytes == null && transactionName != null) {
+            transactionNameBytes = transactionName.getBytes(StandardCharsets.UTF_8);
+        }
+        return transactionNameBytes;
+    }
+
+    private byte[] getXidBytes() {
+        if (xidBytes == null && xid != null) {
+            xidBytes = xid.getBytes(StandardCharsets.UTF_8);
+        }
+        return xidBytes;
+    }
+
     @Override
     public void decode(byte[] a) {
         ByteBuffer byteBuffer = ByteBuffer.wrap(a);
@@ -592,35 +709,44 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         if (applicationIdLen > 0) {
             byte[] byApplicationId = new byte[applicationIdLen];
             byteBuffer.get(byApplicationId);
-            this.applicationId = new String(byApplicationId);
+            this.applicationId = new String(byApplicationId, StandardCharsets.UTF_8);
+            this.applicationIdBytes = byApplicationId;
         }
         short serviceGroupLen = byteBuffer.getShort();
         if (serviceGroupLen > 0) {
             byte[] byServiceGroup = new byte[serviceGroupLen];
             byteBuffer.get(byServiceGroup);
-            this.transactionServiceGroup = new String(byServiceGroup);
+            this.transactionServiceGroup = new String(byServiceGroup, StandardCharsets.UTF_8);
+            this.transactionServiceGroupBytes = byServiceGroup;
         }
         short txNameLen = byteBuffer.getShort();
         if (txNameLen > 0) {
             byte[] byTxName = new byte[txNameLen];
             byteBuffer.get(byTxName);
-            this.transactionName = new String(byTxName);
+            this.transactionName = new String(byTxName, StandardCharsets.UTF_8);
+            this.transactionNameBytes = byTxName;
         }
         int xidLen = byteBuffer.getInt();
         if (xidLen > 0) {
             byte[] xidBytes = new byte[xidLen];
             byteBuffer.get(xidBytes);
-            this.xid = new String(xidBytes);
+            this.xid = new String(xidBytes, StandardCharsets.UTF_8);
+            this.xidBytes = xidBytes;
         }
         int applicationDataLen = byteBuffer.getInt();
         if (applicationDataLen > 0) {
             byte[] applicationDataLenBytes = new byte[applicationDataLen];
             byteBuffer.get(applicationDataLenBytes);
-            this.applicationData = new String(applicationDataLenBytes);
+            this.applicationData = new String(applicationDataLenBytes, StandardCharsets.UTF_8);
         }
 
         this.beginTime = byteBuffer.getLong();
         this.status = GlobalStatus.get(byteBuffer.get());
+        // the retry state is absent in the logs written by the older versions
+        if (byteBuffer.remaining() >= 12) {
+            this.retryCount = byteBuffer.getInt();
+            this.nextRetryTime = byteBuffer.getLong();
+        }
     }
 
     /**
@@ -644,8 +770,6 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
         private Lock globalSessionLock = new ReentrantLock();
 
-        private static final int GLOBAL_SESSION_LOCK_TIME_OUT_MILLS = 2 * 1000;
-
         public void lock() throws TransactionException {
             try {
                 if (globalSessionLock.tryLock(GLOBAL_SESSION_LOCK_TIME_OUT_MILLS, TimeUnit.MILLISECONDS)) {
@@ -674,8 +798,8 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         V call() throws TransactionException;
     }
 
-    public ArrayList<BranchSession> getBranchSessions() {
-        return branchSessions;
+    public List<BranchSession> getBranchSessions() {
+        return branchSessions.sorted();
     }
 
     public void asyncCommit() throws TransactionException {
@@ -28,6 +28,7 @@ public class SessionCondition {
     private GlobalStatus status;
     private GlobalStatus[] statuses;
     private long overTimeAliveMills;
+    private Long retryDueTime;
 
     /**
      * Instantiates a new Session condition.
@@ -108,6 +109,24 @@ public class SessionCondition {
         this.overTimeAliveMills = overTimeAliveMills;
     }
 
+    /**
+     * Gets retry due time, only the sessions whose next retry is due at this time match when it is set.
+     *
+     * @return the retry due time
+     */
+    public Long getRetryDueTime() {
+        return retryDueTime;
+    }
+
+    /**
+     * Sets retry due time.
+     *
+     * @param retryDueTime the retry due time
+     */
+    public void setRetryDueTime(Long retryDueTime) {
+        this.retryDueTime = retryDueTime;
+    }
+
     public Long getTransactionId() {
         return transactionId;
     }
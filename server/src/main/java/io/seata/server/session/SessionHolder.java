@@ -89,6 +89,12 @@ public class SessionHolder {
 
     private static DistributedLocker DISTRIBUTED_LOCKER;
 
+    /**
+     * The timeout wheel of the begun sessions, only used in file mode which all the sessions are held by this TC.
+     * The shared store of db and redis mode may contain sessions begun by other TC, so they still scan all sessions.
+     */
+    private static SessionTimeoutWheel TIMEOUT_WHEEL;
+
     /**
      * Init.
      *
@@ -101,6 +107,7 @@ public class SessionHolder {
                 CONFIG.getConfig(ConfigurationKeys.STORE_MODE, SERVER_DEFAULT_STORE_MODE));
         }
         StoreMode storeMode = StoreMode.get(mode);
+        TIMEOUT_WHEEL = null;
         if (StoreMode.DB.equals(storeMode)) {
             ROOT_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class, StoreMode.DB.getName());
             ASYNC_COMMITTING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class, StoreMode.DB.getName(),
@@ -127,6 +134,7 @@ public class SessionHolder {
                 new Class[] {String.class, String.class}, new Object[] {RETRY_ROLLBACKING_SESSION_MANAGER_NAME, null});
 
             DISTRIBUTED_LOCKER = DistributedLockerFactory.getDistributedLocker(StoreMode.FILE.getName());
+            TIMEOUT_WHEEL = new SessionTimeoutWheel(CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD, 1000L));
         } else if (StoreMode.REDIS.equals(storeMode)) {
             ROOT_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class, StoreMode.REDIS.getName());
             ASYNC_COMMITTING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class,
@@ -194,6 +202,8 @@ public class SessionHolder {
                                     break;
                                 case Begin:
                                     globalSession.setActive(true);
+                                    globalSession.addSessionLifecycleListener(TIMEOUT_WHEEL);
+                                    TIMEOUT_WHEEL.add(globalSession);
                                     break;
                                 default:
                                     throw new ShouldNeverHappenException("NOT properly handled " + globalStatus);
@@ -230,7 +240,7 @@ public class SessionHolder {
         }
     }
 
-    private static void lockBranchSessions(ArrayList<BranchSession> branchSessions) {
+    private static void lockBranchSessions(List<BranchSession> branchSessions) {
         branchSessions.forEach(branchSession -> {
             try {
                 branchSession.lock();
@@ -310,6 +320,15 @@ public class SessionHolder {
         return RETRY_ROLLBACKING_SESSION_MANAGER;
     }
 
+    /**
+     * Gets the timeout wheel of the begun sessions.
+     *
+     * @return the timeout wheel, null if the sessions are not all held by this TC
+     */
+    public static SessionTimeoutWheel getTimeoutWheel() {
+        return TIMEOUT_WHEEL;
+    }
+
     //endregion
 
     /**
@@ -15,6 +15,8 @@
  */
 package io.seata.server.session;
 
+import java.util.List;
+
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -58,6 +60,14 @@ public interface SessionLifecycle {
      */
     void addBranch(BranchSession branchSession) throws TransactionException;
 
+    /**
+     * Add the branches of one batch, they are stored together.
+     *
+     * @param branchSessions the branch sessions
+     * @throws TransactionException the transaction exception
+     */
+    void addBranches(List<BranchSession> branchSessions) throws TransactionException;
+
     /**
      * Remove branch.
      *
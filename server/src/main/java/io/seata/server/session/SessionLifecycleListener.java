@@ -15,6 +15,8 @@
  */
 package io.seata.server.session;
 
+import java.util.List;
+
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -63,6 +65,20 @@ public interface SessionLifecycleListener {
      */
     void onAddBranch(GlobalSession globalSession, BranchSession branchSession) throws TransactionException;
 
+    /**
+     * On add branches, the branches of one batch.
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the branch sessions
+     * @throws TransactionException the transaction exception
+     */
+    default void onAddBranches(GlobalSession globalSession, List<BranchSession> branchSessions)
+        throws TransactionException {
+        for (BranchSession branchSession : branchSessions) {
+            onAddBranch(globalSession, branchSession);
+        }
+    }
+
     /**
      * On remove branch.
      *
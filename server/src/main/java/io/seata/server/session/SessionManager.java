@@ -17,6 +17,7 @@ package io.seata.server.session;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -80,6 +81,20 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
      */
     void addBranchSession(GlobalSession globalSession, BranchSession session) throws TransactionException;
 
+    /**
+     * Add the branch sessions of one batch.
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the branch sessions
+     * @throws TransactionException the transaction exception
+     */
+    default void addBranchSessions(GlobalSession globalSession, List<BranchSession> branchSessions)
+        throws TransactionException {
+        for (BranchSession branchSession : branchSessions) {
+            addBranchSession(globalSession, branchSession);
+        }
+    }
+
     /**
      * Update branch session status.
      *
@@ -105,6 +120,20 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
      */
     Collection<GlobalSession> allSessions();
 
+    /**
+     * All sessions whose next retry is due at the given time.
+     *
+     * @param now the current time millis
+     * @return the collection
+     */
+    default Collection<GlobalSession> allRetryDueSessions(long now) {
+        Collection<GlobalSession> sessions = allSessions();
+        if (sessions == null) {
+            return null;
+        }
+        return sessions.stream().filter(session -> session.isRetryDue(now)).collect(Collectors.toList());
+    }
+
     /**
      * Find global sessions list.
      *
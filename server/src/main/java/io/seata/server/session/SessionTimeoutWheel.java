@@ -0,0 +1,221 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.GlobalStatus;
+
+/**
+ * A hashed timing wheel of the begun global sessions, ordered by their timeout deadline.
+ * <p>
+ * A session is registered when it begins and is cancelled when it is closed or ended, so the timeout checker
+ * only touches the sessions whose deadline has passed instead of scanning every session on each check.
+ * <p>
+ * {@link #expire(long)} must be called by a single thread, the registration and cancellation are thread safe.
+ */
+public class SessionTimeoutWheel implements SessionLifecycleListener {
+
+    /**
+     * The default number of buckets, must be a power of 2.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickDuration;
+
+    private final int mask;
+
+    private final List<Timeout>[] wheel;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Map<Long, Timeout> timeouts = new ConcurrentHashMap<>();
+
+    private long lastExpiredTick = -1;
+
+    /**
+     * Instantiates a new Session timeout wheel.
+     *
+     * @param tickDuration the tick duration in milliseconds, usually the timeout check period
+     */
+    public SessionTimeoutWheel(long tickDuration) {
+        this(tickDuration, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Instantiates a new Session timeout wheel.
+     *
+     * @param tickDuration the tick duration in milliseconds
+     * @param wheelSize    the number of buckets, rounded up to a power of 2
+     */
+    @SuppressWarnings("unchecked")
+    public SessionTimeoutWheel(long tickDuration, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickDuration = tickDuration;
+        this.mask = size - 1;
+        this.wheel = new List[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new LinkedList<>();
+        }
+    }
+
+    /**
+     * Register the global session, it is expired once its timeout has passed.
+     *
+     * @param globalSession the global session
+     */
+    public void add(GlobalSession globalSession) {
+        // one more millisecond to make sure GlobalSession#isTimeout is true when expired
+        long deadline = globalSession.getBeginTime() + globalSession.getTimeout() + 1;
+        Timeout timeout = new Timeout(globalSession, deadline);
+        Timeout previous = timeouts.put(globalSession.getTransactionId(), timeout);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pendingTimeouts.add(timeout);
+    }
+
+    /**
+     * Cancel the timeout of the global session.
+     *
+     * @param globalSession the global session
+     */
+    public void remove(GlobalSession globalSession) {
+        Timeout timeout = timeouts.remove(globalSession.getTransactionId());
+        if (timeout != null) {
+            timeout.cancelled = true;
+        }
+    }
+
+    /**
+     * Take out the global sessions whose deadline has passed.
+     *
+     * @param now the current time millis
+     * @return the expired global sessions
+     */
+    public List<GlobalSession> expire(long now) {
+        List<GlobalSession> expired = new ArrayList<>();
+        long currentTick = now / tickDuration;
+        transferPendingTimeouts(now, expired);
+        if (lastExpiredTick < 0) {
+            lastExpiredTick = currentTick - 1;
+        }
+        // the bucket of the current tick is not finished, it will be visited again by the next call
+        long fromTick = Math.max(lastExpiredTick + 1, currentTick - mask);
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            Iterator<Timeout> iterator = wheel[(int)(tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.cancelled) {
+                    iterator.remove();
+                } else if (timeout.deadline <= now) {
+                    iterator.remove();
+                    expire(timeout, expired);
+                }
+            }
+        }
+        lastExpiredTick = Math.max(lastExpiredTick, currentTick - 1);
+        return expired;
+    }
+
+    private void transferPendingTimeouts(long now, List<GlobalSession> expired) {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.deadline <= now) {
+                expire(timeout, expired);
+            } else {
+                wheel[(int)((timeout.deadline / tickDuration) & mask)].add(timeout);
+            }
+        }
+    }
+
+    private void expire(Timeout timeout, List<GlobalSession> expired) {
+        if (timeouts.remove(timeout.globalSession.getTransactionId(), timeout)) {
+            expired.add(timeout.globalSession);
+        }
+    }
+
+    /**
+     * Gets the number of the registered global sessions.
+     *
+     * @return the size
+     */
+    public int size() {
+        return timeouts.size();
+    }
+
+    @Override
+    public void onBegin(GlobalSession globalSession) {
+        add(globalSession);
+    }
+
+    @Override
+    public void onStatusChange(GlobalSession globalSession, GlobalStatus status) {
+    }
+
+    @Override
+    public void onBranchStatusChange(GlobalSession globalSession, BranchSession branchSession, BranchStatus status) {
+    }
+
+    @Override
+    public void onAddBranch(GlobalSession globalSession, BranchSession branchSession) {
+    }
+
+    @Override
+    public void onRemoveBranch(GlobalSession globalSession, BranchSession branchSession) {
+    }
+
+    @Override
+    public void onClose(GlobalSession globalSession) {
+        remove(globalSession);
+    }
+
+    @Override
+    public void onEnd(GlobalSession globalSession) {
+        remove(globalSession);
+    }
+
+    private static class Timeout {
+
+        private final GlobalSession globalSession;
+
+        private final long deadline;
+
+        private volatile boolean cancelled;
+
+        Timeout(GlobalSession globalSession, long deadline) {
+            this.globalSession = globalSession;
+            this.deadline = deadline;
+        }
+    }
+}
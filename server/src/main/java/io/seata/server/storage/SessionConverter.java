@@ -45,6 +45,12 @@ public class SessionConverter {
         session.setStatus(GlobalStatus.get(globalTransactionDO.getStatus()));
         session.setApplicationData(globalTransactionDO.getApplicationData());
         session.setBeginTime(globalTransactionDO.getBeginTime());
+        if (globalTransactionDO.getRetryCount() != null) {
+            session.setRetryCount(globalTransactionDO.getRetryCount());
+        }
+        if (globalTransactionDO.getNextRetryTime() != null) {
+            session.setNextRetryTime(globalTransactionDO.getNextRetryTime());
+        }
         return session;
     }
 
@@ -82,6 +88,8 @@ public class SessionConverter {
         globalTransactionDO.setTransactionName(globalSession.getTransactionName());
         globalTransactionDO.setTransactionServiceGroup(globalSession.getTransactionServiceGroup());
         globalTransactionDO.setApplicationData(globalSession.getApplicationData());
+        globalTransactionDO.setRetryCount(globalSession.getRetryCount());
+        globalTransactionDO.setNextRetryTime(globalSession.getNextRetryTime());
         return globalTransactionDO;
     }
 
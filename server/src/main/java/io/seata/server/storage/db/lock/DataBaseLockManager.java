@@ -18,14 +18,17 @@ package io.seata.server.storage.db.lock;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
+import io.seata.common.DefaultValues;
 import io.seata.common.executor.Initialize;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.util.CollectionUtils;
+import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
+import io.seata.core.rpc.Disposable;
 import io.seata.core.store.db.DataSourceProvider;
 import io.seata.server.lock.AbstractLockManager;
 import io.seata.server.session.BranchSession;
@@ -37,25 +40,50 @@ import io.seata.server.session.GlobalSession;
  * @author zjinlei
  */
 @LoadLevel(name = "db")
-public class DataBaseLockManager extends AbstractLockManager implements Initialize {
+public class DataBaseLockManager extends AbstractLockManager implements Initialize, Disposable {
 
     /**
      * The locker.
      */
     private Locker locker;
 
+    /**
+     * The release stage of the global session locks, null if they are released one by one.
+     */
+    private LockReleaseCoalescer lockReleaseCoalescer;
+
     @Override
     public void init() {
         // init dataSource
-        String datasourceType = ConfigurationFactory.getInstance().getConfig(ConfigurationKeys.STORE_DB_DATASOURCE_TYPE);
+        Configuration configuration = ConfigurationFactory.getInstance();
+        String datasourceType = configuration.getConfig(ConfigurationKeys.STORE_DB_DATASOURCE_TYPE);
         DataSource lockStoreDataSource = EnhancedServiceLoader.load(DataSourceProvider.class, datasourceType).provide();
         locker = new DataBaseLocker(lockStoreDataSource);
+        int maxBatchSize = configuration.getInt(ConfigurationKeys.STORE_DB_LOCK_RELEASE_MAX_BATCH_SIZE,
+            DefaultValues.DEFAULT_LOCK_RELEASE_MAX_BATCH_SIZE);
+        if (maxBatchSize > 0) {
+            long maxWaitMills = configuration.getLong(ConfigurationKeys.STORE_DB_LOCK_RELEASE_MAX_WAIT_MILLS,
+                DefaultValues.DEFAULT_LOCK_RELEASE_MAX_WAIT_MILLS);
+            lockReleaseCoalescer = new LockReleaseCoalescer(new LockStoreDataBaseDAO(lockStoreDataSource),
+                maxBatchSize, maxWaitMills);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (lockReleaseCoalescer != null) {
+            lockReleaseCoalescer.shutdown();
+        }
     }
 
     @Override
     public boolean releaseLock(BranchSession branchSession) throws TransactionException {
         try {
-            return getLocker().releaseLock(branchSession.getXid(), branchSession.getBranchId());
+            boolean released = getLocker().releaseLock(branchSession.getXid(), branchSession.getBranchId());
+            if (released) {
+                onLockReleased(branchSession);
+            }
+            return released;
         } catch (Exception t) {
             LOGGER.error("unLock error, xid {}, branchId:{}", branchSession.getXid(), branchSession.getBranchId(), t);
             return false;
@@ -75,7 +103,13 @@ public class DataBaseLockManager extends AbstractLockManager implements Initiali
         }
         List<Long> branchIds = branchSessions.stream().map(BranchSession::getBranchId).collect(Collectors.toList());
         try {
-            return getLocker().releaseLock(globalSession.getXid(), branchIds);
+            boolean released = lockReleaseCoalescer != null
+                ? lockReleaseCoalescer.release(globalSession.getXid(), branchIds)
+                : getLocker().releaseLock(globalSession.getXid(), branchIds);
+            if (released) {
+                branchSessions.forEach(this::onLockReleased);
+            }
+            return released;
         } catch (Exception t) {
             LOGGER.error("unLock globalSession error, xid:{} branchIds:{}", globalSession.getXid(),
                 CollectionUtils.toString(branchIds), t);
@@ -0,0 +1,230 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.db.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesce the lock releases of the ending global sessions into a few deletes.
+ * <p>
+ * The callers put their releases into a queue and wait. The single release thread drains the queue, merges the
+ * branch ids of many global sessions into bounded in-lists deleted by one jdbc batch, and acknowledges all the
+ * callers of the batch together. A new batch builds up while the previous one is deleted, so the lock table sees
+ * a delete per batch instead of a delete per global session. If a batch fails, its releases are retried one by one.
+ */
+public class LockReleaseCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockReleaseCoalescer.class);
+
+    /**
+     * The max in-lists of a batch.
+     */
+    private static final int MAX_IN_LISTS_PER_BATCH = 16;
+
+    /**
+     * The max branch ids of an in-list, oracle allows no more than 1000 expressions in a list.
+     */
+    static final int MAX_IN_LIST_SIZE = 1000;
+
+    private static final long POLL_INTERVAL_MILLS = 1000L;
+
+    private final LockStoreDataBaseDAO lockStore;
+
+    private final int maxBatchSize;
+
+    private final long maxWaitMills;
+
+    private final BlockingQueue<ReleaseRequest> requests = new LinkedBlockingQueue<>();
+
+    private final List<ReleaseRequest> batch = new ArrayList<>();
+
+    private final ExecutorService releaseExecutor;
+
+    private volatile boolean stopping;
+
+    /**
+     * Instantiates a new Lock release coalescer.
+     *
+     * @param lockStore    the lock store
+     * @param maxBatchSize the max branch ids of an in-list, at most {@link #MAX_IN_LIST_SIZE}
+     * @param maxWaitMills how long a batch lingers for more releases
+     */
+    public LockReleaseCoalescer(LockStoreDataBaseDAO lockStore, int maxBatchSize, long maxWaitMills) {
+        this.lockStore = lockStore;
+        if (maxBatchSize > MAX_IN_LIST_SIZE) {
+            LOGGER.warn("lockReleaseMaxBatchSize {} is larger than {}, use {} instead", maxBatchSize,
+                MAX_IN_LIST_SIZE, MAX_IN_LIST_SIZE);
+        }
+        this.maxBatchSize = Math.min(maxBatchSize, MAX_IN_LIST_SIZE);
+        this.maxWaitMills = maxWaitMills;
+        this.releaseExecutor = new ThreadPoolExecutor(1, 1, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("lockReleaseCoalescer", 1, true));
+        releaseExecutor.execute(this::run);
+    }
+
+    /**
+     * Release the locks of the branches of a global session, and wait until they are deleted.
+     *
+     * @param xid       the xid
+     * @param branchIds the branch ids
+     * @return the boolean
+     */
+    public boolean release(String xid, List<Long> branchIds) {
+        if (CollectionUtils.isEmpty(branchIds)) {
+            return true;
+        }
+        if (stopping) {
+            return lockStore.unLock(xid, branchIds);
+        }
+        ReleaseRequest request = new ReleaseRequest(xid, branchIds);
+        requests.offer(request);
+        try {
+            while (true) {
+                try {
+                    return request.future.get(POLL_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // put after the release thread stopped
+                    if (stopping && requests.remove(request)) {
+                        return lockStore.unLock(xid, branchIds);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            LOGGER.error("unLock globalSession error, xid:{} branchIds:{}", xid, CollectionUtils.toString(branchIds),
+                e.getCause());
+            return false;
+        }
+    }
+
+    private void run() {
+        while (!stopping) {
+            try {
+                ReleaseRequest first = requests.poll(POLL_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    pollBatch(first);
+                    releaseBatch();
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (Throwable t) {
+                LOGGER.error("lock release error: {}", t.getMessage(), t);
+                batch.forEach(request -> request.future.complete(false));
+                batch.clear();
+            }
+        }
+        // release the rest one by one
+        ReleaseRequest request;
+        while ((request = requests.poll()) != null) {
+            batch.add(request);
+            releaseOneByOne();
+        }
+    }
+
+    /**
+     * Poll the releases of the batch, wait at most the max wait for the releases after the first one.
+     */
+    private void pollBatch(ReleaseRequest first) throws InterruptedException {
+        batch.add(first);
+        int branchCount = first.branchIds.size();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMills);
+        while (branchCount < maxBatchSize * MAX_IN_LISTS_PER_BATCH) {
+            ReleaseRequest request = requests.poll();
+            if (request == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                request = requests.poll(remaining, TimeUnit.NANOSECONDS);
+                if (request == null) {
+                    break;
+                }
+            }
+            batch.add(request);
+            branchCount += request.branchIds.size();
+        }
+    }
+
+    private void releaseBatch() {
+        if (batch.size() == 1) {
+            releaseOneByOne();
+            return;
+        }
+        List<Long> branchIds = new ArrayList<>();
+        for (ReleaseRequest request : batch) {
+            branchIds.addAll(request.branchIds);
+        }
+        try {
+            lockStore.unLockBranches(branchIds, maxBatchSize);
+        } catch (Exception e) {
+            LOGGER.warn("release the locks of {} global sessions together failed, release them one by one: {}",
+                batch.size(), e.getMessage());
+            releaseOneByOne();
+            return;
+        }
+        batch.forEach(request -> request.future.complete(true));
+        batch.clear();
+    }
+
+    private void releaseOneByOne() {
+        for (ReleaseRequest request : batch) {
+            try {
+                request.future.complete(lockStore.unLock(request.xid, request.branchIds));
+            } catch (Exception e) {
+                request.future.completeExceptionally(e);
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Stop the release thread, the releases left are done one by one.
+     */
+    public void shutdown() {
+        stopping = true;
+        releaseExecutor.shutdownNow();
+    }
+
+    private static class ReleaseRequest {
+
+        private final String xid;
+
+        private final List<Long> branchIds;
+
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private ReleaseRequest(String xid, List<Long> branchIds) {
+            this.xid = xid;
+            this.branchIds = branchIds;
+        }
+    }
+}
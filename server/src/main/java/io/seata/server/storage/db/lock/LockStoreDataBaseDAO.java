@@ -19,8 +19,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -41,11 +43,14 @@ import io.seata.core.model.LockStatus;
 import io.seata.core.store.LockDO;
 import io.seata.core.store.LockStore;
 import io.seata.core.store.db.sql.lock.LockStoreSqlFactory;
+import io.seata.server.lock.LockContentionProfiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+import static io.seata.common.Constants.TABLE_LOCK_PK;
 import static io.seata.common.DefaultValues.DEFAULT_LOCK_DB_TABLE;
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_TABLE_LOCK_ENABLED;
 import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflictFailFast;
 
 /**
@@ -62,6 +67,8 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     protected static final Configuration CONFIG = ConfigurationFactory.getInstance();
 
+    private static final String LOCK_SPLIT = "^^^";
+
     /**
      * The Lock store data source.
      */
@@ -77,6 +84,11 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     protected String dbType;
 
+    /**
+     * Whether the table locks are checked.
+     */
+    protected boolean tableLockEnabled;
+
     /**
      * Instantiates a new Data base lock store dao.
      *
@@ -86,6 +98,8 @@ public class LockStoreDataBaseDAO implements LockStore {
         this.lockStoreDataSource = lockStoreDataSource;
         lockTable = CONFIG.getConfig(ConfigurationKeys.LOCK_DB_TABLE, DEFAULT_LOCK_DB_TABLE);
         dbType = CONFIG.getConfig(ConfigurationKeys.STORE_DB_TYPE);
+        tableLockEnabled = CONFIG.getBoolean(ConfigurationKeys.SERVER_TABLE_LOCK_ENABLED,
+            DEFAULT_SERVER_TABLE_LOCK_ENABLED);
         if (StringUtils.isBlank(dbType)) {
             throw new StoreException("there must be db type.");
         }
@@ -119,9 +133,10 @@ public class LockStoreDataBaseDAO implements LockStore {
             if (originalAutoCommit = conn.getAutoCommit()) {
                 conn.setAutoCommit(false);
             }
-            //check lock
+            //check lock, along with the table locks of the rows
+            List<String> tableLockRowKeys = tableLockEnabled ? tableLockRowKeys(lockDOs) : Collections.emptyList();
             StringJoiner sj = new StringJoiner(",");
-            for (int i = 0; i < lockDOs.size(); i++) {
+            for (int i = 0; i < lockDOs.size() + tableLockRowKeys.size(); i++) {
                 sj.add("?");
             }
             boolean canLock = true;
@@ -131,18 +146,23 @@ public class LockStoreDataBaseDAO implements LockStore {
             for (int i = 0; i < lockDOs.size(); i++) {
                 ps.setString(i + 1, lockDOs.get(i).getRowKey());
             }
+            for (int i = 0; i < tableLockRowKeys.size(); i++) {
+                ps.setString(lockDOs.size() + i + 1, tableLockRowKeys.get(i));
+            }
             rs = ps.executeQuery();
             String currentXID = lockDOs.get(0).getXid();
             boolean failFast = false;
             while (rs.next()) {
                 String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
                 if (!StringUtils.equals(dbXID, currentXID)) {
+                    String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
+                    String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
                     if (LOGGER.isInfoEnabled()) {
-                        String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
-                        String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
                         long dbBranchId = rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID);
                         LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}", dbTableName, dbPk, dbXID, dbBranchId);
                     }
+                    LockContentionProfiler.get().recordConflict(
+                        rs.getString(ServerTableColumnsName.LOCK_TABLE_RESOURCE_ID), dbTableName, dbPk);
                     if (!autoCommit) {
                         int status = rs.getInt(ServerTableColumnsName.LOCK_TABLE_STATUS);
                         if (status == LockStatus.Rollbacking.getCode()) {
@@ -194,6 +214,11 @@ public class LockStoreDataBaseDAO implements LockStore {
                 }
             }
             conn.commit();
+            if (tableLockEnabled && !checkTableLocks(conn, lockDOs, tableLockRowKeys)) {
+                // lost the race against a table lock, give back the rows just taken
+                unLock(unrepeatedLockDOs);
+                return false;
+            }
             return true;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -290,6 +315,66 @@ public class LockStoreDataBaseDAO implements LockStore {
         return true;
     }
 
+    /**
+     * Release the locks of the branches, which may belong to many global transactions. The branch ids are split
+     * into in-lists of the max size, the full ones are sent as one jdbc batch.
+     *
+     * @param branchIds the branch ids, unique across the global transactions
+     * @param maxInSize the max size of an in-list
+     * @return the boolean
+     */
+    public boolean unLockBranches(List<Long> branchIds, int maxInSize) {
+        if (CollectionUtils.isEmpty(branchIds)) {
+            return true;
+        }
+        int fullLists = branchIds.size() / maxInSize;
+        int rest = branchIds.size() % maxInSize;
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = lockStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+            if (fullLists > 0) {
+                ps = conn.prepareStatement(getBatchDeleteLockSqlByBranchIds(maxInSize));
+                for (int i = 0; i < fullLists; i++) {
+                    for (int j = 0; j < maxInSize; j++) {
+                        ps.setLong(j + 1, branchIds.get(i * maxInSize + j));
+                    }
+                    if (fullLists > 1) {
+                        ps.addBatch();
+                    }
+                }
+                if (fullLists > 1) {
+                    ps.executeBatch();
+                } else {
+                    ps.executeUpdate();
+                }
+                IOUtil.close(ps);
+                ps = null;
+            }
+            if (rest > 0) {
+                ps = conn.prepareStatement(getBatchDeleteLockSqlByBranchIds(rest));
+                for (int j = 0; j < rest; j++) {
+                    ps.setLong(j + 1, branchIds.get(fullLists * maxInSize + j));
+                }
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            IOUtil.close(ps, conn);
+        }
+        return true;
+    }
+
+    private String getBatchDeleteLockSqlByBranchIds(int size) {
+        StringJoiner sj = new StringJoiner(",");
+        for (int i = 0; i < size; i++) {
+            sj.add("?");
+        }
+        return LockStoreSqlFactory.getLogStoreSql(dbType).getBatchDeleteLockSqlByBranchIds(lockTable, sj.toString());
+    }
+
     @Override
     public boolean isLockable(List<LockDO> lockDOs) {
         Connection conn = null;
@@ -299,7 +384,7 @@ public class LockStoreDataBaseDAO implements LockStore {
             if (!checkLockable(conn, lockDOs)) {
                 return false;
             }
-            return true;
+            return !tableLockEnabled || checkTableLocks(conn, lockDOs, tableLockRowKeys(lockDOs));
         } catch (SQLException e) {
             throw new DataAccessException(e);
         } finally {
@@ -422,6 +507,99 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    /**
+     * Check the table locks: the rows against the table locks of their tables, the table locks against the rows of
+     * the other global transactions. The acquire checks once its locks are committed, so of two acquires racing on
+     * a table at least one sees the other. The rows of a table are found by a scan of the lock table, the table
+     * locks are meant for the bulk statements.
+     *
+     * @param conn             the conn
+     * @param lockDOs          the lock do
+     * @param tableLockRowKeys the row keys of the table locks of the rows
+     * @return the boolean
+     * @throws SQLException the sql exception
+     */
+    protected boolean checkTableLocks(Connection conn, List<LockDO> lockDOs, List<String> tableLockRowKeys)
+        throws SQLException {
+        String xid = lockDOs.get(0).getXid();
+        if (!tableLockRowKeys.isEmpty()) {
+            StringJoiner sj = new StringJoiner(",");
+            tableLockRowKeys.forEach(rowKey -> sj.add("?"));
+            String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, sj.toString());
+            try (PreparedStatement ps = conn.prepareStatement(checkLockSQL)) {
+                for (int i = 0; i < tableLockRowKeys.size(); i++) {
+                    ps.setString(i + 1, tableLockRowKeys.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (!StringUtils.equals(rs.getString(ServerTableColumnsName.LOCK_TABLE_XID), xid)) {
+                            String tableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
+                            LOGGER.info("Global lock on table [{}] is holding by xid {}", tableName,
+                                rs.getString(ServerTableColumnsName.LOCK_TABLE_XID));
+                            LockContentionProfiler.get().recordConflict(
+                                rs.getString(ServerTableColumnsName.LOCK_TABLE_RESOURCE_ID), tableName, TABLE_LOCK_PK);
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        String checkTableLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckTableLockableSql(lockTable);
+        for (LockDO lockDO : lockDOs) {
+            if (!TABLE_LOCK_PK.equals(lockDO.getPk())) {
+                continue;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(checkTableLockSQL)) {
+                ps.setMaxRows(1);
+                ps.setString(1, lockDO.getResourceId());
+                ps.setString(2, lockDO.getTableName());
+                ps.setString(3, xid);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        LOGGER.info("Global lock on table [{}] conflicts with the rows held by xid {}",
+                            lockDO.getTableName(), rs.getString(ServerTableColumnsName.LOCK_TABLE_XID));
+                        LockContentionProfiler.get().recordConflict(lockDO.getResourceId(), lockDO.getTableName(),
+                            TABLE_LOCK_PK);
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the row keys of the table locks of the tables the rows are in, but the tables locked along.
+     *
+     * @param lockDOs the lock do
+     * @return the row keys
+     */
+    protected List<String> tableLockRowKeys(List<LockDO> lockDOs) {
+        Set<String> lockedTables = new HashSet<>();
+        for (LockDO lockDO : lockDOs) {
+            if (TABLE_LOCK_PK.equals(lockDO.getPk())) {
+                lockedTables.add(lockDO.getResourceId() + LOCK_SPLIT + lockDO.getTableName());
+            }
+        }
+        Set<String> rowKeys = new LinkedHashSet<>();
+        for (LockDO lockDO : lockDOs) {
+            String table = lockDO.getResourceId() + LOCK_SPLIT + lockDO.getTableName();
+            if (!TABLE_LOCK_PK.equals(lockDO.getPk()) && !lockedTables.contains(table)) {
+                rowKeys.add(table + LOCK_SPLIT + TABLE_LOCK_PK);
+            }
+        }
+        return new ArrayList<>(rowKeys);
+    }
+
+    /**
+     * Sets table lock enabled.
+     *
+     * @param tableLockEnabled whether the table locks are checked
+     */
+    public void setTableLockEnabled(boolean tableLockEnabled) {
+        this.tableLockEnabled = tableLockEnabled;
+    }
+
     /**
      * Sets lock table.
      *
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
@@ -61,6 +63,16 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     protected static final int DEFAULT_LOG_QUERY_LIMIT = 100;
 
+    /**
+     * The retry state overdue for longer than this is regarded as left by a removed global transaction.
+     */
+    protected static final long RETRY_STATE_EXPIRE_MILLS = 60 * 60 * 1000L;
+
+    /**
+     * The interval of sweeping the expired retry states.
+     */
+    protected static final long RETRY_STATE_SWEEP_INTERVAL_MILLS = 60 * 1000L;
+
     /**
      * The Log store.
      */
@@ -71,6 +83,17 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     protected int logQueryLimit;
 
+    /**
+     * The retry state of the global transactions retried by this server, keyed by xid.
+     * The global table has no columns for it, so it is kept in memory and lost on restart.
+     */
+    protected final Map<String, GlobalTransactionDO> retryStates = new ConcurrentHashMap<>();
+
+    /**
+     * The time the retry states are swept next.
+     */
+    private final AtomicLong nextRetryStateSweepTime = new AtomicLong();
+
     /**
      * Get the instance.
      */
@@ -101,9 +124,16 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         if (LogOperation.GLOBAL_ADD.equals(logOperation)) {
             return logStore.insertGlobalTransactionDO(SessionConverter.convertGlobalTransactionDO(session));
         } else if (LogOperation.GLOBAL_UPDATE.equals(logOperation)) {
-            return logStore.updateGlobalTransactionDO(SessionConverter.convertGlobalTransactionDO(session));
+            GlobalTransactionDO globalTransactionDO = SessionConverter.convertGlobalTransactionDO(session);
+            if (globalTransactionDO.getRetryCount() > 0) {
+                sweepRetryStates(System.currentTimeMillis());
+                retryStates.put(globalTransactionDO.getXid(), globalTransactionDO);
+            }
+            return logStore.updateGlobalTransactionDO(globalTransactionDO);
         } else if (LogOperation.GLOBAL_REMOVE.equals(logOperation)) {
-            return logStore.deleteGlobalTransactionDO(SessionConverter.convertGlobalTransactionDO(session));
+            GlobalTransactionDO globalTransactionDO = SessionConverter.convertGlobalTransactionDO(session);
+            retryStates.remove(globalTransactionDO.getXid());
+            return logStore.deleteGlobalTransactionDO(globalTransactionDO);
         } else if (LogOperation.BRANCH_ADD.equals(logOperation)) {
             return logStore.insertBranchTransactionDO(SessionConverter.convertBranchTransactionDO(session));
         } else if (LogOperation.BRANCH_UPDATE.equals(logOperation)) {
@@ -167,6 +197,20 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         return getGlobalSession(globalTransactionDO, branchTransactionDOs);
     }
 
+    /**
+     * Remove the retry states left by the removed global transactions, at most once per sweep interval.
+     *
+     * @param now the current time millis
+     */
+    private void sweepRetryStates(long now) {
+        long sweepTime = nextRetryStateSweepTime.get();
+        if (now < sweepTime || !nextRetryStateSweepTime.compareAndSet(sweepTime, now + RETRY_STATE_SWEEP_INTERVAL_MILLS)) {
+            return;
+        }
+        long expireTime = now - RETRY_STATE_EXPIRE_MILLS;
+        retryStates.values().removeIf(retryState -> retryState.getNextRetryTime() < expireTime);
+    }
+
     /**
      * Read session list.
      *
@@ -174,6 +218,17 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
      * @return the list
      */
     public List<GlobalSession> readSession(GlobalStatus[] statuses) {
+        return readSession(statuses, null);
+    }
+
+    /**
+     * Read session list, the global transactions not due to retry are left out before their branches are read.
+     *
+     * @param statuses the statuses
+     * @param retryDueTime the retry due time, null for all
+     * @return the list
+     */
+    public List<GlobalSession> readSession(GlobalStatus[] statuses, Long retryDueTime) {
         int[] states = new int[statuses.length];
         for (int i = 0; i < statuses.length; i++) {
             states[i] = statuses[i].getCode();
@@ -183,6 +238,14 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         if (CollectionUtils.isEmpty(globalTransactionDOs)) {
             return null;
         }
+        if (retryDueTime != null) {
+            globalTransactionDOs = globalTransactionDOs.stream()
+                .filter(globalTransactionDO -> isRetryDue(globalTransactionDO.getXid(), retryDueTime))
+                .collect(Collectors.toList());
+            if (globalTransactionDOs.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
         List<String> xids = globalTransactionDOs.stream().map(GlobalTransactionDO::getXid).collect(Collectors.toList());
         List<BranchTransactionDO> branchTransactionDOs = logStore.queryBranchTransactionDO(xids);
         Map<String, List<BranchTransactionDO>> branchTransactionDOsMap = branchTransactionDOs.stream()
@@ -209,14 +272,24 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
                 return globalSessions;
             }
         } else if (CollectionUtils.isNotEmpty(sessionCondition.getStatuses())) {
-            return readSession(sessionCondition.getStatuses());
+            return readSession(sessionCondition.getStatuses(), sessionCondition.getRetryDueTime());
         }
         return null;
     }
 
+    private boolean isRetryDue(String xid, long retryDueTime) {
+        GlobalTransactionDO retryState = retryStates.get(xid);
+        return retryState == null || retryState.getNextRetryTime() <= retryDueTime;
+    }
+
     private GlobalSession getGlobalSession(GlobalTransactionDO globalTransactionDO,
         List<BranchTransactionDO> branchTransactionDOs) {
         GlobalSession globalSession = SessionConverter.convertGlobalSession(globalTransactionDO);
+        GlobalTransactionDO retryState = retryStates.get(globalTransactionDO.getXid());
+        if (retryState != null) {
+            globalSession.setRetryCount(retryState.getRetryCount());
+            globalSession.setNextRetryTime(retryState.getNextRetryTime());
+        }
         //branch transactions
         if (CollectionUtils.isNotEmpty(branchTransactionDOs)) {
             for (BranchTransactionDO branchTransactionDO : branchTransactionDOs) {
@@ -96,6 +96,12 @@ public class TransactionWriteStore implements SessionStorable {
         return byResult;
     }
 
+    @Override
+    public void encode(ByteBuffer byteBuffer) {
+        this.sessionRequest.encode(byteBuffer);
+        byteBuffer.put(this.getOperate().getCode());
+    }
+
     @Override
     public void decode(byte[] src) {
         ByteBuffer byteBuffer = ByteBuffer.wrap(src);
@@ -15,37 +15,61 @@
  */
 package io.seata.server.storage.file.lock;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import io.seata.common.exception.FrameworkException;
 import io.seata.common.exception.StoreException;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.ConcurrentLongHashMap;
+import io.seata.common.util.StringUtils;
 import io.seata.core.exception.BranchTransactionException;
-import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.AbstractLocker;
 import io.seata.core.lock.RowLock;
 import io.seata.core.model.LockStatus;
+import io.seata.server.lock.LockContentionProfiler;
 import io.seata.server.session.BranchSession;
 
 
+import static io.seata.common.Constants.TABLE_LOCK_PK;
 import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflictFailFast;
 
 /**
  * The type Memory locker.
+ * <p>
+ * The row locks of all the resources are in a single table keyed by a 64 bits hash of the row: the interned id of
+ * the resource and table, and the pk. The table is open addressing over primitive arrays and only keeps the holding
+ * branch of a row, every branch keeps the keys it holds in a compact list, which the release goes through once.
+ * <p>
+ * Two rows of the same hash share an entry. Against another transaction that is a conflict either way, so the
+ * row is never granted twice; within the same transaction the rows of the holding branch are checked, and a
+ * collision is denied rather than taken as locked by me.
+ * <p>
+ * A table lock is the row of the table lock pk, so two transactions never hold the same table. Every table keeps
+ * the branches holding its rows, a table lock is checked against them once taken.
  *
  * @author zhangsen
  */
 public class FileLocker extends AbstractLocker {
 
-    private static final int BUCKET_PER_TABLE = 128;
+    private static final int LOCK_TABLE_CONCURRENCY_LEVEL = 64;
 
-    private static final ConcurrentMap<String/* resourceId */, ConcurrentMap<String/* tableName */,
-        ConcurrentMap<Integer/* bucketId */, BucketLockMap>>>
-        LOCK_MAP = new ConcurrentHashMap<>();
+    private static final ConcurrentLongHashMap<BranchSession> LOCK_TABLE = new ConcurrentLongHashMap<>(
+        1024, LOCK_TABLE_CONCURRENCY_LEVEL);
+
+    private static final ConcurrentMap<String/* resourceId */, ConcurrentMap<String/* tableName */, Integer>>
+        TABLE_IDS = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_TABLE_ID = new AtomicInteger();
+
+    private static final ConcurrentMap<Integer/* tableId */, Set<BranchSession>> TABLE_HOLDERS =
+        new ConcurrentHashMap<>();
 
     /**
      * The Branch session.
@@ -75,47 +99,70 @@ public class FileLocker extends AbstractLocker {
         String resourceId = branchSession.getResourceId();
         long transactionId = branchSession.getTransactionId();
 
-        ConcurrentMap<BucketLockMap, Set<String>> bucketHolder = branchSession.getLockHolder();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = CollectionUtils.computeIfAbsent(
-            LOCK_MAP, resourceId, key -> new ConcurrentHashMap<>());
+        LockHolder lockHolder = branchSession.getLockHolder();
+        ConcurrentMap<String, Integer> tableIds = CollectionUtils.computeIfAbsent(TABLE_IDS, resourceId,
+            key -> new ConcurrentHashMap<>());
+        // the rows of the other branches of the transaction, parsed once per call if a collision must be checked
+        Map<BranchSession, Set<String>> siblingRows = null;
         boolean failFast = false;
         boolean canLock = true;
         for (RowLock lock : rowLocks) {
             String tableName = lock.getTableName();
             String pk = lock.getPk();
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = CollectionUtils.computeIfAbsent(dbLockMap, tableName,
-                key -> new ConcurrentHashMap<>());
+            int tableId = CollectionUtils.computeIfAbsent(tableIds, tableName, key -> NEXT_TABLE_ID.getAndIncrement());
+            if (lockHolder.addTable(tableId)) {
+                // a holder of the table before its rows are put, so a table lock racing with them sees it
+                CollectionUtils.computeIfAbsent(TABLE_HOLDERS, tableId, key -> ConcurrentHashMap.newKeySet())
+                    .add(branchSession);
+            }
+            long rowKey = rowKey(tableId, pk);
 
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = CollectionUtils.computeIfAbsent(tableLockMap, bucketId,
-                key -> new BucketLockMap());
-            BranchSession previousLockBranchSession = bucketLockMap.get().putIfAbsent(pk, branchSession);
+            BranchSession previousLockBranchSession = LOCK_TABLE.putIfAbsent(rowKey, branchSession);
             if (previousLockBranchSession == null) {
                 // No existing lock, and now locked by myself
-                Set<String> keysInHolder = CollectionUtils.computeIfAbsent(bucketHolder, bucketLockMap,
-                    key -> ConcurrentHashMap.newKeySet());
-                keysInHolder.add(pk);
-            } else if (previousLockBranchSession.getTransactionId() == transactionId) {
-                // Locked by me before
+                lockHolder.add(rowKey);
                 continue;
+            } else if (previousLockBranchSession.getTransactionId() == transactionId) {
+                if (previousLockBranchSession == branchSession) {
+                    // Locked by me before, or a row of mine sharing the hash, released along with it anyway
+                    continue;
+                }
+                if (siblingRows == null) {
+                    siblingRows = new HashMap<>();
+                }
+                Set<String> rows = siblingRows.computeIfAbsent(previousLockBranchSession, FileLocker::parseRows);
+                if (resourceId.equals(previousLockBranchSession.getResourceId())
+                    && rows.contains(tableName + ":" + pk)) {
+                    // Locked by my transaction before
+                    continue;
+                }
+                LOGGER.warn("Global lock on [" + tableName + ":" + pk + "] collides with a row of branch "
+                    + previousLockBranchSession.getBranchId() + " of the same transaction");
             } else {
                 LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + previousLockBranchSession.getBranchId());
-                try {
-                    // Release all acquired locks.
-                    branchSession.unlock();
-                } catch (TransactionException e) {
-                    throw new FrameworkException(e);
-                }
-                if (!autoCommit && previousLockBranchSession.getLockStatus() == LockStatus.Rollbacking) {
-                    failFast = true;
+                LockContentionProfiler.get().recordConflict(resourceId, tableName, pk);
+            }
+            // Release all acquired locks, not through the lock manager: waking the waiters of the rows taken by this
+            // failed attempt would only make the acquires waiting for the same rows fail each other in turn
+            releaseHeldLocks();
+            if (!autoCommit && previousLockBranchSession.getLockStatus() == LockStatus.Rollbacking) {
+                failFast = true;
+                break;
+            }
+            if (canLock) {
+                canLock = false;
+                if (autoCommit) {
                     break;
                 }
-                if (canLock) {
-                    canLock = false;
-                    if (autoCommit) {
-                        break;
-                    }
-                }
+            }
+        }
+        if (canLock) {
+            BranchSession tableLockConflict = findTableLockConflict(resourceId, transactionId, tableIds, rowLocks);
+            if (tableLockConflict != null) {
+                // Release all acquired locks.
+                releaseHeldLocks();
+                failFast = !autoCommit && tableLockConflict.getLockStatus() == LockStatus.Rollbacking;
+                canLock = false;
             }
         }
         if (failFast) {
@@ -130,20 +177,22 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        ConcurrentMap<BucketLockMap, Set<String>> lockHolder = branchSession.getLockHolder();
-        if (CollectionUtils.isEmpty(lockHolder)) {
-            return true;
+        releaseHeldLocks();
+        return true;
+    }
+
+    private void releaseHeldLocks() {
+        LockHolder lockHolder = branchSession.getLockHolder();
+        for (long rowKey : lockHolder.drain()) {
+            // remove lock only if it locked by myself
+            LOCK_TABLE.remove(rowKey, branchSession);
         }
-        for (Map.Entry<BucketLockMap, Set<String>> entry : lockHolder.entrySet()) {
-            BucketLockMap bucket = entry.getKey();
-            Set<String> keys = entry.getValue();
-            for (String key : keys) {
-                // remove lock only if it locked by myself
-                bucket.get().remove(key, branchSession);
+        for (int tableId : lockHolder.drainTables()) {
+            Set<BranchSession> holders = TABLE_HOLDERS.get(tableId);
+            if (holders != null) {
+                holders.remove(branchSession);
             }
         }
-        lockHolder.clear();
-        return true;
     }
 
     @Override
@@ -154,24 +203,19 @@ public class FileLocker extends AbstractLocker {
         }
         Long transactionId = rowLocks.get(0).getTransactionId();
         String resourceId = rowLocks.get(0).getResourceId();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = LOCK_MAP.get(resourceId);
-        if (dbLockMap == null) {
+        ConcurrentMap<String, Integer> tableIds = TABLE_IDS.get(resourceId);
+        if (tableIds == null) {
             return true;
         }
         for (RowLock rowLock : rowLocks) {
             String tableName = rowLock.getTableName();
             String pk = rowLock.getPk();
 
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = dbLockMap.get(tableName);
-            if (tableLockMap == null) {
+            Integer tableId = tableIds.get(tableName);
+            if (tableId == null) {
                 continue;
             }
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = tableLockMap.get(bucketId);
-            if (bucketLockMap == null) {
-                continue;
-            }
-            BranchSession branchSession = bucketLockMap.get().get(pk);
+            BranchSession branchSession = LOCK_TABLE.get(rowKey(tableId, pk));
             Long lockingTransactionId = branchSession != null ? branchSession.getTransactionId() : null;
             if (lockingTransactionId == null || lockingTransactionId.longValue() == transactionId) {
                 // Locked by me
@@ -181,7 +225,7 @@ public class FileLocker extends AbstractLocker {
                 return false;
             }
         }
-        return true;
+        return findTableLockConflict(resourceId, transactionId, tableIds, rowLocks) == null;
     }
 
 
@@ -191,31 +235,165 @@ public class FileLocker extends AbstractLocker {
 
     @Override
     public void cleanAllLocks() {
-        LOCK_MAP.clear();
+        LOCK_TABLE.clear();
+        TABLE_HOLDERS.clear();
     }
 
     /**
-     * Because bucket lock map will be key of HashMap(lockHolder), however {@link ConcurrentHashMap} overwrites
-     * {@link Object##hashCode()} and {@link Object##equals(Object)}, that leads to hash key conflict in lockHolder.
-     * We define a {@link BucketLockMap} to hold the ConcurrentHashMap(bucketLockMap) and replace it as key of
-     * HashMap(lockHolder).
+     * The 64 bits FNV-1a hash of the pk, seeded with the table id.
      */
-    public static class BucketLockMap {
-        private final ConcurrentHashMap<String/* pk */, BranchSession/* branchSession */> bucketLockMap
-            = new ConcurrentHashMap<>();
+    static long rowKey(int tableId, String pk) {
+        long hash = 0xcbf29ce484222325L ^ (tableId * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < pk.length(); i++) {
+            hash ^= pk.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Find the branch of another transaction holding a table lock on a table of the rows, or a row of a table to
+     * lock. The locks are put before they are checked, so of two acquires racing on a table at least one sees the
+     * other. Checking a table lock goes through the branches holding the rows of the table.
+     *
+     * @return the conflicting branch, null if none
+     */
+    private static BranchSession findTableLockConflict(String resourceId, long transactionId,
+        ConcurrentMap<String, Integer> tableIds, List<RowLock> rowLocks) {
+        Set<String> rowTables = new HashSet<>();
+        Set<String> lockedTables = new HashSet<>();
+        for (RowLock lock : rowLocks) {
+            (TABLE_LOCK_PK.equals(lock.getPk()) ? lockedTables : rowTables).add(lock.getTableName());
+        }
+        for (String tableName : rowTables) {
+            Integer tableId = tableIds.get(tableName);
+            if (tableId == null || lockedTables.contains(tableName)) {
+                continue;
+            }
+            BranchSession holder = LOCK_TABLE.get(rowKey(tableId, TABLE_LOCK_PK));
+            if (holder != null && holder.getTransactionId() != transactionId) {
+                LOGGER.info("Global lock on table [" + tableName + "] is holding by " + holder.getBranchId());
+                LockContentionProfiler.get().recordConflict(resourceId, tableName, TABLE_LOCK_PK);
+                return holder;
+            }
+        }
+        if (lockedTables.isEmpty()) {
+            return null;
+        }
+        for (String tableName : lockedTables) {
+            Integer tableId = tableIds.get(tableName);
+            Set<BranchSession> holders = tableId != null ? TABLE_HOLDERS.get(tableId) : null;
+            if (holders == null) {
+                continue;
+            }
+            for (BranchSession holder : holders) {
+                if (holder.getTransactionId() != transactionId) {
+                    LOGGER.info("Global lock on table [" + tableName + "] conflicts with the rows held by "
+                        + holder.getBranchId());
+                    LockContentionProfiler.get().recordConflict(resourceId, tableName, TABLE_LOCK_PK);
+                    return holder;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse the rows of the lock key of a branch as "table:pk".
+     */
+    private static Set<String> parseRows(BranchSession branchSession) {
+        Set<String> rows = new HashSet<>();
+        String lockKey = branchSession.getLockKey();
+        if (StringUtils.isBlank(lockKey)) {
+            return rows;
+        }
+        for (String tableGroupedLockKey : lockKey.split(";")) {
+            int idx = tableGroupedLockKey.indexOf(":");
+            if (idx < 0) {
+                continue;
+            }
+            String tableName = tableGroupedLockKey.substring(0, idx);
+            for (String pk : tableGroupedLockKey.substring(idx + 1).split(",")) {
+                rows.add(tableName + ":" + pk);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The keys of the rows a branch holds, a growing array of longs, and the ids of their tables.
+     */
+    public static class LockHolder {
+
+        private static final long[] EMPTY = new long[0];
+
+        private static final int[] NO_TABLES = new int[0];
+
+        private long[] rowKeys = EMPTY;
+
+        private int size;
+
+        private int[] tableIds = NO_TABLES;
+
+        private int tableCount;
+
+        /**
+         * Add the table of a row, a branch holds the rows of a few tables.
+         *
+         * @param tableId the table id
+         * @return true if the table is new to the holder
+         */
+        synchronized boolean addTable(int tableId) {
+            for (int i = 0; i < tableCount; i++) {
+                if (tableIds[i] == tableId) {
+                    return false;
+                }
+            }
+            if (tableCount == tableIds.length) {
+                tableIds = Arrays.copyOf(tableIds, Math.max(4, tableCount << 1));
+            }
+            tableIds[tableCount++] = tableId;
+            return true;
+        }
+
+        synchronized void add(long rowKey) {
+            if (size == rowKeys.length) {
+                rowKeys = Arrays.copyOf(rowKeys, Math.max(8, size << 1));
+            }
+            rowKeys[size++] = rowKey;
+        }
 
-        ConcurrentHashMap<String, BranchSession> get() {
-            return bucketLockMap;
+        /**
+         * Take all the keys out of the holder.
+         *
+         * @return the keys
+         */
+        synchronized long[] drain() {
+            long[] drained = size == rowKeys.length ? rowKeys : Arrays.copyOf(rowKeys, size);
+            rowKeys = EMPTY;
+            size = 0;
+            return drained;
         }
 
-        @Override
-        public int hashCode() {
-            return super.hashCode();
+        /**
+         * Take all the table ids out of the holder.
+         *
+         * @return the table ids
+         */
+        synchronized int[] drainTables() {
+            int[] drained = Arrays.copyOf(tableIds, tableCount);
+            tableIds = NO_TABLES;
+            tableCount = 0;
+            return drained;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            return super.equals(o);
+        /**
+         * Gets the number of the rows held.
+         *
+         * @return the size
+         */
+        public synchronized int size() {
+            return size;
         }
     }
 }
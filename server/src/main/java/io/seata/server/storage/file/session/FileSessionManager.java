@@ -24,15 +24,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
+import io.seata.common.XID;
 import io.seata.common.exception.ShouldNeverHappenException;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.loader.Scope;
+import io.seata.common.util.ConcurrentLongHashMap;
 import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.GlobalStatus;
 import io.seata.server.session.AbstractSessionManager;
 import io.seata.server.session.BranchSession;
@@ -58,9 +61,9 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
     private static final int READ_SIZE = ConfigurationFactory.getInstance().getInt(
         ConfigurationKeys.SERVICE_SESSION_RELOAD_READ_SIZE, 100);
     /**
-     * The Session map.
+     * The Session map, keyed by the transactionId.
      */
-    private Map<String, GlobalSession> sessionMap = new ConcurrentHashMap<>();
+    private final ConcurrentLongHashMap<GlobalSession> sessionMap = new ConcurrentLongHashMap<>();
 
     /**
      * Instantiates a new File based session manager.
@@ -92,24 +95,55 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
     @Override
     public void addGlobalSession(GlobalSession session) throws TransactionException {
         super.addGlobalSession(session);
-        sessionMap.put(session.getXid(), session);
+        sessionMap.put(session.getTransactionId(), session);
+    }
+
+    @Override
+    public void addBranchSessions(GlobalSession session, List<BranchSession> branchSessions)
+        throws TransactionException {
+        TransactionStoreManager.LogOperation logOperation = TransactionStoreManager.LogOperation.BRANCH_ADD;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MANAGER[" + name + "] SESSIONS" + branchSessions + " " + logOperation);
+        }
+        if (!transactionStoreManager.writeSessions(logOperation, branchSessions)) {
+            throw new BranchTransactionException(TransactionExceptionCode.FailedWriteSession,
+                "Fail to store branch sessions");
+        }
     }
 
     @Override
     public GlobalSession findGlobalSession(String xid)  {
-        return sessionMap.get(xid);
+        return findGlobalSessionByXid(xid);
     }
 
     @Override
     public GlobalSession findGlobalSession(String xid, boolean withBranchSessions) {
         // withBranchSessions without process in memory
-        return sessionMap.get(xid);
+        return findGlobalSessionByXid(xid);
+    }
+
+    /**
+     * The xid is parsed into the transactionId once, the session found must still carry the same xid, in case the
+     * xid was issued by another server.
+     */
+    private GlobalSession findGlobalSessionByXid(String xid) {
+        if (xid == null) {
+            return null;
+        }
+        long transactionId;
+        try {
+            transactionId = XID.getTransactionId(xid);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        GlobalSession globalSession = sessionMap.get(transactionId);
+        return globalSession != null && xid.equals(globalSession.getXid()) ? globalSession : null;
     }
 
     @Override
     public void removeGlobalSession(GlobalSession session) throws TransactionException {
         super.removeGlobalSession(session);
-        sessionMap.remove(session.getXid());
+        sessionMap.remove(session.getTransactionId());
     }
 
     @Override
@@ -155,7 +189,7 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
                     }
 
                     long bid = branchSession.getBranchId();
-                    GlobalSession found = sessionMap.get(xid);
+                    GlobalSession found = sessionMap.get(branchSession.getTransactionId());
                     if (found == null) {
                         // Ignore
                         if (LOGGER.isInfoEnabled()) {
@@ -221,10 +255,10 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
                     if (removedGlobalBuffer.contains(globalSession.getXid())) {
                         break;
                     }
-                    GlobalSession foundGlobalSession = sessionMap.get(globalSession.getXid());
+                    GlobalSession foundGlobalSession = sessionMap.get(globalSession.getTransactionId());
                     if (foundGlobalSession == null) {
                         if (this.checkSessionStatus(globalSession)) {
-                            sessionMap.put(globalSession.getXid(), globalSession);
+                            sessionMap.put(globalSession.getTransactionId(), globalSession);
                         } else {
                             removedGlobalBuffer.add(globalSession.getXid());
                             unhandledBranchBuffer.remove(globalSession.getXid());
@@ -232,8 +266,10 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
                     } else {
                         if (this.checkSessionStatus(globalSession)) {
                             foundGlobalSession.setStatus(globalSession.getStatus());
+                            foundGlobalSession.setRetryCount(globalSession.getRetryCount());
+                            foundGlobalSession.setNextRetryTime(globalSession.getNextRetryTime());
                         } else {
-                            sessionMap.remove(globalSession.getXid());
+                            sessionMap.remove(globalSession.getTransactionId());
                             removedGlobalBuffer.add(globalSession.getXid());
                             unhandledBranchBuffer.remove(globalSession.getXid());
                         }
@@ -251,7 +287,7 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
                     if (removedGlobalBuffer.contains(globalSession.getXid())) {
                         break;
                     }
-                    if (sessionMap.remove(globalSession.getXid()) == null) {
+                    if (sessionMap.remove(globalSession.getTransactionId()) == null) {
                         if (LOGGER.isInfoEnabled()) {
                             LOGGER.info("GlobalSession To Be Removed Does Not Exists [" + globalSession.getXid() + "]");
                         }
@@ -272,7 +308,7 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
                     if (removedGlobalBuffer.contains(branchSession.getXid())) {
                         break;
                     }
-                    GlobalSession foundGlobalSession = sessionMap.get(branchSession.getXid());
+                    GlobalSession foundGlobalSession = sessionMap.get(branchSession.getTransactionId());
                     if (foundGlobalSession == null) {
                         unhandledBranchBuffer.computeIfAbsent(branchSession.getXid(), key -> new HashMap<>())
                             .put(branchSession.getBranchId(), branchSession);
@@ -299,7 +335,7 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
                                 .getXid());
                         break;
                     }
-                    GlobalSession found = sessionMap.get(xid);
+                    GlobalSession found = sessionMap.get(branchSession.getTransactionId());
                     if (found == null) {
                         if (LOGGER.isInfoEnabled()) {
                             LOGGER.info(
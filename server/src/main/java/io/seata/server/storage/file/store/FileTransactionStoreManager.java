@@ -15,26 +15,40 @@
  */
 package io.seata.server.storage.file.store;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
 
 import io.seata.common.exception.StoreException;
 import io.seata.common.thread.NamedThreadFactory;
-import io.seata.common.util.CollectionUtils;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
@@ -48,12 +62,16 @@ import io.seata.server.store.TransactionStoreManager;
 import io.seata.server.storage.file.TransactionWriteStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
-
-import static io.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 
 /**
  * The type File transaction store manager.
+ * <p>
+ * The log is a sequence of memory mapped segments, every frame carries a crc32 of its body. Whenever a segment is
+ * full, the latest frames of the live sessions are written to a snapshot in the background, and the segments
+ * before the new one are deleted once the snapshot is in place. The recovery replays the snapshot as the history,
+ * then only the segments written after it, so it costs the live sessions plus at most a few segments, whatever the
+ * total volume of the log is. The data files of the former single file log are replayed as the history until the
+ * first snapshot replaces them.
  *
  * @author slievrly
  */
@@ -65,67 +83,72 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private ExecutorService fileWriteExecutor;
 
+    private ExecutorService snapshotExecutor;
+
     private volatile boolean stopping = false;
 
     private static final int MAX_SHUTDOWN_RETRY = 3;
 
     private static final int SHUTDOWN_CHECK_INTERVAL = 1 * 1000;
 
-    private static final int MAX_WRITE_RETRY = 5;
-
     private static final String HIS_DATA_FILENAME_POSTFIX = ".1";
 
+    private static final String SNAPSHOT_FILENAME_POSTFIX = ".snapshot";
+
+    private static final String TMP_FILENAME_POSTFIX = ".tmp";
+
+    private static final int SNAPSHOT_MAGIC = 0x53454154;
+
+    private static final int SNAPSHOT_HEADER_SIZE = 12;
+
+    private static final int SNAPSHOT_WRITE_BUFFER_SIZE = 64 * 1024;
+
     private static final AtomicLong FILE_TRX_NUM = new AtomicLong(0);
 
     private static final AtomicLong FILE_FLUSH_NUM = new AtomicLong(0);
 
-    private static final int MARK_SIZE = 4;
-
     private static final int MAX_WAIT_TIME_MILLS = 2 * 1000;
 
     private static final int MAX_FLUSH_TIME_MILLS = 2 * 1000;
 
     private static final int MAX_FLUSH_NUM = 10;
 
-    private static final int PER_FILE_BLOCK_SIZE = 65535 * 8;
+    private static final int SEGMENT_SIZE = StoreConfig.getSegmentSize();
 
-    private static final long MAX_TRX_TIMEOUT_MILLS = 30 * 60 * 1000;
+    private final String currFullFileName;
 
-    private static volatile long trxStartTimeMills = System.currentTimeMillis();
+    private final String hisFullFileName;
 
-    private File currDataFile;
+    private final String snapshotFullFileName;
 
-    private RandomAccessFile currRaf;
+    private volatile LogSegment currSegment;
 
-    private FileChannel currFileChannel;
+    private final LiveSessionFrames liveSessionFrames = new LiveSessionFrames();
 
-    private long recoverCurrOffset = 0;
+    private final Deque<LogFileReader> historyReaders = new ArrayDeque<>();
 
-    private long recoverHisOffset = 0;
+    private final Deque<LogFileReader> currReaders = new ArrayDeque<>();
 
-    private SessionManager sessionManager;
+    private volatile boolean recovering;
 
-    private String currFullFileName;
-
-    private String hisFullFileName;
+    private final AtomicBoolean snapshotting = new AtomicBoolean(false);
 
     private WriteDataFileRunnable writeDataFileRunnable;
 
-    private ReentrantLock writeSessionLock = new ReentrantLock();
-
     private volatile long lastModifiedTime;
 
-    private static final int MAX_WRITE_BUFFER_SIZE = StoreConfig.getFileWriteBufferCacheSize();
+    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
 
-    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(MAX_WRITE_BUFFER_SIZE);
+    private static final int MAX_WAIT_FOR_WRITE_TIME_MILLS = 10 * 1000;
 
-    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
+    private static final int GROUP_COMMIT_MAX_BATCH_SIZE = Math.max(1, StoreConfig.getGroupCommitMaxBatchSize());
 
-    private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
+    private static final long GROUP_COMMIT_MAX_WAIT_MILLS = Math.max(0, StoreConfig.getGroupCommitMaxWaitMills());
 
-    private static final int MAX_WAIT_FOR_CLOSE_TIME_MILLS = 2 * 1000;
+    private static final ThreadLocal<ByteBuffer> FRAME_BUFFER_THREAD_LOCAL = ThreadLocal.withInitial(
+        () -> ByteBuffer.allocate(Math.max(StoreConfig.getMaxBranchSessionSize(), StoreConfig.getMaxGlobalSessionSize())));
 
-    private static final int INT_BYTE_SIZE = 4;
+    private static final ThreadLocal<CRC32> CRC32_THREAD_LOCAL = ThreadLocal.withInitial(CRC32::new);
 
     /**
      * Instantiates a new File transaction store manager.
@@ -135,34 +158,45 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
      * @throws IOException the io exception
      */
     public FileTransactionStoreManager(String fullFileName, SessionManager sessionManager) throws IOException {
-        initFile(fullFileName);
+        this.currFullFileName = fullFileName;
+        this.hisFullFileName = fullFileName + HIS_DATA_FILENAME_POSTFIX;
+        this.snapshotFullFileName = fullFileName + SNAPSHOT_FILENAME_POSTFIX;
+        initFile();
         fileWriteExecutor = new ThreadPoolExecutor(MAX_THREAD_WRITE, MAX_THREAD_WRITE, Integer.MAX_VALUE,
             TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
             new NamedThreadFactory("fileTransactionStore", MAX_THREAD_WRITE, true));
+        snapshotExecutor = new ThreadPoolExecutor(1, 1, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("fileTransactionSnapshot", 1, true));
         writeDataFileRunnable = new WriteDataFileRunnable();
         fileWriteExecutor.submit(writeDataFileRunnable);
-        this.sessionManager = sessionManager;
     }
 
-    private void initFile(String fullFileName) throws IOException {
-        this.currFullFileName = fullFileName;
-        this.hisFullFileName = fullFileName + HIS_DATA_FILENAME_POSTFIX;
-        try {
-            currDataFile = new File(currFullFileName);
-            if (!currDataFile.exists()) {
-                // create parent dir first
-                if (currDataFile.getParentFile() != null && !currDataFile.getParentFile().exists()) {
-                    currDataFile.getParentFile().mkdirs();
-                }
-                currDataFile.createNewFile();
-                trxStartTimeMills = System.currentTimeMillis();
-            } else {
-                trxStartTimeMills = currDataFile.lastModified();
+    private void initFile() throws IOException {
+        File snapshotFile = new File(snapshotFullFileName);
+        long startSegmentId = 1;
+        if (snapshotFile.exists()) {
+            startSegmentId = readSnapshotStartSegmentId(snapshotFile);
+            historyReaders.add(new LogFileReader(snapshotFile, SNAPSHOT_HEADER_SIZE, true));
+            purge(startSegmentId);
+        } else {
+            historyReaders.add(new LogFileReader(new File(hisFullFileName), 0, false));
+            historyReaders.add(new LogFileReader(new File(currFullFileName), 0, false));
+        }
+        long lastSegmentId = startSegmentId;
+        for (long segmentId : LogSegment.listSegmentIds(currFullFileName)) {
+            if (segmentId >= startSegmentId) {
+                currReaders.add(new LogFileReader(LogSegment.segmentFile(currFullFileName, segmentId), 0, true));
+                lastSegmentId = segmentId;
             }
-            lastModifiedTime = System.currentTimeMillis();
-            currRaf = new RandomAccessFile(currDataFile, "rw");
-            currRaf.seek(currDataFile.length());
-            currFileChannel = currRaf.getChannel();
+        }
+        if (currReaders.isEmpty()) {
+            currReaders.add(new LogFileReader(LogSegment.segmentFile(currFullFileName, lastSegmentId), 0, true));
+        }
+        recovering = historyReaders.stream().anyMatch(reader -> reader.getFile().length() > 0)
+            || currReaders.stream().anyMatch(reader -> reader.getFile().exists());
+        lastModifiedTime = System.currentTimeMillis();
+        try {
+            currSegment = LogSegment.open(currFullFileName, lastSegmentId, SEGMENT_SIZE);
         } catch (IOException exx) {
             LOGGER.error("init file error,{}", exx.getMessage(), exx);
             throw exx;
@@ -171,140 +205,126 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
-        long curFileTrxNum;
-        writeSessionLock.lock();
+        WriteFrameRequest request;
         try {
-            if (!writeDataFile(new TransactionWriteStore(session, logOperation).encode())) {
-                return false;
-            }
-            lastModifiedTime = System.currentTimeMillis();
-            curFileTrxNum = FILE_TRX_NUM.incrementAndGet();
-            if (curFileTrxNum % PER_FILE_BLOCK_SIZE == 0
-                && (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
-                return saveHistory();
-            }
+            request = encodeFrame(logOperation, session);
         } catch (Exception exx) {
             LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
             return false;
-        } finally {
-            writeSessionLock.unlock();
         }
-        flushDisk(curFileTrxNum, currFileChannel);
-        return true;
+        writeDataFileRunnable.putRequest(request);
+        return request.waitForWrite(MAX_WAIT_FOR_WRITE_TIME_MILLS);
     }
 
-    private void flushDisk(long curFileNum, FileChannel currFileChannel) {
-
-        if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
-            SyncFlushRequest syncFlushRequest = new SyncFlushRequest(curFileNum, currFileChannel);
-            writeDataFileRunnable.putRequest(syncFlushRequest);
-            syncFlushRequest.waitForFlush(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
-        } else {
-            writeDataFileRunnable.putRequest(new AsyncFlushRequest(curFileNum, currFileChannel));
+    /**
+     * The frames are all queued before waiting, so the writer commits them in the same group and forces them once.
+     */
+    @Override
+    public boolean writeSessions(LogOperation logOperation, List<? extends SessionStorable> sessions) {
+        List<WriteFrameRequest> requests = new ArrayList<>(sessions.size());
+        try {
+            for (SessionStorable session : sessions) {
+                requests.add(encodeFrame(logOperation, session));
+            }
+        } catch (Exception exx) {
+            LOGGER.error("writeSessions error, {}", exx.getMessage(), exx);
+            return false;
         }
+        for (WriteFrameRequest request : requests) {
+            writeDataFileRunnable.putRequest(request);
+        }
+        long deadline = System.currentTimeMillis() + MAX_WAIT_FOR_WRITE_TIME_MILLS;
+        boolean success = true;
+        for (WriteFrameRequest request : requests) {
+            success &= request.waitForWrite(Math.max(0, deadline - System.currentTimeMillis()));
+        }
+        return success;
     }
 
     /**
-     * get all overTimeSessionStorables
-     * merge write file
-     *
-     * @throws IOException
+     * Encode the frame and its checksum on the caller thread, so the writer thread only copies the bytes.
      */
-    private boolean saveHistory() throws IOException {
-        boolean result;
+    private WriteFrameRequest encodeFrame(LogOperation logOperation, SessionStorable session) {
+        TransactionWriteStore writeStore = new TransactionWriteStore(session, logOperation);
+        ByteBuffer frameBuffer = FRAME_BUFFER_THREAD_LOCAL.get();
+        frameBuffer.clear();
+        byte[] frame;
         try {
-            result = findTimeoutAndSave();
-            CloseFileRequest request = new CloseFileRequest(currFileChannel, currRaf);
-            writeDataFileRunnable.putRequest(request);
-            request.waitForClose(MAX_WAIT_FOR_CLOSE_TIME_MILLS);
-            Files.move(currDataFile.toPath(), new File(hisFullFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException exx) {
-            LOGGER.error("save history data file error, {}", exx.getMessage(), exx);
-            result = false;
-        } finally {
-            initFile(currFullFileName);
-        }
-        return result;
+            writeStore.encode(frameBuffer);
+            frame = Arrays.copyOf(frameBuffer.array(), frameBuffer.position());
+        } catch (BufferOverflowException e) {
+            frame = writeStore.encode();
+        }
+        CRC32 crc32 = CRC32_THREAD_LOCAL.get();
+        crc32.reset();
+        crc32.update(frame, 0, frame.length);
+        return new WriteFrameRequest(logOperation, session, frame, (int)crc32.getValue());
     }
 
-    private boolean writeDataFrame(byte[] data) {
-        if (data == null || data.length <= 0) {
-            return true;
-        }
-        int dataLength = data.length;
-        int bufferRemainingSize = writeBuffer.remaining();
-        if (bufferRemainingSize <= INT_BYTE_SIZE) {
-            if (!flushWriteBuffer(writeBuffer)) {
-                return false;
-            }
+    private static long transactionIdOf(SessionStorable session) {
+        if (session instanceof GlobalSession) {
+            return ((GlobalSession)session).getTransactionId();
         }
-        bufferRemainingSize = writeBuffer.remaining();
-        if (bufferRemainingSize <= INT_BYTE_SIZE) {
-            throw new IllegalStateException(
-                String.format("Write buffer remaining size %d was too small", bufferRemainingSize));
-        }
-        writeBuffer.putInt(dataLength);
-        bufferRemainingSize = writeBuffer.remaining();
-        int dataPos = 0;
-        while (dataPos < dataLength) {
-            int dataLengthToWrite = dataLength - dataPos;
-            dataLengthToWrite = Math.min(dataLengthToWrite, bufferRemainingSize);
-            writeBuffer.put(data, dataPos, dataLengthToWrite);
-            bufferRemainingSize = writeBuffer.remaining();
-            if (bufferRemainingSize == 0) {
-                if (!flushWriteBuffer(writeBuffer)) {
-                    return false;
-                }
-                bufferRemainingSize = writeBuffer.remaining();
+        return session instanceof BranchSession ? ((BranchSession)session).getTransactionId() : 0L;
+    }
+
+    private static long branchIdOf(SessionStorable session) {
+        return session instanceof BranchSession ? ((BranchSession)session).getBranchId() : 0L;
+    }
+
+    private static long readSnapshotStartSegmentId(File snapshotFile) throws IOException {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(snapshotFile))) {
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("invalid snapshot file: " + snapshotFile.getAbsolutePath());
             }
-            dataPos += dataLengthToWrite;
+            return input.readLong();
         }
-        return true;
     }
 
-    private boolean flushWriteBuffer(ByteBuffer writeBuffer) {
-        writeBuffer.flip();
-        if (!writeDataFileByBuffer(writeBuffer)) {
-            return false;
+    /**
+     * Write the frames of the live sessions to a snapshot, the recovery replays the segments from the start
+     * segment after it. The snapshot is written to a temporary file and moved in place once it is on the disk.
+     */
+    private void writeSnapshot(List<byte[]> frames, long startSegmentId) throws IOException {
+        File tmpFile = new File(snapshotFullFileName + TMP_FILENAME_POSTFIX);
+        CRC32 crc32 = new CRC32();
+        try (FileOutputStream fileOutput = new FileOutputStream(tmpFile);
+             DataOutputStream output = new DataOutputStream(
+                 new BufferedOutputStream(fileOutput, SNAPSHOT_WRITE_BUFFER_SIZE))) {
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeLong(startSegmentId);
+            for (byte[] frame : frames) {
+                crc32.reset();
+                crc32.update(frame, 0, frame.length);
+                output.writeInt(frame.length);
+                output.writeInt((int)crc32.getValue());
+                output.write(frame);
+            }
+            output.flush();
+            fileOutput.getChannel().force(true);
         }
-        writeBuffer.clear();
-        return true;
+        Files.move(tmpFile.toPath(), new File(snapshotFullFileName).toPath(), StandardCopyOption.ATOMIC_MOVE);
     }
 
-    private boolean findTimeoutAndSave() throws IOException {
-        List<GlobalSession> globalSessionsOverMaxTimeout = sessionManager.findGlobalSessions(
-            new SessionCondition(MAX_TRX_TIMEOUT_MILLS));
-        if (CollectionUtils.isEmpty(globalSessionsOverMaxTimeout)) {
-            return true;
-        }
-        for (GlobalSession globalSession : globalSessionsOverMaxTimeout) {
-            TransactionWriteStore globalWriteStore = new TransactionWriteStore(globalSession, LogOperation.GLOBAL_ADD);
-            byte[] data = globalWriteStore.encode();
-            if (!writeDataFrame(data)) {
-                return false;
-            }
-            List<BranchSession> branchSessIonsOverMaXTimeout = globalSession.getSortedBranches();
-            if (branchSessIonsOverMaXTimeout != null) {
-                for (BranchSession branchSession : branchSessIonsOverMaXTimeout) {
-                    try {
-                        MDC.put(MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
-                        TransactionWriteStore branchWriteStore = new TransactionWriteStore(branchSession,
-                            LogOperation.BRANCH_ADD);
-                        data = branchWriteStore.encode();
-                        if (!writeDataFrame(data)) {
-                            return false;
-                        }
-                    } finally {
-                        MDC.remove(MDC_KEY_BRANCH_ID);
-                    }
-                }
+    /**
+     * Delete the segments before the start segment of the snapshot, and the data files of the former log.
+     */
+    private void purge(long startSegmentId) {
+        for (long segmentId : LogSegment.listSegmentIds(currFullFileName)) {
+            if (segmentId < startSegmentId) {
+                deleteFile(LogSegment.segmentFile(currFullFileName, segmentId));
             }
         }
-        if (flushWriteBuffer(writeBuffer)) {
-            currFileChannel.force(false);
-            return true;
+        deleteFile(new File(hisFullFileName));
+        deleteFile(new File(currFullFileName));
+    }
+
+    private void deleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException exx) {
+            LOGGER.error("delete file error, {}", exx.getMessage(), exx);
         }
-        return false;
     }
 
     @Override
@@ -322,6 +342,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         if (fileWriteExecutor != null) {
             fileWriteExecutor.shutdown();
             stopping = true;
+            writeDataFileRunnable.wakeup();
             int retry = 0;
             while (!fileWriteExecutor.isTerminated() && retry < MAX_SHUTDOWN_RETRY) {
                 ++retry;
@@ -334,250 +355,186 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                 fileWriteExecutor.shutdownNow();
             }
         }
-        try {
-            currFileChannel.force(true);
-        } catch (IOException e) {
-            LOGGER.error("fileChannel force error{}", e.getMessage(), e);
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            try {
+                snapshotExecutor.awaitTermination(MAX_WAIT_FOR_WRITE_TIME_MILLS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ignore) {
+            }
         }
-        closeFile(currRaf);
-    }
-
-    @Override
-    public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
-        File file = null;
-        long currentOffset = 0;
-        if (isHistory) {
-            file = new File(hisFullFileName);
-            currentOffset = recoverHisOffset;
+        if (fileWriteExecutor == null || fileWriteExecutor.isTerminated()) {
+            currSegment.close();
         } else {
-            file = new File(currFullFileName);
-            currentOffset = recoverCurrOffset;
+            // the writer thread may still append to the segment, so it is left mapped
+            currSegment.force();
         }
-        if (file.exists()) {
-            return parseDataFile(file, readSize, currentOffset, isHistory);
-        }
-        return null;
+        historyReaders.forEach(LogFileReader::close);
+        currReaders.forEach(LogFileReader::close);
     }
 
+    /**
+     * Read the snapshot, or the data files of the former log, as the history, then the segments after it.
+     */
     @Override
-    public boolean hasRemaining(boolean isHistory) {
-        File file;
-        RandomAccessFile raf = null;
-        long currentOffset;
-        if (isHistory) {
-            file = new File(hisFullFileName);
-            currentOffset = recoverHisOffset;
-        } else {
-            file = new File(currFullFileName);
-            currentOffset = recoverCurrOffset;
-        }
-        try {
-            raf = new RandomAccessFile(file, "r");
-            return currentOffset < raf.length();
-
-        } catch (IOException ignore) {
-        } finally {
-            closeFile(raf);
-        }
-        return false;
-    }
-
-    private List<TransactionWriteStore> parseDataFile(File file, int readSize, long currentOffset, boolean isHistory) {
+    public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+        Deque<LogFileReader> readers = isHistory ? historyReaders : currReaders;
         List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(readSize);
-        RandomAccessFile raf = null;
-        FileChannel fileChannel = null;
-        try {
-            raf = new RandomAccessFile(file, "r");
-            raf.seek(currentOffset);
-            fileChannel = raf.getChannel();
-            fileChannel.position(currentOffset);
-            long size = raf.length();
-            ByteBuffer buffSize = ByteBuffer.allocate(MARK_SIZE);
-            while (fileChannel.position() < size) {
-                try {
-                    buffSize.clear();
-                    int avilReadSize = fileChannel.read(buffSize);
-                    if (avilReadSize != MARK_SIZE) {
-                        break;
-                    }
-                    buffSize.flip();
-                    int bodySize = buffSize.getInt();
-                    byte[] byBody = new byte[bodySize];
-                    ByteBuffer buffBody = ByteBuffer.wrap(byBody);
-                    avilReadSize = fileChannel.read(buffBody);
-                    if (avilReadSize != bodySize) {
-                        break;
-                    }
-                    TransactionWriteStore writeStore = new TransactionWriteStore();
-                    writeStore.decode(byBody);
-                    transactionWriteStores.add(writeStore);
-                    if (transactionWriteStores.size() == readSize) {
-                        break;
-                    }
-                } catch (Exception ex) {
-                    LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
-                    break;
-                }
-            }
-            return transactionWriteStores;
-        } catch (IOException exx) {
-            LOGGER.error("parse data file error:{},file:{}", exx.getMessage(), file.getName(), exx);
-            return null;
-        } finally {
+        while (transactionWriteStores.size() < readSize && !readers.isEmpty()) {
+            LogFileReader reader = readers.peekFirst();
             try {
-                if (fileChannel != null) {
-                    if (isHistory) {
-                        recoverHisOffset = fileChannel.position();
-                    } else {
-                        recoverCurrOffset = fileChannel.position();
-                    }
+                byte[] body = reader.next();
+                if (body == null) {
+                    readers.pollFirst();
+                    continue;
                 }
-                closeFile(raf);
-            } catch (IOException exx) {
-                LOGGER.error("file close error{}", exx.getMessage(), exx);
+                TransactionWriteStore writeStore = new TransactionWriteStore();
+                writeStore.decode(body);
+                transactionWriteStores.add(writeStore);
+                if (recovering) {
+                    SessionStorable session = writeStore.getSessionRequest();
+                    liveSessionFrames.apply(writeStore.getOperate(), transactionIdOf(session), branchIdOf(session),
+                        body);
+                }
+            } catch (Exception ex) {
+                LOGGER.error("decode data file error:{},file:{}", ex.getMessage(), reader.getFile().getName(), ex);
+                reader.close();
+                readers.pollFirst();
             }
         }
+        if (historyReaders.isEmpty() && currReaders.isEmpty()) {
+            recovering = false;
+        }
+        return transactionWriteStores;
     }
 
-    private void closeFile(RandomAccessFile raf) {
-        try {
-            if (raf != null) {
-                raf.close();
-                raf = null;
-            }
-        } catch (IOException exx) {
-            LOGGER.error("file close error,{}", exx.getMessage(), exx);
-        }
+    @Override
+    public boolean hasRemaining(boolean isHistory) {
+        return !(isHistory ? historyReaders : currReaders).isEmpty();
     }
 
-    private boolean writeDataFile(byte[] bs) {
-        if (bs == null || bs.length >= Integer.MAX_VALUE - 3) {
+    private boolean forceDataFile() {
+        try {
+            currSegment.force();
+        } catch (Exception exx) {
+            LOGGER.error("flush error: {}", exx.getMessage(), exx);
             return false;
         }
-        if (!writeDataFrame(bs)) {
-            return false;
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getSummary(MeterIdConstants.SUMMARY_FILE_FSYNC).increase(1);
         }
-        return flushWriteBuffer(writeBuffer);
-    }
-
-    private boolean writeDataFileByBuffer(ByteBuffer byteBuffer) {
-        for (int retry = 0; retry < MAX_WRITE_RETRY; retry++) {
-            try {
-                while (byteBuffer.hasRemaining()) {
-                    currFileChannel.write(byteBuffer);
-                }
-                return true;
-            } catch (Exception exx) {
-                LOGGER.error("write data file error:{}", exx.getMessage(), exx);
-            }
-        }
-        LOGGER.error("write dataFile failed,retry more than :{}", MAX_WRITE_RETRY);
-        return false;
-    }
-
-    interface StoreRequest {
-
+        return true;
     }
 
-    abstract static class AbstractFlushRequest implements StoreRequest {
-        private final long curFileTrxNum;
-
-        private final FileChannel curFileChannel;
+    /**
+     * The encoded frame of a session, the caller waits until the batch of the frame is written, and forced to
+     * the disk in sync mode.
+     */
+    static class WriteFrameRequest {
+        private final CountDownLatch countDownLatch = new CountDownLatch(1);
 
-        protected AbstractFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            this.curFileTrxNum = curFileTrxNum;
-            this.curFileChannel = curFileChannel;
-        }
+        private final LogOperation logOperation;
 
-        public long getCurFileTrxNum() {
-            return curFileTrxNum;
-        }
+        private final long transactionId;
 
-        public FileChannel getCurFileChannel() {
-            return curFileChannel;
-        }
-    }
+        private final long branchId;
 
-    class SyncFlushRequest extends AbstractFlushRequest {
+        private final byte[] frame;
 
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
+        private final int crc;
 
-        public SyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            super(curFileTrxNum, curFileChannel);
-        }
+        private volatile boolean success;
 
-        public void wakeup() {
-            this.countDownLatch.countDown();
+        public WriteFrameRequest(LogOperation logOperation, SessionStorable session, byte[] frame, int crc) {
+            this.logOperation = logOperation;
+            this.transactionId = transactionIdOf(session);
+            this.branchId = branchIdOf(session);
+            this.frame = frame;
+            this.crc = crc;
         }
 
-        public void waitForFlush(long timeout) {
-            try {
-                this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                LOGGER.error("Interrupted", e);
-            }
+        public LogOperation getLogOperation() {
+            return logOperation;
         }
-    }
 
-    class AsyncFlushRequest extends AbstractFlushRequest {
-
-        public AsyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            super(curFileTrxNum, curFileChannel);
+        public long getTransactionId() {
+            return transactionId;
         }
 
-    }
-
-    static class CloseFileRequest implements StoreRequest {
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
-        private FileChannel fileChannel;
-
-        private RandomAccessFile file;
-
-        public CloseFileRequest(FileChannel fileChannel, RandomAccessFile file) {
-            this.fileChannel = fileChannel;
-            this.file = file;
+        public long getBranchId() {
+            return branchId;
         }
 
-        public FileChannel getFileChannel() {
-            return fileChannel;
+        public byte[] getFrame() {
+            return frame;
         }
 
-        public RandomAccessFile getFile() {
-            return file;
+        public int getCrc() {
+            return crc;
         }
 
-        public void wakeup() {
+        public void wakeup(boolean success) {
+            this.success = success;
             this.countDownLatch.countDown();
         }
 
-        public void waitForClose(long timeout) {
+        public boolean waitForWrite(long timeout) {
             try {
-                this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
+                if (!this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS)) {
+                    LOGGER.error("wait for write data file timeout, {}ms", timeout);
+                    return false;
+                }
             } catch (InterruptedException e) {
                 LOGGER.error("Interrupted", e);
+                Thread.currentThread().interrupt();
+                return false;
             }
+            return success;
         }
     }
 
     /**
      * The type Write data file runnable.
+     * <p>
+     * The writers put their frames into a lock-free queue and the single writer thread commits them in batches:
+     * the frames of a batch are copied into the mapped segment together, then forced to the disk once in sync
+     * mode, and all the writers of the batch are woken up together. The batch grows while the previous
+     * one is being forced, so the fsync latency is shared by the whole batch instead of paid by every write.
      */
     class WriteDataFileRunnable implements Runnable {
 
-        private LinkedBlockingQueue<StoreRequest> storeRequests = new LinkedBlockingQueue<>();
+        private final Queue<WriteFrameRequest> frameRequests = new ConcurrentLinkedQueue<>();
 
-        public void putRequest(final StoreRequest request) {
-            storeRequests.add(request);
+        private final List<WriteFrameRequest> batch = new ArrayList<>(GROUP_COMMIT_MAX_BATCH_SIZE);
+
+        private volatile Thread writerThread;
+
+        private volatile boolean waiting;
+
+        public void putRequest(final WriteFrameRequest request) {
+            frameRequests.offer(request);
+            wakeup();
+        }
+
+        public void wakeup() {
+            if (waiting) {
+                LockSupport.unpark(writerThread);
+            }
         }
 
         @Override
         public void run() {
+            writerThread = Thread.currentThread();
             while (!stopping) {
                 try {
-                    StoreRequest storeRequest = storeRequests.poll(MAX_WAIT_TIME_MILLS, TimeUnit.MILLISECONDS);
-                    handleStoreRequest(storeRequest);
+                    if (pollBatch(MAX_WAIT_TIME_MILLS)) {
+                        commitBatch();
+                    } else {
+                        flushOnCondition();
+                    }
                 } catch (Exception exx) {
                     LOGGER.error("write file error: {}", exx.getMessage(), exx);
+                    completeBatch(false);
                 }
             }
             handleRestRequest();
@@ -587,66 +544,160 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
          * handle the rest requests when stopping is true
          */
         private void handleRestRequest() {
-            int remainNums = storeRequests.size();
-            for (int i = 0; i < remainNums; i++) {
-                handleStoreRequest(storeRequests.poll());
+            while (pollBatch(0)) {
+                try {
+                    commitBatch();
+                } catch (Exception exx) {
+                    LOGGER.error("write file error: {}", exx.getMessage(), exx);
+                    completeBatch(false);
+                }
             }
         }
 
-        private void handleStoreRequest(StoreRequest storeRequest) {
-            if (storeRequest == null) {
-                flushOnCondition(currFileChannel);
+        /**
+         * Poll the frames of the next batch, wait at most the idle time for the first frame, and at most the max
+         * wait of the group commit for the rest of the batch.
+         */
+        private boolean pollBatch(long idleTimeMills) {
+            WriteFrameRequest request = frameRequests.poll();
+            if (request == null) {
+                if (idleTimeMills <= 0) {
+                    return false;
+                }
+                park(TimeUnit.MILLISECONDS.toNanos(idleTimeMills));
+                request = frameRequests.poll();
+                if (request == null) {
+                    return false;
+                }
+            }
+            batch.add(request);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GROUP_COMMIT_MAX_WAIT_MILLS);
+            while (batch.size() < GROUP_COMMIT_MAX_BATCH_SIZE) {
+                request = frameRequests.poll();
+                if (request != null) {
+                    batch.add(request);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || stopping) {
+                    break;
+                }
+                park(remaining);
+            }
+            return true;
+        }
+
+        private void park(long nanos) {
+            waiting = true;
+            try {
+                if (frameRequests.isEmpty()) {
+                    LockSupport.parkNanos(this, nanos);
+                }
+            } finally {
+                waiting = false;
+            }
+        }
+
+        private void commitBatch() {
+            boolean[] appended = new boolean[batch.size()];
+            int appendedNum = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                WriteFrameRequest request = batch.get(i);
+                appended[i] = appendFrame(request);
+                if (appended[i]) {
+                    appendedNum++;
+                    liveSessionFrames.apply(request.getLogOperation(), request.getTransactionId(),
+                        request.getBranchId(), request.getFrame());
+                }
             }
-            if (storeRequest instanceof SyncFlushRequest) {
-                syncFlush((SyncFlushRequest)storeRequest);
-            } else if (storeRequest instanceof AsyncFlushRequest) {
-                async((AsyncFlushRequest)storeRequest);
-            } else if (storeRequest instanceof CloseFileRequest) {
-                closeAndFlush((CloseFileRequest)storeRequest);
+            lastModifiedTime = System.currentTimeMillis();
+            long curFileTrxNum = FILE_TRX_NUM.addAndGet(appendedNum);
+            boolean forced = true;
+            if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                forced = forceDataFile();
+                if (forced) {
+                    FILE_FLUSH_NUM.set(curFileTrxNum);
+                }
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).wakeup(appended[i] && forced);
             }
+            batch.clear();
+            flushOnCondition();
         }
 
-        private void closeAndFlush(CloseFileRequest req) {
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-            flush(req.getFileChannel());
-            FILE_FLUSH_NUM.addAndGet(diff);
-            closeFile(req.getFile());
-            req.wakeup();
+        private boolean appendFrame(WriteFrameRequest request) {
+            byte[] frame = request.getFrame();
+            if (currSegment.append(frame, request.getCrc())) {
+                return true;
+            }
+            if (LogSegment.FRAME_HEADER_SIZE + frame.length > SEGMENT_SIZE) {
+                LOGGER.error("the frame size {} is larger than the segment size {}", frame.length, SEGMENT_SIZE);
+                return false;
+            }
+            try {
+                rollSegment();
+            } catch (IOException exx) {
+                LOGGER.error("roll segment error, {}", exx.getMessage(), exx);
+                return false;
+            }
+            return currSegment.append(frame, request.getCrc());
         }
 
-        private void async(AsyncFlushRequest req) {
-            flushOnCondition(req.getCurFileChannel());
+        /**
+         * Seal the full segment and continue with the next one, then take a snapshot of the live sessions so far.
+         */
+        private void rollSegment() throws IOException {
+            LogSegment sealedSegment = currSegment;
+            sealedSegment.force();
+            currSegment = LogSegment.open(currFullFileName, sealedSegment.getId() + 1, SEGMENT_SIZE);
+            sealedSegment.close();
+            FILE_FLUSH_NUM.set(FILE_TRX_NUM.get());
+            long startSegmentId = currSegment.getId();
+            if (recovering || !snapshotting.compareAndSet(false, true)) {
+                return;
+            }
+            List<byte[]> frames = liveSessionFrames.frames();
+            try {
+                snapshotExecutor.execute(() -> {
+                    try {
+                        long start = System.currentTimeMillis();
+                        writeSnapshot(frames, startSegmentId);
+                        purge(startSegmentId);
+                        if (LOGGER.isInfoEnabled()) {
+                            LOGGER.info("snapshot of {} frames before segment {} taken in {}ms", frames.size(),
+                                startSegmentId, System.currentTimeMillis() - start);
+                        }
+                    } catch (Exception exx) {
+                        LOGGER.error("write snapshot error, {}", exx.getMessage(), exx);
+                    } finally {
+                        snapshotting.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException exx) {
+                snapshotting.set(false);
+            }
         }
 
-        private void syncFlush(SyncFlushRequest req) {
-            if (req.getCurFileTrxNum() > FILE_FLUSH_NUM.get()) {
-                long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-                flush(req.getCurFileChannel());
-                FILE_FLUSH_NUM.addAndGet(diff);
+        private void completeBatch(boolean success) {
+            for (WriteFrameRequest request : batch) {
+                request.wakeup(success);
             }
-            // notify
-            req.wakeup();
+            batch.clear();
         }
 
-        private void flushOnCondition(FileChannel fileChannel) {
+        private void flushOnCondition() {
             if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
                 return;
             }
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+            long curFileTrxNum = FILE_TRX_NUM.get();
+            long diff = curFileTrxNum - FILE_FLUSH_NUM.get();
             if (diff == 0) {
                 return;
             }
-            if (diff % MAX_FLUSH_NUM == 0 || System.currentTimeMillis() - lastModifiedTime > MAX_FLUSH_TIME_MILLS) {
-                flush(fileChannel);
-                FILE_FLUSH_NUM.addAndGet(diff);
-            }
-        }
-
-        private void flush(FileChannel fileChannel) {
-            try {
-                fileChannel.force(false);
-            } catch (IOException exx) {
-                LOGGER.error("flush error: {}", exx.getMessage(), exx);
+            if (diff >= MAX_FLUSH_NUM || System.currentTimeMillis() - lastModifiedTime > MAX_FLUSH_TIME_MILLS) {
+                forceDataFile();
+                FILE_FLUSH_NUM.set(curFileTrxNum);
             }
         }
     }
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+
+/**
+ * The latest frame of every live global and branch session, folded from the log in the order it is written.
+ * <p>
+ * The frames are the compacted form of the log: replaying them restores the same sessions as replaying the whole
+ * log, so they are what a snapshot is made of. It is only touched by the thread writing the log, or by the thread
+ * recovering it before anything is written.
+ */
+final class LiveSessionFrames {
+
+    private final Map<Long, SessionFrames> sessions = new LinkedHashMap<>();
+
+    /**
+     * Apply the frame.
+     *
+     * @param logOperation  the log operation
+     * @param transactionId the transaction id
+     * @param branchId      the branch id, ignored for the global operations
+     * @param frame         the body of the frame
+     */
+    void apply(LogOperation logOperation, long transactionId, long branchId, byte[] frame) {
+        switch (logOperation) {
+            case GLOBAL_ADD:
+            case GLOBAL_UPDATE:
+                sessions.computeIfAbsent(transactionId, k -> new SessionFrames()).globalFrame = frame;
+                break;
+            case GLOBAL_REMOVE:
+                sessions.remove(transactionId);
+                break;
+            case BRANCH_ADD:
+            case BRANCH_UPDATE:
+                sessions.computeIfAbsent(transactionId, k -> new SessionFrames()).branchFrames.put(branchId, frame);
+                break;
+            case BRANCH_REMOVE:
+                SessionFrames sessionFrames = sessions.get(transactionId);
+                if (sessionFrames != null) {
+                    sessionFrames.branchFrames.remove(branchId);
+                    if (sessionFrames.globalFrame == null && sessionFrames.branchFrames.isEmpty()) {
+                        sessions.remove(transactionId);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Gets the frames to replay, the global frame of a session comes before its branch frames.
+     *
+     * @return the frames
+     */
+    List<byte[]> frames() {
+        List<byte[]> frames = new ArrayList<>(sessions.size() * 2);
+        for (SessionFrames sessionFrames : sessions.values()) {
+            if (sessionFrames.globalFrame != null) {
+                frames.add(sessionFrames.globalFrame);
+            }
+            frames.addAll(sessionFrames.branchFrames.values());
+        }
+        return frames;
+    }
+
+    /**
+     * Gets the number of the live global sessions.
+     *
+     * @return the size
+     */
+    int size() {
+        return sessions.size();
+    }
+
+    private static final class SessionFrames {
+
+        private byte[] globalFrame;
+
+        private final Map<Long, byte[]> branchFrames = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read the frames of a log file one by one, the reader stops at the end of the file, a zero length, a torn frame
+ * or a frame failing its checksum.
+ */
+final class LogFileReader implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogFileReader.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+
+    private final long startOffset;
+
+    private final boolean checksum;
+
+    private final CRC32 crc32 = new CRC32();
+
+    private DataInputStream input;
+
+    private long position;
+
+    private long fileLength;
+
+    private boolean finished;
+
+    /**
+     * Instantiates a new Log file reader.
+     *
+     * @param file        the file
+     * @param startOffset the offset of the first frame
+     * @param checksum    whether the frames carry a crc32, the legacy data files do not
+     */
+    LogFileReader(File file, long startOffset, boolean checksum) {
+        this.file = file;
+        this.startOffset = startOffset;
+        this.position = startOffset;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Read the body of the next frame.
+     *
+     * @return the body, null if no more frame
+     * @throws IOException the io exception
+     */
+    byte[] next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (input == null) {
+            if (!file.exists()) {
+                finished = true;
+                return null;
+            }
+            fileLength = file.length();
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE));
+            long skipped = 0;
+            while (skipped < startOffset) {
+                long n = input.skip(startOffset - skipped);
+                if (n <= 0) {
+                    return finish();
+                }
+                skipped += n;
+            }
+        }
+        int headerSize = checksum ? LogSegment.FRAME_HEADER_SIZE : Integer.BYTES;
+        if (fileLength - position < headerSize) {
+            return finish();
+        }
+        try {
+            int length = input.readInt();
+            if (length <= 0) {
+                return finish();
+            }
+            if (length > fileLength - position - headerSize) {
+                LOGGER.warn("torn frame at {} of {}, the rest of the file is ignored", position, file.getName());
+                return finish();
+            }
+            int crc = checksum ? input.readInt() : 0;
+            byte[] body = new byte[length];
+            input.readFully(body);
+            if (checksum) {
+                crc32.reset();
+                crc32.update(body, 0, length);
+                if ((int)crc32.getValue() != crc) {
+                    LOGGER.warn("checksum mismatch at {} of {}, the rest of the file is ignored", position,
+                        file.getName());
+                    return finish();
+                }
+            }
+            position += headerSize + length;
+            return body;
+        } catch (EOFException e) {
+            LOGGER.warn("torn frame at {} of {}, the rest of the file is ignored", position, file.getName());
+            return finish();
+        }
+    }
+
+    private byte[] finish() {
+        finished = true;
+        close();
+        return null;
+    }
+
+    /**
+     * Gets the position after the last frame read.
+     *
+     * @return the position
+     */
+    long getPosition() {
+        return position;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        if (input != null) {
+            try {
+                input.close();
+            } catch (IOException e) {
+                LOGGER.error("file close error, {}", e.getMessage(), e);
+            }
+            input = null;
+        }
+    }
+}
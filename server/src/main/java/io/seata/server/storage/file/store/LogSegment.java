@@ -0,0 +1,196 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.netty.util.internal.PlatformDependent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A segment of the transaction log, a file of fixed size mapped into memory.
+ * <p>
+ * The frames are appended as {@code [length][crc32][body]}, the rest of the file stays zero, so a zero length
+ * marks the end of the segment. A frame torn by a crash fails its checksum and ends the segment as well.
+ */
+final class LogSegment {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogSegment.class);
+
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final String SEGMENT_INFIX = ".segment.";
+
+    private final long id;
+
+    private final File file;
+
+    private final RandomAccessFile raf;
+
+    private final MappedByteBuffer buffer;
+
+    private boolean closed;
+
+    private LogSegment(long id, File file, RandomAccessFile raf, MappedByteBuffer buffer) {
+        this.id = id;
+        this.file = file;
+        this.raf = raf;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open the segment, the frames are appended after the last valid frame.
+     *
+     * @param fullFileName the full file name of the log
+     * @param id           the segment id
+     * @param segmentSize  the size of a new segment
+     * @return the segment
+     * @throws IOException the io exception
+     */
+    static LogSegment open(String fullFileName, long id, int segmentSize) throws IOException {
+        File file = segmentFile(fullFileName, id);
+        long appendPosition = 0;
+        if (file.exists()) {
+            try (LogFileReader reader = new LogFileReader(file, 0, true)) {
+                while (reader.next() != null) {
+                    appendPosition = reader.getPosition();
+                }
+            }
+        } else if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long size = Math.max(raf.length(), segmentSize);
+            if (raf.length() < size) {
+                raf.setLength(size);
+            }
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position((int)appendPosition);
+            if (buffer.remaining() >= FRAME_HEADER_SIZE) {
+                // cut off the torn frame, if any
+                buffer.putLong(buffer.position(), 0L);
+            }
+            return new LogSegment(id, file, raf, buffer);
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append the frame.
+     *
+     * @param body the body of the frame
+     * @param crc  the crc32 of the body
+     * @return false if the segment has no room for the frame
+     */
+    boolean append(byte[] body, int crc) {
+        if (buffer.remaining() < FRAME_HEADER_SIZE + body.length) {
+            return false;
+        }
+        buffer.putInt(body.length);
+        buffer.putInt(crc);
+        buffer.put(body);
+        return true;
+    }
+
+    /**
+     * Force the appended frames to the disk.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Force and close the segment, the mapping is released at once instead of when the buffer is collected.
+     * The segment must not be accessed afterwards.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        force();
+        try {
+            PlatformDependent.freeDirectBuffer(buffer);
+        } catch (Throwable t) {
+            LOGGER.warn("unmap segment error, {}", t.getMessage(), t);
+        }
+        try {
+            raf.close();
+        } catch (IOException e) {
+            LOGGER.error("close segment error, {}", e.getMessage(), e);
+        }
+    }
+
+    long getId() {
+        return id;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Gets the segment file.
+     *
+     * @param fullFileName the full file name of the log
+     * @param id           the segment id
+     * @return the segment file
+     */
+    static File segmentFile(String fullFileName, long id) {
+        return new File(fullFileName + SEGMENT_INFIX + String.format("%020d", id));
+    }
+
+    /**
+     * List the ids of the existing segments in ascending order.
+     *
+     * @param fullFileName the full file name of the log
+     * @return the segment ids
+     */
+    static List<Long> listSegmentIds(String fullFileName) {
+        File logFile = new File(fullFileName);
+        File dir = logFile.getAbsoluteFile().getParentFile();
+        List<Long> ids = new ArrayList<>();
+        String[] names = dir == null ? null : dir.list();
+        if (names == null) {
+            return ids;
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(logFile.getName() + SEGMENT_INFIX) + "(\\d{20})");
+        for (String name : names) {
+            Matcher matcher = pattern.matcher(name);
+            if (matcher.matches()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        ids.sort(Long::compare);
+        return ids;
+    }
+}
@@ -51,7 +51,11 @@ public class RedisLockManager extends AbstractLockManager implements Initialize
     @Override
     public boolean releaseLock(BranchSession branchSession) throws TransactionException {
         try {
-            return getLocker().releaseLock(branchSession.getXid(), branchSession.getBranchId());
+            boolean released = getLocker().releaseLock(branchSession.getXid(), branchSession.getBranchId());
+            if (released) {
+                onLockReleased(branchSession);
+            }
+            return released;
         } catch (Exception t) {
             LOGGER.error("unLock error, xid {}, branchId:{}", branchSession.getXid(), branchSession.getBranchId(), t);
             return false;
@@ -66,7 +70,11 @@ public class RedisLockManager extends AbstractLockManager implements Initialize
         }
         List<Long> branchIds = branchSessions.stream().map(BranchSession::getBranchId).collect(Collectors.toList());
         try {
-            return getLocker().releaseLock(globalSession.getXid(), branchIds);
+            boolean released = getLocker().releaseLock(globalSession.getXid(), branchIds);
+            if (released) {
+                branchSessions.forEach(this::onLockReleased);
+            }
+            return released;
         } catch (Exception t) {
             LOGGER.error("unLock globalSession error, xid:{} branchIds:{}", globalSession.getXid(),
                 CollectionUtils.toString(branchIds), t);
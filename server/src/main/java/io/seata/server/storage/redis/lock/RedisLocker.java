@@ -32,6 +32,7 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 import com.google.common.collect.Lists;
+import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.exception.StoreException;
 import io.seata.common.io.FileLoader;
 import io.seata.common.util.CollectionUtils;
@@ -50,6 +51,7 @@ import redis.clients.jedis.Pipeline;
 
 
 import static io.seata.common.Constants.ROW_LOCK_KEY_SPLIT_CHAR;
+import static io.seata.common.Constants.TABLE_LOCK_PK;
 import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflictFailFast;
 
 /**
@@ -137,6 +139,7 @@ public class RedisLocker extends AbstractLocker {
         if (CollectionUtils.isEmpty(rowLocks)) {
             return true;
         }
+        checkNoTableLock(rowLocks);
         try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
             if (ACQUIRE_LOCK_SHA != null && autoCommit) {
                 return acquireLockByLua(jedis, rowLocks);
@@ -342,6 +345,7 @@ public class RedisLocker extends AbstractLocker {
         if (CollectionUtils.isEmpty(rowLocks)) {
             return true;
         }
+        checkNoTableLock(rowLocks);
         try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
             List<LockDO> locks = convertToLockDO(rowLocks);
             Set<String> lockKeys = new HashSet<>();
@@ -372,6 +376,18 @@ public class RedisLocker extends AbstractLocker {
         }
     }
 
+    /**
+     * The rows are keyed one by one, a table lock could not be checked against them.
+     */
+    private static void checkNoTableLock(List<RowLock> rowLocks) {
+        for (RowLock rowLock : rowLocks) {
+            if (TABLE_LOCK_PK.equals(rowLock.getPk())) {
+                throw new NotSupportYetException("the table lock of " + rowLock.getTableName()
+                    + " is not supported by the redis lock store");
+            }
+        }
+    }
+
     private String buildXidLockKey(String xid) {
         return DEFAULT_REDIS_SEATA_GLOBAL_LOCK_PREFIX + xid;
     }
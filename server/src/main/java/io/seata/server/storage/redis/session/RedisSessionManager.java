@@ -163,20 +163,31 @@ public class RedisSessionManager extends AbstractSessionManager
 
     @Override
     public Collection<GlobalSession> allSessions() {
+        return findGlobalSessions(new SessionCondition(taskStatuses()));
+    }
+
+    @Override
+    public Collection<GlobalSession> allRetryDueSessions(long now) {
+        SessionCondition condition = new SessionCondition(taskStatuses());
+        condition.setRetryDueTime(now);
+        return findGlobalSessions(condition);
+    }
+
+    private GlobalStatus[] taskStatuses() {
         // get by taskName
         if (SessionHolder.ASYNC_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(GlobalStatus.AsyncCommitting));
+            return new GlobalStatus[] {GlobalStatus.AsyncCommitting};
         } else if (SessionHolder.RETRY_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing}));
+            return new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing};
         } else if (SessionHolder.RETRY_ROLLBACKING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
-                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying}));
+            return new GlobalStatus[] {GlobalStatus.RollbackRetrying,
+                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying};
         } else {
             // all data
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.UnKnown, GlobalStatus.Begin,
+            return new GlobalStatus[] {GlobalStatus.UnKnown, GlobalStatus.Begin,
                 GlobalStatus.Committing, GlobalStatus.CommitRetrying, GlobalStatus.Rollbacking,
                 GlobalStatus.RollbackRetrying, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying,
-                GlobalStatus.AsyncCommitting}));
+                GlobalStatus.AsyncCommitting};
         }
     }
 
@@ -52,6 +52,8 @@ import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_GMT_MOD
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_STATUS;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_XID;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_GLOBAL_GMT_MODIFIED;
+import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_GLOBAL_NEXT_RETRY_TIME;
+import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_GLOBAL_RETRY_COUNT;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_GLOBAL_STATUS;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_GLOBAL_XID;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_APPLICATION_DATA;
@@ -299,13 +301,18 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
                 throw new StoreException("Global transaction is not exist, update global transaction failed.");
             }
             if (previousStatus.equals(String.valueOf(globalTransactionDO.getStatus()))) {
-                jedis.unwatch();
+                // only the retry state may be changed, still watched so a removed global is not recreated
+                Transaction multi = jedis.multi();
+                multi.hmset(globalKey, buildRetryStateMap(globalTransactionDO, new HashMap<>(2)));
+                if (CollectionUtils.isEmpty(multi.exec())) {
+                    LOGGER.warn("The global transaction xid = {}, maybe changed by another TC. It does not affect the results", xid);
+                }
                 return true;
             }
 
             String previousGmtModified = statusAndGmtModified.get(1);
             Transaction multi = jedis.multi();
-            Map<String,String> map = new HashMap<>(2);
+            Map<String,String> map = buildRetryStateMap(globalTransactionDO, new HashMap<>(4));
             map.put(REDIS_KEY_GLOBAL_STATUS,String.valueOf(globalTransactionDO.getStatus()));
             map.put(REDIS_KEY_GLOBAL_GMT_MODIFIED,String.valueOf((new Date()).getTime()));
             multi.hmset(globalKey,map);
@@ -350,6 +357,16 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
         }
     }
 
+    private Map<String, String> buildRetryStateMap(GlobalTransactionDO globalTransactionDO, Map<String, String> map) {
+        if (globalTransactionDO.getRetryCount() != null) {
+            map.put(REDIS_KEY_GLOBAL_RETRY_COUNT, String.valueOf(globalTransactionDO.getRetryCount()));
+        }
+        if (globalTransactionDO.getNextRetryTime() != null) {
+            map.put(REDIS_KEY_GLOBAL_NEXT_RETRY_TIME, String.valueOf(globalTransactionDO.getNextRetryTime()));
+        }
+        return map;
+    }
+
     /**
      * Read session global session.
      *
@@ -359,6 +376,18 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
      */
     @Override
     public GlobalSession readSession(String xid, boolean withBranchSessions) {
+        return readSession(xid, withBranchSessions, null);
+    }
+
+    /**
+     * Read session global session, null if it is not due to retry at the retry due time.
+     *
+     * @param xid the xid
+     * @param withBranchSessions  the withBranchSessions
+     * @param retryDueTime the retry due time, null for any
+     * @return the global session
+     */
+    private GlobalSession readSession(String xid, boolean withBranchSessions, Long retryDueTime) {
         String transactionId = String.valueOf(XID.getTransactionId(xid));
         String globalKey = buildGlobalKeyByTransactionId(transactionId);
         try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
@@ -367,6 +396,10 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
                 return null;
             }
             GlobalTransactionDO globalTransactionDO = (GlobalTransactionDO)BeanUtils.mapToObject(map, GlobalTransactionDO.class);
+            if (retryDueTime != null && globalTransactionDO.getNextRetryTime() != null
+                && globalTransactionDO.getNextRetryTime() > retryDueTime) {
+                return null;
+            }
             List<BranchTransactionDO> branchTransactionDOs = null;
             if (withBranchSessions) {
                 branchTransactionDOs = this.readBranchSessionByXid(jedis,xid);
@@ -394,6 +427,17 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
      * @return the list
      */
     public List<GlobalSession> readSession(GlobalStatus[] statuses) {
+        return readSession(statuses, null);
+    }
+
+    /**
+     * Read globalSession list by global status, leaving out the ones not due to retry at the retry due time
+     *
+     * @param statuses the statuses
+     * @param retryDueTime the retry due time, null for all
+     * @return the list
+     */
+    public List<GlobalSession> readSession(GlobalStatus[] statuses, Long retryDueTime) {
         List<String> statusKeys = new ArrayList<>();
         for (int i = 0; i < statuses.length; i++) {
             statusKeys.add(buildGlobalStatus(statuses[i].getCode()));
@@ -406,7 +450,7 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
             if (CollectionUtils.isNotEmpty(list)) {
                 List<String> xids = list.stream().flatMap(ll -> ll.stream()).collect(Collectors.toList());
                 xids.parallelStream().forEach(xid -> {
-                    GlobalSession globalSession = this.readSession(xid, true);
+                    GlobalSession globalSession = this.readSession(xid, true, retryDueTime);
                     if (globalSession != null) {
                         globalSessions.add(globalSession);
                     }
@@ -438,9 +482,9 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
             }
             return globalSessions;
         } else if (CollectionUtils.isNotEmpty(sessionCondition.getStatuses())) {
-            return readSession(sessionCondition.getStatuses());
+            return readSession(sessionCondition.getStatuses(), sessionCondition.getRetryDueTime());
         } else if (sessionCondition.getStatus() != null) {
-            return readSession(new GlobalStatus[]{sessionCondition.getStatus()});
+            return readSession(new GlobalStatus[]{sessionCondition.getStatus()}, sessionCondition.getRetryDueTime());
         }
         return null;
     }
@@ -15,6 +15,8 @@
  */
 package io.seata.server.store;
 
+import java.nio.ByteBuffer;
+
 /**
  * The interface Session storable.
  *
@@ -29,6 +31,14 @@ public interface SessionStorable {
      */
     byte[] encode();
 
+    /**
+     * Encode into the byte buffer, the same bytes as {@link #encode()} are put from the current position.
+     *
+     * @param byteBuffer the byte buffer
+     * @throws java.nio.BufferOverflowException if the remaining of the byte buffer is not enough
+     */
+    void encode(ByteBuffer byteBuffer);
+
     /**
      * Decode.
      *
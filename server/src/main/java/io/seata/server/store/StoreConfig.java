@@ -45,6 +45,21 @@ public class StoreConfig {
      */
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    /**
+     * Default 32mb.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 32;
+
+    /**
+     * Default 512 frames.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE = 512;
+
+    /**
+     * Default 0ms, the batch is committed as soon as the writer thread is free.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_MAX_WAIT_MILLS = 0;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "maxBranchSessionSize", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -57,6 +72,18 @@ public class StoreConfig {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "fileWriteBufferCacheSize", DEFAULT_WRITE_BUFFER_SIZE);
     }
 
+    public static int getSegmentSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "segmentSize", DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static int getGroupCommitMaxBatchSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxBatchSize", DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE);
+    }
+
+    public static int getGroupCommitMaxWaitMills() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxWaitMills", DEFAULT_GROUP_COMMIT_MAX_WAIT_MILLS);
+    }
+
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flushDiskMode"));
     }
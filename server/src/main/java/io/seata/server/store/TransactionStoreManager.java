@@ -36,6 +36,21 @@ public interface TransactionStoreManager {
      */
     boolean writeSession(LogOperation logOperation, SessionStorable session);
 
+    /**
+     * Write the sessions of one batch with the same log operation.
+     *
+     * @param logOperation the log operation
+     * @param sessions     the sessions
+     * @return true if all the sessions are written
+     */
+    default boolean writeSessions(LogOperation logOperation, List<? extends SessionStorable> sessions) {
+        for (SessionStorable session : sessions) {
+            if (!writeSession(logOperation, session)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     /**
      * Read global session global session.
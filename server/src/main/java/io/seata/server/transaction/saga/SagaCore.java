@@ -16,8 +16,9 @@
 package io.seata.server.transaction.saga;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 import io.netty.channel.Channel;
@@ -79,6 +80,20 @@ public class SagaCore extends AbstractCore {
         return response.getBranchStatus();
     }
 
+    @Override
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    GlobalSession globalSession,
+                                                                    BranchSession branchSession) {
+        // the saga channel is picked by the resource of the global session, it is sent to synchronously
+        CompletableFuture<BranchStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(branchCommitSend(request, globalSession, branchSession));
+        } catch (IOException | TimeoutException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     @Override
     public BranchStatus branchRollbackSend(BranchRollbackRequest request, GlobalSession globalSession,
                                            BranchSession branchSession) throws IOException, TimeoutException {
@@ -98,6 +113,19 @@ public class SagaCore extends AbstractCore {
         return response.getBranchStatus();
     }
 
+    @Override
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      GlobalSession globalSession,
+                                                                      BranchSession branchSession) {
+        CompletableFuture<BranchStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(branchRollbackSend(request, globalSession, branchSession));
+        } catch (IOException | TimeoutException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     @Override
     public boolean doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
         try {
@@ -227,7 +255,7 @@ public class SagaCore extends AbstractCore {
      * @throws TransactionException the TransactionException
      */
     private void removeAllBranches(GlobalSession globalSession) throws TransactionException {
-        ArrayList<BranchSession> branchSessions = globalSession.getSortedBranches();
+        List<BranchSession> branchSessions = globalSession.getSortedBranches();
         for (BranchSession branchSession : branchSessions) {
             globalSession.removeBranch(branchSession);
         }
@@ -20,7 +20,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -38,6 +41,7 @@ import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
+import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
@@ -217,6 +221,55 @@ public class DefaultCoordinatorTest {
         }
     }
 
+    @Test
+    public void test_timeoutCheckDeferred() throws Exception {
+        ShardedSessionExecutor timeoutCheckShards = ReflectionUtil.getFieldValue(defaultCoordinator, "timeoutCheckShards");
+        // one session per shard and round, the others are deferred
+        ShardedSessionExecutor smallShards = new ShardedSessionExecutor("TimeoutCheckDeferredTest", 2, 1);
+        ReflectionUtil.setFieldValue(defaultCoordinator, "timeoutCheckShards", smallShards);
+        List<String> xids = new ArrayList<>();
+        try {
+            for (int i = 0; i < 6; i++) {
+                xids.add(core.begin(applicationId, txServiceGroup, txName, 10));
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            for (int round = 0; round < 20 && !allTimeoutRollbacking(xids); round++) {
+                defaultCoordinator.timeoutCheck();
+            }
+            Assertions.assertTrue(allTimeoutRollbacking(xids));
+        } finally {
+            ReflectionUtil.setFieldValue(defaultCoordinator, "timeoutCheckShards", timeoutCheckShards);
+            smallShards.shutdown();
+            for (String xid : xids) {
+                GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+                if (globalSession != null) {
+                    globalSession.closeAndClean();
+                }
+            }
+        }
+    }
+
+    private static boolean allTimeoutRollbacking(List<String> xids) {
+        for (String xid : xids) {
+            GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+            if (globalSession == null || globalSession.getStatus() != GlobalStatus.TimeoutRollbacking) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void test_nextRetryInterval() {
+        Assertions.assertEquals(1000L, DefaultCoordinator.nextRetryInterval(0, 1000L, 60000L, 0));
+        Assertions.assertEquals(8000L, DefaultCoordinator.nextRetryInterval(3, 1000L, 60000L, 0));
+        Assertions.assertEquals(60000L, DefaultCoordinator.nextRetryInterval(100, 1000L, 60000L, 0));
+        for (int i = 0; i < 100; i++) {
+            long interval = DefaultCoordinator.nextRetryInterval(2, 1000L, 60000L, 20);
+            Assertions.assertTrue(interval >= 3200L && interval <= 4800L);
+        }
+    }
+
     @AfterAll
     public static void afterClass() throws Exception {
 
@@ -282,6 +335,17 @@ public class DefaultCoordinatorTest {
             return null;
         }
 
+        @Override
+        public CompletableFuture<Object> sendAsyncRequest(String resourceId, String clientId, Object message) {
+            try {
+                return CompletableFuture.completedFuture(sendSyncRequest(resourceId, clientId, message));
+            } catch (TimeoutException e) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+        }
+
         @Override
         public void sendAsyncRequest(Channel channel, Object msg) {
 
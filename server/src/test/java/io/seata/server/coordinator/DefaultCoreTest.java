@@ -15,13 +15,19 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Stream;
 
 import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.server.ServerApplication;
 import io.seata.server.session.BranchSession;
@@ -117,6 +123,37 @@ public class DefaultCoreTest {
         Assertions.assertEquals(globalSession.getSortedBranches().size(), 1);
     }
 
+    /**
+     * Branch register batch test, the branch conflicting with the lock of another transaction fails alone.
+     *
+     * @param xid the xid
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void branchRegisterBatchTest(String xid) throws Exception {
+        String otherXid = core.begin(applicationId, txServiceGroup, txName, timeout);
+        core.branchRegister(BranchType.AT, resourceId, clientId, otherXid, null, lockKeys_1);
+
+        List<BranchRegisterRequest> requests = new ArrayList<>();
+        for (String lockKeys : new String[] {lockKeys_1, lockKeys_2}) {
+            BranchRegisterRequest request = new BranchRegisterRequest();
+            request.setResourceId(resourceId);
+            request.setLockKey(lockKeys);
+            requests.add(request);
+        }
+        List<BranchRegisterResponse> responses = core.branchRegisterBatch(BranchType.AT, clientId, xid, requests);
+
+        Assertions.assertEquals(2, responses.size());
+        Assertions.assertEquals(ResultCode.Failed, responses.get(0).getResultCode());
+        Assertions.assertEquals(TransactionExceptionCode.LockKeyConflict,
+            responses.get(0).getTransactionExceptionCode());
+        Assertions.assertEquals(ResultCode.Success, responses.get(1).getResultCode());
+        globalSession = SessionHolder.findGlobalSession(xid);
+        Assertions.assertEquals(1, globalSession.getSortedBranches().size());
+        Assertions.assertEquals(responses.get(1).getBranchId(), globalSession.getSortedBranches().get(0).getBranchId());
+    }
+
     /**
      * Branch report test.
      *
@@ -0,0 +1,152 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Parallel branch dispatcher test.
+ */
+public class ParallelBranchDispatcherTest {
+
+    private static ParallelBranchDispatcher dispatcher;
+
+    @BeforeAll
+    public static void init() {
+        dispatcher = new ParallelBranchDispatcher(4);
+    }
+
+    @AfterAll
+    public static void destroy() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testLaneKeepsOrderAndStopsOnFailure() throws TransactionException {
+        GlobalSession globalSession = new GlobalSession();
+        globalSession.setXid("127.0.0.1:8091:1");
+        BranchSession first = newBranch(1L, "res_1");
+        BranchSession second = newBranch(2L, "res_1");
+        BranchSession other = newBranch(3L, "res_2");
+
+        List<Long> sent = new CopyOnWriteArrayList<>();
+        ParallelBranchDispatcher.BranchCall call = (global, branch) -> {
+            sent.add(branch.getBranchId());
+            return branch.getBranchId() == 1L ? BranchStatus.PhaseTwo_RollbackFailed_Retryable
+                : BranchStatus.PhaseTwo_Rollbacked;
+        };
+        List<List<BranchSession>> lanes = new ArrayList<>();
+        lanes.add(Arrays.asList(first, second));
+        lanes.add(Collections.singletonList(other));
+        Map<Long, CompletableFuture<BranchStatus>> results = dispatcher.dispatch(globalSession, lanes, call,
+            branchStatus -> branchStatus == BranchStatus.PhaseTwo_Rollbacked);
+
+        Assertions.assertEquals(BranchStatus.PhaseTwo_RollbackFailed_Retryable,
+            ParallelBranchDispatcher.await(results, globalSession, first, call));
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked,
+            ParallelBranchDispatcher.await(results, globalSession, other, call));
+        Assertions.assertNull(results.get(2L).join());
+        Assertions.assertFalse(sent.contains(2L));
+
+        // the skipped branch is sent by the caller when it is awaited
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked,
+            ParallelBranchDispatcher.await(results, globalSession, second, call));
+        Assertions.assertTrue(sent.contains(2L));
+    }
+
+    @Test
+    public void testAsyncLaneIsSentWhenThePreviousBranchIsAnswered() throws Exception {
+        GlobalSession globalSession = new GlobalSession();
+        globalSession.setXid("127.0.0.1:8091:2");
+        BranchSession first = newBranch(1L, "res_1");
+        BranchSession second = newBranch(2L, "res_1");
+        BranchSession other = newBranch(3L, "res_2");
+
+        Map<Long, CompletableFuture<BranchStatus>> responses = new ConcurrentHashMap<>();
+        CompletableFuture<String> secondSender = new CompletableFuture<>();
+        ParallelBranchDispatcher.AsyncBranchCall call = (global, branch) -> {
+            if (branch.getBranchId() == 2L) {
+                secondSender.complete(Thread.currentThread().getName());
+            }
+            return responses.computeIfAbsent(branch.getBranchId(), k -> new CompletableFuture<>());
+        };
+        List<List<BranchSession>> lanes = new ArrayList<>();
+        lanes.add(Arrays.asList(first, second));
+        lanes.add(Collections.singletonList(other));
+        Map<Long, CompletableFuture<BranchStatus>> results = dispatcher.dispatchAsync(globalSession, lanes, call,
+            branchStatus -> branchStatus == BranchStatus.PhaseTwo_Rollbacked);
+
+        // the heads of the lanes are sent at once, nothing waits for the responses
+        Assertions.assertTrue(responses.containsKey(1L));
+        Assertions.assertTrue(responses.containsKey(3L));
+        Assertions.assertFalse(responses.containsKey(2L));
+
+        CompletableFuture<String> applier = dispatcher.allCompleted(results)
+            .thenApply(v -> Thread.currentThread().getName());
+
+        // the next branch is sent by the completion pool, not by the thread completing the response
+        responses.get(1L).complete(BranchStatus.PhaseTwo_Rollbacked);
+        Assertions.assertTrue(secondSender.get(5, TimeUnit.SECONDS).startsWith("ParallelBranchCompletion"));
+        Assertions.assertTrue(responses.containsKey(2L));
+        responses.get(2L).completeExceptionally(new TransactionException("mock"));
+        responses.get(3L).complete(BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        Assertions.assertTrue(applier.get(5, TimeUnit.SECONDS).startsWith("ParallelBranchCompletion"));
+
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked,
+            ParallelBranchDispatcher.await(results, globalSession, first, (global, branch) -> null));
+        Assertions.assertEquals(BranchStatus.PhaseTwo_RollbackFailed_Retryable,
+            ParallelBranchDispatcher.await(results, globalSession, other, (global, branch) -> null));
+        Assertions.assertThrows(TransactionException.class,
+            () -> ParallelBranchDispatcher.await(results, globalSession, second, (global, branch) -> null));
+    }
+
+    @Test
+    public void testExceptionIsRethrown() {
+        GlobalSession globalSession = new GlobalSession();
+        BranchSession branch = newBranch(1L, "res_1");
+        ParallelBranchDispatcher.BranchCall call = (global, b) -> {
+            throw new TransactionException("mock");
+        };
+        Map<Long, CompletableFuture<BranchStatus>> results = dispatcher.dispatch(globalSession,
+            Collections.singletonList(Collections.singletonList(branch)), call, branchStatus -> true);
+        Assertions.assertThrows(TransactionException.class,
+            () -> ParallelBranchDispatcher.await(results, globalSession, branch, call));
+    }
+
+    private static BranchSession newBranch(long branchId, String resourceId) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setBranchId(branchId);
+        branchSession.setResourceId(resourceId);
+        return branchSession;
+    }
+}
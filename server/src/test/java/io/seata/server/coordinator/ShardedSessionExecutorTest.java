@@ -0,0 +1,80 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Sharded session executor test.
+ */
+public class ShardedSessionExecutorTest {
+
+    @Test
+    public void testForEach() {
+        ShardedSessionExecutor executor = new ShardedSessionExecutor("ShardTest", 4, 100);
+        try {
+            List<GlobalSession> sessions = newSessions(64);
+            Map<Long, String> handled = new ConcurrentHashMap<>();
+            executor.forEach(sessions, globalSession -> handled.put(globalSession.getTransactionId(),
+                Thread.currentThread().getName()));
+            Assertions.assertEquals(sessions.size(), handled.size());
+
+            // the same session is always handled by the same shard
+            Map<Long, String> handledAgain = new ConcurrentHashMap<>();
+            executor.forEach(sessions, globalSession -> handledAgain.put(globalSession.getTransactionId(),
+                Thread.currentThread().getName()));
+            Assertions.assertEquals(handled, handledAgain);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testShardQueueSize() {
+        ShardedSessionExecutor executor = new ShardedSessionExecutor("ShardQueueTest", 2, 1);
+        try {
+            Map<Long, Boolean> handled = new ConcurrentHashMap<>();
+            List<GlobalSession> deferred = executor.forEach(newSessions(10),
+                globalSession -> handled.put(globalSession.getTransactionId(), true));
+            Assertions.assertTrue(handled.size() <= 2);
+            // every session is either handled or returned
+            Assertions.assertEquals(10, handled.size() + deferred.size());
+            for (GlobalSession globalSession : deferred) {
+                Assertions.assertFalse(handled.containsKey(globalSession.getTransactionId()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<GlobalSession> newSessions(int size) {
+        List<GlobalSession> sessions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            GlobalSession globalSession = new GlobalSession();
+            globalSession.setTransactionId(i);
+            globalSession.setXid("127.0.0.1:8091:" + i);
+            sessions.add(globalSession);
+        }
+        return sessions;
+    }
+}
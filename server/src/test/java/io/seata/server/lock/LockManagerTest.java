@@ -15,7 +15,6 @@
  */
 package io.seata.server.lock;
 
-import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -186,13 +185,13 @@ public class LockManagerTest {
     public void duplicatePkBranchSessionHolderTest(BranchSession branchSession1, BranchSession branchSession2) throws Exception {
         LockManager lockManager = new FileLockManagerForTest();
         Assertions.assertTrue(lockManager.acquireLock(branchSession1));
-        Assertions.assertEquals(4, branchSession1.getLockHolder().values().stream().map(Set::size).count());
+        Assertions.assertEquals(4, branchSession1.getLockHolder().size());
         Assertions.assertTrue(lockManager.releaseLock(branchSession1));
-        Assertions.assertEquals(0, branchSession1.getLockHolder().values().stream().map(Set::size).count());
+        Assertions.assertEquals(0, branchSession1.getLockHolder().size());
         Assertions.assertTrue(lockManager.acquireLock(branchSession2));
-        Assertions.assertEquals(4, branchSession2.getLockHolder().values().stream().map(Set::size).count());
+        Assertions.assertEquals(4, branchSession2.getLockHolder().size());
         Assertions.assertTrue(lockManager.releaseLock(branchSession2));
-        Assertions.assertEquals(0, branchSession2.getLockHolder().values().stream().map(Set::size).count());
+        Assertions.assertEquals(0, branchSession2.getLockHolder().size());
     }
 
     /**
@@ -0,0 +1,59 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Lock wait queues test.
+ */
+public class LockWaitQueuesTest {
+
+    @Test
+    public void testWakeInOrder() throws Exception {
+        LockWaitQueues queues = new LockWaitQueues();
+        Object owner1 = new Object();
+        Object owner2 = new Object();
+        LockWaitQueues.Waiter waiter1 = queues.enqueue(owner1, Arrays.asList("r1", "r2"));
+        LockWaitQueues.Waiter waiter2 = queues.enqueue(owner2, Collections.singletonList("r1"));
+        Assertions.assertTrue(queues.hasWaiters());
+        Assertions.assertEquals(2, queues.queueLength("r1"));
+
+        // the release of the first waiter itself wakes the next one
+        queues.wake("r1", owner1);
+        Assertions.assertEquals("r1", waiter2.await(10));
+        Assertions.assertNull(waiter1.await(10));
+
+        queues.wake("r1", new Object());
+        Assertions.assertEquals("r1", waiter1.await(10));
+        queues.passOn(waiter1, "r1");
+        Assertions.assertEquals("r1", waiter2.await(10));
+
+        // a wake left unused goes on to the next waiter
+        queues.wake("r1", null);
+        queues.dequeue(waiter1, false);
+        Assertions.assertEquals("r1", waiter2.await(10));
+        Assertions.assertEquals(0, queues.queueLength("r2"));
+
+        queues.dequeue(waiter2, true);
+        Assertions.assertFalse(queues.hasWaiters());
+        Assertions.assertEquals(0, queues.queueLength("r1"));
+    }
+}
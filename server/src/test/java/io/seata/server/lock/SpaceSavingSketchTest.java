@@ -0,0 +1,96 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import io.seata.core.console.vo.HotRowVO;
+import io.seata.core.console.vo.LockContentionVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Space saving sketch test.
+ */
+public class SpaceSavingSketchTest {
+
+    @Test
+    public void testExactWithinCapacity() {
+        SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(4);
+        for (int i = 0; i < 3; i++) {
+            sketch.offer("a");
+        }
+        sketch.offer("b");
+        sketch.offer("c");
+        sketch.offer("c");
+        List<SpaceSavingSketch.Entry<String>> top = sketch.top(10);
+        Assertions.assertEquals(3, top.size());
+        Assertions.assertEquals("a", top.get(0).getKey());
+        Assertions.assertEquals(3, top.get(0).getCount());
+        Assertions.assertEquals("c", top.get(1).getKey());
+        Assertions.assertEquals("b", top.get(2).getKey());
+        Assertions.assertEquals(0, top.get(2).getError());
+    }
+
+    @Test
+    public void testHeavyHittersKept() {
+        SpaceSavingSketch<Integer> sketch = new SpaceSavingSketch<>(16);
+        Map<Integer, Long> counts = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            // three hot keys among a long tail
+            int key = random.nextInt(10) < 3 ? random.nextInt(3) : 3 + random.nextInt(10_000);
+            sketch.offer(key);
+            counts.merge(key, 1L, Long::sum);
+        }
+        Assertions.assertEquals(16, sketch.size());
+        List<SpaceSavingSketch.Entry<Integer>> top = sketch.top(3);
+        for (SpaceSavingSketch.Entry<Integer> entry : top) {
+            Assertions.assertTrue(entry.getKey() < 3);
+            long count = counts.get(entry.getKey());
+            Assertions.assertTrue(entry.getCount() >= count);
+            Assertions.assertTrue(entry.getCount() - entry.getError() <= count);
+        }
+    }
+
+    @Test
+    public void testProfiler() {
+        LockContentionProfiler profiler = new LockContentionProfiler(8);
+        for (int i = 0; i < 5; i++) {
+            profiler.recordConflict("jdbc:mysql://db/order", "t_stock", "1");
+        }
+        profiler.recordConflict("jdbc:mysql://db/order", "t_stock", "2");
+        profiler.recordHold("jdbc:mysql://db/order", 3);
+        profiler.recordHold("jdbc:mysql://db/order", 120_000);
+
+        List<HotRowVO> hotRows = profiler.hotRows(1);
+        Assertions.assertEquals(1, hotRows.size());
+        Assertions.assertEquals("1", hotRows.get(0).getPk());
+        Assertions.assertEquals(5, hotRows.get(0).getConflicts());
+
+        LockContentionVO contention = profiler.contentions().get(0);
+        Assertions.assertEquals(6, contention.getConflicts());
+        Assertions.assertEquals(2, contention.getHolds());
+        Assertions.assertEquals(120_000, contention.getMaxHoldTime());
+        Assertions.assertEquals(1L, contention.getHoldTimeHistogram().get("5"));
+        Assertions.assertEquals(1L, contention.getHoldTimeHistogram().get("+Inf"));
+
+        Assertions.assertFalse(new LockContentionProfiler(0).isEnabled());
+    }
+}
@@ -20,10 +20,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import io.seata.common.util.IOUtil;
 import io.seata.core.store.LockDO;
+import io.seata.server.storage.db.lock.LockReleaseCoalescer;
 import io.seata.server.storage.db.lock.LockStoreDataBaseDAO;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.h2.store.fs.FileUtils;
@@ -34,6 +41,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 
+import static io.seata.common.Constants.TABLE_LOCK_PK;
+
 /**
  * @author zhangsen
  */
@@ -202,6 +211,124 @@ public class DataBaseLockStoreDAOTest {
     }
 
 
+    @Test
+    public void test_unLockBranches() throws Exception {
+        // five global sessions of two branches, in-lists of three branch ids
+        List<LockDO> lockDOs = prepareBranchLocks("unlock-branches", 5);
+        Assertions.assertEquals(10, countLocks("unlock-branches"));
+        List<Long> branchIds = new ArrayList<>();
+        lockDOs.forEach(lockDO -> branchIds.add(lockDO.getBranchId()));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLockBranches(branchIds, 3));
+        Assertions.assertEquals(0, countLocks("unlock-branches"));
+    }
+
+    @Test
+    public void test_lockReleaseCoalescer() throws Exception {
+        List<LockDO> lockDOs = prepareBranchLocks("coalesce", 20);
+        LockReleaseCoalescer coalescer = new LockReleaseCoalescer(dataBaseLockStoreDAO, 4, 5);
+        ExecutorService executorService = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String xid = lockDOs.get(i * 2).getXid();
+                List<Long> branchIds = Arrays.asList(lockDOs.get(i * 2).getBranchId(), lockDOs.get(i * 2 + 1).getBranchId());
+                results.add(executorService.submit(() -> coalescer.release(xid, branchIds)));
+            }
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdown();
+            coalescer.shutdown();
+        }
+        Assertions.assertEquals(0, countLocks("coalesce"));
+        // released directly once stopped
+        List<LockDO> rest = prepareBranchLocks("stopped", 1);
+        Assertions.assertTrue(coalescer.release(rest.get(0).getXid(),
+            Arrays.asList(rest.get(0).getBranchId(), rest.get(1).getBranchId())));
+        Assertions.assertEquals(0, countLocks("stopped"));
+    }
+
+    @Test
+    public void test_tableLock() throws Exception {
+        LockStoreDataBaseDAO tableLockStoreDAO = new LockStoreDataBaseDAO(dataSource);
+        tableLockStoreDAO.setDbType("h2");
+        tableLockStoreDAO.setLockTable("lock_table");
+        tableLockStoreDAO.setTableLockEnabled(true);
+
+        List<LockDO> rowLocks = Arrays.asList(newTableLockDO("table-lock:1", "1"), newTableLockDO("table-lock:1", "2"));
+        List<LockDO> tableLock = Collections.singletonList(newTableLockDO("table-lock:2", TABLE_LOCK_PK));
+        Assertions.assertTrue(tableLockStoreDAO.acquireLock(rowLocks));
+        // the rows of another transaction deny the table, the table lock inserted is given back
+        Assertions.assertFalse(tableLockStoreDAO.acquireLock(tableLock));
+        Assertions.assertEquals(2, countLocks("tl"));
+        Assertions.assertTrue(tableLockStoreDAO.unLock(rowLocks));
+
+        Assertions.assertTrue(tableLockStoreDAO.acquireLock(tableLock));
+        List<LockDO> otherRows = Collections.singletonList(newTableLockDO("table-lock:1", "3"));
+        Assertions.assertFalse(tableLockStoreDAO.isLockable(otherRows));
+        Assertions.assertFalse(tableLockStoreDAO.acquireLock(otherRows));
+        Assertions.assertTrue(tableLockStoreDAO.acquireLock(Collections.singletonList(newTableLockDO("table-lock:2", "4"))));
+        Assertions.assertEquals(2, countLocks("tl"));
+        Assertions.assertTrue(tableLockStoreDAO.unLock("table-lock:2", 2L));
+        Assertions.assertTrue(tableLockStoreDAO.isLockable(otherRows));
+        Assertions.assertEquals(0, countLocks("tl"));
+
+        // a row whose pk is * is just a row
+        List<LockDO> starRow = Collections.singletonList(newTableLockDO("table-lock:3", "*"));
+        Assertions.assertTrue(tableLockStoreDAO.acquireLock(starRow));
+        Assertions.assertTrue(tableLockStoreDAO.acquireLock(rowLocks));
+        Assertions.assertTrue(tableLockStoreDAO.unLock(rowLocks));
+        Assertions.assertTrue(tableLockStoreDAO.unLock(starRow));
+        Assertions.assertEquals(0, countLocks("tl"));
+    }
+
+    private static LockDO newTableLockDO(String xid, String pk) {
+        LockDO lock = new LockDO();
+        lock.setResourceId("abc");
+        lock.setXid(xid);
+        lock.setTransactionId(Long.parseLong(xid.substring(xid.indexOf(':') + 1)));
+        lock.setBranchId(lock.getTransactionId());
+        lock.setRowKey("abc^^^tl^^^" + pk);
+        lock.setPk(pk);
+        lock.setTableName("tl");
+        return lock;
+    }
+
+    private static List<LockDO> prepareBranchLocks(String prefix, int globalSessions) {
+        List<LockDO> lockDOs = new ArrayList<>();
+        for (int i = 0; i < globalSessions; i++) {
+            List<LockDO> globalLocks = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                LockDO lock = new LockDO();
+                lock.setResourceId("abc");
+                lock.setXid(prefix + ":" + i);
+                lock.setTransactionId((long) i);
+                lock.setBranchId(Math.abs((long) prefix.hashCode()) * 1000 + i * 2 + j);
+                lock.setRowKey(prefix + "-" + i + "-" + j);
+                lock.setPk(String.valueOf(j));
+                lock.setTableName(prefix);
+                globalLocks.add(lock);
+            }
+            Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(globalLocks));
+            lockDOs.addAll(globalLocks);
+        }
+        return lockDOs;
+    }
+
+    private static int countLocks(String tableName) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            ResultSet rs = conn.createStatement().executeQuery(
+                "select count(1) from lock_table where table_name = '" + tableName + "'");
+            rs.next();
+            return rs.getInt(1);
+        } finally {
+            IOUtil.close(conn);
+        }
+    }
+
     @Test
     public void test_isLockable_can(){
         List<LockDO> lockDOs = new ArrayList<>();
@@ -15,13 +15,32 @@
  */
 package io.seata.server.lock.file;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import io.seata.common.XID;
+import io.seata.common.exception.NotSupportYetException;
+import io.seata.common.util.ReflectionUtil;
+import io.seata.core.console.vo.HotRowVO;
+import io.seata.core.context.LockWaitHolder;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.Locker;
+import io.seata.core.lock.RowLock;
 import io.seata.core.model.BranchType;
 import io.seata.server.UUIDGenerator;
+import io.seata.server.lock.LockContentionProfiler;
 import io.seata.server.lock.LockManager;
+import io.seata.server.lock.LockerManagerFactory;
 import io.seata.server.session.BranchSession;
+import io.seata.server.storage.file.lock.FileLocker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -30,6 +49,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 
+import static io.seata.common.Constants.TABLE_LOCK_PK;
 import static io.seata.common.DefaultValues.DEFAULT_TX_GROUP;
 
 
@@ -82,6 +102,324 @@ public class FileLockManagerImplTest {
         Assertions.assertTrue(resultOne);
     }
 
+    /**
+     * The branches of a transaction share their rows, another transaction waits for all of them.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void siblingBranchLockTest() throws Exception {
+        long siblingTransactionId = UUIDGenerator.generateUUID();
+        BranchSession branchSession1 = newBranchSession(siblingTransactionId, 11L, "t_sibling:1,2");
+        BranchSession branchSession2 = newBranchSession(siblingTransactionId, 12L, "t_sibling:2,3");
+        BranchSession otherBranchSession = newBranchSession(UUIDGenerator.generateUUID(), 13L, "t_sibling:3");
+
+        Assertions.assertTrue(lockManager.acquireLock(branchSession1));
+        Assertions.assertTrue(lockManager.acquireLock(branchSession2));
+        Assertions.assertEquals(2, branchSession1.getLockHolder().size());
+        // the row 2 stays held by the first branch
+        Assertions.assertEquals(1, branchSession2.getLockHolder().size());
+        Assertions.assertFalse(lockManager.acquireLock(otherBranchSession));
+        Assertions.assertEquals(0, otherBranchSession.getLockHolder().size());
+
+        Assertions.assertTrue(lockManager.releaseLock(branchSession1));
+        Assertions.assertTrue(lockManager.releaseLock(branchSession2));
+        Assertions.assertEquals(0, branchSession2.getLockHolder().size());
+        Assertions.assertTrue(lockManager.acquireLock(otherBranchSession));
+        Assertions.assertTrue(lockManager.releaseLock(otherBranchSession));
+    }
+
+    /**
+     * A conflicting acquire waits on the server and gets the rows once they are released.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void lockWaitTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), 21L, "t_wait:1,2");
+        BranchSession waiter = newBranchSession(UUIDGenerator.generateUUID(), 22L, "t_wait:2,3");
+        // the first attempt and the retry once queued
+        CountDownLatch waiting = new CountDownLatch(2);
+        LockManager waitingLockManager = new FileLockManagerForTest() {
+            {
+                setLockWaitTimeout(5000L);
+            }
+
+            @Override
+            public Locker getLocker(BranchSession branchSession) {
+                return new FileLocker(branchSession) {
+                    @Override
+                    public boolean acquireLock(List<RowLock> rowLocks, boolean autoCommit) {
+                        boolean acquired = super.acquireLock(rowLocks, autoCommit);
+                        if (!acquired && branchSession == waiter) {
+                            waiting.countDown();
+                        }
+                        return acquired;
+                    }
+                };
+            }
+        };
+        ExecutorService handlerThreads = Executors.newFixedThreadPool(2);
+        try {
+            Assertions.assertTrue(waitingLockManager.acquireLock(holder));
+            Future<Boolean> acquired = handlerThreads.submit(
+                lockWaitAllowed(() -> waitingLockManager.acquireLock(waiter)));
+            Assertions.assertTrue(waiting.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(acquired.isDone());
+            Assertions.assertTrue(waitingLockManager.releaseLock(holder));
+            Assertions.assertTrue(acquired.get(2, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, waiter.getLockHolder().size());
+            Assertions.assertTrue(waitingLockManager.releaseLock(waiter));
+
+            // nobody releases, the wait gives up at the timeout
+            BranchSession another = newBranchSession(UUIDGenerator.generateUUID(), 23L, "t_wait:4");
+            BranchSession timedOut = newBranchSession(UUIDGenerator.generateUUID(), 24L, "t_wait:4");
+            LockManager impatientLockManager = newWaitingLockManager(300L);
+            Assertions.assertTrue(waitingLockManager.acquireLock(another));
+            long start = System.currentTimeMillis();
+            Assertions.assertFalse(handlerThreads.submit(
+                lockWaitAllowed(() -> impatientLockManager.acquireLock(timedOut))).get());
+            Assertions.assertTrue(System.currentTimeMillis() - start >= 300L);
+
+            // a thread the request processor did not allow to wait never waits
+            start = System.currentTimeMillis();
+            Assertions.assertFalse(newWaitingLockManager(5000L).acquireLock(timedOut));
+            Assertions.assertTrue(System.currentTimeMillis() - start < 5000L);
+            Assertions.assertTrue(waitingLockManager.releaseLock(another));
+        } finally {
+            handlerThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lockConflictProfileTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), 41L, "t_profile:1");
+        BranchSession waiter = newBranchSession(UUIDGenerator.generateUUID(), 42L, "t_profile:1");
+        LockManager waitingLockManager = newWaitingLockManager(500L);
+        ExecutorService handlerThreads = Executors.newSingleThreadExecutor();
+        try {
+            Assertions.assertTrue(waitingLockManager.acquireLock(holder));
+            // the wait retries a few times until the timeout, the conflict is recorded once
+            Assertions.assertFalse(handlerThreads.submit(
+                lockWaitAllowed(() -> waitingLockManager.acquireLock(waiter))).get());
+            Assertions.assertEquals(1L, profiledConflicts("t_profile", "1"));
+            Assertions.assertFalse(waitingLockManager.acquireLock(waiter));
+            Assertions.assertEquals(2L, profiledConflicts("t_profile", "1"));
+            Assertions.assertTrue(waitingLockManager.releaseLock(holder));
+        } finally {
+            handlerThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedAcquireWakesNobodyTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), 61L, "t_hot:1");
+        BranchSession loser = newBranchSession(UUIDGenerator.generateUUID(), 62L, "t_hot:2,1");
+        AtomicInteger releases = new AtomicInteger();
+        LockManager countingLockManager = new FileLockManagerForTest() {
+            @Override
+            public boolean releaseLock(BranchSession branchSession) throws TransactionException {
+                releases.incrementAndGet();
+                return super.releaseLock(branchSession);
+            }
+        };
+        LockManager previousLockManager = LockerManagerFactory.getLockManager();
+        ReflectionUtil.modifyStaticFinalField(LockerManagerFactory.class, "LOCK_MANAGER", countingLockManager);
+        try {
+            Assertions.assertTrue(countingLockManager.acquireLock(holder));
+            Assertions.assertFalse(countingLockManager.acquireLock(loser));
+            // the row taken by the failed attempt is given back, not released through the lock manager waking the
+            // waiters of the hot row
+            Assertions.assertEquals(0, releases.get());
+            Assertions.assertEquals(0, loser.getLockHolder().size());
+            Assertions.assertTrue(countingLockManager.isLockable(XID.generateXID(UUIDGenerator.generateUUID()),
+                resourceId, "t_hot:2"));
+            Assertions.assertTrue(countingLockManager.releaseLock(holder));
+        } finally {
+            ReflectionUtil.modifyStaticFinalField(LockerManagerFactory.class, "LOCK_MANAGER", previousLockManager);
+        }
+    }
+
+    @Test
+    public void lockWaitersLimitTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), 25L, "t_limit:1");
+        BranchSession first = newBranchSession(UUIDGenerator.generateUUID(), 26L, "t_limit:1");
+        BranchSession second = newBranchSession(UUIDGenerator.generateUUID(), 27L, "t_limit:1");
+        CountDownLatch firstWaiting = new CountDownLatch(2);
+        LockManager limitedLockManager = new FileLockManagerForTest() {
+            {
+                setLockWaitTimeout(5000L);
+                setMaxLockWaiters(1);
+            }
+
+            @Override
+            public Locker getLocker(BranchSession branchSession) {
+                return new FileLocker(branchSession) {
+                    @Override
+                    public boolean acquireLock(List<RowLock> rowLocks, boolean autoCommit) {
+                        boolean acquired = super.acquireLock(rowLocks, autoCommit);
+                        if (!acquired && branchSession == first) {
+                            firstWaiting.countDown();
+                        }
+                        return acquired;
+                    }
+                };
+            }
+        };
+        ExecutorService handlerThreads = Executors.newFixedThreadPool(2);
+        try {
+            Assertions.assertTrue(limitedLockManager.acquireLock(holder));
+            Future<Boolean> firstAcquired = handlerThreads.submit(
+                lockWaitAllowed(() -> limitedLockManager.acquireLock(first)));
+            Assertions.assertTrue(firstWaiting.await(5, TimeUnit.SECONDS));
+            // the only permit is taken, the conflict is answered at once
+            long start = System.currentTimeMillis();
+            Assertions.assertFalse(handlerThreads.submit(
+                lockWaitAllowed(() -> limitedLockManager.acquireLock(second))).get());
+            Assertions.assertTrue(System.currentTimeMillis() - start < 5000L);
+            Assertions.assertTrue(limitedLockManager.releaseLock(holder));
+            Assertions.assertTrue(firstAcquired.get(2, TimeUnit.SECONDS));
+            Assertions.assertTrue(limitedLockManager.releaseLock(first));
+        } finally {
+            handlerThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void tableLockTest() throws Exception {
+        LockManager tableLockManager = new FileLockManagerForTest() {
+            {
+                setTableLockEnabled(true);
+            }
+        };
+        BranchSession rowHolder = newBranchSession(UUIDGenerator.generateUUID(), 31L, "t_table:1,2");
+        BranchSession tableLocker = newBranchSession(UUIDGenerator.generateUUID(), 32L, "t_table:" + TABLE_LOCK_PK);
+        Assertions.assertTrue(tableLockManager.acquireLock(rowHolder));
+        // the rows of another transaction deny the table
+        Assertions.assertFalse(tableLockManager.acquireLock(tableLocker));
+        Assertions.assertEquals(0, tableLocker.getLockHolder().size());
+        Assertions.assertTrue(tableLockManager.releaseLock(rowHolder));
+        Assertions.assertTrue(tableLockManager.acquireLock(tableLocker));
+
+        // the table denies the rows of another transaction, but not those of its own
+        BranchSession rowLocker = newBranchSession(UUIDGenerator.generateUUID(), 33L, "t_other:1;t_table:3");
+        Assertions.assertFalse(tableLockManager.isLockable(rowLocker.getXid(), resourceId, "t_table:3"));
+        Assertions.assertFalse(tableLockManager.acquireLock(rowLocker));
+        Assertions.assertEquals(0, rowLocker.getLockHolder().size());
+        BranchSession sibling = newBranchSession(tableLocker.getTransactionId(), 34L, "t_table:4");
+        Assertions.assertTrue(tableLockManager.acquireLock(sibling));
+        Assertions.assertTrue(tableLockManager.releaseLock(sibling));
+        Assertions.assertTrue(tableLockManager.releaseLock(tableLocker));
+        Assertions.assertTrue(tableLockManager.acquireLock(rowLocker));
+        Assertions.assertTrue(tableLockManager.releaseLock(rowLocker));
+
+        // not accepted unless enabled
+        Assertions.assertThrows(NotSupportYetException.class, () -> lockManager.acquireLock(
+            newBranchSession(UUIDGenerator.generateUUID(), 35L, "t_table:" + TABLE_LOCK_PK)));
+
+        // a row whose pk is * is just a row
+        BranchSession starRow = newBranchSession(UUIDGenerator.generateUUID(), 36L, "t_table:*");
+        BranchSession otherRow = newBranchSession(UUIDGenerator.generateUUID(), 37L, "t_table:1");
+        Assertions.assertTrue(lockManager.acquireLock(starRow));
+        Assertions.assertTrue(tableLockManager.acquireLock(otherRow));
+        Assertions.assertTrue(tableLockManager.releaseLock(otherRow));
+        Assertions.assertTrue(lockManager.releaseLock(starRow));
+    }
+
+    @Test
+    public void tableLockWaitTest() throws Exception {
+        // released by every failed attempt, the first one and the retry once queued make a waiting acquire
+        Semaphore failures = new Semaphore(0);
+        LockManager tableLockManager = new FileLockManagerForTest() {
+            {
+                setTableLockEnabled(true);
+                setLockWaitTimeout(5000L);
+            }
+
+            @Override
+            public Locker getLocker(BranchSession branchSession) {
+                return new FileLocker(branchSession) {
+                    @Override
+                    public boolean acquireLock(List<RowLock> rowLocks, boolean autoCommit) {
+                        boolean acquired = super.acquireLock(rowLocks, autoCommit);
+                        if (!acquired) {
+                            failures.release();
+                        }
+                        return acquired;
+                    }
+                };
+            }
+        };
+        BranchSession tableLocker = newBranchSession(UUIDGenerator.generateUUID(), 51L, "t_twait:" + TABLE_LOCK_PK);
+        BranchSession rowLocker = newBranchSession(UUIDGenerator.generateUUID(), 52L, "t_twait:1");
+        ExecutorService handlerThreads = Executors.newSingleThreadExecutor();
+        try {
+            // a row waits for the table lock
+            Assertions.assertTrue(tableLockManager.acquireLock(tableLocker));
+            Future<Boolean> acquired = handlerThreads.submit(
+                lockWaitAllowed(() -> tableLockManager.acquireLock(rowLocker)));
+            Assertions.assertTrue(failures.tryAcquire(2, 5, TimeUnit.SECONDS));
+            Assertions.assertTrue(tableLockManager.releaseLock(tableLocker));
+            Assertions.assertTrue(acquired.get(2, TimeUnit.SECONDS));
+            Assertions.assertEquals(0, tableLocker.getLockHolder().size());
+            failures.drainPermits();
+
+            // the table lock waits for the row
+            BranchSession anotherTableLocker = newBranchSession(UUIDGenerator.generateUUID(), 53L,
+                "t_twait:" + TABLE_LOCK_PK);
+            acquired = handlerThreads.submit(lockWaitAllowed(() -> tableLockManager.acquireLock(anotherTableLocker)));
+            Assertions.assertTrue(failures.tryAcquire(2, 5, TimeUnit.SECONDS));
+            Assertions.assertFalse(acquired.isDone());
+            Assertions.assertTrue(tableLockManager.releaseLock(rowLocker));
+            Assertions.assertTrue(acquired.get(2, TimeUnit.SECONDS));
+            Assertions.assertTrue(tableLockManager.releaseLock(anotherTableLocker));
+        } finally {
+            handlerThreads.shutdownNow();
+        }
+    }
+
+    /**
+     * Run the acquire as a request handler thread does, allowed to wait for the lock.
+     */
+    private static <T> Callable<T> lockWaitAllowed(Callable<T> acquire) {
+        return () -> {
+            LockWaitHolder.allowLockWait();
+            try {
+                return acquire.call();
+            } finally {
+                LockWaitHolder.remove();
+            }
+        };
+    }
+
+    private static long profiledConflicts(String tableName, String pk) {
+        return LockContentionProfiler.get().hotRows(Integer.MAX_VALUE).stream()
+            .filter(row -> resourceId.equals(row.getResourceId()) && tableName.equals(row.getTableName())
+                && pk.equals(row.getPk()))
+            .mapToLong(HotRowVO::getConflicts).sum();
+    }
+
+    private static LockManager newWaitingLockManager(long lockWaitTimeout) {
+        return new FileLockManagerForTest() {
+            {
+                setLockWaitTimeout(lockWaitTimeout);
+            }
+        };
+    }
+
+    private static BranchSession newBranchSession(long transactionId, long branchId, String lockKey) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(XID.generateXID(transactionId));
+        branchSession.setBranchId(branchId);
+        branchSession.setTransactionId(transactionId);
+        branchSession.setClientId("c1");
+        branchSession.setResourceGroupId(DEFAULT_TX_GROUP);
+        branchSession.setResourceId(resourceId);
+        branchSession.setLockKey(lockKey);
+        branchSession.setBranchType(BranchType.AT);
+        return branchSession;
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
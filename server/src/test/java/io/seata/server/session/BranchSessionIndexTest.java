@@ -0,0 +1,79 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Branch session index test.
+ */
+public class BranchSessionIndexTest {
+
+    @Test
+    public void testOrderAndIndex() {
+        BranchSessionIndex index = new BranchSessionIndex();
+        for (long i = 1; i <= 5; i++) {
+            index.add(newBranch(i));
+        }
+        Assertions.assertEquals(5, index.size());
+        Assertions.assertEquals(3L, index.get(3L).getBranchId());
+        Assertions.assertEquals(1L, index.sorted().get(0).getBranchId());
+        Assertions.assertEquals(5L, index.reverseSorted().get(0).getBranchId());
+
+        // a removed branch is removed by itself, not by another one with the same branchId
+        BranchSession duplicated = newBranch(2L);
+        index.add(duplicated);
+        Assertions.assertEquals(6, index.size());
+        Assertions.assertSame(duplicated, index.get(2L));
+        Assertions.assertTrue(index.remove(duplicated));
+        Assertions.assertEquals(5, index.size());
+        Assertions.assertEquals(2L, index.get(2L).getBranchId());
+        Assertions.assertFalse(index.remove(duplicated));
+
+        // removing the older of two branches with the same branchId keeps the newer one indexed
+        BranchSession original = index.get(3L);
+        BranchSession newer = newBranch(3L);
+        index.add(newer);
+        Assertions.assertTrue(index.remove(original));
+        Assertions.assertSame(newer, index.get(3L));
+        Assertions.assertSame(newer, index.sorted().get(4));
+    }
+
+    @Test
+    public void testRemoveWhileIterating() {
+        BranchSessionIndex index = new BranchSessionIndex();
+        for (long i = 1; i <= 5; i++) {
+            index.add(newBranch(i));
+        }
+        List<BranchSession> sorted = index.sorted();
+        for (BranchSession branchSession : sorted) {
+            Assertions.assertTrue(index.remove(branchSession));
+        }
+        Assertions.assertEquals(5, sorted.size());
+        Assertions.assertEquals(0, index.size());
+        Assertions.assertNull(index.get(1L));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> index.sorted().add(newBranch(6L)));
+    }
+
+    private static BranchSession newBranch(long branchId) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setBranchId(branchId);
+        return branchSession;
+    }
+}
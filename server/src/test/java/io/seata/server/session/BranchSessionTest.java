@@ -15,6 +15,7 @@
  */
 package io.seata.server.session;
 
+import java.nio.ByteBuffer;
 import java.util.stream.Stream;
 
 import io.seata.core.model.BranchType;
@@ -64,6 +65,25 @@ public class BranchSessionTest {
 
     }
 
+    /**
+     * Encode into buffer test.
+     *
+     * @param branchSession the branch session
+     */
+    @ParameterizedTest
+    @MethodSource("branchSessionProvider")
+    public void encodeIntoBufferTest(BranchSession branchSession) {
+        byte[] result = branchSession.encode();
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(result.length + 1);
+        byteBuffer.put((byte)1);
+        branchSession.encode(byteBuffer);
+        Assertions.assertEquals(result.length + 1, byteBuffer.position());
+        byteBuffer.position(1);
+        byte[] encoded = new byte[result.length];
+        byteBuffer.get(encoded);
+        Assertions.assertArrayEquals(result, encoded);
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
@@ -98,6 +98,25 @@ public class FileSessionManagerTest {
         }
     }
 
+    /**
+     * Find global session with the xid of another server.
+     *
+     * @param globalSession the global session
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("globalSessionProvider")
+    public void findGlobalSessionWithForeignXidTest(GlobalSession globalSession) throws Exception {
+        for (SessionManager sessionManager : sessionManagerList) {
+            sessionManager.addGlobalSession(globalSession);
+            Assertions.assertNull(sessionManager.findGlobalSession("10.0.0.1:8091:" + globalSession.getTransactionId()));
+            Assertions.assertNull(sessionManager.findGlobalSession("10.0.0.1:8091:abc"));
+            Assertions.assertNull(sessionManager.findGlobalSession(null));
+            sessionManager.removeGlobalSession(globalSession);
+            Assertions.assertNull(sessionManager.findGlobalSession(globalSession.getXid()));
+        }
+    }
+
     /**
      * Update global session status test.
      *
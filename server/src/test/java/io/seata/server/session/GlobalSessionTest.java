@@ -16,6 +16,8 @@
 package io.seata.server.session;
 
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.stream.Stream;
 
 import io.seata.core.model.BranchStatus;
@@ -164,6 +166,24 @@ public class GlobalSessionTest {
         Assertions.assertEquals(expected.getApplicationId(), globalSession.getApplicationId());
         Assertions.assertEquals(expected.getTransactionServiceGroup(), globalSession.getTransactionServiceGroup());
         Assertions.assertEquals(expected.getTransactionName(), globalSession.getTransactionName());
+        Assertions.assertEquals(expected.getRetryCount(), globalSession.getRetryCount());
+        Assertions.assertEquals(expected.getNextRetryTime(), globalSession.getNextRetryTime());
+    }
+
+    /**
+     * Encode into buffer test.
+     *
+     * @param globalSession the global session
+     */
+    @ParameterizedTest
+    @MethodSource("globalSessionProvider")
+    public void encodeIntoBufferTest(GlobalSession globalSession) {
+        byte[] result = globalSession.encode();
+        ByteBuffer byteBuffer = ByteBuffer.allocate(result.length);
+        globalSession.encode(byteBuffer);
+        Assertions.assertArrayEquals(result, byteBuffer.array());
+        Assertions.assertThrows(BufferOverflowException.class,
+            () -> globalSession.encode(ByteBuffer.allocate(result.length - 1)));
     }
 
     /**
@@ -174,6 +194,8 @@ public class GlobalSessionTest {
     static Stream<Arguments> globalSessionProvider() throws IOException {
         GlobalSession globalSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 6000);
         globalSession.setActive(true);
+        globalSession.setRetryCount(3);
+        globalSession.setNextRetryTime(System.currentTimeMillis());
         globalSession.addSessionLifecycleListener(new FileSessionManager("default", null));
         return Stream.of(
                 Arguments.of(
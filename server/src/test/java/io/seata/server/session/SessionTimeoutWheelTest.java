@@ -0,0 +1,74 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Session timeout wheel test.
+ */
+public class SessionTimeoutWheelTest {
+
+    private static final long TICK = 1000L;
+
+    @Test
+    public void testExpire() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK, 8);
+        long begin = 100_000L;
+        GlobalSession shortSession = newSession(begin, 500);
+        GlobalSession longSession = newSession(begin, 30_000);
+        wheel.add(shortSession);
+        wheel.add(longSession);
+        Assertions.assertEquals(2, wheel.size());
+
+        Assertions.assertTrue(wheel.expire(begin + 100).isEmpty());
+        List<GlobalSession> expired = wheel.expire(begin + 501);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(shortSession, expired.get(0));
+
+        // longer than one round of the wheel
+        Assertions.assertTrue(wheel.expire(begin + 10_000).isEmpty());
+        expired = wheel.expire(begin + 30_001);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(longSession, expired.get(0));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRemove() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK, 8);
+        long begin = 100_000L;
+        GlobalSession pending = newSession(begin, 500);
+        GlobalSession scheduled = newSession(begin, 3000);
+        wheel.add(pending);
+        wheel.add(scheduled);
+        wheel.expire(begin + 100);
+
+        wheel.onClose(pending);
+        wheel.onEnd(scheduled);
+        Assertions.assertTrue(wheel.expire(begin + 5000).isEmpty());
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    private static GlobalSession newSession(long beginTime, int timeout) {
+        GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "tx", timeout);
+        globalSession.setBeginTime(beginTime);
+        return globalSession;
+    }
+}
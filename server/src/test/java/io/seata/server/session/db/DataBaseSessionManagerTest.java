@@ -21,6 +21,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import io.seata.common.XID;
 import io.seata.common.util.IOUtil;
@@ -410,6 +412,40 @@ public class DataBaseSessionManagerTest {
     }
 
 
+    @Test
+    public void test_allRetryDueSessions() throws Exception {
+        long now = System.currentTimeMillis();
+        GlobalSession dueSession = GlobalSession.createGlobalSession("test", "test", "test123", 100);
+        dueSession.setXid(XID.generateXID(dueSession.getTransactionId()));
+        dueSession.setBeginTime(now);
+        dueSession.setStatus(GlobalStatus.Begin);
+        sessionManager.addGlobalSession(dueSession);
+
+        GlobalSession notDueSession = GlobalSession.createGlobalSession("test", "test", "test123", 100);
+        notDueSession.setXid(XID.generateXID(notDueSession.getTransactionId()));
+        notDueSession.setBeginTime(now);
+        notDueSession.setStatus(GlobalStatus.Begin);
+        sessionManager.addGlobalSession(notDueSession);
+        notDueSession.setRetryCount(1);
+        notDueSession.setNextRetryTime(now + 60000);
+        sessionManager.updateGlobalSessionStatus(notDueSession, GlobalStatus.Begin);
+
+        try {
+            Assertions.assertTrue(xids(sessionManager.allSessions()).contains(notDueSession.getXid()));
+            List<String> dueXids = xids(sessionManager.allRetryDueSessions(now));
+            Assertions.assertTrue(dueXids.contains(dueSession.getXid()));
+            Assertions.assertFalse(dueXids.contains(notDueSession.getXid()));
+            Assertions.assertTrue(xids(sessionManager.allRetryDueSessions(now + 60000)).contains(notDueSession.getXid()));
+        } finally {
+            sessionManager.removeGlobalSession(dueSession);
+            sessionManager.removeGlobalSession(notDueSession);
+        }
+    }
+
+    private static List<String> xids(Collection<GlobalSession> globalSessions) {
+        return globalSessions.stream().map(GlobalSession::getXid).collect(Collectors.toList());
+    }
+
     @Test
     public void test_allSessions() throws Exception {
         GlobalSession globalSession = GlobalSession.createGlobalSession("test",
@@ -16,11 +16,17 @@
 package io.seata.server.store.file;
 
 import java.io.File;
-import java.lang.reflect.Method;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import io.seata.server.UUIDGenerator;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
@@ -51,11 +57,13 @@ public class FileTransactionStoreManagerTest {
             GlobalSession global = new GlobalSession();
             Mockito.when(branchSessionA.encode())
                     .thenReturn(createBigBranchSessionData(global, (byte) 'A'));
+            mockEncodeIntoBuffer(branchSessionA);
             Mockito.when(branchSessionA.getApplicationData())
                     .thenReturn(new String(createBigApplicationData((byte) 'A')));
             BranchSession branchSessionB = Mockito.mock(BranchSession.class);
             Mockito.when(branchSessionB.encode())
                     .thenReturn(createBigBranchSessionData(global, (byte) 'B'));
+            mockEncodeIntoBuffer(branchSessionB);
             Mockito.when(branchSessionB.getApplicationData())
                     .thenReturn(new String(createBigApplicationData((byte) 'B')));
             Assertions.assertTrue(fileTransactionStoreManager.writeSession(TransactionStoreManager.LogOperation.BRANCH_ADD, branchSessionA));
@@ -72,62 +80,196 @@ public class FileTransactionStoreManagerTest {
                 fileTransactionStoreManager.shutdown();
             }
             Assertions.assertTrue(seataFile.delete());
+            deleteLogFiles(seataFile);
         }
     }
 
     @Test
-    public void testFindTimeoutAndSave() throws Exception {
+    public void testSnapshot() throws Exception {
         File seataFile = Files.newTemporaryFile();
-        Method findTimeoutAndSaveMethod = FileTransactionStoreManager.class.getDeclaredMethod("findTimeoutAndSave");
-        findTimeoutAndSaveMethod.setAccessible(true);
         FileSessionManager sessionManager = null;
         FileTransactionStoreManager fileTransactionStoreManager = null;
         try {
-            List<GlobalSession> timeoutSessions = new ArrayList<>();
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
             for (int i = 0; i < 100; i++) {
                 GlobalSession globalSession = new GlobalSession("", "", "", 60000);
-                BranchSession branchSessionA = Mockito.mock(BranchSession.class);
-                Mockito.when(branchSessionA.encode())
-                        .thenReturn(createBigBranchSessionData(globalSession, (byte) 'A'));
-                Mockito.when(branchSessionA.getApplicationData())
-                        .thenReturn(new String(createBigApplicationData((byte) 'A')));
-                globalSession.addBranch(branchSessionA);
-                BranchSession branchSessionB = Mockito.mock(BranchSession.class);
-                Mockito.when(branchSessionB.encode())
-                        .thenReturn(createBigBranchSessionData(globalSession, (byte) 'B'));
-                Mockito.when(branchSessionB.getApplicationData())
-                        .thenReturn(new String(createBigApplicationData((byte) 'B')));
-                globalSession.addBranch(branchSessionB);
-                timeoutSessions.add(globalSession);
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession));
+                for (byte c : new byte[] {'A', 'B'}) {
+                    BranchSession branchSession = Mockito.mock(BranchSession.class);
+                    Mockito.when(branchSession.encode()).thenReturn(createBigBranchSessionData(globalSession, c));
+                    mockEncodeIntoBuffer(branchSession);
+                    Mockito.when(branchSession.getTransactionId()).thenReturn(globalSession.getTransactionId());
+                    Mockito.when(branchSession.getBranchId()).thenReturn((long) c);
+                    Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                        TransactionStoreManager.LogOperation.BRANCH_ADD, branchSession));
+                }
+            }
+            for (int i = 0; i < 10; i++) {
+                GlobalSession globalSession = new GlobalSession("", "", "", 60000);
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession));
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_REMOVE, globalSession));
             }
-            SessionManager sessionManagerMock = Mockito.mock(SessionManager.class);
-            Mockito.when(sessionManagerMock.findGlobalSessions(Mockito.any()))
-                    .thenReturn(timeoutSessions);
-            fileTransactionStoreManager = new FileTransactionStoreManager(
-                seataFile.getAbsolutePath(), sessionManagerMock);
-            Assertions.assertTrue((boolean) findTimeoutAndSaveMethod.invoke(fileTransactionStoreManager));
+            // fill the first segment with removed sessions until the writer rolls to the next one
+            File nextSegmentFile = new File(seataFile.getAbsolutePath() + ".segment." + String.format("%020d", 2));
+            AtomicReference<GlobalSession> filler = new AtomicReference<>();
+            BranchSession fillerBranchSession = Mockito.mock(BranchSession.class);
+            Mockito.when(fillerBranchSession.encode()).thenAnswer(
+                invocation -> createBigBranchSessionData(filler.get(), (byte) 'F'));
+            mockEncodeIntoBuffer(fillerBranchSession);
+            Mockito.when(fillerBranchSession.getTransactionId()).thenAnswer(
+                invocation -> filler.get().getTransactionId());
+            Mockito.when(fillerBranchSession.getBranchId()).thenReturn((long) 'F');
+            while (!nextSegmentFile.exists()) {
+                GlobalSession globalSession = new GlobalSession("", "", "", 60000);
+                filler.set(globalSession);
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession));
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.BRANCH_ADD, fillerBranchSession));
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_REMOVE, globalSession));
+            }
+            fileTransactionStoreManager.shutdown();
+            fileTransactionStoreManager = null;
+
+            // the snapshot replaces the first segment and the former data file
+            Assertions.assertTrue(new File(seataFile.getAbsolutePath() + ".snapshot").exists());
+            Assertions.assertFalse(seataFile.exists());
+            Assertions.assertEquals(1, listLogFiles(seataFile, ".segment.").length);
 
             sessionManager = new FileSessionManager(seataFile.getName(), seataFile.getParent());
             sessionManager.reload();
             Collection<GlobalSession> globalSessions = sessionManager.allSessions();
-            Assertions.assertNotNull(globalSessions);
+            Assertions.assertEquals(100, globalSessions.size());
             globalSessions.forEach(g -> {
-                Assertions.assertNotNull(g);
                 List<BranchSession> branches = g.getBranchSessions();
                 Assertions.assertEquals(2, branches.size());
                 Assertions.assertEquals(new String(createBigApplicationData((byte) 'A')), branches.get(0).getApplicationData());
                 Assertions.assertEquals(new String(createBigApplicationData((byte) 'B')), branches.get(1).getApplicationData());
             });
         } finally {
-            findTimeoutAndSaveMethod.setAccessible(false);
             if (fileTransactionStoreManager != null) {
                 fileTransactionStoreManager.shutdown();
             }
             if (sessionManager != null) {
                 sessionManager.destroy();
             }
+            deleteLogFiles(seataFile);
+        }
+    }
+
+    @Test
+    public void testTornFrame() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        FileTransactionStoreManager fileTransactionStoreManager = null;
+        try {
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            List<GlobalSession> globalSessions = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "tx", 60000);
+                globalSessions.add(globalSession);
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession));
+            }
+            fileTransactionStoreManager.shutdown();
+            fileTransactionStoreManager = null;
+
+            // corrupt the body of the last frame, as a crash in the middle of the write would
+            File segmentFile = listLogFiles(seataFile, ".segment.")[0];
+            long lastFrameEnd = 0;
+            for (GlobalSession globalSession : globalSessions) {
+                lastFrameEnd += 8 + globalSession.encode().length + 1;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(segmentFile, "rw")) {
+                raf.seek(lastFrameEnd - 1);
+                int op = raf.read();
+                raf.seek(lastFrameEnd - 1);
+                raf.write(op ^ 0xFF);
+            }
+
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            Assertions.assertTrue(fileTransactionStoreManager.hasRemaining(false));
+            List<TransactionWriteStore> list = fileTransactionStoreManager.readWriteStore(100, false);
+            Assertions.assertEquals(2, list.size());
+            Assertions.assertFalse(fileTransactionStoreManager.hasRemaining(false));
+
+            // the next frame takes the place of the torn one
+            GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "tx", 60000);
+            Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession));
+            fileTransactionStoreManager.shutdown();
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            list = fileTransactionStoreManager.readWriteStore(100, false);
+            Assertions.assertEquals(3, list.size());
+            Assertions.assertEquals(globalSession.getTransactionId(),
+                ((GlobalSession) list.get(2).getSessionRequest()).getTransactionId());
+        } finally {
+            if (fileTransactionStoreManager != null) {
+                fileTransactionStoreManager.shutdown();
+            }
+            deleteLogFiles(seataFile);
+        }
+    }
+
+    @Test
+    public void testConcurrentWrite() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        FileTransactionStoreManager fileTransactionStoreManager = null;
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            FileTransactionStoreManager storeManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            fileTransactionStoreManager = storeManager;
+            Set<Long> transactionIds = ConcurrentHashMap.newKeySet();
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    boolean success = true;
+                    for (int j = 0; j < 50; j++) {
+                        GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "tx", 60000);
+                        transactionIds.add(globalSession.getTransactionId());
+                        success &= storeManager.writeSession(TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession);
+                    }
+                    return success;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+            List<TransactionWriteStore> list = fileTransactionStoreManager.readWriteStore(1000, false);
+            Assertions.assertNotNull(list);
+            Assertions.assertEquals(transactionIds.size(), list.size());
+            for (TransactionWriteStore writeStore : list) {
+                Assertions.assertTrue(transactionIds.contains(
+                    ((GlobalSession) writeStore.getSessionRequest()).getTransactionId()));
+            }
+        } finally {
+            executorService.shutdown();
+            if (fileTransactionStoreManager != null) {
+                fileTransactionStoreManager.shutdown();
+            }
             Assertions.assertTrue(seataFile.delete());
+            deleteLogFiles(seataFile);
+        }
+    }
+
+    private File[] listLogFiles(File seataFile, String infix) {
+        File[] files = seataFile.getParentFile().listFiles(file -> file.getName().startsWith(seataFile.getName() + infix));
+        return files == null ? new File[0] : files;
+    }
+
+    private void deleteLogFiles(File seataFile) {
+        for (File file : listLogFiles(seataFile, ".")) {
+            file.delete();
         }
+        seataFile.delete();
+    }
+
+    private void mockEncodeIntoBuffer(BranchSession branchSession) {
+        Mockito.doAnswer(invocation -> ((ByteBuffer)invocation.getArgument(0)).put(branchSession.encode()))
+                .when(branchSession).encode(Mockito.any(ByteBuffer.class));
     }
 
     private byte[] createBigBranchSessionData(GlobalSession global, byte c) {
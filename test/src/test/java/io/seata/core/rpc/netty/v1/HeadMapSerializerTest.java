@@ -93,4 +93,23 @@ class HeadMapSerializerTest {
 
         byteBuf.release();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testKeyInterned() {
+        HeadMapSerializer mapSerializer = HeadMapSerializer.getInstance();
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("interned-key", "v");
+        ByteBuf byteBuf = ByteBufAllocator.DEFAULT.heapBuffer();
+        int bs = mapSerializer.encode(map, byteBuf);
+        Map<String, String> first = new HashMap<String, String>();
+        mapSerializer.decode(byteBuf, bs, first);
+        bs = mapSerializer.encode(map, byteBuf);
+        Map<String, String> second = new HashMap<String, String>();
+        mapSerializer.decode(byteBuf, bs, second);
+        Assertions.assertEquals(map, second);
+        // the key read again is the same string
+        Assertions.assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+
+        byteBuf.release();
+    }
+}
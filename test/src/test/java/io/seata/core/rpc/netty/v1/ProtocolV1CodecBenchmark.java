@@ -0,0 +1,118 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty.v1;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.rpc.netty.PooledRpcMessage;
+import io.seata.core.serializer.SerializerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The allocations of the v1 protocol for a tiny message, run {@link #main(String[])} and compare the
+ * gc.alloc.rate.norm of the gc profiler, in bytes per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocolV1CodecBenchmark {
+
+    private final ProtocolV1Encoder encoder = new ProtocolV1Encoder();
+
+    private final ProtocolV1Decoder decoder = new ProtocolV1Decoder();
+
+    private BranchReportRequest body;
+
+    private ByteBuf buffer;
+
+    @Setup
+    public void setup() {
+        body = new BranchReportRequest();
+        body.setXid("127.0.0.1:8091:2000042948");
+        body.setBranchId(2000042949L);
+        body.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        body.setStatus(BranchStatus.PhaseOne_Done);
+        buffer = Unpooled.buffer(1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public Object encodeDecode() {
+        return roundTrip(fill(new RpcMessage()));
+    }
+
+    @Benchmark
+    public Object encodeDecodeWithHead() {
+        RpcMessage rpcMessage = fill(new RpcMessage());
+        rpcMessage.putHead("sw8", "1-YWJj-ZGVm-0-c2VhdGE=-MQ==-L3Rlc3Q=-MTI3LjAuMC4xOjgwOTE=");
+        return roundTrip(rpcMessage);
+    }
+
+    @Benchmark
+    public Object encodeDecodePooledResponse() {
+        return roundTrip(fill(PooledRpcMessage.newInstance()));
+    }
+
+    private RpcMessage fill(RpcMessage rpcMessage) {
+        rpcMessage.setId(1);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESPONSE);
+        rpcMessage.setCodec(SerializerType.SEATA.getCode());
+        rpcMessage.setCompressor(CompressorType.NONE.getCode());
+        rpcMessage.setBody(body);
+        return rpcMessage;
+    }
+
+    private Object roundTrip(RpcMessage rpcMessage) {
+        buffer.clear();
+        encoder.encode(null, rpcMessage, buffer);
+        return decoder.decodeFrame(buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ProtocolV1CodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
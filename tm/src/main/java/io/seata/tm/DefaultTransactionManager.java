@@ -35,6 +35,8 @@ import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
 import io.seata.core.rpc.netty.TmNettyRemotingClient;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -90,6 +92,50 @@ public class DefaultTransactionManager implements TransactionManager {
         return response.getGlobalStatus();
     }
 
+    @Override
+    public CompletableFuture<String> beginAsync(String applicationId, String transactionServiceGroup, String name,
+                                                int timeout) {
+        GlobalBeginRequest request = new GlobalBeginRequest();
+        request.setTransactionName(name);
+        request.setTimeout(timeout);
+        return asyncCall(request).thenApply(response -> {
+            if (response.getResultCode() == ResultCode.Failed) {
+                throw new CompletionException(
+                    new TmTransactionException(TransactionExceptionCode.BeginFailed, response.getMsg()));
+            }
+            return ((GlobalBeginResponse) response).getXid();
+        });
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> commitAsync(String xid) {
+        GlobalCommitRequest globalCommit = new GlobalCommitRequest();
+        globalCommit.setXid(xid);
+        return asyncCall(globalCommit).thenApply(response -> ((GlobalCommitResponse) response).getGlobalStatus());
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> rollbackAsync(String xid) {
+        GlobalRollbackRequest globalRollback = new GlobalRollbackRequest();
+        globalRollback.setXid(xid);
+        return asyncCall(globalRollback).thenApply(response -> ((GlobalRollbackResponse) response).getGlobalStatus());
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> getStatusAsync(String xid) {
+        GlobalStatusRequest queryGlobalStatus = new GlobalStatusRequest();
+        queryGlobalStatus.setXid(xid);
+        return asyncCall(queryGlobalStatus).thenApply(response -> ((GlobalStatusResponse) response).getGlobalStatus());
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> globalReportAsync(String xid, GlobalStatus globalStatus) {
+        GlobalReportRequest globalReport = new GlobalReportRequest();
+        globalReport.setXid(xid);
+        globalReport.setGlobalStatus(globalStatus);
+        return asyncCall(globalReport).thenApply(response -> ((GlobalReportResponse) response).getGlobalStatus());
+    }
+
     private AbstractTransactionResponse syncCall(AbstractTransactionRequest request) throws TransactionException {
         try {
             return (AbstractTransactionResponse) TmNettyRemotingClient.getInstance().sendSyncRequest(request);
@@ -97,4 +143,26 @@ public class DefaultTransactionManager implements TransactionManager {
             throw new TmTransactionException(TransactionExceptionCode.IO, "RPC timeout", toe);
         }
     }
+
+    /**
+     * The response comes on the thread of the rpc client, which the dependent actions should not hold for long.
+     */
+    private CompletableFuture<AbstractTransactionResponse> asyncCall(AbstractTransactionRequest request) {
+        CompletableFuture<AbstractTransactionResponse> future = new CompletableFuture<>();
+        TmNettyRemotingClient.getInstance().sendAsyncRequest(request).whenComplete((result, cause) -> {
+            if (cause == null) {
+                future.complete((AbstractTransactionResponse) result);
+                return;
+            }
+            Throwable actual = cause instanceof CompletionException && cause.getCause() != null
+                ? cause.getCause() : cause;
+            if (actual instanceof TimeoutException) {
+                future.completeExceptionally(
+                    new TmTransactionException(TransactionExceptionCode.IO, "RPC timeout", actual));
+            } else {
+                future.completeExceptionally(actual);
+            }
+        });
+        return future;
+    }
 }